@@ -0,0 +1,28 @@
+package com.utility.apigateway.security;
+
+import com.utility.common.security.JwtVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// the gateway mints the identity header rather than accepting one; it needs
+// the same jwt.secret as auth-service and refuses to start without it
+@Component
+public class JwtUtil extends JwtVerifier {
+
+    public JwtUtil(
+            @Value("${jwt.secret:}") String secret,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${jwt.cache.max-ttl-ms:300000}") long cacheMaxTtlMs
+    ) {
+        super(requireSecret(secret), null, cacheMaxEntries, cacheMaxTtlMs);
+    }
+
+    private static String requireSecret(String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException(
+                    "jwt.secret must be set for the api-gateway (the same secret auth-service signs tokens with, "
+                            + "e.g. jwt.secret=${JWT_SECRET})");
+        }
+        return secret;
+    }
+}
@@ -3,6 +3,7 @@ package com.utility.auth.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -21,10 +22,12 @@ public class AccountRequest {
     private String requestId;
 
     private String name;
+    @Indexed
     private String email;
     private String phone;
     private String address;
 
+    @Indexed
     private AccountRequestStatus status;
 
     private LocalDateTime createdAt;
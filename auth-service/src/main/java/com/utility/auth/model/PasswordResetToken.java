@@ -3,6 +3,8 @@ package com.utility.auth.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -11,6 +13,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "password_reset_tokens")
+@CompoundIndex(name = "email_used_idx", def = "{'email': 1, 'used': 1}")
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,6 +23,7 @@ public class PasswordResetToken {
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String token;
 
     private String email;
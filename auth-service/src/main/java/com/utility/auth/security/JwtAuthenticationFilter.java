@@ -8,6 +8,9 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.utility.common.security.IdentityHeader;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,10 +35,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             String token = authHeader.substring(7);
 
-            if (jwtUtil.isTokenValid(token)) {
+            Claims claims = jwtUtil.authenticate(request.getHeader(IdentityHeader.NAME), token);
+
+            if (claims != null) {
 
-                String userId = jwtUtil.extractUserId(token);
-                String role = jwtUtil.extractRole(token);
+                String userId = claims.get("userId", String.class);
+                String role = claims.get("role", String.class);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
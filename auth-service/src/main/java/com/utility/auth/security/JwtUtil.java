@@ -1,26 +1,34 @@
 package com.utility.auth.security;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
+import javax.crypto.SecretKey;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import io.jsonwebtoken.Claims;
+import com.utility.common.security.JwtVerifier;
+
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 @Component
-public class JwtUtil {
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+public class JwtUtil extends JwtVerifier {
+
+    private final long jwtExpiration;
+    private final SecretKey signingKey;
+
+    public JwtUtil(
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${gateway.identity.secret:${jwt.secret}}") String identitySecret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${jwt.cache.max-ttl-ms:300000}") long cacheMaxTtlMs
+    ) {
+        super(jwtSecret, identitySecret, cacheMaxEntries, cacheMaxTtlMs);
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
     }
 
     public String generateToken(String userId, String username, String role) {
@@ -30,35 +38,7 @@ public class JwtUtil {
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
-
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
-    public String extractUserId(String token) {
-        return extractAllClaims(token).get("userId", String.class);
-    }
-
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
-    }
-
-    public boolean isTokenValid(String token) {
-        try {
-            extractAllClaims(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
-        }
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-}
\ No newline at end of file
+}
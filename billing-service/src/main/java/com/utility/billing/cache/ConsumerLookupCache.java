@@ -0,0 +1,74 @@
+package com.utility.billing.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.utility.billing.feign.ConnectionClient;
+import com.utility.billing.feign.ConsumerClient;
+import com.utility.billing.feign.ConsumerConnectionResponse;
+import com.utility.billing.feign.ConsumerResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// consumer-service data changes rarely; invalidated by ConsumerChangeListener
+@Component
+public class ConsumerLookupCache {
+
+    private final ConnectionClient connectionClient;
+    private final ConsumerClient consumerClient;
+
+    private final LookupCache<ConsumerConnectionResponse> connections;
+    private final LookupCache<ConsumerResponse> consumers;
+
+    public ConsumerLookupCache(
+            ConnectionClient connectionClient,
+            ConsumerClient consumerClient,
+            MeterRegistry meterRegistry,
+            @Value("${lookup.cache.max-size:10000}") long maxSize,
+            @Value("${lookup.cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.connectionClient = connectionClient;
+        this.consumerClient = consumerClient;
+
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        this.connections = new LookupCache<>("connections", maxSize, ttl, meterRegistry);
+        this.consumers = new LookupCache<>("consumers", maxSize, ttl, meterRegistry);
+    }
+
+    public ConsumerConnectionResponse getConnection(String connectionId) {
+        return connections.get(connectionId, connectionClient::getConnectionById);
+    }
+
+    public ConsumerResponse getConsumer(String consumerId) {
+        return consumers.get(consumerId, consumerClient::getConsumerById);
+    }
+
+    // consumers that are cached plus one batch call for the rest
+    public Map<String, ConsumerResponse> getConsumers(Collection<String> consumerIds) {
+        return consumers.getAll(
+                consumerIds,
+                ids -> consumerClient.getConsumersByIds(ids)
+                        .stream()
+                        .collect(Collectors.toMap(
+                                ConsumerResponse::getId,
+                                Function.identity(),
+                                (a, b) -> a
+                        ))
+        );
+    }
+
+    public void evictConnection(String connectionId) {
+        connections.evict(connectionId);
+    }
+
+    public void evictConsumer(String consumerId) {
+        consumers.evict(consumerId);
+    }
+}
@@ -16,10 +16,10 @@ import com.utility.billing.feign.MeterReadingClient;
 import com.utility.billing.feign.MeterReadingResponse;
 import com.utility.billing.model.Bill;
 import com.utility.billing.model.BillStatus;
-import com.utility.billing.model.TariffSlab;
 import com.utility.billing.model.UtilityType;
 import com.utility.billing.repository.BillRepository;
-import com.utility.billing.repository.TariffSlabRepository;
+import com.utility.billing.service.CompiledTariff;
+import com.utility.billing.service.TariffEngine;
 
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
@@ -29,7 +29,7 @@ import lombok.RequiredArgsConstructor;
 public class BillingDataSeeder {
 
     private final BillRepository billRepo;
-    private final TariffSlabRepository slabRepo;
+    private final TariffEngine tariffEngine;
     private final ConnectionClient connectionClient;
     private final MeterReadingClient meterClient;
 
@@ -157,30 +157,10 @@ public class BillingDataSeeder {
             long units
     ) {
 
-        List<TariffSlab> slabs =
-                slabRepo.findByUtilityTypeAndPlanCodeOrderByMinUnitsAsc(
-                        type,
-                        plan
-                );
-
-        double amount = 0;
-        long remaining = units;
-
-        for (TariffSlab slab : slabs) {
-
-            long slabUnits =
-                    Math.min(
-                            remaining,
-                            slab.getMaxUnits() - slab.getMinUnits() + 1
-                    );
-
-            if (slabUnits > 0) {
-                amount += slabUnits * slab.getRate();
-                remaining -= slabUnits;
-            }
-        }
+        CompiledTariff tariff =
+                tariffEngine.current().find(type, plan);
 
-        return amount;
+        return tariff == null ? 0 : tariff.charge(units);
     }
 
     private double fixedCharge(UtilityType type) {
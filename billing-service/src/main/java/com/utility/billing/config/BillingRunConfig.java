@@ -0,0 +1,51 @@
+package com.utility.billing.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BillingRunConfig {
+
+    // one run at a time drives the paging loop
+    @Bean(name = "billingRunExecutor")
+    public ThreadPoolTaskExecutor billingRunExecutor() {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("billing-run-");
+        executor.initialize();
+        return executor;
+    }
+
+    // CPU-bound bill computation for the chunks of a page
+    @Bean(name = "billingComputePool", destroyMethod = "shutdown")
+    public ExecutorService billingComputePool(
+            @Value("${billing.run.parallelism:4}") int parallelism
+    ) {
+        return Executors.newFixedThreadPool(parallelism);
+    }
+
+    // bounded: when the queue is full the streaming thread runs the batch itself
+    @Bean(name = "billingReminderExecutor")
+    public ThreadPoolTaskExecutor billingReminderExecutor(
+            @Value("${billing.reminder.parallelism:8}") int parallelism
+    ) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism * 2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bill-reminder-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,10 @@
 package com.utility.billing.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -11,8 +16,41 @@ public class RabbitConfig {
 
     public static final String EXCHANGE = "notification.exchange";
     public static final String BILL_ROUTING_KEY = "bill.generated";
+    public static final String BILL_PAID_KEY = "bill.paid";
     public static final String BILL_REMINDER_KEY = "bill.due.reminder";
-    
+    public static final String BILL_OVERDUE_KEY = "bill.overdue";
+    public static final String CONSUMER_CHANGED_KEY = "consumer.changed";
+    public static final String CONNECTION_CHANGED_KEY = "connection.changed";
+
+    @Bean
+    public DirectExchange notificationExchange() {
+        return new DirectExchange(EXCHANGE);
+    }
+
+    // auto-deleted queues per instance, so every replica drops its cached copy
+    @Bean
+    public Queue consumerChangesQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Queue connectionChangesQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding consumerChangedBinding() {
+        return BindingBuilder.bind(consumerChangesQueue())
+                .to(notificationExchange())
+                .with(CONSUMER_CHANGED_KEY);
+    }
+
+    @Bean
+    public Binding connectionChangedBinding() {
+        return BindingBuilder.bind(connectionChangesQueue())
+                .to(notificationExchange())
+                .with(CONNECTION_CHANGED_KEY);
+    }
 
     @Bean
     public Jackson2JsonMessageConverter jsonMessageConverter() {
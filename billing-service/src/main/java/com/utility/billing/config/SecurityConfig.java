@@ -1,5 +1,7 @@
 package com.utility.billing.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +19,7 @@ import com.utility.billing.security.JwtUtil;
 public class SecurityConfig {
 
     private static final String BILLS = "/bills";
+    private static final String BILLING_RUNS = "/bills/runs";
     private static final String ADMIN = "ADMIN";
     private static final String BILLING_OFFICER = "BILLING_OFFICER";
     private static final String CONSUMER = "CONSUMER";
@@ -37,6 +40,9 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
 
+                        // streamed bodies finish on an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         .requestMatchers(
                                 HttpMethod.POST,
                                 "/tariffs/plans"
@@ -62,16 +68,49 @@ public class SecurityConfig {
                                 "/tariffs"
                         ).hasAnyRole(ADMIN, BILLING_OFFICER, CONSUMER)
 
+                        .requestMatchers(
+                                HttpMethod.POST,
+                                BILLING_RUNS,
+                                BILLING_RUNS + "/*/resume"
+                        ).hasAnyRole(ADMIN, BILLING_OFFICER)
+
+                        .requestMatchers(
+                                HttpMethod.GET,
+                                BILLING_RUNS,
+                                BILLING_RUNS + "/**"
+                        ).hasAnyRole(ADMIN, BILLING_OFFICER)
+
                         .requestMatchers(
                                 HttpMethod.POST,
                                 BILLS
                         ).hasRole(BILLING_OFFICER)
 
+                        .requestMatchers(
+                                HttpMethod.POST,
+                                "/bills/outbox/replay"
+                        ).hasRole(ADMIN)
+
+                        .requestMatchers(
+                                HttpMethod.POST,
+                                "/bills/batch"
+                        ).hasAnyRole(
+                                CONSUMER,
+                                ACCOUNTS_OFFICER,
+                                BILLING_OFFICER,
+                                ADMIN
+                        )
+
                         .requestMatchers(
                                 HttpMethod.GET,
-                                BILLS
+                                BILLS,
+                                BILLS + "/stream"
                         ).permitAll()
 
+                        .requestMatchers(
+                                HttpMethod.GET,
+                                "/bills/export"
+                        ).hasAnyRole(ADMIN, BILLING_OFFICER, ACCOUNTS_OFFICER)
+
                         .requestMatchers(
                                 HttpMethod.GET,
                                 "/bills/**"
@@ -82,6 +121,11 @@ public class SecurityConfig {
                                 ADMIN
                         )
 
+                        .requestMatchers(
+                                HttpMethod.GET,
+                                "/dashboard/billing/overview"
+                        ).hasAnyRole(ADMIN, BILLING_OFFICER)
+
                         .requestMatchers(
                                 HttpMethod.GET,
                                 "/dashboard/bills-summary"
@@ -12,6 +12,7 @@ import com.utility.billing.model.TariffSlab;
 import com.utility.billing.model.UtilityType;
 import com.utility.billing.repository.TariffPlanRepository;
 import com.utility.billing.repository.TariffSlabRepository;
+import com.utility.billing.service.TariffEngine;
 
 @Configuration
 public class TariffDataLoader {
@@ -27,7 +28,8 @@ public class TariffDataLoader {
     @Bean
     CommandLineRunner loadTariffData(
             TariffPlanRepository planRepo,
-            TariffSlabRepository slabRepo
+            TariffSlabRepository slabRepo,
+            TariffEngine tariffEngine
     ) {
 
         return args -> {
@@ -320,6 +322,8 @@ public class TariffDataLoader {
                     )
             );
             slabRepo.saveAll(internetSlabs);
+
+            tariffEngine.reload();
         };
     }
 }
\ No newline at end of file
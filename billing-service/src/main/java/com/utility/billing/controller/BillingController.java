@@ -1,14 +1,19 @@
 package com.utility.billing.controller;
 
+import com.utility.billing.dto.BillPageResponse;
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.GenerateBillRequest;
 import com.utility.billing.model.BillStatus;
+import com.utility.billing.service.BillQueryService;
 import com.utility.billing.service.BillingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -18,6 +23,7 @@ import java.util.List;
 public class BillingController {
 
     private final BillingService service;
+    private final BillQueryService queryService;
 
     @PostMapping
     public ResponseEntity<BillResponse> generate(@Valid @RequestBody GenerateBillRequest request) {
@@ -37,6 +43,10 @@ public class BillingController {
     public BillResponse getBillById(@PathVariable("billId") String billId) {
         return service.getBillById(billId);
     }
+    @PostMapping("/batch")
+    public List<BillResponse> getBillsByIds(@RequestBody List<String> billIds) {
+        return service.getBillsByIds(billIds);
+    }
     @GetMapping
     public List<BillResponse> getAllBills(
             @RequestParam(name = "status", required = false) BillStatus status,
@@ -46,5 +56,43 @@ public class BillingController {
     ) {
         return service.getAllBills(status, month, year, consumerId);
     }
+
+    @GetMapping(params = "limit")
+    public BillPageResponse getBillsPage(
+            @RequestParam(name = "status", required = false) BillStatus status,
+            @RequestParam(name = "month", required = false) Integer month,
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "consumerId", required = false) String consumerId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit") Integer limit
+    ) {
+        return queryService.getBillsPage(status, month, year, consumerId, cursor, limit);
+    }
+
+    // rows are written as they arrive; no request thread waits on Mongo meanwhile
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BillResponse> streamBills(
+            @RequestParam(name = "status", required = false) BillStatus status,
+            @RequestParam(name = "month", required = false) Integer month,
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "consumerId", required = false) String consumerId
+    ) {
+        return queryService.streamBills(status, month, year, consumerId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "status", required = false) BillStatus status,
+            @RequestParam(name = "month", required = false) Integer month,
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "consumerId", required = false) String consumerId
+    ) {
+        StreamingResponseBody body =
+                out -> queryService.exportBills(status, month, year, consumerId, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
     
 }
\ No newline at end of file
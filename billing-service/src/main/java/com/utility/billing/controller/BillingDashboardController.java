@@ -2,9 +2,11 @@ package com.utility.billing.controller;
 
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.dashboard.AverageConsumptionDto;
+import com.utility.billing.dto.dashboard.BillingDashboardDto;
 import com.utility.billing.dto.dashboard.BillsSummaryDto;
 import com.utility.billing.dto.dashboard.ConsumerBillingSummaryDto;
 import com.utility.billing.dto.dashboard.ConsumptionSummaryDto;
+import com.utility.billing.dto.dashboard.MonthlyBilledDto;
 import com.utility.billing.service.BillingDashboardService;
 import com.utility.billing.service.BillingService;
 
@@ -22,6 +24,13 @@ public class BillingDashboardController {
 	private final BillingDashboardService dashboardService;
 	private final BillingService billingService;
 
+	@GetMapping("/overview")
+	public BillingDashboardDto overview( @RequestParam(name = "month") int month,
+            @RequestParam(name = "year") int year) {
+
+		return dashboardService.getDashboard(month, year);
+	}
+
 	@GetMapping("/bills-summary")
 	public BillsSummaryDto billsSummary( @RequestParam(name = "month") int month,
             @RequestParam(name = "year") int year) {
@@ -56,6 +65,12 @@ public class BillingDashboardController {
 	    return dashboardService.getTotalBilledForMonth(month, year);
 	}
 
+	@GetMapping("/total-billed-yearly")
+	public List<MonthlyBilledDto> totalBilledByMonth(
+	            @RequestParam(name = "year") int year) {
+	    return dashboardService.getTotalBilledByMonth(year);
+	}
+
 	@GetMapping("/consumer/{consumerId}")
 	public List<BillResponse> consumerBillingHistory(@PathVariable("consumerId") String consumerId) {
 
@@ -0,0 +1,40 @@
+package com.utility.billing.controller;
+
+import com.utility.billing.dto.BillingRunRequest;
+import com.utility.billing.dto.BillingRunResponse;
+import com.utility.billing.service.BillingRunService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/bills/runs")
+@RequiredArgsConstructor
+public class BillingRunController {
+
+    private final BillingRunService service;
+
+    @PostMapping
+    public ResponseEntity<BillingRunResponse> start(@Valid @RequestBody BillingRunRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.startRun(request));
+    }
+
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<BillingRunResponse> resume(@PathVariable("runId") String runId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.resumeRun(runId));
+    }
+
+    @GetMapping("/{runId}")
+    public BillingRunResponse getRun(@PathVariable("runId") String runId) {
+        return service.getRun(runId);
+    }
+
+    @GetMapping
+    public List<BillingRunResponse> getRuns() {
+        return service.getRuns();
+    }
+}
@@ -0,0 +1,30 @@
+package com.utility.billing.controller;
+
+import com.utility.billing.exception.ApiException;
+import com.utility.billing.outbox.Outbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/bills/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final Outbox outbox;
+
+    @PostMapping("/replay")
+    public Map<String, Long> replay(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ApiException("from must be before to", HttpStatus.BAD_REQUEST);
+        }
+        return Map.of("requeued", outbox.replay(from, to));
+    }
+}
@@ -0,0 +1,18 @@
+package com.utility.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillPageResponse {
+
+    private List<BillResponse> items;
+
+    // opaque; pass back as ?cursor= to fetch the next page, null on the last page
+    private String nextCursor;
+}
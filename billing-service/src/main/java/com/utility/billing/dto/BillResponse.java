@@ -15,6 +15,7 @@ public class BillResponse {
 
     private UtilityType utilityType;
     private String tariffPlan;
+    private String tariffVersion;
 
     private int billingMonth;
     private int billingYear;
@@ -0,0 +1,16 @@
+package com.utility.billing.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class BillingRunRequest {
+
+    @Min(1)
+    @Max(12)
+    private int billingMonth;
+
+    @Min(2020)
+    private int billingYear;
+}
@@ -0,0 +1,23 @@
+package com.utility.billing.dto;
+
+import com.utility.billing.model.BillingRunStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BillingRunResponse {
+
+    private String id;
+    private int billingMonth;
+    private int billingYear;
+    private BillingRunStatus status;
+    private String lastConnectionId;
+    private long processedConnections;
+    private long generatedBills;
+    private long skippedConnections;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,6 @@
+package com.utility.billing.dto;
+
+public record OverdueSweepResult(
+        long processed,
+        long durationMs
+) {}
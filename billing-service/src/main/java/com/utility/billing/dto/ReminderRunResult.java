@@ -0,0 +1,8 @@
+package com.utility.billing.dto;
+
+public record ReminderRunResult(
+        long bills,
+        long sent,
+        long failed,
+        long durationMs
+) {}
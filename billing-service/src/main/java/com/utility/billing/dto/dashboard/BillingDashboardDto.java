@@ -0,0 +1,16 @@
+package com.utility.billing.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BillingDashboardDto {
+    private BillsSummaryDto billsSummary;
+    private double totalBilled;
+    private double totalPaid;
+    private List<ConsumptionSummaryDto> consumptionSummary;
+    private List<AverageConsumptionDto> averageConsumption;
+}
@@ -0,0 +1,11 @@
+package com.utility.billing.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MonthlyBilledDto {
+    private int month;
+    private double totalBilled;
+}
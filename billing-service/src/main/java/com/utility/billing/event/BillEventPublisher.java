@@ -4,8 +4,11 @@ import com.utility.billing.config.RabbitConfig;
 import com.utility.common.dto.event.BillDueReminderEvent;
 import com.utility.common.dto.event.BillGeneratedEvent;
 
+import java.util.List;
+
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,6 +17,9 @@ public class BillEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
 
+    @Value("${billing.reminder.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
     public void publish(BillGeneratedEvent event) {
 
         rabbitTemplate.convertAndSend(
@@ -22,6 +28,7 @@ public class BillEventPublisher {
                 event
         );
     }
+
     public void publishDueReminder(BillDueReminderEvent event) {
 
         rabbitTemplate.convertAndSend(
@@ -30,4 +37,24 @@ public class BillEventPublisher {
                 event
         );
     }
-}
\ No newline at end of file
+
+    // one channel per batch; throws if the broker does not confirm every message
+    public void publishDueReminders(List<BillDueReminderEvent> events) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        rabbitTemplate.invoke(ops -> {
+            for (BillDueReminderEvent event : events) {
+                ops.convertAndSend(
+                        RabbitConfig.EXCHANGE,
+                        RabbitConfig.BILL_REMINDER_KEY,
+                        event
+                );
+            }
+            ops.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+}
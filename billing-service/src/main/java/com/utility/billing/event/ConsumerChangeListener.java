@@ -0,0 +1,27 @@
+package com.utility.billing.event;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.utility.billing.cache.ConsumerLookupCache;
+import com.utility.common.dto.event.ConnectionChangedEvent;
+import com.utility.common.dto.event.ConsumerChangedEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ConsumerChangeListener {
+
+    private final ConsumerLookupCache lookupCache;
+
+    @RabbitListener(queues = "#{consumerChangesQueue.name}")
+    public void onConsumerChanged(ConsumerChangedEvent event) {
+        lookupCache.evictConsumer(event.getConsumerId());
+    }
+
+    @RabbitListener(queues = "#{connectionChangesQueue.name}")
+    public void onConnectionChanged(ConnectionChangedEvent event) {
+        lookupCache.evictConnection(event.getConnectionId());
+    }
+}
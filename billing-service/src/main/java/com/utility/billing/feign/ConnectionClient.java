@@ -4,6 +4,7 @@ import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 @FeignClient(
@@ -19,4 +20,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 	    );
 	    @GetMapping("/internal/all")
 	    List<ConsumerConnectionResponse> getAllConnections();
+
+	    @GetMapping("/internal/active")
+	    List<ConsumerConnectionResponse> getActiveConnectionsPage(
+	    		@RequestParam(name = "afterId", required = false) String afterId,
+	    		@RequestParam(name = "limit") int limit
+	    );
 	}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.utility.billing.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(
 	    name = "consumer-service",
@@ -15,4 +19,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 	    ConsumerResponse getConsumerById(
 	    		@PathVariable("id") String id
 	    );
+
+	    @PostMapping("/internal/batch")
+	    List<ConsumerResponse> getConsumersByIds(
+	    		@RequestBody List<String> ids
+	    );
 	}
\ No newline at end of file
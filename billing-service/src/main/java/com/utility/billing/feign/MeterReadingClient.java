@@ -5,6 +5,9 @@ import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(
 	    name = "meter-reading-service",
@@ -22,4 +25,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 	    MeterReadingResponse getLatest(
 	    		@PathVariable("connectionId") String connectionId
 	    );
+
+	    @PostMapping("/internal/batch")
+	    List<MeterReadingResponse> getReadingsForConnections(
+	    		@RequestParam("month") int month,
+	    		@RequestParam("year") int year,
+	    		@RequestBody List<String> connectionIds
+	    );
 	}
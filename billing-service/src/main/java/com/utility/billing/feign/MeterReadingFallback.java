@@ -25,4 +25,17 @@ public class MeterReadingFallback implements MeterReadingClient {
 
         return List.of();
     }
+
+    @Override
+    public List<MeterReadingResponse> getReadingsForConnections(
+            int month,
+            int year,
+            List<String> connectionIds
+    ) {
+
+        throw new ApiException(
+                "MeterReading service unavailable (getReadingsForConnections)",
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
 }
\ No newline at end of file
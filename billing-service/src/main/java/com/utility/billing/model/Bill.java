@@ -2,12 +2,23 @@ package com.utility.billing.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 
 @Data
 @Document(collection = "bills")
+@CompoundIndexes({
+    @CompoundIndex(name = "period_keyset_idx", def = "{'billingYear': -1, 'billingMonth': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_period_keyset_idx", def = "{'status': 1, 'billingYear': -1, 'billingMonth': -1, '_id': -1}"),
+    @CompoundIndex(name = "consumer_period_keyset_idx", def = "{'consumerId': 1, 'billingYear': -1, 'billingMonth': -1, '_id': -1}"),
+    @CompoundIndex(name = "period_status_idx", def = "{'billingYear': 1, 'billingMonth': 1, 'status': 1}"),
+    @CompoundIndex(name = "status_due_idx", def = "{'status': 1, 'dueDate': 1}"),
+    // one bill per connection and period, whether it came from a billing run or generateBill
+    @CompoundIndex(name = "connection_period_idx", def = "{'connectionId': 1, 'billingYear': -1, 'billingMonth': -1}", unique = true)
+})
 public class Bill {
 
     @Id
@@ -18,6 +29,7 @@ public class Bill {
 
     private UtilityType utilityType;
     private String tariffPlan;          
+    private String tariffVersion;
 
     private int billingMonth;          
     private int billingYear;           
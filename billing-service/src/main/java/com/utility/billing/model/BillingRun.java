@@ -0,0 +1,38 @@
+package com.utility.billing.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "billing_runs")
+@CompoundIndex(name = "period_idx", def = "{'billingYear': 1, 'billingMonth': 1}", unique = true)
+public class BillingRun {
+
+    @Id
+    private String id;
+
+    private int billingMonth;
+    private int billingYear;
+
+    @Indexed
+    private BillingRunStatus status;
+
+    // last connection id fully processed; a resumed run continues after it
+    private String lastConnectionId;
+
+    private long processedConnections;
+    private long generatedBills;
+    private long skippedConnections;
+
+    @Indexed
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    private String errorMessage;
+}
@@ -0,0 +1,7 @@
+package com.utility.billing.model;
+
+public enum BillingRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -3,6 +3,8 @@ package com.utility.billing.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.NoArgsConstructor;
 
@@ -11,6 +13,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor              
 
 @Document(collection = "tariff_plans")
+@CompoundIndex(name = "utility_plan_idx", def = "{'utilityType': 1, 'planCode': 1, 'active': 1}")
 public class TariffPlan {
 
     @Id
@@ -19,6 +22,7 @@ public class TariffPlan {
     private UtilityType utilityType;   
     private String planCode;           
 
+    @Indexed
     private boolean active;
     public TariffPlan(UtilityType utilityType, String planCode, boolean active) {
         this.utilityType = utilityType;
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.NoArgsConstructor;
 
@@ -12,6 +13,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor   
 @NoArgsConstructor  
 @Document(collection = "tariff_slabs")
+@CompoundIndex(name = "utility_plan_min_idx", def = "{'utilityType': 1, 'planCode': 1, 'minUnits': 1}")
 public class TariffSlab {
 
     @Id
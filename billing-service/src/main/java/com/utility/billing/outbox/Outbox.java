@@ -0,0 +1,91 @@
+package com.utility.billing.outbox;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+ * Events are written to the outbox collection next to the entity they describe
+ * and published later by OutboxRelay, so the request never waits on the broker
+ * and a broker outage does not lose them.
+ */
+@Component
+public class Outbox {
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactions;
+
+    public Outbox(
+            MongoTemplate mongoTemplate,
+            ObjectProvider<MongoTransactionManager> transactionManager
+    ) {
+        this.mongoTemplate = mongoTemplate;
+
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactions = manager == null ? null : new TransactionTemplate(manager);
+    }
+
+    // entity write + add() in one transaction when Mongo runs as a replica set
+    // (billing.outbox.transactions=true); otherwise the two writes run in order
+    public <T> T atomically(Supplier<T> work) {
+        return transactions == null
+                ? work.get()
+                : transactions.execute(status -> work.get());
+    }
+
+    public void add(String exchange, String routingKey, Object payload) {
+        mongoTemplate.insert(event(exchange, routingKey, payload, Instant.now()));
+    }
+
+    // one insert for a batch of events on the same route
+    public void addAll(String exchange, String routingKey, List<?> payloads) {
+
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+
+        mongoTemplate.insert(
+                payloads.stream().map(p -> event(exchange, routingKey, p, now)).toList(),
+                OutboxEvent.class
+        );
+    }
+
+    private static OutboxEvent event(String exchange, String routingKey, Object payload, Instant createdAt) {
+
+        OutboxEvent event = new OutboxEvent();
+        event.setExchange(exchange);
+        event.setRoutingKey(routingKey);
+        event.setPayload(payload);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    // queues events created in [from, to) for publishing again
+    public long replay(Instant from, Instant to) {
+
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("createdAt").gte(from).lt(to)
+                        .and("status").in(OutboxStatus.SENT, OutboxStatus.FAILED)),
+                new Update()
+                        .set("status", OutboxStatus.PENDING)
+                        .set("attempts", 0)
+                        .unset("lastError")
+                        .unset("lockedBy")
+                        .unset("lockedUntil")
+                        .unset("sentAt"),
+                OutboxEvent.class
+        ).getModifiedCount();
+    }
+}
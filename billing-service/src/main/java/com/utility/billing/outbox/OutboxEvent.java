@@ -0,0 +1,38 @@
+package com.utility.billing.outbox;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "outbox")
+@CompoundIndex(name = "status_created_idx", def = "{'status': 1, 'createdAt': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private String exchange;
+    private String routingKey;
+
+    // stored with its _class so the relay publishes the original event type
+    private Object payload;
+
+    private OutboxStatus status;
+    private int attempts;
+    private String lastError;
+
+    // relay lease; an expired lease makes the event claimable again
+    private String lockedBy;
+    private Instant lockedUntil;
+
+    private Instant createdAt;
+
+    // sent events are kept for a week so they can be replayed
+    @Indexed(name = "sent_ttl_idx", expireAfter = "7d")
+    private Instant sentAt;
+}
@@ -0,0 +1,254 @@
+package com.utility.billing.outbox;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.utility.billing.cache.ConsumerLookupCache;
+import com.utility.billing.feign.ConsumerResponse;
+import com.utility.common.dto.event.BillGeneratedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Drains the outbox in createdAt order. Each batch is leased to this instance,
+ * published on one channel and confirmed by the broker before it is marked
+ * sent, so delivery is at-least-once across restarts and replicas.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final ConsumerLookupCache lookupCache;
+
+    private final int batchSize;
+    private final long leaseMs;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OutboxRelay(
+            MongoTemplate mongoTemplate,
+            RabbitTemplate rabbitTemplate,
+            ConsumerLookupCache lookupCache,
+            @Value("${billing.outbox.batch-size:200}") int batchSize,
+            @Value("${billing.outbox.lease-ms:30000}") long leaseMs,
+            @Value("${billing.outbox.confirm-timeout-ms:10000}") long confirmTimeoutMs,
+            @Value("${billing.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${billing.outbox.backoff-ms:1000}") long backoffMs
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.lookupCache = lookupCache;
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${billing.outbox.poll-ms:500}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // keep going while there is a backlog
+        }
+    }
+
+    // returns how many events were claimed
+    public int relayBatch() {
+
+        List<OutboxEvent> batch = claim();
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> ready = withEmails(batch);
+
+        try {
+            rabbitTemplate.invoke(ops -> {
+                for (OutboxEvent event : ready) {
+                    ops.convertAndSend(
+                            event.getExchange(),
+                            event.getRoutingKey(),
+                            event.getPayload()
+                    );
+                }
+                ops.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+
+            markSent(ready);
+
+        } catch (RuntimeException ex) {
+            log.warn("Outbox batch of {} events not confirmed: {}", ready.size(), ex.getMessage());
+            ready.forEach(event -> retryLater(event, ex.getMessage()));
+        }
+
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim() {
+
+        Instant now = Instant.now();
+
+        Query candidates =
+                new Query(claimable(now))
+                        .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                        .limit(batchSize);
+        candidates.fields().include("_id");
+
+        List<String> ids =
+                mongoTemplate.find(candidates, OutboxEvent.class)
+                        .stream()
+                        .map(OutboxEvent::getId)
+                        .toList();
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // another relay may take some of these between the find and the update
+        mongoTemplate.updateMulti(
+                new Query(claimable(now).and("_id").in(ids)),
+                new Update()
+                        .set("lockedBy", instanceId)
+                        .set("lockedUntil", now.plusMillis(leaseMs)),
+                OutboxEvent.class
+        );
+
+        return mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids)
+                        .and("lockedBy").is(instanceId)
+                        .and("lockedUntil").gt(now))
+                        .with(Sort.by(Sort.Direction.ASC, "createdAt")),
+                OutboxEvent.class
+        );
+    }
+
+    private static Criteria claimable(Instant now) {
+        return Criteria.where("status").is(OutboxStatus.PENDING)
+                .orOperator(
+                        Criteria.where("lockedUntil").is(null),
+                        Criteria.where("lockedUntil").lt(now)
+                );
+    }
+
+    // bill events are written without the email; look them up here in one call
+    private List<OutboxEvent> withEmails(List<OutboxEvent> batch) {
+
+        List<String> consumerIds =
+                batch.stream()
+                        .map(OutboxEvent::getPayload)
+                        .filter(BillGeneratedEvent.class::isInstance)
+                        .map(BillGeneratedEvent.class::cast)
+                        .filter(event -> event.getEmail() == null)
+                        .map(BillGeneratedEvent::getConsumerId)
+                        .distinct()
+                        .toList();
+
+        if (consumerIds.isEmpty()) {
+            return batch;
+        }
+
+        Map<String, ConsumerResponse> consumers;
+        try {
+            consumers = lookupCache.getConsumers(consumerIds);
+        } catch (RuntimeException ex) {
+            log.warn("Consumer lookup for outbox batch failed: {}", ex.getMessage());
+            batch.forEach(event -> retryLater(event, ex.getMessage()));
+            return List.of();
+        }
+
+        List<OutboxEvent> ready = new ArrayList<>(batch.size());
+
+        for (OutboxEvent event : batch) {
+
+            if (event.getPayload() instanceof BillGeneratedEvent bill && bill.getEmail() == null) {
+
+                ConsumerResponse consumer = consumers.get(bill.getConsumerId());
+
+                // still published: the dashboard counts the bill, notification skips the mail
+                if (consumer == null || consumer.getEmail() == null) {
+                    log.warn("No email for consumer {}, bill {} goes out without one",
+                            bill.getConsumerId(), bill.getBillId());
+                } else {
+                    bill.setEmail(consumer.getEmail());
+                }
+            }
+
+            ready.add(event);
+        }
+
+        return ready;
+    }
+
+    private void markSent(List<OutboxEvent> events) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(events.stream().map(OutboxEvent::getId).toList())),
+                new Update()
+                        .set("status", OutboxStatus.SENT)
+                        .set("sentAt", Instant.now())
+                        .unset("lockedBy")
+                        .unset("lockedUntil"),
+                OutboxEvent.class
+        );
+    }
+
+    // keeps the lease until the backoff has passed so the event is not retried at once
+    private void retryLater(OutboxEvent event, String error) {
+
+        int attempts = event.getAttempts() + 1;
+
+        if (attempts >= maxAttempts) {
+            fail(event, error);
+            return;
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(event.getId())),
+                new Update()
+                        .set("attempts", attempts)
+                        .set("lastError", error)
+                        .set("lockedUntil", Instant.now().plusMillis(backoffMs << Math.min(attempts - 1, 10))),
+                OutboxEvent.class
+        );
+    }
+
+    private void fail(OutboxEvent event, String error) {
+
+        log.error("Outbox event {} to {} failed: {}", event.getId(), event.getRoutingKey(), error);
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(event.getId())),
+                new Update()
+                        .set("status", OutboxStatus.FAILED)
+                        .inc("attempts", 1)
+                        .set("lastError", error)
+                        .unset("lockedBy")
+                        .unset("lockedUntil"),
+                OutboxEvent.class
+        );
+    }
+}
@@ -2,6 +2,7 @@ package com.utility.billing.repository;
 
 import com.utility.billing.model.Bill;
 import com.utility.billing.model.BillStatus;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDate;
@@ -36,4 +37,21 @@ public interface BillRepository extends MongoRepository<Bill, String> {
 	        int billingMonth,
 	        int billingYear
 	);
-}
\ No newline at end of file
+
+	List<Bill> findByConnectionIdInAndBillingMonthAndBillingYear(
+	        List<String> connectionIds,
+	        int billingMonth,
+	        int billingYear
+	);
+
+	@Aggregation(pipeline = {
+	        "{ $group: { _id: null, total: { $sum: '$totalAmount' } } }"
+	})
+	Double sumTotalAmount();
+
+	@Aggregation(pipeline = {
+	        "{ $match: { billingMonth: ?0, billingYear: ?1 } }",
+	        "{ $group: { _id: null, total: { $sum: '$totalAmount' } } }"
+	})
+	Double sumTotalAmountForPeriod(int billingMonth, int billingYear);
+}
@@ -0,0 +1,17 @@
+package com.utility.billing.repository;
+
+import com.utility.billing.model.BillingRun;
+import com.utility.billing.model.BillingRunStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BillingRunRepository extends MongoRepository<BillingRun, String> {
+
+	Optional<BillingRun> findByBillingMonthAndBillingYear(int billingMonth, int billingYear);
+
+	List<BillingRun> findByStatus(BillingRunStatus status);
+
+	List<BillingRun> findAllByOrderByStartedAtDesc();
+}
@@ -1,70 +1,37 @@
 package com.utility.billing.scheduler;
 
 import java.time.LocalDate;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.util.List;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.utility.billing.event.BillEventPublisher;
-import com.utility.billing.feign.ConsumerClient;
-import com.utility.billing.model.Bill;
-import com.utility.billing.model.BillStatus;
-import com.utility.billing.repository.BillRepository;
-import com.utility.common.dto.event.BillDueReminderEvent;
+import com.utility.billing.dto.ReminderRunResult;
+import com.utility.billing.service.DueReminderService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class BillReminderScheduler {
 
-    private final BillRepository billRepository;
-    private final ConsumerClient consumerClient;
-    private final BillEventPublisher billEventPublisher;
-    private static final Logger log =
-            LoggerFactory.getLogger(BillReminderScheduler.class);
+    private final DueReminderService reminderService;
 
-    
     @Scheduled(cron = "0 0 9 * * ?") // every minute for testing 0 */1 * * * ?
     public void sendDueReminders() {
 
         LocalDate start = LocalDate.now().plusDays(2);
-        LocalDate end   = start.plusDays(1); // handles timezone safely
+        LocalDate end   = start.plusDays(1);
 
-        List<Bill> bills =
-            billRepository.findByStatusAndDueDateBetween(
-                BillStatus.DUE,
-                start,
-                end
-            );
+        ReminderRunResult result = reminderService.sendReminders(start, end);
 
-
-        for (Bill bill : bills) {
-            try {
-                var consumer = consumerClient.getConsumerById(bill.getConsumerId());
-
-                BillDueReminderEvent event = new BillDueReminderEvent();
-                event.setBillId(bill.getId());
-                event.setConsumerId(bill.getConsumerId());
-                event.setEmail(consumer.getEmail());
-                event.setAmount(bill.getTotalAmount());
-                event.setDueDate(bill.getDueDate().toString());
-                event.setUtilityType(bill.getUtilityType().name());
-
-                billEventPublisher.publishDueReminder(event);
-
-
-            } catch (Exception ex) {
-                log.error(
-                        "Failed to send due reminder for billId={} consumerId={}",
-                        bill.getId(),
-                        bill.getConsumerId(),
-                        ex
-                );
-            }
-        }
+        log.info(
+                "Due reminders: {} bills, {} sent, {} failed in {} ms",
+                result.bills(),
+                result.sent(),
+                result.failed(),
+                result.durationMs()
+        );
     }
-}
\ No newline at end of file
+}
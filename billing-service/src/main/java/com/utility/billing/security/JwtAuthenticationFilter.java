@@ -10,6 +10,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.utility.common.security.IdentityHeader;
+
 import io.jsonwebtoken.Claims;
 
 import java.io.IOException;
@@ -35,21 +37,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
 
             String token = authHeader.substring(7);
-            Claims claims = jwtUtil.extractClaims(token);
+            Claims claims = jwtUtil.authenticate(request.getHeader(IdentityHeader.NAME), token);
+
+            if (claims != null) {
 
-            String username = claims.getSubject();
-            String role = claims.get("role", String.class);
+                String username = claims.getSubject();
+                String role = claims.get("role", String.class);
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                                username,
+                                null,
+                                List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                        );
 
-            authentication.setDetails(token);
+                authentication.setDetails(token);
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
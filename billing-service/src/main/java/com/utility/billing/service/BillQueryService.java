@@ -0,0 +1,222 @@
+package com.utility.billing.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.billing.dto.BillPageResponse;
+import com.utility.billing.dto.BillResponse;
+import com.utility.billing.exception.ApiException;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.BillStatus;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@Service
+@RequiredArgsConstructor
+public class BillQueryService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    // newest period first; _id breaks ties so the order is total
+    private static final Sort KEYSET_ORDER =
+            Sort.by(
+                    Sort.Order.desc("billingYear"),
+                    Sort.Order.desc("billingMonth"),
+                    Sort.Order.desc("_id")
+            );
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BillPageResponse getBillsPage(
+            BillStatus status,
+            Integer month,
+            Integer year,
+            String consumerId,
+            String cursor,
+            Integer limit
+    ) {
+
+        int pageSize =
+                limit == null || limit <= 0
+                        ? DEFAULT_PAGE_SIZE
+                        : Math.min(limit, MAX_PAGE_SIZE);
+
+        List<Criteria> filters = filters(status, month, year, consumerId);
+
+        if (cursor != null && !cursor.isBlank()) {
+            filters.add(after(Cursor.decode(cursor)));
+        }
+
+        // one extra row tells us whether another page exists
+        Query query =
+                query(filters)
+                        .with(KEYSET_ORDER)
+                        .limit(pageSize + 1);
+
+        List<Bill> bills = mongoTemplate.find(query, Bill.class);
+
+        String nextCursor = null;
+        if (bills.size() > pageSize) {
+            bills = bills.subList(0, pageSize);
+            nextCursor = Cursor.of(bills.get(pageSize - 1)).encode();
+        }
+
+        return new BillPageResponse(
+                bills.stream().map(BillingService::map).toList(),
+                nextCursor
+        );
+    }
+
+    public void exportBills(
+            BillStatus status,
+            Integer month,
+            Integer year,
+            String consumerId,
+            OutputStream out
+    ) throws IOException {
+
+        Query query =
+                query(filters(status, month, year, consumerId))
+                        .with(KEYSET_ORDER)
+                        .cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        int written = 0;
+
+        try (Stream<Bill> bills = mongoTemplate.stream(query, Bill.class)) {
+
+            var iterator = bills.iterator();
+
+            while (iterator.hasNext()) {
+                BillResponse row = BillingService.map(iterator.next());
+
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+
+                if (++written % EXPORT_BATCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        }
+
+        out.flush();
+    }
+
+    // filters and order of getBillsPage; the next batch is fetched only as the client reads
+    public Flux<BillResponse> streamBills(
+            BillStatus status,
+            Integer month,
+            Integer year,
+            String consumerId
+    ) {
+
+        Query query =
+                query(filters(status, month, year, consumerId))
+                        .with(KEYSET_ORDER)
+                        .cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        return reactiveMongoTemplate.find(query, Bill.class)
+                .map(BillingService::map);
+    }
+
+    private List<Criteria> filters(
+            BillStatus status,
+            Integer month,
+            Integer year,
+            String consumerId
+    ) {
+
+        List<Criteria> filters = new ArrayList<>();
+
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        if (consumerId != null) {
+            filters.add(Criteria.where("consumerId").is(consumerId));
+        }
+        if (month != null) {
+            filters.add(Criteria.where("billingMonth").is(month));
+        }
+        if (year != null) {
+            filters.add(Criteria.where("billingYear").is(year));
+        }
+
+        return filters;
+    }
+
+    private Criteria after(Cursor c) {
+
+        return new Criteria().orOperator(
+                Criteria.where("billingYear").lt(c.year()),
+                Criteria.where("billingYear").is(c.year())
+                        .and("billingMonth").lt(c.month()),
+                Criteria.where("billingYear").is(c.year())
+                        .and("billingMonth").is(c.month())
+                        .and("_id").lt(c.id())
+        );
+    }
+
+    private Query query(List<Criteria> filters) {
+
+        return filters.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(filters));
+    }
+
+    record Cursor(int year, int month, String id) {
+
+        static Cursor of(Bill bill) {
+            return new Cursor(bill.getBillingYear(), bill.getBillingMonth(), bill.getId());
+        }
+
+        String encode() {
+            String raw = year + ":" + month + ":" + id;
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+
+            try {
+                String raw =
+                        new String(
+                                Base64.getUrlDecoder().decode(cursor),
+                                StandardCharsets.UTF_8
+                        );
+
+                String[] parts = raw.split(":", 3);
+
+                return new Cursor(
+                        Integer.parseInt(parts[0]),
+                        Integer.parseInt(parts[1]),
+                        parts[2]
+                );
+
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                throw new ApiException(
+                        "Invalid cursor",
+                        HttpStatus.BAD_REQUEST
+                );
+            }
+        }
+    }
+}
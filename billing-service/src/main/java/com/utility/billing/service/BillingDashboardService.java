@@ -1,17 +1,26 @@
 package com.utility.billing.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.dashboard.AverageConsumptionDto;
+import com.utility.billing.dto.dashboard.BillingDashboardDto;
 import com.utility.billing.dto.dashboard.BillsSummaryDto;
 import com.utility.billing.dto.dashboard.ConsumerBillingSummaryDto;
 import com.utility.billing.dto.dashboard.ConsumptionSummaryDto;
+import com.utility.billing.dto.dashboard.MonthlyBilledDto;
 import com.utility.billing.model.Bill;
 import com.utility.billing.model.BillStatus;
+import com.utility.billing.model.UtilityType;
 import com.utility.billing.repository.BillRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -22,6 +31,7 @@ public class BillingDashboardService {
 
     private final BillRepository billRepository;
     private final BillingService billingService;
+    private final MongoTemplate mongoTemplate;
 
     public BillsSummaryDto getBillsSummary(int month, int year) {
 
@@ -49,21 +59,12 @@ public class BillingDashboardService {
             int year
     ) {
 
-        return billRepository
-                .findByBillingMonthAndBillingYear(month, year)
+        return aggregate(
+                matchPeriod(month, year),
+                groupByUtility()
+        )
                 .stream()
-                .collect(Collectors.groupingBy(
-                        Bill::getUtilityType,
-                        Collectors.summingLong(Bill::getConsumptionUnits)
-                ))
-                .entrySet()
-                .stream()
-                .map(e ->
-                        new ConsumptionSummaryDto(
-                                e.getKey(),
-                                e.getValue()
-                        )
-                )
+                .map(this::toConsumptionSummary)
                 .toList();
     }
 
@@ -72,21 +73,12 @@ public class BillingDashboardService {
             int year
     ) {
 
-        return billRepository
-                .findByBillingMonthAndBillingYear(month, year)
+        return aggregate(
+                matchPeriod(month, year),
+                groupByUtility()
+        )
                 .stream()
-                .collect(Collectors.groupingBy(
-                        Bill::getUtilityType,
-                        Collectors.averagingLong(Bill::getConsumptionUnits)
-                ))
-                .entrySet()
-                .stream()
-                .map(e ->
-                        new AverageConsumptionDto(
-                                e.getKey(),
-                                e.getValue()
-                        )
-                )
+                .map(this::toAverageConsumption)
                 .toList();
     }
 
@@ -95,13 +87,15 @@ public class BillingDashboardService {
             int year
     ) {
 
-        return billRepository
-                .findByBillingMonthAndBillingYear(month, year)
-                .stream()
-                .collect(Collectors.groupingBy(Bill::getConsumerId))
-                .entrySet()
+        return aggregate(
+                matchPeriod(month, year),
+                Aggregation.group("consumerId")
+                        .count().as("totalBills")
+                        .sum("totalAmount").as("totalAmount")
+                        .sum(paidAmount()).as("paidAmount")
+        )
                 .stream()
-                .map(e -> buildConsumerSummary(e.getKey(), e.getValue()))
+                .map(this::toConsumerSummary)
                 .toList();
     }
 
@@ -113,35 +107,142 @@ public class BillingDashboardService {
 
     public double getTotalBilledForMonth(int month, int year) {
 
-        return billRepository
-                .findByBillingMonthAndBillingYear(month, year)
+        Double total = billRepository.sumTotalAmountForPeriod(month, year);
+        return total == null ? 0 : total;
+    }
+
+    public List<MonthlyBilledDto> getTotalBilledByMonth(int year) {
+
+        return aggregate(
+                Aggregation.match(Criteria.where("billingYear").is(year)),
+                Aggregation.group("billingMonth")
+                        .sum("totalAmount").as("totalBilled"),
+                Aggregation.sort(Sort.Direction.ASC, "_id")
+        )
                 .stream()
-                .mapToDouble(Bill::getTotalAmount)
-                .sum();
+                .map(d -> new MonthlyBilledDto(
+                        number(d.get("_id")).intValue(),
+                        number(d.get("totalBilled")).doubleValue()
+                ))
+                .toList();
     }
 
-    private ConsumerBillingSummaryDto buildConsumerSummary(
-            String consumerId,
-            List<Bill> bills
-    ) {
+    // every tile of the billing dashboard from one $facet round-trip
+    public BillingDashboardDto getDashboard(int month, int year) {
+
+        List<Document> results =
+                aggregate(
+                        matchPeriod(month, year),
+                        Aggregation.facet(
+                                Aggregation.group()
+                                        .count().as("totalBills")
+                                        .sum(paidCount()).as("paidBills")
+                                        .sum("totalAmount").as("totalAmount")
+                                        .sum(paidAmount()).as("paidAmount")
+                        ).as("totals")
+                                .and(groupByUtility()).as("byUtility")
+                );
+
+        Document facets =
+                results.isEmpty() ? new Document() : results.get(0);
+
+        List<Document> totalsList = facets.getList("totals", Document.class, List.of());
+        Document totals = totalsList.isEmpty() ? new Document() : totalsList.get(0);
+
+        long totalBills = number(totals.get("totalBills")).longValue();
+        long paidBills = number(totals.get("paidBills")).longValue();
 
-        double total =
-                bills.stream()
-                        .mapToDouble(Bill::getTotalAmount)
-                        .sum();
+        List<Document> byUtility =
+                facets.getList("byUtility", Document.class, List.of());
+
+        return new BillingDashboardDto(
+                new BillsSummaryDto(month, year, totalBills, paidBills, totalBills - paidBills),
+                number(totals.get("totalAmount")).doubleValue(),
+                number(totals.get("paidAmount")).doubleValue(),
+                byUtility.stream().map(this::toConsumptionSummary).toList(),
+                byUtility.stream().map(this::toAverageConsumption).toList()
+        );
+    }
 
-        double paid =
-                bills.stream()
-                        .filter(b -> b.getStatus() == BillStatus.PAID)
-                        .mapToDouble(Bill::getTotalAmount)
-                        .sum();
+    private List<Document> aggregate(AggregationOperation... operations) {
+
+        return mongoTemplate
+                .aggregate(
+                        Aggregation.newAggregation(Bill.class, operations),
+                        Document.class
+                )
+                .getMappedResults();
+    }
+
+    // served by the (billingYear, billingMonth, ...) compound indexes on Bill
+    private AggregationOperation matchPeriod(int month, int year) {
+
+        return Aggregation.match(
+                Criteria.where("billingYear").is(year)
+                        .and("billingMonth").is(month)
+        );
+    }
+
+    private AggregationOperation groupByUtility() {
+
+        return Aggregation.group("utilityType")
+                .sum("consumptionUnits").as("totalUnits")
+                .avg("consumptionUnits").as("averageUnits");
+    }
+
+    private ConditionalOperators.Cond paidAmount() {
+
+        return ConditionalOperators
+                .when(Criteria.where("status").is(BillStatus.PAID.name()))
+                .thenValueOf("totalAmount")
+                .otherwise(0);
+    }
+
+    private ConditionalOperators.Cond paidCount() {
+
+        return ConditionalOperators
+                .when(Criteria.where("status").is(BillStatus.PAID.name()))
+                .then(1)
+                .otherwise(0);
+    }
+
+    private ConsumptionSummaryDto toConsumptionSummary(Document doc) {
+
+        return new ConsumptionSummaryDto(
+                utilityType(doc),
+                number(doc.get("totalUnits")).longValue()
+        );
+    }
+
+    private AverageConsumptionDto toAverageConsumption(Document doc) {
+
+        return new AverageConsumptionDto(
+                utilityType(doc),
+                number(doc.get("averageUnits")).doubleValue()
+        );
+    }
+
+    private ConsumerBillingSummaryDto toConsumerSummary(Document doc) {
+
+        double total = number(doc.get("totalAmount")).doubleValue();
+        double paid = number(doc.get("paidAmount")).doubleValue();
 
         return new ConsumerBillingSummaryDto(
-                consumerId,
-                bills.size(),
+                doc.getString("_id"),
+                number(doc.get("totalBills")).longValue(),
                 total,
                 paid,
                 total - paid
         );
     }
-}
\ No newline at end of file
+
+    private static UtilityType utilityType(Document doc) {
+
+        String type = doc.getString("_id");
+        return type == null ? null : UtilityType.valueOf(type);
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number n ? n : 0;
+    }
+}
@@ -3,23 +3,23 @@ package com.utility.billing.service;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.utility.billing.cache.ConsumerLookupCache;
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.GenerateBillRequest;
-import com.utility.billing.event.BillEventPublisher;
+import com.utility.billing.config.RabbitConfig;
 import com.utility.billing.exception.ApiException;
-import com.utility.billing.feign.ConnectionClient;
-import com.utility.billing.feign.ConsumerClient;
 import com.utility.billing.feign.MeterReadingClient;
 import com.utility.billing.feign.MeterReadingResponse;
 import com.utility.billing.model.Bill;
 import com.utility.billing.model.BillStatus;
-import com.utility.billing.model.TariffSlab;
+import com.utility.billing.outbox.Outbox;
 import com.utility.billing.repository.BillRepository;
-import com.utility.billing.repository.TariffSlabRepository;
 import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.common.dto.event.BillPaidEvent;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
@@ -30,12 +30,13 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class BillingService {
 
+    private static final int MAX_BATCH_LOOKUP = 1000;
+
     private final BillRepository billRepository;
     private final MeterReadingClient meterClient;
-    private final TariffSlabRepository slabRepository;
-    private final ConsumerClient consumerClient;
-    private final BillEventPublisher billEventPublisher;
-    private final ConnectionClient connectionClient;
+    private final TariffEngine tariffEngine;
+    private final ConsumerLookupCache lookupCache;
+    private final Outbox outbox;
 
     @CircuitBreaker(
             name = "meterReadingCB",
@@ -116,7 +117,7 @@ public class BillingService {
         }
 
         var connection =
-                connectionClient.getConnectionById(
+                lookupCache.getConnection(
                         request.getConnectionId()
                 );
 
@@ -135,13 +136,15 @@ public class BillingService {
             );
         }
 
-        List<TariffSlab> slabs =
-                slabRepository.findByUtilityTypeAndPlanCodeOrderByMinUnitsAsc(
+        TariffSnapshot tariffs = tariffEngine.current();
+
+        CompiledTariff tariff =
+                tariffs.find(
                         connection.getUtilityType(),
                         connection.getTariffPlan()
                 );
 
-        if (slabs.isEmpty()) {
+        if (tariff == null || tariff.slabCount() == 0) {
             throw new ApiException(
                     "Tariff slabs not configured",
                     HttpStatus.INTERNAL_SERVER_ERROR
@@ -149,7 +152,7 @@ public class BillingService {
         }
 
         double energyCharge =
-                calculateFromSlabs(units, slabs);
+                tariff.charge(units);
 
         double fixedCharge = 50;
         double tax = energyCharge * 0.05;
@@ -159,6 +162,7 @@ public class BillingService {
         bill.setConnectionId(request.getConnectionId());
         bill.setUtilityType(connection.getUtilityType());
         bill.setTariffPlan(connection.getTariffPlan());
+        bill.setTariffVersion(tariffs.getVersion());
         bill.setBillingMonth(billingMonth);
         bill.setBillingYear(billingYear);
         bill.setConsumptionUnits(units);
@@ -171,83 +175,55 @@ public class BillingService {
         bill.setBillDate(LocalDate.now());
         bill.setDueDate(LocalDate.now().plusDays(15));
 
-        Bill savedBill =
-                billRepository.save(bill);
-
-        publishEventSafely(
-                savedBill,
-                request.getConsumerId()
-        );
-
-        return map(savedBill);
-    }
-
-    private void publishEventSafely(
-            Bill bill,
-            String consumerId
-    ) {
-
+        // the relay publishes once the bill is stored; no broker or consumer call here
+        Bill savedBill;
         try {
-            var consumer =
-                    consumerClient.getConsumerById(consumerId);
-
-            BillGeneratedEvent event =
-                    new BillGeneratedEvent();
-
-            event.setBillId(bill.getId());
-            event.setConsumerId(bill.getConsumerId());
-            event.setEmail(consumer.getEmail());
-            event.setUtilityType(
-                    bill.getUtilityType().name()
-            );
-            event.setTariffPlan(bill.getTariffPlan());
-            event.setAmount(bill.getTotalAmount());
-            event.setDueDate(
-                    bill.getDueDate().toString()
-            );
-
-            billEventPublisher.publish(event);
-
-        } catch (RuntimeException ex) {
-            log.error(
-                    "Bill generated but email notification failed",
-                    ex
+            savedBill =
+                    outbox.atomically(() -> {
+                        Bill saved = billRepository.save(bill);
+                        outbox.add(
+                                RabbitConfig.EXCHANGE,
+                                RabbitConfig.BILL_ROUTING_KEY,
+                                generatedEvent(saved)
+                        );
+                        return saved;
+                    });
+        } catch (DuplicateKeyException ex) {
+            // billed by a concurrent request or the billing run since the check above
+            throw new ApiException(
+                    "Bill already exists for this billing period",
+                    HttpStatus.CONFLICT
             );
         }
-    }
-
-    private double calculateFromSlabs(
-            long units,
-            List<TariffSlab> slabs
-    ) {
 
-        double amount = 0;
-        long remaining = units;
+        return map(savedBill);
+    }
 
-        for (TariffSlab slab : slabs) {
+    // email is filled in by OutboxRelay with one lookup per batch
+    static BillGeneratedEvent generatedEvent(Bill bill) {
 
-            long slabUnits =
-                    Math.min(
-                            remaining,
-                            slab.getMaxUnits()
-                                    - slab.getMinUnits()
-                                    + 1
-                    );
+        BillGeneratedEvent event =
+                new BillGeneratedEvent();
 
-            if (slabUnits > 0) {
-                amount += slabUnits * slab.getRate();
-                remaining -= slabUnits;
-            }
-        }
+        event.setBillId(bill.getId());
+        event.setConsumerId(bill.getConsumerId());
+        event.setUtilityType(
+                bill.getUtilityType().name()
+        );
+        event.setTariffPlan(bill.getTariffPlan());
+        event.setAmount(bill.getTotalAmount());
+        event.setDueDate(
+                bill.getDueDate().toString()
+        );
 
-        return amount;
+        return event;
     }
 
     public List<BillResponse> getOverdueBills() {
         return billRepository
                 .findByStatus(BillStatus.OVERDUE)
                 .stream()
-                .map(this::map)
+                .map(BillingService::map)
                 .toList();
     }
 
@@ -277,13 +253,26 @@ public class BillingService {
                         + bill.getPenalty()
         );
 
-        billRepository.save(bill);
+        outbox.atomically(() -> {
+            Bill saved = billRepository.save(bill);
+            outbox.add(RabbitConfig.EXCHANGE, RabbitConfig.BILL_PAID_KEY, paidEvent(saved));
+            return saved;
+        });
+    }
+
+    private static BillPaidEvent paidEvent(Bill bill) {
+
+        BillPaidEvent event = new BillPaidEvent();
+        event.setBillId(bill.getId());
+        event.setConsumerId(bill.getConsumerId());
+        event.setAmount(bill.getTotalAmount());
+        return event;
     }
 
     public BillResponse getBillById(String billId) {
         return billRepository
                 .findById(billId)
-                .map(this::map)
+                .map(BillingService::map)
                 .orElseThrow(() ->
                         new ApiException(
                                 "Bill not found",
@@ -292,6 +281,27 @@ public class BillingService {
                 );
     }
 
+    public List<BillResponse> getBillsByIds(List<String> billIds) {
+
+        if (billIds == null || billIds.isEmpty()) {
+            return List.of();
+        }
+
+        if (billIds.size() > MAX_BATCH_LOOKUP) {
+            throw new ApiException(
+                    "At most " + MAX_BATCH_LOOKUP + " bills per batch",
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        // unknown ids are simply absent; callers join by id
+        return billRepository
+                .findAllById(billIds)
+                .stream()
+                .map(BillingService::map)
+                .toList();
+    }
+
     public List<BillResponse> getBillsByConsumer(
             String consumerId
     ) {
@@ -306,7 +316,7 @@ public class BillingService {
             );
         }
 
-        return bills.stream().map(this::map).toList();
+        return bills.stream().map(BillingService::map).toList();
     }
 
     public List<BillResponse> getAllBills(
@@ -343,19 +353,16 @@ public class BillingService {
                     billRepository.findAll();
         }
 
-        return bills.stream().map(this::map).toList();
+        return bills.stream().map(BillingService::map).toList();
     }
 
     public double getTotalBilledAmount() {
 
-        return billRepository
-                .findAll()
-                .stream()
-                .mapToDouble(Bill::getTotalAmount)
-                .sum();
+        Double total = billRepository.sumTotalAmount();
+        return total == null ? 0 : total;
     }
 
-    private BillResponse map(Bill bill) {
+    static BillResponse map(Bill bill) {
 
         BillResponse r = new BillResponse();
         r.setId(bill.getId());
@@ -363,6 +370,7 @@ public class BillingService {
         r.setConnectionId(bill.getConnectionId());
         r.setUtilityType(bill.getUtilityType());
         r.setTariffPlan(bill.getTariffPlan());
+        r.setTariffVersion(bill.getTariffVersion());
         r.setBillingMonth(bill.getBillingMonth());
         r.setBillingYear(bill.getBillingYear());
         r.setEnergyCharge(bill.getEnergyCharge());
@@ -0,0 +1,88 @@
+package com.utility.billing.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.utility.billing.model.TariffSlab;
+
+/**
+ * Immutable, array-backed form of one (utilityType, planCode) slab table.
+ * Slab capacities are filled in minUnits order, exactly like the original
+ * slab loop, so charges are identical but each lookup is a binary search.
+ */
+public final class CompiledTariff {
+
+    // cumulative units covered up to and including slab i
+    private final long[] upperBounds;
+    private final double[] rates;
+    // charge for every unit below slab i
+    private final double[] prefixCharges;
+    private final double fullCharge;
+
+    private CompiledTariff(
+            long[] upperBounds,
+            double[] rates,
+            double[] prefixCharges,
+            double fullCharge
+    ) {
+        this.upperBounds = upperBounds;
+        this.rates = rates;
+        this.prefixCharges = prefixCharges;
+        this.fullCharge = fullCharge;
+    }
+
+    static CompiledTariff compile(List<TariffSlab> slabs) {
+
+        List<TariffSlab> ordered =
+                slabs.stream()
+                        .filter(s -> s.getMaxUnits() - s.getMinUnits() + 1 > 0)
+                        .sorted((a, b) -> Long.compare(a.getMinUnits(), b.getMinUnits()))
+                        .toList();
+
+        int n = ordered.size();
+        long[] upperBounds = new long[n];
+        double[] rates = new double[n];
+        double[] prefixCharges = new double[n];
+
+        long covered = 0;
+        double charge = 0;
+
+        for (int i = 0; i < n; i++) {
+            TariffSlab slab = ordered.get(i);
+            long capacity = slab.getMaxUnits() - slab.getMinUnits() + 1;
+
+            prefixCharges[i] = charge;
+            rates[i] = slab.getRate();
+
+            covered += capacity;
+            charge += capacity * slab.getRate();
+            upperBounds[i] = covered;
+        }
+
+        return new CompiledTariff(upperBounds, rates, prefixCharges, charge);
+    }
+
+    public double charge(long units) {
+
+        if (units <= 0 || upperBounds.length == 0) {
+            return 0;
+        }
+
+        int i = Arrays.binarySearch(upperBounds, units);
+        if (i < 0) {
+            i = -i - 1;
+        }
+
+        // units beyond the last slab are not priced, as before
+        if (i >= upperBounds.length) {
+            return fullCharge;
+        }
+
+        long slabStart = i == 0 ? 0 : upperBounds[i - 1];
+        return prefixCharges[i] + (units - slabStart) * rates[i];
+    }
+
+    public int slabCount() {
+        return upperBounds.length;
+    }
+}
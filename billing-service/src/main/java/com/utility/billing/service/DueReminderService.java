@@ -0,0 +1,175 @@
+package com.utility.billing.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.utility.billing.cache.ConsumerLookupCache;
+import com.utility.billing.dto.ReminderRunResult;
+import com.utility.billing.event.BillEventPublisher;
+import com.utility.billing.feign.ConsumerResponse;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.BillStatus;
+import com.utility.common.dto.event.BillDueReminderEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class DueReminderService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ConsumerLookupCache lookupCache;
+    private final BillEventPublisher billEventPublisher;
+    private final Executor reminderExecutor;
+    private final int batchSize;
+
+    public DueReminderService(
+            MongoTemplate mongoTemplate,
+            ConsumerLookupCache lookupCache,
+            BillEventPublisher billEventPublisher,
+            @Qualifier("billingReminderExecutor") Executor reminderExecutor,
+            @Value("${billing.reminder.batch-size:500}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookupCache = lookupCache;
+        this.billEventPublisher = billEventPublisher;
+        this.reminderExecutor = reminderExecutor;
+        this.batchSize = batchSize;
+    }
+
+    // streams bills due in [from, to) and hands them to the executor in batches
+    public ReminderRunResult sendReminders(LocalDate from, LocalDate to) {
+
+        long started = System.currentTimeMillis();
+
+        AtomicLong sent = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long bills = 0;
+
+        Query query =
+                new Query(
+                        Criteria.where("status").is(BillStatus.DUE)
+                                .and("dueDate").gte(from).lt(to)
+                )
+                        .cursorBatchSize(batchSize);
+
+        query.fields().include(
+                "consumerId",
+                "totalAmount",
+                "dueDate",
+                "utilityType"
+        );
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        try (Stream<Bill> stream = mongoTemplate.stream(query, Bill.class)) {
+
+            Iterator<Bill> iterator = stream.iterator();
+            List<Bill> batch = new ArrayList<>(batchSize);
+
+            while (iterator.hasNext()) {
+
+                batch.add(iterator.next());
+                bills++;
+
+                if (batch.size() == batchSize) {
+                    pending.add(submit(batch, sent, failed));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                pending.add(submit(batch, sent, failed));
+            }
+        }
+
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        return new ReminderRunResult(
+                bills,
+                sent.get(),
+                failed.get(),
+                System.currentTimeMillis() - started
+        );
+    }
+
+    private CompletableFuture<Void> submit(
+            List<Bill> batch,
+            AtomicLong sent,
+            AtomicLong failed) {
+
+        return CompletableFuture.runAsync(
+                () -> sendBatch(batch, sent, failed),
+                reminderExecutor
+        );
+    }
+
+    private void sendBatch(List<Bill> batch, AtomicLong sent, AtomicLong failed) {
+
+        try {
+            Map<String, ConsumerResponse> consumers =
+                    lookupCache.getConsumers(
+                            batch.stream().map(Bill::getConsumerId).distinct().toList()
+                    );
+
+            List<BillDueReminderEvent> events = new ArrayList<>(batch.size());
+            int skipped = 0;
+
+            for (Bill bill : batch) {
+
+                ConsumerResponse consumer = consumers.get(bill.getConsumerId());
+
+                if (consumer == null || consumer.getEmail() == null) {
+                    log.warn(
+                            "No email for due reminder billId={} consumerId={}",
+                            bill.getId(),
+                            bill.getConsumerId()
+                    );
+                    skipped++;
+                    continue;
+                }
+
+                events.add(toEvent(bill, consumer));
+            }
+
+            billEventPublisher.publishDueReminders(events);
+            sent.addAndGet(events.size());
+            failed.addAndGet(skipped);
+
+        } catch (Exception ex) {
+            log.error(
+                    "Failed to send due reminder batch of {} bills starting at billId={}",
+                    batch.size(),
+                    batch.get(0).getId(),
+                    ex
+            );
+            failed.addAndGet(batch.size());
+        }
+    }
+
+    private static BillDueReminderEvent toEvent(Bill bill, ConsumerResponse consumer) {
+
+        BillDueReminderEvent event = new BillDueReminderEvent();
+        event.setBillId(bill.getId());
+        event.setConsumerId(bill.getConsumerId());
+        event.setEmail(consumer.getEmail());
+        event.setAmount(bill.getTotalAmount());
+        event.setDueDate(bill.getDueDate().toString());
+        event.setUtilityType(bill.getUtilityType().name());
+        return event;
+    }
+}
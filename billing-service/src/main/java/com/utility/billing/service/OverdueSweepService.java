@@ -0,0 +1,131 @@
+package com.utility.billing.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.utility.billing.config.RabbitConfig;
+import com.utility.billing.dto.OverdueSweepResult;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.BillStatus;
+import com.utility.billing.outbox.Outbox;
+import com.utility.common.dto.event.BillOverdueEvent;
+
+@Service
+public class OverdueSweepService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Outbox outbox;
+    private final double penalty;
+    private final int chunkSize;
+
+    public OverdueSweepService(
+            MongoTemplate mongoTemplate,
+            Outbox outbox,
+            @Value("${billing.overdue.penalty:50}") double penalty,
+            @Value("${billing.overdue.chunk-size:500}") int chunkSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.outbox = outbox;
+        this.penalty = penalty;
+        this.chunkSize = chunkSize;
+    }
+
+    // takes the overdue set a chunk at a time so every flipped bill gets an event;
+    // the consumer dashboard only learns about penalties from these. Flipped (or
+    // concurrently paid) bills leave the DUE predicate, so each pass just asks
+    // again: no sort, and status_due_idx serves every chunk
+    public OverdueSweepResult sweep(LocalDate today) {
+
+        long started = System.currentTimeMillis();
+        long processed = 0;
+
+        while (true) {
+
+            List<Bill> chunk = mongoTemplate.find(
+                    new Query(overdue(today)).limit(chunkSize),
+                    Bill.class
+            );
+
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = chunk.stream().map(Bill::getId).toList();
+
+            // status guard skips bills paid since the read
+            UpdateResult result = outbox.atomically(() -> {
+
+                UpdateResult updated =
+                        mongoTemplate.updateMulti(
+                                new Query(Criteria.where("_id").in(ids)
+                                        .and("status").is(BillStatus.DUE)),
+                                markOverdue(),
+                                Bill.class
+                        );
+
+                List<Bill> flipped =
+                        updated.getModifiedCount() == chunk.size()
+                                ? chunk
+                                : mongoTemplate.find(
+                                        new Query(Criteria.where("_id").in(ids)
+                                                .and("status").is(BillStatus.OVERDUE)),
+                                        Bill.class
+                                );
+
+                for (Bill bill : flipped) {
+                    outbox.add(RabbitConfig.EXCHANGE, RabbitConfig.BILL_OVERDUE_KEY, toEvent(bill));
+                }
+
+                return updated;
+            });
+
+            processed += result.getModifiedCount();
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        return new OverdueSweepResult(
+                processed,
+                System.currentTimeMillis() - started
+        );
+    }
+
+    private static Criteria overdue(LocalDate today) {
+        return Criteria.where("status").is(BillStatus.DUE)
+                .and("dueDate").lt(today);
+    }
+
+    private Update markOverdue() {
+        return new Update()
+                .set("status", BillStatus.OVERDUE)
+                .inc("penalty", penalty);
+    }
+
+    private BillOverdueEvent toEvent(Bill bill) {
+
+        BillOverdueEvent event = new BillOverdueEvent();
+        event.setBillId(bill.getId());
+        event.setConsumerId(bill.getConsumerId());
+        event.setConnectionId(bill.getConnectionId());
+        event.setUtilityType(
+                bill.getUtilityType() == null ? null : bill.getUtilityType().name());
+        event.setAmount(bill.getTotalAmount());
+        // chunk rows were read before the $inc
+        event.setPenalty(
+                bill.getStatus() == BillStatus.OVERDUE
+                        ? bill.getPenalty()
+                        : bill.getPenalty() + penalty);
+        event.setDueDate(String.valueOf(bill.getDueDate()));
+        return event;
+    }
+}
@@ -0,0 +1,61 @@
+package com.utility.billing.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.utility.billing.repository.TariffPlanRepository;
+import com.utility.billing.repository.TariffSlabRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TariffEngine {
+
+    private final TariffPlanRepository planRepository;
+    private final TariffSlabRepository slabRepository;
+
+    private final AtomicReference<TariffSnapshot> snapshot =
+            new AtomicReference<>();
+
+    public TariffSnapshot current() {
+
+        TariffSnapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    // serialised so two concurrent mutations cannot swap in out of order
+    public synchronized TariffSnapshot reload() {
+
+        TariffSnapshot next =
+                TariffSnapshot.compile(
+                        planRepository.findAll(),
+                        slabRepository.findAll()
+                );
+
+        TariffSnapshot previous = snapshot.getAndSet(next);
+
+        if (previous == null || !previous.getVersion().equals(next.getVersion())) {
+            log.info(
+                    "Tariff snapshot {} loaded with {} tariffs",
+                    next.getVersion(),
+                    next.size()
+            );
+        }
+
+        return next;
+    }
+
+    // picks up tariff edits made through other instances
+    @Scheduled(
+            fixedDelayString = "${billing.tariff.refresh-interval-ms:300000}",
+            initialDelayString = "${billing.tariff.refresh-interval-ms:300000}"
+    )
+    public void refresh() {
+        reload();
+    }
+}
@@ -18,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class TariffPlanService {
 
     private final TariffPlanRepository repository;
+    private final TariffEngine tariffEngine;
 
     public TariffPlanDto createTariffPlan(TariffPlanDto dto) {
 
@@ -38,6 +39,7 @@ public class TariffPlanService {
 
         plan.setActive(true);
         TariffPlan saved = repository.save(plan);
+        tariffEngine.reload();
         return toDto(saved);
     }
 
@@ -61,6 +63,7 @@ public class TariffPlanService {
 
         plan.setActive(false);
         repository.save(plan);
+        tariffEngine.reload();
 
         return Map.of(
                 "message",
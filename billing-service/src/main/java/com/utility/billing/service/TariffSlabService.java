@@ -17,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 public class TariffSlabService {
 
     private final TariffSlabRepository repository;
+    private final TariffEngine tariffEngine;
 
     public TariffSlabDto createSlab(TariffSlabDto dto) {
 
@@ -46,6 +47,7 @@ public class TariffSlabService {
         }
 
         TariffSlab saved = repository.save(slab);
+        tariffEngine.reload();
         return toDto(saved);
     }
 
@@ -61,6 +63,7 @@ public class TariffSlabService {
                         );
 
         repository.delete(slab);
+        tariffEngine.reload();
         return toDto(slab);
     }
 
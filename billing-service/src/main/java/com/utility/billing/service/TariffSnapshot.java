@@ -0,0 +1,106 @@
+package com.utility.billing.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.utility.billing.model.TariffPlan;
+import com.utility.billing.model.TariffSlab;
+import com.utility.billing.model.UtilityType;
+
+/**
+ * One compiled version of every tariff. The version is a content hash, so
+ * the same tariff data yields the same id on every instance and restart.
+ */
+public final class TariffSnapshot {
+
+    private final String version;
+    private final Map<String, CompiledTariff> tariffs;
+
+    private TariffSnapshot(String version, Map<String, CompiledTariff> tariffs) {
+        this.version = version;
+        this.tariffs = tariffs;
+    }
+
+    public static TariffSnapshot compile(
+            List<TariffPlan> plans,
+            List<TariffSlab> slabs
+    ) {
+
+        List<TariffSlab> usable =
+                slabs.stream()
+                        .filter(s -> s.getUtilityType() != null && s.getPlanCode() != null)
+                        .toList();
+
+        Map<String, CompiledTariff> tariffs = new HashMap<>();
+
+        usable.stream()
+                .collect(Collectors.groupingBy(
+                        s -> key(s.getUtilityType(), s.getPlanCode())
+                ))
+                .forEach((key, group) ->
+                        tariffs.put(key, CompiledTariff.compile(group))
+                );
+
+        return new TariffSnapshot(
+                fingerprint(plans, usable),
+                Map.copyOf(tariffs)
+        );
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public CompiledTariff find(UtilityType utilityType, String planCode) {
+        return tariffs.get(key(utilityType, planCode));
+    }
+
+    public int size() {
+        return tariffs.size();
+    }
+
+    private static String key(UtilityType utilityType, String planCode) {
+        return utilityType + ":" + planCode;
+    }
+
+    private static String fingerprint(
+            List<TariffPlan> plans,
+            List<TariffSlab> slabs
+    ) {
+
+        StringBuilder canonical = new StringBuilder();
+
+        plans.stream()
+                .map(p -> p.getUtilityType() + "|" + p.getPlanCode() + "|" + p.isActive())
+                .sorted()
+                .forEach(line -> canonical.append(line).append('\n'));
+
+        slabs.stream()
+                .sorted(Comparator
+                        .comparing((TariffSlab s) -> key(s.getUtilityType(), s.getPlanCode()))
+                        .thenComparingLong(TariffSlab::getMinUnits))
+                .forEach(s -> canonical
+                        .append(key(s.getUtilityType(), s.getPlanCode())).append('|')
+                        .append(s.getMinUnits()).append('|')
+                        .append(s.getMaxUnits()).append('|')
+                        .append(s.getRate()).append('\n'));
+
+        try {
+            byte[] hash =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(hash, 0, 6);
+
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
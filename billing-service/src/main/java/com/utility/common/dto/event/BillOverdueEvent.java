@@ -0,0 +1,15 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class BillOverdueEvent {
+
+    private String billId;
+    private String consumerId;
+    private String connectionId;
+    private String utilityType;
+    private double amount;
+    private double penalty;
+    private String dueDate;
+}
@@ -0,0 +1,142 @@
+package com.utility.billing.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final LookupCache<String> cache =
+            new LookupCache<>("test", 100, Duration.ofMinutes(5), registry);
+
+    private double requests(String result) {
+        return registry.get("lookup.cache.requests")
+                .tag("cache", "test")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void get_secondCallIsHit() {
+
+        AtomicInteger loads = new AtomicInteger();
+
+        Function<String, String> loader = k -> {
+            loads.incrementAndGet();
+            return "v-" + k;
+        };
+
+        assertEquals("v-K1", cache.get("K1", loader));
+        assertEquals("v-K1", cache.get("K1", loader));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(1, registry.get("lookup.cache.load").timer().count());
+    }
+
+    @Test
+    void get_concurrentMissesShareOneLoad() throws Exception {
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> first = pool.submit(() -> cache.get("K1", k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            }));
+
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<String> second = pool.submit(() -> cache.get("K1", k -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_failureIsNotCached() {
+
+        assertThrows(IllegalStateException.class,
+                () -> cache.get("K1", k -> {
+                    throw new IllegalStateException("down");
+                }));
+
+        assertEquals("value", cache.get("K1", k -> "value"));
+    }
+
+    @Test
+    void get_nullIsNotCached() {
+
+        assertNull(cache.get("K1", k -> null));
+        assertEquals("value", cache.get("K1", k -> "value"));
+    }
+
+    @Test
+    void evict_forcesReload() {
+
+        cache.get("K1", k -> "old");
+        cache.evict("K1");
+
+        assertEquals("new", cache.get("K1", k -> "new"));
+    }
+
+    @Test
+    void getAll_loadsOnlyMissesInOneCall() {
+
+        cache.get("K1", k -> "v-K1");
+
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<String, String> values = cache.getAll(List.of("K1", "K2", "K3"), ids -> {
+            calls.incrementAndGet();
+            assertEquals(List.of("K2", "K3"), ids);
+            return Map.of("K2", "v-K2");
+        });
+
+        assertEquals(Map.of("K1", "v-K1", "K2", "v-K2"), values);
+        assertEquals(1, calls.get());
+
+        // K2 is now cached individually
+        assertEquals("v-K2", cache.get("K2", k -> "other"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
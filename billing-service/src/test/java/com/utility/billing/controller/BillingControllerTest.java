@@ -1,9 +1,11 @@
 package com.utility.billing.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.billing.dto.BillPageResponse;
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.GenerateBillRequest;
 import com.utility.billing.model.BillStatus;
+import com.utility.billing.service.BillQueryService;
 import com.utility.billing.service.BillingService;
 import com.utility.billing.config.SecurityConfig;
 
@@ -19,8 +21,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import reactor.core.publisher.Flux;
+
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,6 +46,9 @@ class BillingControllerTest {
     @MockBean
     private BillingService billingService;
 
+    @MockBean
+    private BillQueryService billQueryService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -81,6 +89,17 @@ class BillingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getBillsByIds_success() throws Exception {
+        Mockito.when(billingService.getBillsByIds(List.of("B1", "B2")))
+                .thenReturn(List.of(new BillResponse()));
+
+        mockMvc.perform(post("/bills/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("B1", "B2"))))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getAllBills_withFilters() throws Exception {
         Mockito.when(billingService.getAllBills(
@@ -94,4 +113,52 @@ class BillingControllerTest {
                         .param("consumerId", "C1"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBillsPage_withCursor() throws Exception {
+        Mockito.when(billQueryService.getBillsPage(
+                        BillStatus.DUE, null, null, null, "abc", 20))
+                .thenReturn(new BillPageResponse(List.of(new BillResponse()), "next"));
+
+        mockMvc.perform(get("/bills")
+                        .param("status", "DUE")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void export_streamsNdjson() throws Exception {
+        var result = mockMvc.perform(get("/bills/export").param("year", "2025"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+        Mockito.verify(billQueryService).exportBills(
+                Mockito.isNull(), Mockito.isNull(), Mockito.eq(2025), Mockito.isNull(), Mockito.any());
+    }
+
+    @Test
+    void stream_writesOneLinePerBill() throws Exception {
+        BillResponse first = new BillResponse();
+        first.setId("B1");
+        BillResponse second = new BillResponse();
+        second.setId("B2");
+
+        Mockito.when(billQueryService.streamBills(null, null, 2025, null))
+                .thenReturn(Flux.just(first, second));
+
+        var result = mockMvc.perform(get("/bills/stream").param("year", "2025"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"id\":\"B2\"")));
+    }
+}
@@ -70,4 +70,25 @@ class BillingDashboardControllerTest {
         mockMvc.perform(get("/dashboard/billing/total-billed"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void overview_success() throws Exception {
+        Mockito.when(dashboardService.getDashboard(1, 2025))
+                .thenReturn(null);
+
+        mockMvc.perform(get("/dashboard/billing/overview")
+                        .param("month", "1")
+                        .param("year", "2025"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void totalBilledYearly_success() throws Exception {
+        Mockito.when(dashboardService.getTotalBilledByMonth(2025))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/dashboard/billing/total-billed-yearly")
+                        .param("year", "2025"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,87 @@
+package com.utility.billing.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.billing.config.SecurityConfig;
+import com.utility.billing.dto.BillingRunRequest;
+import com.utility.billing.dto.BillingRunResponse;
+import com.utility.billing.service.BillingRunService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+    controllers = BillingRunController.class,
+    excludeFilters = @Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = SecurityConfig.class
+    )
+)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class BillingRunControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BillingRunService billingRunService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void start_accepted() throws Exception {
+        BillingRunRequest request = new BillingRunRequest();
+        request.setBillingMonth(1);
+        request.setBillingYear(2025);
+
+        Mockito.when(billingRunService.startRun(Mockito.any()))
+                .thenReturn(new BillingRunResponse());
+
+        mockMvc.perform(post("/bills/runs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void resume_accepted() throws Exception {
+        Mockito.when(billingRunService.resumeRun("R1"))
+                .thenReturn(new BillingRunResponse());
+
+        mockMvc.perform(post("/bills/runs/R1/resume"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void getRun_success() throws Exception {
+        Mockito.when(billingRunService.getRun("R1"))
+                .thenReturn(new BillingRunResponse());
+
+        mockMvc.perform(get("/bills/runs/R1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getRuns_success() throws Exception {
+        Mockito.when(billingRunService.getRuns())
+                .thenReturn(List.of(new BillingRunResponse()));
+
+        mockMvc.perform(get("/bills/runs"))
+                .andExpect(status().isOk());
+    }
+}
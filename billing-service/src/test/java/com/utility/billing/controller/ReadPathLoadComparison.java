@@ -0,0 +1,139 @@
+package com.utility.billing.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Closed-loop load against a blocking read endpoint and its reactive twin on a
+ * running instance, at rising concurrency. Start the service with a small
+ * Tomcat pool (e.g. --server.tomcat.threads.max=50) so the blocking route
+ * saturates within reach; the reactive route should hold its p99 at
+ * concurrency levels where the blocking one starts to queue.
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=com.utility.billing.controller.ReadPathLoadComparison
+ *       -Dexec.args="http://localhost:8034/bills?year=2025 http://localhost:8034/bills/stream?year=2025"
+ *
+ * The same pairs exist for /payments/consumer/{id}[/stream],
+ * /meter-readings/connection/{id}[/stream] and
+ * /consumers/dashboard/summary[/reactive]; pass -Dtoken=<jwt> for those.
+ */
+public class ReadPathLoadComparison {
+
+    private static final int[] CONCURRENCY = {10, 50, 100, 200, 400};
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    public static void main(String[] args) throws Exception {
+
+        if (args.length != 2) {
+            System.err.println("usage: ReadPathLoadComparison <blocking-url> <reactive-url>");
+            System.exit(1);
+        }
+
+        String token = System.getProperty("token");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("%-10s %6s %10s %9s %9s %7s%n",
+                "route", "users", "req/s", "p50 ms", "p99 ms", "errors");
+
+        for (int users : CONCURRENCY) {
+            for (int route = 0; route < args.length; route++) {
+                HttpRequest request = request(args[route], token);
+
+                run(client, request, users, WARMUP);
+                Result result = run(client, request, users, MEASURE);
+
+                System.out.printf("%-10s %6d %10.1f %9.1f %9.1f %7d%n",
+                        route == 0 ? "blocking" : "reactive",
+                        users,
+                        result.latenciesMs.size() / (double) MEASURE.toSeconds(),
+                        result.percentile(50),
+                        result.percentile(99),
+                        result.errors.get());
+            }
+        }
+    }
+
+    private static HttpRequest request(String url, String token) {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        return builder.build();
+    }
+
+    // every user sends its next request as soon as the previous body is fully read
+    private static Result run(HttpClient client, HttpRequest request, int users, Duration duration) {
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        Result result = new Result();
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            loops.add(loop(client, request, deadline, result));
+        }
+
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+        return result;
+    }
+
+    private static CompletableFuture<Void> loop(
+            HttpClient client,
+            HttpRequest request,
+            long deadline,
+            Result result
+    ) {
+
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.nanoTime();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, ex) -> {
+                    if (ex != null || response.statusCode() >= 400) {
+                        result.errors.incrementAndGet();
+                    } else {
+                        result.latenciesMs.add((System.nanoTime() - start) / 1_000_000.0);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, result));
+    }
+
+    private static final class Result {
+
+        private final ConcurrentLinkedQueue<Double> latenciesMs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        double percentile(int p) {
+
+            List<Double> sorted = new ArrayList<>(latenciesMs);
+            if (sorted.isEmpty()) {
+                return Double.NaN;
+            }
+
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, sorted.size() * p / 100));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.utility.billing.outbox;
+
+import com.utility.billing.cache.ConsumerLookupCache;
+import com.utility.billing.feign.ConsumerResponse;
+import com.utility.common.dto.event.BillGeneratedEvent;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations ops;
+
+    @Mock
+    private ConsumerLookupCache lookupCache;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        relay = new OutboxRelay(mongoTemplate, rabbitTemplate, lookupCache, 10, 30000, 1000, 3, 100);
+    }
+
+    private static OutboxEvent event(String id, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setExchange("notification.exchange");
+        event.setRoutingKey("bill.generated");
+        event.setPayload(payload);
+        event.setStatus(OutboxStatus.PENDING);
+        return event;
+    }
+
+    private static BillGeneratedEvent bill(String consumerId) {
+        BillGeneratedEvent bill = new BillGeneratedEvent();
+        bill.setBillId("B-" + consumerId);
+        bill.setConsumerId(consumerId);
+        return bill;
+    }
+
+    private void claims(OutboxEvent... events) {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(events), List.of(events));
+    }
+
+    private void brokerConfirms() {
+        when(rabbitTemplate.invoke(any()))
+                .thenAnswer(inv -> inv.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(ops));
+    }
+
+    private static ConsumerResponse consumer(String id, String email) {
+        ConsumerResponse consumer = new ConsumerResponse();
+        consumer.setId(id);
+        consumer.setEmail(email);
+        return consumer;
+    }
+
+    private List<Document> updatesFirst() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        return update.getAllValues().stream()
+                .map(u -> u.getUpdateObject().get("$set", Document.class))
+                .toList();
+    }
+
+    @Test
+    void relayBatch_publishesWithConfirmsAndMarksSent() {
+
+        claims(event("E1", "payload"));
+        brokerConfirms();
+
+        assertEquals(1, relay.relayBatch());
+
+        verify(ops).convertAndSend("notification.exchange", "bill.generated", (Object) "payload");
+        verify(ops).waitForConfirmsOrDie(1000);
+
+        // claim + mark sent
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        assertEquals(
+                OutboxStatus.SENT,
+                update.getValue().getUpdateObject().get("$set", Document.class).get("status")
+        );
+    }
+
+    @Test
+    void relayBatch_fillsBillEmailsInOneLookup() {
+
+        BillGeneratedEvent first = bill("C1");
+        BillGeneratedEvent second = bill("C2");
+
+        claims(event("E1", first), event("E2", second));
+        brokerConfirms();
+        when(lookupCache.getConsumers(List.of("C1", "C2")))
+                .thenReturn(Map.of("C1", consumer("C1", "a@x.com"), "C2", consumer("C2", "b@x.com")));
+
+        relay.relayBatch();
+
+        assertEquals("a@x.com", first.getEmail());
+        assertEquals("b@x.com", second.getEmail());
+        verify(lookupCache, times(1)).getConsumers(any());
+        verify(ops, times(2)).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void relayBatch_eventWithoutEmailIsStillPublished() {
+
+        BillGeneratedEvent bill = bill("C1");
+
+        claims(event("E1", bill));
+        brokerConfirms();
+        when(lookupCache.getConsumers(List.of("C1"))).thenReturn(Map.of());
+
+        relay.relayBatch();
+
+        assertNull(bill.getEmail());
+        verify(ops).convertAndSend("notification.exchange", "bill.generated", (Object) bill);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+    }
+
+    @Test
+    void relayBatch_unconfirmedBatchIsRetriedLater() {
+
+        claims(event("E1", "payload"));
+        when(rabbitTemplate.invoke(any())).thenThrow(new AmqpException("nack"));
+
+        relay.relayBatch();
+
+        Document set = updatesFirst().get(0);
+        assertEquals(1, set.get("attempts"));
+        assertNull(set.get("status"));
+        assertNotNull(set.get("lockedUntil"));
+    }
+
+    @Test
+    void relayBatch_nothingPending() {
+
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+        verifyNoInteractions(rabbitTemplate);
+    }
+}
@@ -0,0 +1,35 @@
+package com.utility.billing.repository;
+
+import com.utility.billing.config.MongoIndexConfig;
+import com.utility.common.test.RepositoryIndexCheck;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+
+/*
+ * Fails when a derived query in this package would scan a whole collection;
+ * see RepositoryIndexCheck. The config server import is switched off so the
+ * test only needs the embedded mongod.
+ */
+@DataMongoTest(properties = {
+        "de.flapdoodle.mongodb.embedded.version=7.0.2",
+        "spring.config.name=embedded-mongo-test",
+        "spring.cloud.config.enabled=false"
+})
+@Import({MongoIndexConfig.class, RepositoryIndexCheck.class})
+class RepositoryIndexTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private RepositoryIndexCheck check;
+
+    @Test
+    void everyDerivedQueryUsesAnIndex() throws Exception {
+        check.assertDerivedQueriesUseIndexes(context, getClass().getPackageName());
+    }
+}
@@ -0,0 +1,168 @@
+package com.utility.billing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.utility.billing.dto.BillPageResponse;
+import com.utility.billing.dto.BillResponse;
+import com.utility.billing.exception.ApiException;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.BillStatus;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BillQueryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private BillQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BillQueryService(
+                mongoTemplate,
+                reactiveMongoTemplate,
+                new ObjectMapper().registerModule(new JavaTimeModule())
+        );
+    }
+
+    private Bill bill(String id, int month, int year) {
+        Bill b = new Bill();
+        b.setId(id);
+        b.setBillingMonth(month);
+        b.setBillingYear(year);
+        b.setStatus(BillStatus.DUE);
+        return b;
+    }
+
+    // top-level conditions with the $and of filters flattened; toJson() has no codec for enums
+    private static Document conditions(Query query) {
+
+        Document flat = new Document();
+
+        query.getQueryObject().forEach((key, value) -> {
+            if ("$and".equals(key)) {
+                ((List<?>) value).forEach(clause -> flat.putAll((Document) clause));
+            } else {
+                flat.put(key, value);
+            }
+        });
+
+        return flat;
+    }
+
+    @Test
+    void getBillsPage_returnsCursorWhenMoreRows() {
+
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(List.of(bill("B3", 3, 2025), bill("B2", 2, 2025), bill("B1", 1, 2025)));
+
+        BillPageResponse page =
+                service.getBillsPage(BillStatus.DUE, null, 2025, "C1", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Bill.class));
+
+        Query query = captor.getValue();
+        assertEquals(3, query.getLimit());
+        assertEquals("C1", conditions(query).get("consumerId"));
+        assertEquals(BillStatus.DUE, conditions(query).get("status"));
+        assertTrue(query.getSortObject().containsKey("_id"));
+    }
+
+    @Test
+    void getBillsPage_lastPageHasNoCursor() {
+
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(List.of(bill("B1", 1, 2025)));
+
+        BillPageResponse page =
+                service.getBillsPage(null, null, null, null, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getBillsPage_cursorRoundTrip() {
+
+        String cursor = BillQueryService.Cursor.of(bill("B2", 2, 2025)).encode();
+
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(List.of());
+
+        service.getBillsPage(null, null, null, null, cursor, 10);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Bill.class));
+
+        Document conditions = conditions(captor.getValue());
+        assertTrue(conditions.containsKey("$or"));
+        assertTrue(conditions.get("$or").toString().contains("B2"));
+    }
+
+    @Test
+    void getBillsPage_invalidCursor() {
+
+        assertThrows(ApiException.class,
+                () -> service.getBillsPage(null, null, null, null, "%%%", 10));
+    }
+
+    @Test
+    void exportBills_writesOneLinePerBill() throws Exception {
+
+        when(mongoTemplate.stream(any(Query.class), eq(Bill.class)))
+                .thenReturn(Stream.of(bill("B1", 1, 2025), bill("B2", 1, 2025)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportBills(null, 1, 2025, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"B1\""));
+    }
+
+    @Test
+    void streamBills_mapsRowsInKeysetOrder() {
+
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(Flux.just(bill("B2", 2, 2025), bill("B1", 1, 2025)));
+
+        List<BillResponse> rows =
+                service.streamBills(null, null, 2025, "C1").collectList().block();
+
+        assertEquals(List.of("B2", "B1"), rows.stream().map(BillResponse::getId).toList());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).find(captor.capture(), eq(Bill.class));
+
+        Query query = captor.getValue();
+        assertEquals("C1", conditions(query).get("consumerId"));
+        assertTrue(query.getSortObject().containsKey("_id"));
+    }
+}
@@ -2,16 +2,20 @@ package com.utility.billing.service;
 
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.dashboard.*;
-import com.utility.billing.model.Bill;
 import com.utility.billing.model.BillStatus;
 import com.utility.billing.model.UtilityType;
 import com.utility.billing.repository.BillRepository;
 
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 
 import java.util.List;
 
@@ -27,17 +31,15 @@ class BillingDashboardServiceTest {
     @Mock
     private BillingService billingService;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private BillingDashboardService service;
 
-    private Bill bill(String consumer, UtilityType type, BillStatus status, double amount, long units) {
-        Bill b = new Bill();
-        b.setConsumerId(consumer);
-        b.setUtilityType(type);
-        b.setStatus(status);
-        b.setTotalAmount(amount);
-        b.setConsumptionUnits(units);
-        return b;
+    private void aggregationReturns(Document... docs) {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(docs), new Document()));
     }
 
     @Test
@@ -58,27 +60,44 @@ class BillingDashboardServiceTest {
     @Test
     void getConsumptionSummary_success() {
 
-        when(billRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(
-                        bill("C1", UtilityType.ELECTRICITY, BillStatus.PAID, 200, 100),
-                        bill("C2", UtilityType.ELECTRICITY, BillStatus.PAID, 300, 150)
-                ));
+        aggregationReturns(
+                new Document("_id", "ELECTRICITY")
+                        .append("totalUnits", 250L)
+                        .append("averageUnits", 125.0)
+        );
 
         List<ConsumptionSummaryDto> result =
                 service.getConsumptionSummary(1, 2025);
 
         assertEquals(1, result.size());
+        assertEquals(UtilityType.ELECTRICITY, result.get(0).getUtilityType());
         assertEquals(250L, result.get(0).getTotalUnits());
     }
 
+    @Test
+    void getConsumptionSummary_pipelineMatchesPeriod() {
+
+        aggregationReturns();
+
+        service.getConsumptionSummary(1, 2025);
+
+        ArgumentCaptor<TypedAggregation> captor =
+                ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq(Document.class));
+
+        String pipeline = captor.getValue().toString();
+        assertTrue(pipeline.contains("$match"));
+        assertTrue(pipeline.contains("$group"));
+    }
+
     @Test
     void getAverageConsumption_success() {
 
-        when(billRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(
-                        bill("C1", UtilityType.WATER, BillStatus.PAID, 100, 50),
-                        bill("C2", UtilityType.WATER, BillStatus.PAID, 200, 150)
-                ));
+        aggregationReturns(
+                new Document("_id", "WATER")
+                        .append("totalUnits", 200L)
+                        .append("averageUnits", 100.0)
+        );
 
         List<AverageConsumptionDto> result =
                 service.getAverageConsumption(1, 2025);
@@ -90,18 +109,21 @@ class BillingDashboardServiceTest {
     @Test
     void getConsumerBillingSummary_success() {
 
-        when(billRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(
-                        bill("C1", UtilityType.ELECTRICITY, BillStatus.PAID, 200, 100),
-                        bill("C1", UtilityType.ELECTRICITY, BillStatus.DUE, 300, 150)
-                ));
+        aggregationReturns(
+                new Document("_id", "C1")
+                        .append("totalBills", 2)
+                        .append("totalAmount", 500.0)
+                        .append("paidAmount", 200.0)
+        );
 
         List<ConsumerBillingSummaryDto> result =
                 service.getConsumerBillingSummary(1, 2025);
 
         assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getTotalBills());
         assertEquals(500, result.get(0).getTotalAmount());
         assertEquals(200, result.get(0).getPaidAmount());
+        assertEquals(300, result.get(0).getUnpaidAmount());
     }
 
     @Test
@@ -116,11 +138,72 @@ class BillingDashboardServiceTest {
     @Test
     void getTotalBilledForMonth_success() {
 
-        when(billRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(
-                        bill("C1", UtilityType.GAS, BillStatus.PAID, 500, 100)
-                ));
+        when(billRepository.sumTotalAmountForPeriod(1, 2025))
+                .thenReturn(500.0);
 
         assertEquals(500, service.getTotalBilledForMonth(1, 2025));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTotalBilledForMonth_noBills() {
+
+        when(billRepository.sumTotalAmountForPeriod(1, 2025))
+                .thenReturn(null);
+
+        assertEquals(0, service.getTotalBilledForMonth(1, 2025));
+    }
+
+    @Test
+    void getTotalBilledByMonth_success() {
+
+        aggregationReturns(
+                new Document("_id", 1).append("totalBilled", 1200.0),
+                new Document("_id", 2).append("totalBilled", 800.0)
+        );
+
+        List<MonthlyBilledDto> result = service.getTotalBilledByMonth(2025);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getMonth());
+        assertEquals(800.0, result.get(1).getTotalBilled());
+    }
+
+    @Test
+    void getDashboard_readsFacets() {
+
+        aggregationReturns(
+                new Document("totals", List.of(
+                        new Document("totalBills", 10)
+                                .append("paidBills", 6)
+                                .append("totalAmount", 1000.0)
+                                .append("paidAmount", 600.0)))
+                        .append("byUtility", List.of(
+                                new Document("_id", "GAS")
+                                        .append("totalUnits", 300L)
+                                        .append("averageUnits", 30.0)))
+        );
+
+        BillingDashboardDto dto = service.getDashboard(1, 2025);
+
+        assertEquals(10, dto.getBillsSummary().getTotalBills());
+        assertEquals(4, dto.getBillsSummary().getUnpaidBills());
+        assertEquals(1000.0, dto.getTotalBilled());
+        assertEquals(600.0, dto.getTotalPaid());
+        assertEquals(300L, dto.getConsumptionSummary().get(0).getTotalUnits());
+        assertEquals(30.0, dto.getAverageConsumption().get(0).getAverageUnits());
+    }
+
+    @Test
+    void getDashboard_emptyMonth() {
+
+        aggregationReturns(
+                new Document("totals", List.of())
+                        .append("byUtility", List.of())
+        );
+
+        BillingDashboardDto dto = service.getDashboard(1, 2025);
+
+        assertEquals(0, dto.getBillsSummary().getTotalBills());
+        assertTrue(dto.getConsumptionSummary().isEmpty());
+    }
+}
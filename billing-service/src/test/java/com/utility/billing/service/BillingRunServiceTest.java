@@ -0,0 +1,312 @@
+package com.utility.billing.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.utility.billing.config.RabbitConfig;
+import com.utility.billing.dto.BillingRunRequest;
+import com.utility.billing.dto.BillingRunResponse;
+import com.utility.billing.exception.ApiException;
+import com.utility.billing.feign.*;
+import com.utility.billing.model.*;
+import com.utility.billing.outbox.Outbox;
+import com.utility.billing.repository.BillRepository;
+import com.utility.billing.repository.BillingRunRepository;
+import com.utility.common.dto.event.BillGeneratedEvent;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BillingRunServiceTest {
+
+    @Mock
+    private BillingRunRepository runRepository;
+
+    @Mock
+    private BillRepository billRepository;
+
+    @Mock
+    private TariffEngine tariffEngine;
+
+    @Mock
+    private ConnectionClient connectionClient;
+
+    @Mock
+    private MeterReadingClient meterClient;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    private ExecutorService computePool;
+
+    private BillingRunService service;
+
+    @BeforeEach
+    void setUp() {
+        computePool = Executors.newFixedThreadPool(2);
+        service = new BillingRunService(
+                runRepository, billRepository, tariffEngine,
+                connectionClient, meterClient,
+                outbox, mongoTemplate,
+                Runnable::run, computePool,
+                2, 1
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        computePool.shutdownNow();
+    }
+
+    // ------------------ helpers ------------------
+
+    private BillingRunRequest request() {
+        BillingRunRequest r = new BillingRunRequest();
+        r.setBillingMonth(1);
+        r.setBillingYear(2025);
+        return r;
+    }
+
+    private ConsumerConnectionResponse connection(String id) {
+        ConsumerConnectionResponse c = new ConsumerConnectionResponse();
+        c.setId(id);
+        c.setConsumerId("C-" + id);
+        c.setUtilityType(UtilityType.ELECTRICITY);
+        c.setTariffPlan("DOMESTIC");
+        c.setActive(true);
+        return c;
+    }
+
+    private MeterReadingResponse reading(String connectionId, long units) {
+        MeterReadingResponse r = new MeterReadingResponse();
+        r.setConnectionId(connectionId);
+        r.setUtilityType(UtilityType.ELECTRICITY);
+        r.setConsumptionUnits(units);
+        r.setReadingMonth(1);
+        r.setReadingYear(2025);
+        return r;
+    }
+
+    // ------------------ tests ------------------
+
+    @Test
+    void startRun_generatesBillsAndCompletes() {
+
+        when(runRepository.findByBillingMonthAndBillingYear(1, 2025))
+                .thenReturn(Optional.empty());
+        when(runRepository.save(any()))
+                .thenAnswer(i -> i.getArgument(0));
+
+        when(connectionClient.getActiveConnectionsPage(null, 2))
+                .thenReturn(List.of(connection("CON1"), connection("CON2")));
+        when(connectionClient.getActiveConnectionsPage("CON2", 2))
+                .thenReturn(List.of());
+
+        when(billRepository.findByConnectionIdInAndBillingMonthAndBillingYear(
+                List.of("CON1", "CON2"), 1, 2025))
+                .thenReturn(List.of());
+
+        // CON2 has no reading for the month and is skipped
+        when(meterClient.getReadingsForConnections(1, 2025, List.of("CON1", "CON2")))
+                .thenReturn(List.of(reading("CON1", 100)));
+
+        when(tariffEngine.current())
+                .thenReturn(TariffSnapshot.compile(
+                        List.of(),
+                        List.of(new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 0, 500, 5))));
+
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Bill.class))
+                .thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenReturn(bulkOps);
+
+        when(outbox.atomically(any()))
+                .thenAnswer(i -> i.<Supplier<?>>getArgument(0).get());
+
+        BillingRunResponse response = service.startRun(request());
+
+        assertEquals(BillingRunStatus.COMPLETED, response.getStatus());
+        assertEquals(2, response.getProcessedConnections());
+        assertEquals(1, response.getGeneratedBills());
+        assertEquals(1, response.getSkippedConnections());
+        assertEquals("CON2", response.getLastConnectionId());
+
+        verify(bulkOps).execute();
+        // written without the email, which OutboxRelay fills in
+        verify(outbox).addAll(
+                eq(RabbitConfig.EXCHANGE),
+                eq(RabbitConfig.BILL_ROUTING_KEY),
+                argThat(events -> events.size() == 1
+                        && events.get(0) instanceof BillGeneratedEvent event
+                        && "C-CON1".equals(event.getConsumerId())
+                        && event.getEmail() == null)
+        );
+    }
+
+    @Test
+    void startRun_dropsBillsGeneratedConcurrently() {
+
+        when(runRepository.findByBillingMonthAndBillingYear(1, 2025))
+                .thenReturn(Optional.empty());
+        when(runRepository.save(any()))
+                .thenAnswer(i -> i.getArgument(0));
+
+        when(connectionClient.getActiveConnectionsPage(null, 2))
+                .thenReturn(List.of(connection("CON1"), connection("CON2")));
+        when(connectionClient.getActiveConnectionsPage("CON2", 2))
+                .thenReturn(List.of());
+
+        when(meterClient.getReadingsForConnections(1, 2025, List.of("CON1", "CON2")))
+                .thenReturn(List.of(reading("CON1", 100), reading("CON2", 100)));
+
+        when(tariffEngine.current())
+                .thenReturn(TariffSnapshot.compile(
+                        List.of(),
+                        List.of(new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 0, 500, 5))));
+
+        List<Bill> inserted = new ArrayList<>();
+
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Bill.class))
+                .thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenAnswer(i -> {
+            inserted.addAll(i.getArgument(0));
+            return bulkOps;
+        });
+
+        // generateBill billed CON1 after the page was read; CON2 went in without a transaction
+        when(bulkOps.execute()).thenThrow(new BulkOperationException("E11000",
+                new MongoBulkWriteException(
+                        BulkWriteResult.unacknowledged(),
+                        List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                        null,
+                        new ServerAddress())));
+
+        Bill other = new Bill();
+        other.setId("OTHER");
+        other.setConnectionId("CON1");
+
+        when(billRepository.findByConnectionIdInAndBillingMonthAndBillingYear(
+                List.of("CON1", "CON2"), 1, 2025))
+                .thenReturn(List.of())
+                .thenAnswer(i -> List.of(other, inserted.get(1)));
+
+        when(outbox.atomically(any()))
+                .thenAnswer(i -> i.<Supplier<?>>getArgument(0).get());
+
+        BillingRunResponse response = service.startRun(request());
+
+        assertEquals(BillingRunStatus.COMPLETED, response.getStatus());
+        assertEquals(1, response.getGeneratedBills());
+        assertEquals(1, response.getSkippedConnections());
+
+        // nothing left to insert, but CON2's event is still owed
+        verify(bulkOps, times(1)).insert(anyList());
+        verify(outbox).addAll(
+                eq(RabbitConfig.EXCHANGE),
+                eq(RabbitConfig.BILL_ROUTING_KEY),
+                argThat(events -> events.size() == 1
+                        && events.get(0) instanceof BillGeneratedEvent event
+                        && "C-CON2".equals(event.getConsumerId()))
+        );
+    }
+
+    @Test
+    void startRun_alreadyCompleted() {
+
+        BillingRun run = new BillingRun();
+        run.setStatus(BillingRunStatus.COMPLETED);
+
+        when(runRepository.findByBillingMonthAndBillingYear(1, 2025))
+                .thenReturn(Optional.of(run));
+
+        assertThrows(ApiException.class,
+                () -> service.startRun(request()));
+    }
+
+    @Test
+    void resumeRun_continuesFromCheckpoint() {
+
+        BillingRun run = new BillingRun();
+        run.setId("R1");
+        run.setBillingMonth(1);
+        run.setBillingYear(2025);
+        run.setStatus(BillingRunStatus.FAILED);
+        run.setLastConnectionId("CON2");
+        run.setProcessedConnections(2);
+
+        when(runRepository.findById("R1")).thenReturn(Optional.of(run));
+        when(runRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(connectionClient.getActiveConnectionsPage("CON2", 2))
+                .thenReturn(List.of());
+
+        BillingRunResponse response = service.resumeRun("R1");
+
+        assertEquals(BillingRunStatus.COMPLETED, response.getStatus());
+        assertEquals(2, response.getProcessedConnections());
+        verify(connectionClient, never()).getActiveConnectionsPage(null, 2);
+    }
+
+    @Test
+    void resumeRun_notFailed() {
+
+        BillingRun run = new BillingRun();
+        run.setStatus(BillingRunStatus.RUNNING);
+
+        when(runRepository.findById("R1")).thenReturn(Optional.of(run));
+
+        assertThrows(ApiException.class,
+                () -> service.resumeRun("R1"));
+    }
+
+    @Test
+    void execute_failureMarksRunFailed() {
+
+        BillingRun run = new BillingRun();
+        run.setId("R1");
+        run.setStatus(BillingRunStatus.RUNNING);
+
+        when(connectionClient.getActiveConnectionsPage(null, 2))
+                .thenThrow(new RuntimeException("consumer-service down"));
+
+        service.execute(run);
+
+        assertEquals(BillingRunStatus.FAILED, run.getStatus());
+        assertEquals("consumer-service down", run.getErrorMessage());
+        verify(runRepository).save(run);
+    }
+
+    @Test
+    void getRun_notFound() {
+
+        when(runRepository.findById("R1")).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class,
+                () -> service.getRun("R1"));
+    }
+}
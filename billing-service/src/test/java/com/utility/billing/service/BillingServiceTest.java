@@ -1,23 +1,29 @@
 package com.utility.billing.service;
 
+import com.utility.billing.cache.ConsumerLookupCache;
 import com.utility.billing.dto.BillResponse;
 import com.utility.billing.dto.GenerateBillRequest;
-import com.utility.billing.event.BillEventPublisher;
+import com.utility.billing.config.RabbitConfig;
 import com.utility.billing.exception.ApiException;
 import com.utility.billing.feign.*;
 import com.utility.billing.model.*;
+import com.utility.billing.outbox.Outbox;
 import com.utility.billing.repository.BillRepository;
-import com.utility.billing.repository.TariffSlabRepository;
+import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.common.dto.event.BillPaidEvent;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,16 +38,13 @@ class BillingServiceTest {
     private MeterReadingClient meterClient;
 
     @Mock
-    private TariffSlabRepository slabRepository;
+    private TariffEngine tariffEngine;
 
     @Mock
-    private BillEventPublisher publisher;
+    private Outbox outbox;
 
     @Mock
-    private ConnectionClient connectionClient;
-
-    @Mock
-    private ConsumerClient consumerClient;
+    private ConsumerLookupCache lookupCache;
 
     @InjectMocks
     private BillingService service;
@@ -55,12 +58,32 @@ class BillingServiceTest {
         return r;
     }
 
+    private TariffSnapshot snapshot(TariffSlab... slabs) {
+        for (TariffSlab slab : slabs) {
+            slab.setUtilityType(UtilityType.ELECTRICITY);
+            slab.setPlanCode("DOMESTIC");
+        }
+        return TariffSnapshot.compile(List.of(), List.of(slabs));
+    }
+
     /**
      * ⭐ Centralized mock setup for generateBill
      * Used by MULTIPLE tests
      */
     private void mockGenerateBillDependencies() {
 
+        mockBillInputs();
+
+        when(billRepository.save(any(Bill.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(outbox.atomically(any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+    }
+
+    // everything generateBill reads before it stores the bill
+    private void mockBillInputs() {
+
         // Meter reading
         MeterReadingResponse reading = new MeterReadingResponse();
         reading.setReadingMonth(LocalDate.now().getMonthValue());
@@ -81,30 +104,17 @@ class BillingServiceTest {
         conn.setUtilityType(UtilityType.ELECTRICITY);
         conn.setTariffPlan("DOMESTIC");
 
-        when(connectionClient.getConnectionById("CON1"))
+        when(lookupCache.getConnection("CON1"))
                 .thenReturn(conn);
 
-        // Consumer
-        ConsumerResponse consumer = new ConsumerResponse();
-        consumer.setId("C1");
-        consumer.setEmail("a@gmail.com");
-
-        when(consumerClient.getConsumerById("C1"))
-                .thenReturn(consumer);
-
         // Tariff slab
         TariffSlab slab = new TariffSlab();
         slab.setMinUnits(0);
         slab.setMaxUnits(200);
         slab.setRate(5);
 
-        when(slabRepository
-                .findByUtilityTypeAndPlanCodeOrderByMinUnitsAsc(
-                        UtilityType.ELECTRICITY, "DOMESTIC"))
-                .thenReturn(List.of(slab));
-
-        when(billRepository.save(any(Bill.class)))
-                .thenAnswer(inv -> inv.getArgument(0));
+        when(tariffEngine.current())
+                .thenReturn(snapshot(slab));
     }
 
     // ------------------ tests ------------------
@@ -119,8 +129,31 @@ class BillingServiceTest {
         assertNotNull(response);
         assertTrue(response.getTotalAmount() > 0);
 
-        verify(publisher, times(1))
-                .publish(any());
+        // queued for the relay; no consumer lookup on the request path
+        verify(outbox, times(1))
+                .add(
+                        eq(RabbitConfig.EXCHANGE),
+                        eq(RabbitConfig.BILL_ROUTING_KEY),
+                        any(BillGeneratedEvent.class)
+                );
+        verify(lookupCache, never()).getConsumer(any());
+    }
+
+    @Test
+    void generateBill_periodBilledConcurrently() {
+
+        mockBillInputs();
+
+        when(billRepository.save(any(Bill.class)))
+                .thenThrow(new DuplicateKeyException("connection_period_idx"));
+        when(outbox.atomically(any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+
+        ApiException ex = assertThrows(ApiException.class,
+                () -> service.generateBill(request()));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        verify(outbox, never()).add(any(), any(), any());
     }
     @Test
     void markBillAsPaid_notFound_lambdaCovered() {
@@ -146,13 +179,14 @@ class BillingServiceTest {
         slab2.setMaxUnits(200);
         slab2.setRate(5);
 
-        when(slabRepository.findByUtilityTypeAndPlanCodeOrderByMinUnitsAsc(
-                UtilityType.ELECTRICITY, "DOMESTIC"))
-                .thenReturn(List.of(slab1, slab2));
+        when(tariffEngine.current())
+                .thenReturn(snapshot(slab1, slab2));
 
         BillResponse response = service.generateBill(request());
 
-        assertTrue(response.getEnergyCharge() > 0);
+        // 51 units at 3 + 49 units at 5
+        assertEquals(398, response.getEnergyCharge(), 0.0001);
+        assertNotNull(response.getTariffVersion());
     }
     @Test
     void getAllBills_byMonthYear() {
@@ -216,11 +250,19 @@ class BillingServiceTest {
 
         when(billRepository.findById("B1"))
                 .thenReturn(Optional.of(bill));
+        when(billRepository.save(bill)).thenReturn(bill);
+        when(outbox.atomically(any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
 
         service.markBillAsPaid("B1");
 
         assertEquals(BillStatus.PAID, bill.getStatus());
         assertEquals(160, bill.getTotalAmount());
+        verify(outbox).add(
+                eq(RabbitConfig.EXCHANGE),
+                eq(RabbitConfig.BILL_PAID_KEY),
+                argThat(e -> e instanceof BillPaidEvent paid && paid.getAmount() == 160)
+        );
     }
 
     @Test
@@ -258,6 +300,28 @@ class BillingServiceTest {
                 () -> service.getBillsByConsumer("C1"));
     }
 
+    @Test
+    void getBillsByIds_success() {
+
+        Bill bill = new Bill();
+        bill.setId("B1");
+
+        when(billRepository.findAllById(List.of("B1", "B2")))
+                .thenReturn(List.of(bill));
+
+        List<BillResponse> result = service.getBillsByIds(List.of("B1", "B2"));
+
+        assertEquals(1, result.size());
+        assertEquals("B1", result.get(0).getId());
+    }
+
+    @Test
+    void getBillsByIds_empty() {
+
+        assertTrue(service.getBillsByIds(List.of()).isEmpty());
+        verifyNoInteractions(billRepository);
+    }
+
     @Test
     void getAllBills_withStatus() {
 
@@ -273,15 +337,21 @@ class BillingServiceTest {
     @Test
     void getTotalBilledAmount_success() {
 
-        Bill b = new Bill();
-        b.setTotalAmount(500);
-
-        when(billRepository.findAll())
-                .thenReturn(List.of(b));
+        when(billRepository.sumTotalAmount())
+                .thenReturn(500.0);
 
         assertEquals(500, service.getTotalBilledAmount());
     }
 
+    @Test
+    void getTotalBilledAmount_noBills() {
+
+        when(billRepository.sumTotalAmount())
+                .thenReturn(null);
+
+        assertEquals(0, service.getTotalBilledAmount());
+    }
+
     @Test
     void getOverdueBills_success() {
 
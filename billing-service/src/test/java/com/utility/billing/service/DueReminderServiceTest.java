@@ -0,0 +1,112 @@
+package com.utility.billing.service;
+
+import com.utility.billing.cache.ConsumerLookupCache;
+import com.utility.billing.dto.ReminderRunResult;
+import com.utility.billing.event.BillEventPublisher;
+import com.utility.billing.feign.ConsumerResponse;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.UtilityType;
+import com.utility.common.dto.event.BillDueReminderEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DueReminderServiceTest {
+
+    private static final LocalDate DUE = LocalDate.of(2025, 3, 3);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ConsumerLookupCache lookupCache;
+
+    @Mock
+    private BillEventPublisher billEventPublisher;
+
+    private DueReminderService service;
+
+    @BeforeEach
+    void setUp() {
+        // same-thread executor keeps the test deterministic
+        service = new DueReminderService(
+                mongoTemplate, lookupCache, billEventPublisher, Runnable::run, 2);
+    }
+
+    private Bill bill(String id, String consumerId) {
+        Bill b = new Bill();
+        b.setId(id);
+        b.setConsumerId(consumerId);
+        b.setTotalAmount(100);
+        b.setDueDate(DUE);
+        b.setUtilityType(UtilityType.ELECTRICITY);
+        return b;
+    }
+
+    private ConsumerResponse consumer(String id) {
+        ConsumerResponse c = new ConsumerResponse();
+        c.setId(id);
+        c.setEmail(id + "@mail.com");
+        return c;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendReminders_batchesLookupsAndPublishes() {
+
+        when(mongoTemplate.stream(any(Query.class), eq(Bill.class)))
+                .thenReturn(Stream.of(bill("B1", "C1"), bill("B2", "C1"), bill("B3", "C2")));
+
+        when(lookupCache.getConsumers(List.of("C1")))
+                .thenReturn(Map.of("C1", consumer("C1")));
+        when(lookupCache.getConsumers(List.of("C2")))
+                .thenReturn(Map.of());
+
+        ReminderRunResult result = service.sendReminders(DUE, DUE.plusDays(1));
+
+        assertEquals(3, result.bills());
+        assertEquals(2, result.sent());
+        assertEquals(1, result.failed());
+
+        ArgumentCaptor<List<BillDueReminderEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(billEventPublisher, times(2)).publishDueReminders(events.capture());
+
+        assertEquals(2, events.getAllValues().get(0).size());
+        assertEquals("C1@mail.com", events.getAllValues().get(0).get(0).getEmail());
+        assertTrue(events.getAllValues().get(1).isEmpty());
+    }
+
+    @Test
+    void sendReminders_unconfirmedBatchCountsAsFailed() {
+
+        when(mongoTemplate.stream(any(Query.class), eq(Bill.class)))
+                .thenReturn(Stream.of(bill("B1", "C1")));
+
+        when(lookupCache.getConsumers(List.of("C1")))
+                .thenReturn(Map.of("C1", consumer("C1")));
+
+        doThrow(new AmqpException("nack"))
+                .when(billEventPublisher).publishDueReminders(anyList());
+
+        ReminderRunResult result = service.sendReminders(DUE, DUE.plusDays(1));
+
+        assertEquals(0, result.sent());
+        assertEquals(1, result.failed());
+    }
+}
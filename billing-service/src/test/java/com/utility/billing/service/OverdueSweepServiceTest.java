@@ -0,0 +1,135 @@
+package com.utility.billing.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.utility.billing.config.RabbitConfig;
+import com.utility.billing.dto.OverdueSweepResult;
+import com.utility.billing.model.Bill;
+import com.utility.billing.model.BillStatus;
+import com.utility.billing.outbox.Outbox;
+import com.utility.common.dto.event.BillOverdueEvent;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueSweepServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private Outbox outbox;
+
+    private OverdueSweepService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OverdueSweepService(mongoTemplate, outbox, 50, 2);
+
+        when(outbox.atomically(any()))
+                .thenAnswer(i -> i.<Supplier<?>>getArgument(0).get());
+    }
+
+    private Bill bill(String id) {
+        Bill b = new Bill();
+        b.setId(id);
+        b.setConsumerId("C1");
+        b.setStatus(BillStatus.DUE);
+        b.setTotalAmount(100);
+        b.setPenalty(0);
+        b.setDueDate(TODAY.minusDays(5));
+        return b;
+    }
+
+    @Test
+    void sweep_walksChunksAndQueuesEvents() {
+
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(List.of(bill("B1"), bill("B2")))
+                .thenReturn(List.of(bill("B3")));
+
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Bill.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        OverdueSweepResult result = service.sweep(TODAY);
+
+        assertEquals(3, result.processed());
+        verify(outbox, times(2)).atomically(any());
+
+        ArgumentCaptor<BillOverdueEvent> events = ArgumentCaptor.forClass(BillOverdueEvent.class);
+        verify(outbox, times(3)).add(
+                eq(RabbitConfig.EXCHANGE),
+                eq(RabbitConfig.BILL_OVERDUE_KEY),
+                events.capture()
+        );
+
+        assertEquals(50.0, events.getAllValues().get(0).getPenalty());
+        assertEquals("B3", events.getAllValues().get(2).getBillId());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(query.capture(), update.capture(), eq(Bill.class));
+
+        assertEquals(BillStatus.DUE, query.getValue().getQueryObject().get("status"));
+
+        // every chunk re-asks the DUE predicate; no sort the status index cannot serve
+        ArgumentCaptor<Query> reads = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(reads.capture(), eq(Bill.class));
+        for (Query read : reads.getAllValues()) {
+            assertTrue(read.getSortObject().isEmpty());
+            assertFalse(read.getQueryObject().containsKey("_id"));
+            assertEquals(2, read.getLimit());
+        }
+
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(50.0, inc.get("penalty"));
+    }
+
+    @Test
+    void sweep_skipsBillsPaidMeanwhile() {
+
+        Bill flipped = bill("B1");
+        flipped.setStatus(BillStatus.OVERDUE);
+        flipped.setPenalty(50);
+
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class)))
+                .thenReturn(List.of(bill("B1"), bill("B2")))
+                .thenReturn(List.of(flipped))
+                .thenReturn(List.of());
+
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Bill.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 1L, null));
+
+        OverdueSweepResult result = service.sweep(TODAY);
+
+        assertEquals(1, result.processed());
+
+        ArgumentCaptor<BillOverdueEvent> event = ArgumentCaptor.forClass(BillOverdueEvent.class);
+        verify(outbox).add(
+                eq(RabbitConfig.EXCHANGE),
+                eq(RabbitConfig.BILL_OVERDUE_KEY),
+                event.capture()
+        );
+
+        assertEquals("B1", event.getValue().getBillId());
+        assertEquals(50.0, event.getValue().getPenalty());
+    }
+}
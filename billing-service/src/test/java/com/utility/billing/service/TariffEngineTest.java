@@ -0,0 +1,105 @@
+package com.utility.billing.service;
+
+import com.utility.billing.model.TariffPlan;
+import com.utility.billing.model.TariffSlab;
+import com.utility.billing.model.UtilityType;
+import com.utility.billing.repository.TariffPlanRepository;
+import com.utility.billing.repository.TariffSlabRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TariffEngineTest {
+
+    @Mock
+    private TariffPlanRepository planRepository;
+
+    @Mock
+    private TariffSlabRepository slabRepository;
+
+    @InjectMocks
+    private TariffEngine engine;
+
+    private List<TariffSlab> domesticSlabs() {
+        return List.of(
+                new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 201, 500, 6.5),
+                new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 0, 100, 3.5),
+                new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 101, 200, 4.75)
+        );
+    }
+
+    // the per-bill loop the compiled tariff replaces
+    private double slabLoop(long units, List<TariffSlab> slabs) {
+        double amount = 0;
+        long remaining = units;
+        for (TariffSlab slab : slabs.stream()
+                .sorted((a, b) -> Long.compare(a.getMinUnits(), b.getMinUnits()))
+                .toList()) {
+            long slabUnits = Math.min(remaining, slab.getMaxUnits() - slab.getMinUnits() + 1);
+            if (slabUnits > 0) {
+                amount += slabUnits * slab.getRate();
+                remaining -= slabUnits;
+            }
+        }
+        return amount;
+    }
+
+    @Test
+    void charge_matchesSlabLoop() {
+
+        CompiledTariff tariff = CompiledTariff.compile(domesticSlabs());
+
+        for (long units = 0; units <= 700; units++) {
+            assertEquals(slabLoop(units, domesticSlabs()), tariff.charge(units),
+                    "units=" + units);
+        }
+    }
+
+    @Test
+    void charge_emptyTariff() {
+
+        assertEquals(0, CompiledTariff.compile(List.of()).charge(100));
+    }
+
+    @Test
+    void compile_sameDataSameVersion() {
+
+        TariffPlan plan = new TariffPlan(UtilityType.ELECTRICITY, "DOMESTIC", true);
+
+        TariffSnapshot a = TariffSnapshot.compile(List.of(plan), domesticSlabs());
+        TariffSnapshot b = TariffSnapshot.compile(List.of(plan), domesticSlabs());
+
+        assertEquals(a.getVersion(), b.getVersion());
+        assertNotNull(a.find(UtilityType.ELECTRICITY, "DOMESTIC"));
+        assertNull(a.find(UtilityType.WATER, "DOMESTIC"));
+    }
+
+    @Test
+    void reload_swapsSnapshotWhenTariffsChange() {
+
+        when(planRepository.findAll()).thenReturn(List.of());
+        when(slabRepository.findAll()).thenReturn(domesticSlabs());
+
+        TariffSnapshot first = engine.current();
+
+        when(slabRepository.findAll()).thenReturn(List.of(
+                new TariffSlab(UtilityType.ELECTRICITY, "DOMESTIC", 0, 100, 4)
+        ));
+
+        engine.reload();
+        TariffSnapshot second = engine.current();
+
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertEquals(400, second.find(UtilityType.ELECTRICITY, "DOMESTIC").charge(100));
+        verify(slabRepository, times(2)).findAll();
+    }
+}
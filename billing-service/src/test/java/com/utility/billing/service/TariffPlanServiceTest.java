@@ -22,6 +22,9 @@ class TariffPlanServiceTest {
     @Mock
     private TariffPlanRepository repository;
 
+    @Mock
+    private TariffEngine tariffEngine;
+
     @InjectMocks
     private TariffPlanService service;
 
@@ -44,6 +47,7 @@ class TariffPlanServiceTest {
         TariffPlanDto result = service.createTariffPlan(dto);
 
         assertEquals("DOMESTIC", result.getPlanCode());
+        verify(tariffEngine).reload();
     }
 
     @Test
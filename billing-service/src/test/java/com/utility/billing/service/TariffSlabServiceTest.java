@@ -23,6 +23,9 @@ class TariffSlabServiceTest {
     @Mock
     private TariffSlabRepository repository;
 
+    @Mock
+    private TariffEngine tariffEngine;
+
     @InjectMocks
     private TariffSlabService service;
 
@@ -46,6 +49,7 @@ class TariffSlabServiceTest {
         TariffSlabDto result = service.createSlab(dto);
 
         assertEquals(5.0, result.getRate());
+        verify(tariffEngine).reload();
     }
 
     @Test
@@ -61,6 +65,7 @@ class TariffSlabServiceTest {
 
         assertNotNull(deleted);
         verify(repository).delete(slab);
+        verify(tariffEngine).reload();
     }
 
     @Test
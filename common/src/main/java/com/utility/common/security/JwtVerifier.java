@@ -0,0 +1,78 @@
+package com.utility.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Bearer-token verification shared by the gateway and the services. Each
+ * service exposes it as its own JwtUtil bean so the secrets stay in that
+ * service's configuration.
+ */
+public class JwtVerifier {
+
+    // key and parser are immutable and thread-safe, so build them once
+    private final JwtParser parser;
+    private final TokenClaimsCache cache;
+    private final IdentityHeader identityHeader;
+
+    // identitySecret may be null where no gateway identity header is accepted
+    public JwtVerifier(String secret, String identitySecret, int cacheMaxEntries, long cacheMaxTtlMs) {
+
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.cache = new TokenClaimsCache(cacheMaxEntries, cacheMaxTtlMs);
+        this.identityHeader = identitySecret == null ? null : new IdentityHeader(identitySecret);
+    }
+
+    // the gateway's identity saves the JWT parse only when it was minted for this very
+    // token; anything else (direct service-to-service calls included) parses the JWT
+    public Claims authenticate(String identity, String token) {
+
+        if (token == null) {
+            return null;
+        }
+
+        Claims claims = identityHeader == null ? null : identityHeader.verify(identity, token);
+
+        if (claims == null) {
+            claims = verify(token);
+        }
+
+        return claims;
+    }
+
+    // verified claims, or null when the token is malformed, forged or expired
+    public Claims verify(String token) {
+        return cache.get(token, this::parse);
+    }
+
+    public Claims extractClaims(String token) {
+
+        Claims claims = verify(token);
+
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
+        }
+
+        return claims;
+    }
+
+    public boolean isTokenValid(String token) {
+        return verify(token) != null;
+    }
+
+    private Claims parse(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.utility.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+import io.jsonwebtoken.Claims;
+
+/*
+ * Verified claims keyed by SHA-256 of the token, so raw tokens are never held.
+ * Entries live until the token's own exp (capped by maxTtlMs); failures are
+ * never cached. When full, expired entries go first, then the least recently
+ * used ones, so live sessions are never dropped wholesale. Verification runs
+ * outside the lock.
+ */
+final class TokenClaimsCache {
+
+    // sweeping for expired entries scans the map; at most once per interval
+    private static final long SWEEP_INTERVAL_MS = 1_000;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+    private final long maxTtlMs;
+
+    private long lastSweep;
+
+    TokenClaimsCache(int maxEntries, long maxTtlMs) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMs = maxTtlMs;
+    }
+
+    Claims get(String token, Function<String, Claims> verifier) {
+
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    return entry.claims();
+                }
+                entries.remove(key);
+            }
+        }
+
+        Claims claims = verifier.apply(token);
+
+        if (claims == null) {
+            return null;
+        }
+
+        long expiresAt = now + maxTtlMs;
+        Date expiration = claims.getExpiration();
+
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+
+        if (expiresAt > now && maxEntries > 0) {
+            put(key, new Entry(claims, expiresAt), now);
+        }
+
+        return claims;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void put(String key, Entry entry, long now) {
+
+        synchronized (entries) {
+            entries.put(key, entry);
+
+            if (entries.size() <= maxEntries) {
+                return;
+            }
+
+            if (now - lastSweep >= SWEEP_INTERVAL_MS) {
+                lastSweep = now;
+                entries.values().removeIf(e -> e.expiresAt() <= now);
+            }
+
+            // iteration order is least recently used first
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static String hash(String token) {
+
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(token.getBytes(StandardCharsets.UTF_8));
+
+            return Base64.getEncoder().encodeToString(digest);
+
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.utility.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityHeaderTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final IdentityHeader identityHeader = new IdentityHeader(SECRET);
+
+    private long inOneMinute() {
+        return System.currentTimeMillis() + 60_000;
+    }
+
+    private String jwt(String username, String role) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim("userId", "U1")
+                .claim("role", role)
+                .setExpiration(new Date(inOneMinute()))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Test
+    void verify_roundTrip() {
+
+        String header = identityHeader.sign("U1", "officer", "BILLING_OFFICER", inOneMinute(), TOKEN);
+
+        Claims claims = identityHeader.verify(header, TOKEN);
+
+        assertNotNull(claims);
+        assertEquals("officer", claims.getSubject());
+        assertEquals("U1", claims.get("userId", String.class));
+        assertEquals("BILLING_OFFICER", claims.get("role", String.class));
+    }
+
+    @Test
+    void verify_otherSecretRejected() {
+
+        String header =
+                new IdentityHeader("another-secret-another-secret-xx")
+                        .sign("U1", "officer", "ADMIN", inOneMinute(), TOKEN);
+
+        assertNull(identityHeader.verify(header, TOKEN));
+    }
+
+    @Test
+    void verify_tamperedPayloadRejected() {
+
+        String header = identityHeader.sign("U1", "officer", "CONSUMER", inOneMinute(), TOKEN);
+        String forged = identityHeader.sign("U1", "officer", "ADMIN", inOneMinute(), TOKEN);
+
+        String spliced =
+                forged.substring(0, forged.indexOf('.'))
+                        + header.substring(header.indexOf('.'));
+
+        assertNull(identityHeader.verify(spliced, TOKEN));
+    }
+
+    @Test
+    void verify_expiredRejected() {
+
+        String header = identityHeader.sign("U1", "officer", "ADMIN", System.currentTimeMillis() - 1, TOKEN);
+
+        assertNull(identityHeader.verify(header, TOKEN));
+    }
+
+    @Test
+    void verify_garbageRejected() {
+
+        assertNull(identityHeader.verify(null, TOKEN));
+        assertNull(identityHeader.verify("no-dot", TOKEN));
+        assertNull(identityHeader.verify("%%%.%%%", TOKEN));
+    }
+
+    @Test
+    void sign_refusesDelimiterInFields() {
+        assertNull(identityHeader.sign("U|1", "officer", "ADMIN", inOneMinute(), TOKEN));
+    }
+
+    @Test
+    void verify_otherTokenRejected() {
+
+        String header = identityHeader.sign("U1", "officer", "ADMIN", inOneMinute(), TOKEN);
+
+        assertNull(identityHeader.verify(header, "another.token.value"));
+        assertNull(identityHeader.verify(header, null));
+    }
+
+    @Test
+    void jwtVerifier_usesIdentityOnlyForItsOwnToken() {
+
+        JwtVerifier verifier = new JwtVerifier(SECRET, SECRET, 100, 60_000);
+
+        String consumerToken = jwt("consumer", "CONSUMER");
+        String adminIdentity = identityHeader.sign("U1", "admin", "ADMIN", inOneMinute(), jwt("admin", "ADMIN"));
+
+        // a header captured from another request does not replace the caller's token
+        assertEquals("consumer", verifier.authenticate(adminIdentity, consumerToken).getSubject());
+
+        String ownIdentity = identityHeader.sign("U1", "officer", "BILLING_OFFICER", inOneMinute(), "not-a-jwt");
+        assertEquals("officer", verifier.authenticate(ownIdentity, "not-a-jwt").getSubject());
+
+        assertNull(verifier.authenticate(ownIdentity, null));
+        assertNull(verifier.authenticate("bogus.header", "not-a-jwt"));
+        assertNull(verifier.authenticate(null, null));
+    }
+}
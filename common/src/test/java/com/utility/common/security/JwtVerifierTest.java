@@ -0,0 +1,182 @@
+package com.utility.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final String OTHER_SECRET = "fedcba9876543210fedcba9876543210";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, SECRET, 100, 60_000);
+
+    private String token(String secret, String subject, long ttlMs) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("role", "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMs))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Test
+    void verify_validTokenIsCached() {
+
+        String token = token(SECRET, "admin", 60_000);
+
+        Claims first = verifier.verify(token);
+        Claims second = verifier.verify(token);
+
+        assertNotNull(first);
+        assertEquals("admin", first.getSubject());
+        assertEquals("ADMIN", first.get("role", String.class));
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_wrongSignatureRejected() {
+        assertNull(verifier.verify(token(OTHER_SECRET, "admin", 60_000)));
+    }
+
+    @Test
+    void verify_expiredTokenRejected() {
+        assertNull(verifier.verify(token(SECRET, "admin", -1_000)));
+    }
+
+    @Test
+    void verify_malformedTokenRejected() {
+        assertNull(verifier.verify("not-a-jwt"));
+    }
+
+    @Test
+    void extractClaims_invalidTokenThrows() {
+        assertThrows(JwtException.class, () -> verifier.extractClaims("not-a-jwt"));
+    }
+
+    @Test
+    void authenticate_withoutIdentitySecretParsesToken() {
+
+        JwtVerifier edge = new JwtVerifier(SECRET, null, 100, 60_000);
+        String identity =
+                new IdentityHeader(SECRET).sign("U1", "officer", "ADMIN", System.currentTimeMillis() + 60_000, "not-a-jwt");
+
+        assertNull(edge.authenticate(identity, "not-a-jwt"));
+        assertEquals("admin", edge.authenticate(identity, token(SECRET, "admin", 60_000)).getSubject());
+    }
+
+    @Test
+    void cache_failuresAreNotCached() {
+
+        TokenClaimsCache cache = new TokenClaimsCache(10, 60_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("t", t -> {
+            calls.incrementAndGet();
+            return null;
+        });
+        cache.get("t", t -> {
+            calls.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cache_isBounded() {
+
+        TokenClaimsCache cache = new TokenClaimsCache(2, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("token-" + i, t -> Jwts.claims().setSubject(t));
+        }
+
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void cache_fullEvictsLeastRecentlyUsedOnly() {
+
+        TokenClaimsCache cache = new TokenClaimsCache(2, 60_000);
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Claims> verify = t -> {
+            calls.incrementAndGet();
+            return Jwts.claims().setSubject(t);
+        };
+
+        cache.get("a", verify);
+        cache.get("b", verify);
+        cache.get("a", verify);
+        cache.get("c", verify);
+
+        assertEquals(2, cache.size());
+        assertEquals(3, calls.get());
+
+        // "a" was used after "b", so "b" went and "a" stayed
+        cache.get("a", verify);
+        assertEquals(3, calls.get());
+        cache.get("b", verify);
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void cache_fullEvictsExpiredBeforeLive() {
+
+        TokenClaimsCache cache = new TokenClaimsCache(2, 60_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        Function<String, Claims> expiring =
+                t -> Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + 50));
+
+        // "expiring" is the most recently used, so LRU alone would drop "live"
+        cache.get("expiring", expiring);
+        cache.get("live", t -> Jwts.claims().setSubject(t));
+        cache.get("expiring", expiring);
+
+        await(100);
+        cache.get("new", t -> Jwts.claims().setSubject(t));
+
+        cache.get("live", t -> {
+            calls.incrementAndGet();
+            return Jwts.claims().setSubject(t);
+        });
+
+        assertEquals(0, calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    private static void await(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void cache_alreadyExpiredClaimsNotStored() {
+
+        TokenClaimsCache cache = new TokenClaimsCache(10, 60_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        // exp already passed: returned to the caller once, never stored
+        cache.get("t", t -> {
+            calls.incrementAndGet();
+            return Jwts.claims().setExpiration(new Date(System.currentTimeMillis() - 1));
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,251 @@
+package com.utility.common.test;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Calls every derived query of every repository in a package against the
+ * embedded mongod of a @DataMongoTest, captures the commands the driver sends
+ * and explains each one. A winning plan containing COLLSCAN fails the test,
+ * so a new finder needs a matching index before it can be merged.
+ *
+ * Import it next to the service's MongoIndexConfig and call
+ * assertDerivedQueriesUseIndexes with the repository package.
+ */
+@TestConfiguration
+public class RepositoryIndexCheck implements CommandListener {
+
+    private static final Set<String> QUERY_COMMANDS =
+            Set.of("find", "count", "aggregate", "distinct", "delete", "update", "findAndModify");
+
+    private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer captureCommands() {
+        return settings -> settings.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (QUERY_COMMANDS.contains(event.getCommandName())) {
+            commands.add(event.getCommand().clone());
+        }
+    }
+
+    public void assertDerivedQueriesUseIndexes(ApplicationContext context, String repositoryPackage)
+            throws Exception {
+
+        MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+
+        // explain on a missing collection reports EOF, which would hide a scan
+        for (MongoPersistentEntity<?> entity : context.getBean(MongoMappingContext.class).getPersistentEntities()) {
+            if (entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)
+                    && !mongoTemplate.collectionExists(entity.getCollection())) {
+                mongoTemplate.createCollection(entity.getCollection());
+            }
+        }
+
+        List<String> scans = new ArrayList<>();
+        int checked = 0;
+
+        for (Object bean : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> repository : AopProxyUtils.proxiedUserInterfaces(bean)) {
+
+                if (!repository.getPackageName().equals(repositoryPackage)) {
+                    continue;
+                }
+
+                for (Method method : repository.getDeclaredMethods()) {
+
+                    if (!isDerived(method)) {
+                        continue;
+                    }
+
+                    commands.clear();
+                    consume(method.invoke(bean, sampleArguments(method)));
+
+                    assertFalse(commands.isEmpty(), method + " sent no query");
+
+                    for (BsonDocument command : commands) {
+                        if (scans(explain(mongoTemplate, command))) {
+                            scans.add(repository.getSimpleName() + "." + method.getName());
+                        }
+                    }
+                    checked++;
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "no repository methods found");
+        assertTrue(scans.isEmpty(), "COLLSCAN in " + scans);
+    }
+
+    // declared finders only: CRUD overrides and hand-written pipelines are skipped
+    private static boolean isDerived(Method method) {
+
+        if (method.isDefault() || method.isSynthetic()
+                || method.isAnnotationPresent(Query.class)
+                || method.isAnnotationPresent(Aggregation.class)) {
+            return false;
+        }
+
+        return !declares(MongoRepository.class, method)
+                && !declares(ReactiveMongoRepository.class, method);
+    }
+
+    private static boolean declares(Class<?> repository, Method method) {
+        try {
+            repository.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    // reactive finders send nothing until subscribed
+    private static void consume(Object result) {
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(ignored -> { });
+            }
+        } else if (result instanceof Publisher<?> publisher) {
+            Flux.from(publisher).blockLast();
+        }
+    }
+
+    private static Document explain(MongoTemplate mongoTemplate, BsonDocument command) {
+
+        Document explained = new Document();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                explained.put(key, value);
+            }
+        });
+
+        return mongoTemplate.getDb().runCommand(
+                new Document("explain", explained).append("verbosity", "queryPlanner"));
+    }
+
+    // looks for COLLSCAN under any winning plan, whatever the command shape
+    private static boolean scans(Object node) {
+        return scans(node, false);
+    }
+
+    private static boolean scans(Object node, boolean inWinningPlan) {
+
+        if (node instanceof Document document) {
+            if (inWinningPlan && "COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            for (var entry : document.entrySet()) {
+                if (!entry.getKey().equals("rejectedPlans")
+                        && scans(entry.getValue(), inWinningPlan || entry.getKey().equals("winningPlan"))) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                if (scans(item, inWinningPlan)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static Object[] sampleArguments(Method method) {
+
+        Type[] types = method.getGenericParameterTypes();
+        Object[] args = new Object[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+            args[i] = sample(types[i], method);
+        }
+
+        return args;
+    }
+
+    private static Object sample(Type type, Method method) {
+
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            return List.of(sample(parameterized.getActualTypeArguments()[0], method));
+        }
+
+        Class<?> raw = (Class<?>) type;
+
+        if (raw == String.class) {
+            return "sample";
+        }
+        if (raw == int.class || raw == Integer.class) {
+            return 1;
+        }
+        if (raw == long.class || raw == Long.class) {
+            return 1L;
+        }
+        if (raw == double.class || raw == Double.class) {
+            return 1.0;
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return true;
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (raw == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == Instant.class) {
+            return Instant.now();
+        }
+        if (raw == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (raw == Sort.class) {
+            return Sort.unsorted();
+        }
+
+        return fail("No sample value for " + type + " in " + method);
+    }
+}
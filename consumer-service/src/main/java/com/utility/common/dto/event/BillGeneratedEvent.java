@@ -0,0 +1,17 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class BillGeneratedEvent {
+
+    private String billId;
+    private String consumerId;
+    private String email;
+
+    private double amount;
+    private String dueDate;
+    private String utilityType;
+    private String tariffPlan;
+
+}
\ No newline at end of file
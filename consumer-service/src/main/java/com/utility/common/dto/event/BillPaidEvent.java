@@ -0,0 +1,12 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class BillPaidEvent {
+
+    private String billId;
+    private String consumerId;
+    private double amount;
+
+}
@@ -0,0 +1,11 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class ConnectionChangedEvent {
+
+    private String connectionId;
+    private String consumerId;
+
+}
@@ -0,0 +1,10 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class ConsumerChangedEvent {
+
+    private String consumerId;
+
+}
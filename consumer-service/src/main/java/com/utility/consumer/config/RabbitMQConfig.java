@@ -14,6 +14,19 @@ public class RabbitMQConfig {
 	public static final String EXCHANGE = "notification.exchange";
 	public static final String QUEUE = "consumer.approved.queue";
 	public static final String ROUTING_KEY = "consumer.approved";
+	public static final String CONSUMER_CHANGED_KEY = "consumer.changed";
+	public static final String CONNECTION_CHANGED_KEY = "connection.changed";
+
+	// dashboard read model, fed by billing and payment events
+	public static final String BILL_GENERATED_KEY = "bill.generated";
+	public static final String BILL_PAID_KEY = "bill.paid";
+	public static final String BILL_OVERDUE_KEY = "bill.overdue";
+	public static final String PAYMENT_CONFIRMED_KEY = "payment.confirmed";
+
+	public static final String DASHBOARD_BILL_GENERATED_QUEUE = "consumer.dashboard.bill.generated.queue";
+	public static final String DASHBOARD_BILL_PAID_QUEUE = "consumer.dashboard.bill.paid.queue";
+	public static final String DASHBOARD_BILL_OVERDUE_QUEUE = "consumer.dashboard.bill.overdue.queue";
+	public static final String DASHBOARD_PAYMENT_QUEUE = "consumer.dashboard.payment.queue";
 
 	@Bean
 	public DirectExchange consumerExchange() {
@@ -30,6 +43,46 @@ public class RabbitMQConfig {
 		return BindingBuilder.bind(consumerApprovedQueue()).to(consumerExchange()).with(ROUTING_KEY);
 	}
 
+	@Bean
+	public Queue dashboardBillGeneratedQueue() {
+		return QueueBuilder.durable(DASHBOARD_BILL_GENERATED_QUEUE).build();
+	}
+
+	@Bean
+	public Queue dashboardBillPaidQueue() {
+		return QueueBuilder.durable(DASHBOARD_BILL_PAID_QUEUE).build();
+	}
+
+	@Bean
+	public Queue dashboardBillOverdueQueue() {
+		return QueueBuilder.durable(DASHBOARD_BILL_OVERDUE_QUEUE).build();
+	}
+
+	@Bean
+	public Queue dashboardPaymentQueue() {
+		return QueueBuilder.durable(DASHBOARD_PAYMENT_QUEUE).build();
+	}
+
+	@Bean
+	public Binding dashboardBillGeneratedBinding() {
+		return BindingBuilder.bind(dashboardBillGeneratedQueue()).to(consumerExchange()).with(BILL_GENERATED_KEY);
+	}
+
+	@Bean
+	public Binding dashboardBillPaidBinding() {
+		return BindingBuilder.bind(dashboardBillPaidQueue()).to(consumerExchange()).with(BILL_PAID_KEY);
+	}
+
+	@Bean
+	public Binding dashboardBillOverdueBinding() {
+		return BindingBuilder.bind(dashboardBillOverdueQueue()).to(consumerExchange()).with(BILL_OVERDUE_KEY);
+	}
+
+	@Bean
+	public Binding dashboardPaymentBinding() {
+		return BindingBuilder.bind(dashboardPaymentQueue()).to(consumerExchange()).with(PAYMENT_CONFIRMED_KEY);
+	}
+
 	@Bean
 	public MessageConverter jsonMessageConverter() {
 		return new Jackson2JsonMessageConverter();
@@ -33,6 +33,7 @@ public class SecurityConfig {
                 	    "/connections/internal/**"
                 	).permitAll()
                 .requestMatchers(HttpMethod.GET, "/connections/*").permitAll()
+                .requestMatchers(HttpMethod.POST, "/consumers/internal/**").permitAll()
 
                 .anyRequest().authenticated()
             )
@@ -48,6 +48,12 @@ public class ConsumerController {
         return ResponseEntity.ok(consumerService.getAllConsumers());
     }
 
+    @PostMapping("/internal/batch")
+    public ResponseEntity<List<ConsumerResponseDTO>> getBatch(
+            @RequestBody List<String> ids) {
+        return ResponseEntity.ok(consumerService.getConsumersByIds(ids));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ConsumerResponseDTO> update(
     		@PathVariable("id") String id,
@@ -11,6 +11,7 @@ import com.utility.consumer.dto.dashboard.ConsumerDashboardSummaryDto;
 import com.utility.consumer.service.ConsumerDashboardService;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/consumers/dashboard")
@@ -30,4 +31,20 @@ public class ConsumerDashboardController {
 
         return dashboardService.getDashboardSummary(consumerId);
     }
-}
\ No newline at end of file
+
+    // the request thread returns at once; the summary is written when the reads complete
+    @GetMapping("/summary/reactive")
+    @PreAuthorize("hasRole('CONSUMER')")
+    public Mono<ConsumerDashboardSummaryDto> summaryReactive() {
+
+        Authentication auth =
+                SecurityContextHolder.getContext().getAuthentication();
+
+        // read here: the context holder is not visible once the pipeline leaves this thread
+        String token = auth.getCredentials() != null
+                ? auth.getCredentials().toString()
+                : null;
+
+        return dashboardService.getDashboardSummaryReactive(auth.getName(), token);
+    }
+}
@@ -39,4 +39,10 @@ public class UtilityConnectionController {
 	public List<ConnectionResponseDto> getAllConnections() {
 	    return connectionService.getAllConnections();
 	}
+	@GetMapping("/internal/active")
+	public List<ConnectionResponseDto> getActiveConnectionsPage(
+			@RequestParam(name = "afterId", required = false) String afterId,
+			@RequestParam(name = "limit", defaultValue = "500") int limit) {
+	    return connectionService.getActiveConnectionsPage(afterId, limit);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.utility.consumer.feign;
+
+import java.util.List;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.publisher.Mono;
+
+/*
+ * Non-blocking twin of BillingClient and PaymentClient for seeding a dashboard
+ * on the reactive path. The token is passed in because there is no request
+ * thread, and so no SecurityContextHolder, for FeignAuthConfig to read it from.
+ */
+@Component
+public class DashboardSeedClient {
+
+    private final WebClient webClient;
+
+    public DashboardSeedClient(@LoadBalanced WebClient.Builder builder) {
+        this.webClient = builder.build();
+    }
+
+    // both services answer 404 rather than an empty list
+    public Mono<List<BillResponseDto>> bills(String consumerId, String token) {
+        return get("http://billing-service/bills/consumer/{consumerId}", consumerId, token)
+                .bodyToFlux(BillResponseDto.class)
+                .collectList()
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.just(List.of()));
+    }
+
+    public Mono<List<PaymentResponseDto>> payments(String consumerId, String token) {
+        return get("http://payment-service/payments/consumer/{consumerId}", consumerId, token)
+                .bodyToFlux(PaymentResponseDto.class)
+                .collectList()
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.just(List.of()));
+    }
+
+    private WebClient.ResponseSpec get(String uri, String consumerId, String token) {
+        return webClient.get()
+                .uri(uri, consumerId)
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.setBearerAuth(token);
+                    }
+                })
+                .retrieve();
+    }
+}
@@ -0,0 +1,47 @@
+package com.utility.consumer.messaging;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import com.utility.common.dto.event.ConnectionChangedEvent;
+import com.utility.common.dto.event.ConsumerChangedEvent;
+import com.utility.consumer.config.RabbitMQConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// tells billing and meter-reading to drop their cached copies
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsumerChangePublisher {
+
+	private final RabbitTemplate rabbitTemplate;
+
+	public void consumerChanged(String consumerId) {
+
+		ConsumerChangedEvent event = new ConsumerChangedEvent();
+		event.setConsumerId(consumerId);
+
+		send(RabbitMQConfig.CONSUMER_CHANGED_KEY, event);
+	}
+
+	public void connectionChanged(String connectionId, String consumerId) {
+
+		ConnectionChangedEvent event = new ConnectionChangedEvent();
+		event.setConnectionId(connectionId);
+		event.setConsumerId(consumerId);
+
+		send(RabbitMQConfig.CONNECTION_CHANGED_KEY, event);
+	}
+
+	// the write already happened; caches fall back to their TTL if the broker is down
+	private void send(String routingKey, Object event) {
+		try {
+			rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, routingKey, event);
+		} catch (AmqpException ex) {
+			log.warn("Could not publish {} ({})", routingKey, ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.utility.consumer.messaging;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.common.dto.event.BillOverdueEvent;
+import com.utility.common.dto.event.BillPaidEvent;
+import com.utility.common.dto.event.PaymentConfirmedEvent;
+import com.utility.consumer.config.RabbitMQConfig;
+import com.utility.consumer.service.ConsumerDashboardProjection;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class DashboardEventListener {
+
+    private final ConsumerDashboardProjection projection;
+
+    @RabbitListener(
+            queues = RabbitMQConfig.DASHBOARD_BILL_GENERATED_QUEUE,
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void billGenerated(BillGeneratedEvent event) {
+        projection.billGenerated(event);
+    }
+
+    @RabbitListener(
+            queues = RabbitMQConfig.DASHBOARD_BILL_PAID_QUEUE,
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void billPaid(BillPaidEvent event) {
+        projection.billPaid(event);
+    }
+
+    @RabbitListener(
+            queues = RabbitMQConfig.DASHBOARD_BILL_OVERDUE_QUEUE,
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void billOverdue(BillOverdueEvent event) {
+        projection.billOverdue(event);
+    }
+
+    @RabbitListener(
+            queues = RabbitMQConfig.DASHBOARD_PAYMENT_QUEUE,
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void paymentConfirmed(PaymentConfirmedEvent event) {
+        projection.paymentConfirmed(event);
+    }
+}
@@ -3,6 +3,8 @@ package com.utility.consumer.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.utility.consumer.enums.ConnectionRequestStatus;
@@ -11,6 +13,7 @@ import com.utility.consumer.enums.UtilityType;
 import lombok.Data;
 
 @Document(collection = "connection_requests")
+@CompoundIndex(name = "consumer_status_idx", def = "{'consumerId': 1, 'status': 1}")
 @Data
 public class ConnectionRequest {
 
@@ -24,6 +27,7 @@ public class ConnectionRequest {
    
     private String tariffPlanCode;
 
+    @Indexed
     private ConnectionRequestStatus status; 
 
     private LocalDateTime requestedAt;
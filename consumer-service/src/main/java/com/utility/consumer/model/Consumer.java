@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -21,9 +22,11 @@ public class Consumer {
     private String fullName;
 
     @Email
+    @Indexed
     private String email;
 
     @NotBlank
+    @Indexed
     private String mobileNumber;
 
     @NotBlank
@@ -0,0 +1,32 @@
+package com.utility.consumer.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+// per-consumer bill and payment totals, kept up to date from billing and payment events
+@Document(collection = "consumer_dashboards")
+@Data
+public class ConsumerDashboard {
+
+    // consumerId
+    @Id
+    private String id;
+
+    private int totalBills;
+    private int unpaidBills;
+    private double totalOutstanding;
+
+    private String lastPaymentId;
+    private Double lastPaymentAmount;
+    private LocalDateTime lastPaymentDate;
+
+    // false while only events have written to it
+    private boolean seeded;
+
+    private Instant updatedAt;
+}
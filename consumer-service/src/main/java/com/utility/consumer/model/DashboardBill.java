@@ -0,0 +1,31 @@
+package com.utility.consumer.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/*
+ * What the dashboard has seen of one bill. Bill events arrive on separate
+ * queues and may be redelivered, so each one is applied to this document
+ * first and only the first delivery changes the consumer's totals.
+ */
+@Document(collection = "dashboard_bills")
+@Data
+public class DashboardBill {
+
+    // billId
+    @Id
+    private String id;
+
+    @Indexed
+    private String consumerId;
+
+    private boolean generated;
+    private boolean paid;
+    private boolean overdue;
+
+    private double amount;
+    private double penalty;
+}
@@ -3,6 +3,9 @@ package com.utility.consumer.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.utility.consumer.enums.UtilityType;
@@ -10,6 +13,10 @@ import com.utility.consumer.enums.UtilityType;
 import lombok.Data;
 
 @Document(collection = "utility_connections")
+@CompoundIndexes({
+	@CompoundIndex(name = "consumer_utility_idx", def = "{'consumerId': 1, 'utilityType': 1}"),
+	@CompoundIndex(name = "active_id_idx", def = "{'active': 1, '_id': 1}")
+})
 @Data
 public class UtilityConnection {
 
@@ -20,6 +27,7 @@ public class UtilityConnection {
 
 	private UtilityType utilityType;
 
+	@Indexed
 	private String meterNumber;
 
 	private String tariffPlan;
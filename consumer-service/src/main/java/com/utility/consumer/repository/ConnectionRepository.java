@@ -3,6 +3,7 @@ package com.utility.consumer.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.utility.consumer.enums.UtilityType;
@@ -15,8 +16,17 @@ public interface ConnectionRepository
 
     List<UtilityConnection> findByConsumerId(String consumerId);
 
+    long countByConsumerIdAndActiveTrue(String consumerId);
+
     Optional<UtilityConnection> findByConsumerIdAndUtilityType(
             String consumerId,
             UtilityType utilityType
     );
+
+    List<UtilityConnection> findByActiveTrueOrderByIdAsc(Pageable pageable);
+
+    List<UtilityConnection> findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+            String afterId,
+            Pageable pageable
+    );
 }
\ No newline at end of file
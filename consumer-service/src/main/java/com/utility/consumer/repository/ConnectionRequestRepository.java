@@ -25,4 +25,6 @@ public interface ConnectionRequestRepository
             ConnectionRequestStatus status
     );
     List<ConnectionRequest> findByConsumerId(String consumerId);
+
+    long countByConsumerIdAndStatus(String consumerId, ConnectionRequestStatus status);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.utility.consumer.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.utility.consumer.model.UtilityConnection;
+
+import reactor.core.publisher.Mono;
+
+// read side of the reactive dashboard; writes stay on ConnectionRepository
+public interface ReactiveConnectionRepository
+        extends ReactiveMongoRepository<UtilityConnection, String> {
+
+    Mono<Long> countByConsumerIdAndActiveTrue(String consumerId);
+}
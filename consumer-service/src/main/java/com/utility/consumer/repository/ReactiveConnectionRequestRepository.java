@@ -0,0 +1,14 @@
+package com.utility.consumer.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.utility.consumer.enums.ConnectionRequestStatus;
+import com.utility.consumer.model.ConnectionRequest;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveConnectionRequestRepository
+        extends ReactiveMongoRepository<ConnectionRequest, String> {
+
+    Mono<Long> countByConsumerIdAndStatus(String consumerId, ConnectionRequestStatus status);
+}
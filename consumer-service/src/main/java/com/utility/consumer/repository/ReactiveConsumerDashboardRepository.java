@@ -0,0 +1,10 @@
+package com.utility.consumer.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.utility.consumer.model.ConsumerDashboard;
+
+// ConsumerDashboardProjection owns the writes; this only serves reads by id
+public interface ReactiveConsumerDashboardRepository
+        extends ReactiveMongoRepository<ConsumerDashboard, String> {
+}
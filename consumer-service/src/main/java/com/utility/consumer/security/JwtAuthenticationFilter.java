@@ -13,6 +13,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.utility.common.security.IdentityHeader;
+
 import io.jsonwebtoken.Claims;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -33,9 +35,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 			String token = authHeader.substring(7);
 
-			if (jwtUtil.isTokenValid(token)) {
+			Claims claims = jwtUtil.authenticate(request.getHeader(IdentityHeader.NAME), token);
 
-				Claims claims = jwtUtil.extractClaims(token);
+			if (claims != null) {
 
 				String userId = claims.get("userId", String.class);
 				String role = claims.get("role", String.class);
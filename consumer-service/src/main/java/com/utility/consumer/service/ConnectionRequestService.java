@@ -10,6 +10,7 @@ import com.utility.consumer.dto.request.ApproveConnectionRequestDto;
 import com.utility.consumer.dto.request.CreateConnectionRequestDto;
 import com.utility.consumer.enums.ConnectionRequestStatus;
 import com.utility.consumer.exception.ApiException;
+import com.utility.consumer.messaging.ConsumerChangePublisher;
 import com.utility.consumer.model.ConnectionRequest;
 import com.utility.consumer.model.UtilityConnection;
 import com.utility.consumer.repository.ConnectionRepository;
@@ -25,6 +26,7 @@ public class ConnectionRequestService {
     private final ConnectionRequestRepository requestRepo;
     private final ConnectionRepository connectionRepo;
     private final ConsumerRepository consumerRepo;
+    private final ConsumerChangePublisher changePublisher;
 
     public void createRequest(
             String consumerId,
@@ -108,6 +110,7 @@ public class ConnectionRequestService {
         connection.setActivatedAt(LocalDateTime.now());
 
         connectionRepo.save(connection);
+        changePublisher.connectionChanged(connection.getId(), connection.getConsumerId());
 
         request.setStatus(ConnectionRequestStatus.APPROVED);
         request.setReviewedAt(LocalDateTime.now());
@@ -0,0 +1,285 @@
+package com.utility.consumer.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.common.dto.event.BillOverdueEvent;
+import com.utility.common.dto.event.BillPaidEvent;
+import com.utility.common.dto.event.PaymentConfirmedEvent;
+import com.utility.consumer.feign.BillResponseDto;
+import com.utility.consumer.feign.BillingClient;
+import com.utility.consumer.feign.PaymentClient;
+import com.utility.consumer.feign.PaymentResponseDto;
+import com.utility.consumer.model.ConsumerDashboard;
+import com.utility.consumer.model.DashboardBill;
+
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Maintains ConsumerDashboard from bill and payment events. Every bill event is
+ * first recorded on its DashboardBill, and the totals only move by what that
+ * record did not already account for, so redeliveries and out-of-order
+ * events leave the totals unchanged. A consumer's first dashboard read seeds
+ * it from billing and payment service through the same records, so a bill
+ * change is counted exactly once whether the seed or the event got there first.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConsumerDashboardProjection {
+
+    private final MongoTemplate mongoTemplate;
+    private final BillingClient billingClient;
+    private final PaymentClient paymentClient;
+
+    public ConsumerDashboard get(String consumerId) {
+
+        ConsumerDashboard dashboard =
+                mongoTemplate.findById(consumerId, ConsumerDashboard.class);
+
+        return dashboard != null && dashboard.isSeeded() ? dashboard : seed(consumerId);
+    }
+
+    public void billGenerated(BillGeneratedEvent event) {
+
+        Totals totals = new Totals();
+        generated(event.getBillId(), event.getConsumerId(), event.getAmount(), totals);
+        apply(event.getConsumerId(), totals);
+    }
+
+    public void billPaid(BillPaidEvent event) {
+
+        Totals totals = new Totals();
+        paid(event.getBillId(), event.getConsumerId(), totals);
+        apply(event.getConsumerId(), totals);
+    }
+
+    public void billOverdue(BillOverdueEvent event) {
+
+        Totals totals = new Totals();
+        overdue(event.getBillId(), event.getConsumerId(), event.getPenalty(), totals);
+        apply(event.getConsumerId(), totals);
+    }
+
+    public void paymentConfirmed(PaymentConfirmedEvent event) {
+
+        if (event.getConfirmedAt() == null) {
+            return;
+        }
+
+        lastPayment(
+                event.getConsumerId(),
+                event.getPaymentId(),
+                event.getAmount(),
+                LocalDateTime.parse(event.getConfirmedAt())
+        );
+    }
+
+    private void generated(String billId, String consumerId, double amount, Totals totals) {
+
+        DashboardBill before = record(
+                billId,
+                "generated",
+                new Update()
+                        .set("consumerId", consumerId)
+                        .set("amount", amount)
+        );
+
+        if (before == null) {
+            return;
+        }
+
+        totals.totalBills++;
+
+        if (!before.isPaid()) {
+            totals.unpaidBills++;
+            totals.totalOutstanding += amount + before.getPenalty();
+        }
+    }
+
+    private void paid(String billId, String consumerId, Totals totals) {
+
+        DashboardBill before = record(
+                billId,
+                "paid",
+                new Update().set("consumerId", consumerId)
+        );
+
+        if (before == null || !before.isGenerated()) {
+            return;
+        }
+
+        totals.unpaidBills--;
+        totals.totalOutstanding -= before.getAmount() + before.getPenalty();
+    }
+
+    private void overdue(String billId, String consumerId, double penalty, Totals totals) {
+
+        DashboardBill before = record(
+                billId,
+                "overdue",
+                new Update()
+                        .set("consumerId", consumerId)
+                        .set("penalty", penalty)
+        );
+
+        if (before == null || !before.isGenerated() || before.isPaid()) {
+            return;
+        }
+
+        totals.totalOutstanding += penalty - before.getPenalty();
+    }
+
+    // only a newer payment replaces the last one
+    private void lastPayment(String consumerId, String paymentId, double amount, LocalDateTime confirmedAt) {
+
+        try {
+            mongoTemplate.upsert(
+                    new Query(Criteria.where("_id").is(consumerId)
+                            .orOperator(
+                                    Criteria.where("lastPaymentDate").is(null),
+                                    Criteria.where("lastPaymentDate").lt(confirmedAt)
+                            )),
+                    new Update()
+                            .set("lastPaymentId", paymentId)
+                            .set("lastPaymentAmount", amount)
+                            .set("lastPaymentDate", confirmedAt)
+                            .set("updatedAt", Instant.now()),
+                    ConsumerDashboard.class
+            );
+        } catch (DuplicateKeyException ex) {
+            // the dashboard already holds a newer payment
+        }
+    }
+
+    // null when the event was seen before; otherwise the bill as it was before it
+    private DashboardBill record(String billId, String flag, Update update) {
+
+        try {
+            DashboardBill before = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(billId).and(flag).ne(true)),
+                    update.set(flag, true),
+                    FindAndModifyOptions.options().upsert(true).returnNew(false),
+                    DashboardBill.class
+            );
+            return before != null ? before : new DashboardBill();
+
+        } catch (DuplicateKeyException ex) {
+            // the flag was already set, so the upsert tried to insert the same bill
+            return null;
+        }
+    }
+
+    // upsert: a dashboard created by an event before its seed stays unseeded and keeps the change
+    private void apply(String consumerId, Totals totals) {
+
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(consumerId)),
+                totals.update().set("updatedAt", Instant.now()),
+                ConsumerDashboard.class
+        );
+    }
+
+    private ConsumerDashboard seed(String consumerId) {
+        return seed(consumerId, bills(consumerId), payments(consumerId));
+    }
+
+    // blocking; the reactive path fetches bills and payments itself and calls this off the event loop.
+    // Runs once per consumer, one record per bill change, and adds only what events have not counted yet.
+    public ConsumerDashboard seed(
+            String consumerId,
+            List<BillResponseDto> bills,
+            List<PaymentResponseDto> payments
+    ) {
+
+        Totals totals = new Totals();
+
+        for (BillResponseDto bill : bills) {
+
+            generated(bill.getId(), consumerId, bill.getTotalAmount(), totals);
+
+            if ("OVERDUE".equalsIgnoreCase(bill.getStatus()) || bill.getPenalty() > 0) {
+                overdue(bill.getId(), consumerId, bill.getPenalty(), totals);
+            }
+            if ("PAID".equalsIgnoreCase(bill.getStatus())) {
+                paid(bill.getId(), consumerId, totals);
+            }
+        }
+
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(consumerId)),
+                totals.update()
+                        .set("seeded", true)
+                        .set("updatedAt", Instant.now()),
+                ConsumerDashboard.class
+        );
+
+        payments.stream()
+                .filter(p -> p.getConfirmedAt() != null)
+                .max(Comparator.comparing(PaymentResponseDto::getConfirmedAt))
+                .ifPresent(p -> lastPayment(consumerId, p.getPaymentId(), p.getAmount(), p.getConfirmedAt()));
+
+        return mongoTemplate.findById(consumerId, ConsumerDashboard.class);
+    }
+
+    // both services answer 404 rather than an empty list
+    private List<BillResponseDto> bills(String consumerId) {
+        try {
+            return billingClient.getBillsByConsumer(consumerId);
+        } catch (FeignException.NotFound ex) {
+            return List.of();
+        }
+    }
+
+    private List<PaymentResponseDto> payments(String consumerId) {
+        try {
+            return paymentClient.getPaymentsByConsumer(consumerId);
+        } catch (FeignException.NotFound ex) {
+            return List.of();
+        }
+    }
+
+    // change to one consumer's totals; an event makes one, a seed adds up many
+    private static final class Totals {
+
+        private int totalBills;
+        private int unpaidBills;
+        private double totalOutstanding;
+
+        boolean isEmpty() {
+            return totalBills == 0 && unpaidBills == 0 && totalOutstanding == 0;
+        }
+
+        Update update() {
+
+            Update update = new Update();
+
+            if (totalBills != 0) {
+                update.inc("totalBills", totalBills);
+            }
+            if (unpaidBills != 0) {
+                update.inc("unpaidBills", unpaidBills);
+            }
+            if (totalOutstanding != 0) {
+                update.inc("totalOutstanding", totalOutstanding);
+            }
+
+            return update;
+        }
+    }
+}
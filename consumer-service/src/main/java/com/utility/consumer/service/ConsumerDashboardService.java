@@ -1,18 +1,20 @@
 package com.utility.consumer.service;
 
-import java.util.List;
-
 import org.springframework.stereotype.Service;
 
 import com.utility.consumer.dto.dashboard.ConsumerDashboardSummaryDto;
 import com.utility.consumer.enums.ConnectionRequestStatus;
-import com.utility.consumer.feign.BillingClient;
-import com.utility.consumer.feign.PaymentClient;
-import com.utility.consumer.model.UtilityConnection;
+import com.utility.consumer.feign.DashboardSeedClient;
+import com.utility.consumer.model.ConsumerDashboard;
 import com.utility.consumer.repository.ConnectionRepository;
 import com.utility.consumer.repository.ConnectionRequestRepository;
+import com.utility.consumer.repository.ReactiveConnectionRepository;
+import com.utility.consumer.repository.ReactiveConnectionRequestRepository;
+import com.utility.consumer.repository.ReactiveConsumerDashboardRepository;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
@@ -20,54 +22,64 @@ public class ConsumerDashboardService {
 
     private final ConnectionRepository connectionRepository;
     private final ConnectionRequestRepository requestRepository;
-    private final BillingClient billingClient;
-    private final PaymentClient paymentClient;
+    private final ConsumerDashboardProjection projection;
 
-    public ConsumerDashboardSummaryDto getDashboardSummary(String consumerId) {
+    private final ReactiveConnectionRepository reactiveConnectionRepository;
+    private final ReactiveConnectionRequestRepository reactiveRequestRepository;
+    private final ReactiveConsumerDashboardRepository dashboardRepository;
+    private final DashboardSeedClient seedClient;
 
-        List<UtilityConnection> connections =
-                connectionRepository.findByConsumerId(consumerId);
+    public ConsumerDashboardSummaryDto getDashboardSummary(String consumerId) {
 
-        int activeUtilities = (int) connections.stream()
-                .filter(UtilityConnection::isActive)
-                .count();
+        int activeUtilities = (int) connectionRepository
+                .countByConsumerIdAndActiveTrue(consumerId);
 
-        int pendingRequests = requestRepository
-                .findByStatus(ConnectionRequestStatus.PENDING)
-                .stream()
-                .filter(r -> r.getConsumerId().equals(consumerId))
-                .toList()
-                .size();
+        int pendingRequests = (int) requestRepository
+                .countByConsumerIdAndStatus(consumerId, ConnectionRequestStatus.PENDING);
 
-        var bills = billingClient.getBillsByConsumer(consumerId);
+        // bill and payment totals come from the read model, not from the other services
+        ConsumerDashboard dashboard = projection.get(consumerId);
 
-        int totalBills = bills.size();
+        return summary(activeUtilities, pendingRequests, dashboard);
+    }
 
-        int unpaidBills = (int) bills.stream()
-                .filter(b -> !"PAID".equalsIgnoreCase(b.getStatus()))
-                .count();
+    // same summary with the three reads in flight together; only a first-time seed touches a worker thread
+    public Mono<ConsumerDashboardSummaryDto> getDashboardSummaryReactive(String consumerId, String token) {
+
+        return Mono.zip(
+                reactiveConnectionRepository.countByConsumerIdAndActiveTrue(consumerId),
+                reactiveRequestRepository.countByConsumerIdAndStatus(
+                        consumerId, ConnectionRequestStatus.PENDING),
+                dashboardRepository.findById(consumerId)
+                        .filter(ConsumerDashboard::isSeeded)
+                        .switchIfEmpty(Mono.defer(() -> seed(consumerId, token)))
+        ).map(t -> summary(t.getT1().intValue(), t.getT2().intValue(), t.getT3()));
+    }
 
-        double totalOutstanding = bills.stream()
-                .filter(b -> !"PAID".equalsIgnoreCase(b.getStatus()))
-                .mapToDouble(b -> b.getPayableAmount())
-                .sum();
+    private Mono<ConsumerDashboard> seed(String consumerId, String token) {
 
-       
-        var payments = paymentClient.getPaymentsByConsumer(consumerId);
+        return Mono.zip(
+                seedClient.bills(consumerId, token),
+                seedClient.payments(consumerId, token)
+        )
+                .publishOn(Schedulers.boundedElastic())
+                .map(t -> projection.seed(consumerId, t.getT1(), t.getT2()));
+    }
 
-        var lastPayment = payments.stream()
-                .filter(p -> p.getConfirmedAt() != null)
-                .findFirst()
-                .orElse(null);
+    private static ConsumerDashboardSummaryDto summary(
+            int activeUtilities,
+            int pendingRequests,
+            ConsumerDashboard dashboard
+    ) {
 
         return new ConsumerDashboardSummaryDto(
                 activeUtilities,
                 pendingRequests,
-                totalBills,
-                unpaidBills,
-                totalOutstanding,
-                lastPayment != null ? lastPayment.getAmount() : null,
-                lastPayment != null ? lastPayment.getConfirmedAt() : null
+                dashboard.getTotalBills(),
+                dashboard.getUnpaidBills(),
+                dashboard.getTotalOutstanding(),
+                dashboard.getLastPaymentAmount(),
+                dashboard.getLastPaymentDate()
         );
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import com.utility.consumer.dto.request.ConsumerRequestDTO;
 import com.utility.consumer.dto.response.ConsumerResponseDTO;
 import com.utility.consumer.exception.ApiException;
+import com.utility.consumer.messaging.ConsumerChangePublisher;
 import com.utility.consumer.model.Consumer;
 import com.utility.consumer.repository.ConsumerRepository;
 
@@ -19,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 public class ConsumerService {
 
     private final ConsumerRepository consumerRepository;
+    private final ConsumerChangePublisher changePublisher;
     private static final String CONSUMER_NOT_FOUND = "Consumer not found";
     
 
@@ -64,6 +66,13 @@ public class ConsumerService {
                 .toList();
     }
 
+    public List<ConsumerResponseDTO> getConsumersByIds(List<String> ids) {
+        return consumerRepository.findAllById(ids)
+                .stream()
+                .map(this::mapToDTO)
+                .toList();
+    }
+
     public ConsumerResponseDTO updateConsumer(String id, ConsumerRequestDTO dto) {
 
         Consumer consumer = consumerRepository.findById(id)
@@ -76,7 +85,10 @@ public class ConsumerService {
         consumer.setAddress(dto.getAddress());
         consumer.setUpdatedAt(LocalDateTime.now());
 
-        return mapToDTO(consumerRepository.save(consumer));
+        Consumer saved = consumerRepository.save(consumer);
+        changePublisher.consumerChanged(id);
+
+        return mapToDTO(saved);
     }
 
     public void deactivateConsumer(String id) {
@@ -90,6 +102,7 @@ public class ConsumerService {
         consumer.setActive(false);
         consumer.setUpdatedAt(LocalDateTime.now());
         consumerRepository.save(consumer);
+        changePublisher.consumerChanged(id);
     }
 
     private ConsumerResponseDTO mapToDTO(Consumer c) {
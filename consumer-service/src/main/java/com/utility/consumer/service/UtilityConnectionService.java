@@ -3,6 +3,7 @@ package com.utility.consumer.service;
 import java.util.List;
 import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -97,6 +98,23 @@ public class UtilityConnectionService {
 
         return dto;
     }
+    public List<ConnectionResponseDto> getActiveConnectionsPage(
+            String afterId,
+            int limit
+    ) {
+
+        PageRequest page = PageRequest.of(0, limit);
+
+        List<UtilityConnection> connections =
+                afterId == null || afterId.isBlank()
+                        ? connectionRepository.findByActiveTrueOrderByIdAsc(page)
+                        : connectionRepository
+                                .findByActiveTrueAndIdGreaterThanOrderByIdAsc(afterId, page);
+
+        return connections.stream()
+                .map(this::mapToDto)
+                .toList();
+    }
     public ConnectionResponseDto getConnectionById(String connectionId) {
 
         UtilityConnection connection =
@@ -13,8 +13,12 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import reactor.core.publisher.Mono;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -53,4 +57,27 @@ class ConsumerDashboardControllerTest {
         mockMvc.perform(get("/consumers/dashboard/summary"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void summaryReactive_passesTokenAlong() throws Exception {
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+                new UsernamePasswordAuthenticationToken("C1", "jwt")
+        );
+        SecurityContextHolder.setContext(context);
+
+        Mockito.when(dashboardService.getDashboardSummaryReactive("C1", "jwt"))
+        .thenReturn(Mono.just(new ConsumerDashboardSummaryDto(
+                1, 0, 2, 1, 500.0, null, null
+        )));
+
+        var result = mockMvc.perform(get("/consumers/dashboard/summary/reactive"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBills").value(2));
+    }
+}
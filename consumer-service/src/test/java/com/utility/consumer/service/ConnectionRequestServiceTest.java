@@ -5,6 +5,7 @@ import com.utility.consumer.dto.request.CreateConnectionRequestDto;
 import com.utility.consumer.enums.ConnectionRequestStatus;
 import com.utility.consumer.enums.UtilityType;
 import com.utility.consumer.exception.ApiException;
+import com.utility.consumer.messaging.ConsumerChangePublisher;
 import com.utility.consumer.model.ConnectionRequest;
 import com.utility.consumer.model.UtilityConnection;
 import com.utility.consumer.repository.ConnectionRepository;
@@ -35,6 +36,9 @@ class ConnectionRequestServiceTest {
     @Mock
     private ConsumerRepository consumerRepo;
 
+    @Mock
+    private ConsumerChangePublisher changePublisher;
+
     @InjectMocks
     private ConnectionRequestService service;
 
@@ -114,6 +118,7 @@ class ConnectionRequestServiceTest {
 
         verify(connectionRepo).save(any(UtilityConnection.class));
         verify(requestRepo).save(request);
+        verify(changePublisher).connectionChanged(any(), eq("C1"));
     }
     @Test
     void getPendingRequests_withData() {
@@ -0,0 +1,311 @@
+package com.utility.consumer.service;
+
+import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.common.dto.event.BillOverdueEvent;
+import com.utility.common.dto.event.BillPaidEvent;
+import com.utility.consumer.feign.BillResponseDto;
+import com.utility.consumer.feign.BillingClient;
+import com.utility.consumer.feign.PaymentClient;
+import com.utility.consumer.feign.PaymentResponseDto;
+import com.utility.consumer.model.ConsumerDashboard;
+import com.utility.consumer.model.DashboardBill;
+
+import feign.FeignException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerDashboardProjectionTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BillingClient billingClient;
+
+    @Mock
+    private PaymentClient paymentClient;
+
+    @InjectMocks
+    private ConsumerDashboardProjection projection;
+
+    private void billBefore(DashboardBill before) {
+        when(mongoTemplate.findAndModify(
+                any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DashboardBill.class)))
+                .thenReturn(before);
+    }
+
+    private Document totals() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(ConsumerDashboard.class));
+        return update.getValue().getUpdateObject().get("$inc", Document.class);
+    }
+
+    // findAndModify against an in-memory dashboard_bills, honouring the flag guard
+    private void billsInMemory() {
+
+        Map<String, DashboardBill> stored = new HashMap<>();
+        Set<String> flagsSet = new HashSet<>();
+
+        when(mongoTemplate.findAndModify(
+                any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DashboardBill.class)))
+                .thenAnswer(i -> {
+                    Document query = i.<Query>getArgument(0).getQueryObject();
+                    Document set = i.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+
+                    String id = query.getString("_id");
+                    String flag = query.keySet().stream().filter(k -> !"_id".equals(k)).findFirst().orElseThrow();
+
+                    if (!flagsSet.add(id + ":" + flag)) {
+                        throw new DuplicateKeyException(id);
+                    }
+
+                    DashboardBill bill = stored.computeIfAbsent(id, key -> new DashboardBill());
+                    DashboardBill before = bill(bill.isGenerated(), bill.isPaid(), bill.getAmount(), bill.getPenalty());
+
+                    if (set.containsKey("generated")) {
+                        bill.setGenerated(true);
+                        bill.setAmount(set.getDouble("amount"));
+                    }
+                    if (set.containsKey("overdue")) {
+                        bill.setPenalty(set.getDouble("penalty"));
+                    }
+                    if (set.containsKey("paid")) {
+                        bill.setPaid(true);
+                    }
+
+                    return before;
+                });
+    }
+
+    private static DashboardBill bill(boolean generated, boolean paid, double amount, double penalty) {
+        DashboardBill bill = new DashboardBill();
+        bill.setGenerated(generated);
+        bill.setPaid(paid);
+        bill.setAmount(amount);
+        bill.setPenalty(penalty);
+        return bill;
+    }
+
+    private static BillGeneratedEvent generated(double amount) {
+        BillGeneratedEvent event = new BillGeneratedEvent();
+        event.setBillId("B1");
+        event.setConsumerId("C1");
+        event.setAmount(amount);
+        return event;
+    }
+
+    private static BillPaidEvent paid() {
+        BillPaidEvent event = new BillPaidEvent();
+        event.setBillId("B1");
+        event.setConsumerId("C1");
+        return event;
+    }
+
+    @Test
+    void billGenerated_newBillAddsToTotals() {
+
+        billBefore(null);
+
+        projection.billGenerated(generated(400));
+
+        Document inc = totals();
+        assertEquals(1, inc.get("totalBills"));
+        assertEquals(1, inc.get("unpaidBills"));
+        assertEquals(400.0, inc.get("totalOutstanding"));
+    }
+
+    @Test
+    void billGenerated_redeliveryIsIgnored() {
+
+        when(mongoTemplate.findAndModify(
+                any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DashboardBill.class)))
+                .thenThrow(new DuplicateKeyException("B1"));
+
+        projection.billGenerated(generated(400));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(ConsumerDashboard.class));
+    }
+
+    @Test
+    void billGenerated_afterPaidOnlyCountsTheBill() {
+
+        billBefore(bill(false, true, 0, 0));
+
+        projection.billGenerated(generated(400));
+
+        Document inc = totals();
+        assertEquals(1, inc.get("totalBills"));
+        assertNull(inc.get("unpaidBills"));
+        assertNull(inc.get("totalOutstanding"));
+    }
+
+    @Test
+    void billPaid_removesWhatWasOutstanding() {
+
+        billBefore(bill(true, false, 400, 50));
+
+        projection.billPaid(paid());
+
+        Document inc = totals();
+        assertEquals(-1, inc.get("unpaidBills"));
+        assertEquals(-450.0, inc.get("totalOutstanding"));
+    }
+
+    @Test
+    void billPaid_beforeGeneratedLeavesTotals() {
+
+        billBefore(null);
+
+        projection.billPaid(paid());
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(ConsumerDashboard.class));
+    }
+
+    @Test
+    void billOverdue_addsOnlyTheNewPenalty() {
+
+        billBefore(bill(true, false, 400, 20));
+
+        BillOverdueEvent event = new BillOverdueEvent();
+        event.setBillId("B1");
+        event.setConsumerId("C1");
+        event.setPenalty(50);
+
+        projection.billOverdue(event);
+
+        assertEquals(30.0, totals().get("totalOutstanding"));
+    }
+
+    @Test
+    void get_seedsMissingDashboardFromServices() {
+
+        ConsumerDashboard seeded = new ConsumerDashboard();
+        when(mongoTemplate.findById("C1", ConsumerDashboard.class)).thenReturn(null, seeded);
+
+        BillResponseDto unpaid = new BillResponseDto();
+        unpaid.setId("B1");
+        unpaid.setStatus("OVERDUE");
+        unpaid.setTotalAmount(400);
+        unpaid.setPenalty(50);
+
+        BillResponseDto settled = new BillResponseDto();
+        settled.setId("B2");
+        settled.setStatus("PAID");
+        settled.setTotalAmount(300);
+
+        when(billingClient.getBillsByConsumer("C1")).thenReturn(List.of(unpaid, settled));
+        billsInMemory();
+
+        LocalDateTime older = LocalDateTime.now().minusDays(30);
+        LocalDateTime newer = LocalDateTime.now();
+
+        PaymentResponseDto first = new PaymentResponseDto();
+        first.setAmount(100);
+        first.setConfirmedAt(older);
+
+        PaymentResponseDto last = new PaymentResponseDto();
+        last.setPaymentId("P2");
+        last.setAmount(300);
+        last.setConfirmedAt(newer);
+
+        when(paymentClient.getPaymentsByConsumer("C1")).thenReturn(List.of(first, last));
+
+        assertSame(seeded, projection.get("C1"));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), updates.capture(), eq(ConsumerDashboard.class));
+
+        Document totals = updates.getAllValues().get(0).getUpdateObject();
+        assertEquals(true, totals.get("$set", Document.class).get("seeded"));
+        assertEquals(2, totals.get("$inc", Document.class).get("totalBills"));
+        assertEquals(1, totals.get("$inc", Document.class).get("unpaidBills"));
+        assertEquals(450.0, totals.get("$inc", Document.class).get("totalOutstanding"));
+
+        Document payment = updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class);
+        assertEquals("P2", payment.get("lastPaymentId"));
+        assertEquals(newer, payment.get("lastPaymentDate"));
+    }
+
+    @Test
+    void seed_addsNothingForChangesEventsAlreadyCounted() {
+
+        // B1 generated and paid by events before the first dashboard read
+        billsInMemory();
+        projection.billGenerated(generated(400));
+        projection.billPaid(paid());
+
+        BillResponseDto settled = new BillResponseDto();
+        settled.setId("B1");
+        settled.setStatus("PAID");
+        settled.setTotalAmount(400);
+
+        projection.seed("C1", List.of(settled), List.of());
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).upsert(any(Query.class), updates.capture(), eq(ConsumerDashboard.class));
+
+        Document seed = updates.getAllValues().get(2).getUpdateObject();
+        assertEquals(true, seed.get("$set", Document.class).get("seeded"));
+        assertNull(seed.get("$inc"));
+    }
+
+    @Test
+    void get_consumerWithoutHistory() {
+
+        ConsumerDashboard empty = new ConsumerDashboard();
+        when(mongoTemplate.findById("C1", ConsumerDashboard.class)).thenReturn(null, empty);
+        when(billingClient.getBillsByConsumer("C1")).thenThrow(FeignException.NotFound.class);
+        when(paymentClient.getPaymentsByConsumer("C1")).thenThrow(FeignException.NotFound.class);
+
+        assertSame(empty, projection.get("C1"));
+
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(ConsumerDashboard.class));
+        verify(mongoTemplate, never()).findAndModify(
+                any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DashboardBill.class));
+    }
+
+    @Test
+    void get_seedsDashboardCreatedByEvents() {
+
+        ConsumerDashboard partial = new ConsumerDashboard();
+        when(mongoTemplate.findById("C1", ConsumerDashboard.class)).thenReturn(partial);
+        when(billingClient.getBillsByConsumer("C1")).thenReturn(List.of());
+        when(paymentClient.getPaymentsByConsumer("C1")).thenReturn(List.of());
+
+        projection.get("C1");
+
+        verify(billingClient).getBillsByConsumer("C1");
+    }
+
+    @Test
+    void get_returnsStoredDashboard() {
+
+        ConsumerDashboard stored = new ConsumerDashboard();
+        stored.setSeeded(true);
+        when(mongoTemplate.findById("C1", ConsumerDashboard.class)).thenReturn(stored);
+
+        assertSame(stored, projection.get("C1"));
+        verifyNoInteractions(billingClient, paymentClient);
+    }
+}
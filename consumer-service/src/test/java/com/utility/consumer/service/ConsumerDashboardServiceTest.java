@@ -3,19 +3,21 @@ package com.utility.consumer.service;
 import com.utility.consumer.dto.dashboard.ConsumerDashboardSummaryDto;
 import com.utility.consumer.enums.ConnectionRequestStatus;
 import com.utility.consumer.feign.BillResponseDto;
-import com.utility.consumer.feign.BillingClient;
-import com.utility.consumer.feign.PaymentClient;
+import com.utility.consumer.feign.DashboardSeedClient;
 import com.utility.consumer.feign.PaymentResponseDto;
-import com.utility.consumer.model.ConnectionRequest;
-import com.utility.consumer.model.UtilityConnection;
+import com.utility.consumer.model.ConsumerDashboard;
 import com.utility.consumer.repository.ConnectionRepository;
 import com.utility.consumer.repository.ConnectionRequestRepository;
+import com.utility.consumer.repository.ReactiveConnectionRepository;
+import com.utility.consumer.repository.ReactiveConnectionRequestRepository;
+import com.utility.consumer.repository.ReactiveConsumerDashboardRepository;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,10 +35,19 @@ class ConsumerDashboardServiceTest {
     private ConnectionRequestRepository requestRepository;
 
     @Mock
-    private BillingClient billingClient;
+    private ConsumerDashboardProjection projection;
 
     @Mock
-    private PaymentClient paymentClient;
+    private ReactiveConnectionRepository reactiveConnectionRepository;
+
+    @Mock
+    private ReactiveConnectionRequestRepository reactiveRequestRepository;
+
+    @Mock
+    private ReactiveConsumerDashboardRepository dashboardRepository;
+
+    @Mock
+    private DashboardSeedClient seedClient;
 
     @InjectMocks
     private ConsumerDashboardService service;
@@ -44,36 +55,91 @@ class ConsumerDashboardServiceTest {
     @Test
     void getDashboardSummary_withBillsAndPayments() {
 
-        UtilityConnection conn = new UtilityConnection();
-        conn.setActive(true);
+        when(connectionRepository.countByConsumerIdAndActiveTrue("C1"))
+                .thenReturn(1L);
+
+        when(requestRepository.countByConsumerIdAndStatus("C1", ConnectionRequestStatus.PENDING))
+                .thenReturn(2L);
+
+        LocalDateTime paidAt = LocalDateTime.now();
 
-        when(connectionRepository.findByConsumerId("C1"))
-                .thenReturn(List.of(conn));
+        ConsumerDashboard dashboard = new ConsumerDashboard();
+        dashboard.setId("C1");
+        dashboard.setTotalBills(3);
+        dashboard.setUnpaidBills(1);
+        dashboard.setTotalOutstanding(500);
+        dashboard.setLastPaymentAmount(250.0);
+        dashboard.setLastPaymentDate(paidAt);
 
-        ConnectionRequest req = new ConnectionRequest();
-        req.setConsumerId("C1");
-        req.setStatus(ConnectionRequestStatus.PENDING);
+        when(projection.get("C1")).thenReturn(dashboard);
 
-        when(requestRepository.findByStatus(ConnectionRequestStatus.PENDING))
-                .thenReturn(List.of(req));
+        ConsumerDashboardSummaryDto dto =
+                service.getDashboardSummary("C1");
+
+        assertEquals(1, dto.activeUtilities());
+        assertEquals(2, dto.pendingRequests());
+        assertEquals(3, dto.totalBills());
+        assertEquals(1, dto.unpaidBills());
+        assertEquals(500, dto.totalOutstanding());
+        assertEquals(250.0, dto.lastPaymentAmount());
+        assertEquals(paidAt, dto.lastPaymentDate());
+    }
+
+    @Test
+    void getDashboardSummaryReactive_readsExistingDashboard() {
 
-        BillResponseDto bill = new BillResponseDto();
-        bill.setStatus("UNPAID");
-        bill.setPayableAmount(500);
+        when(reactiveConnectionRepository.countByConsumerIdAndActiveTrue("C1"))
+                .thenReturn(Mono.just(1L));
 
-        when(billingClient.getBillsByConsumer("C1"))
-                .thenReturn(List.of(bill));
+        when(reactiveRequestRepository.countByConsumerIdAndStatus("C1", ConnectionRequestStatus.PENDING))
+                .thenReturn(Mono.just(2L));
 
-        PaymentResponseDto payment = new PaymentResponseDto();
-        payment.setAmount(500);
-        payment.setConfirmedAt(LocalDateTime.now());
+        ConsumerDashboard dashboard = new ConsumerDashboard();
+        dashboard.setId("C1");
+        dashboard.setTotalBills(3);
+        dashboard.setTotalOutstanding(500);
+        dashboard.setSeeded(true);
 
-        when(paymentClient.getPaymentsByConsumer("C1"))
-                .thenReturn(List.of(payment));
+        when(dashboardRepository.findById("C1")).thenReturn(Mono.just(dashboard));
 
         ConsumerDashboardSummaryDto dto =
-                service.getDashboardSummary("C1");
+                service.getDashboardSummaryReactive("C1", "token").block();
 
         assertEquals(1, dto.activeUtilities());
+        assertEquals(2, dto.pendingRequests());
+        assertEquals(3, dto.totalBills());
+        assertEquals(500, dto.totalOutstanding());
+        verifyNoInteractions(seedClient, projection);
+    }
+
+    @Test
+    void getDashboardSummaryReactive_seedsMissingDashboard() {
+
+        when(reactiveConnectionRepository.countByConsumerIdAndActiveTrue("C1"))
+                .thenReturn(Mono.just(0L));
+
+        when(reactiveRequestRepository.countByConsumerIdAndStatus("C1", ConnectionRequestStatus.PENDING))
+                .thenReturn(Mono.just(0L));
+
+        when(dashboardRepository.findById("C1")).thenReturn(Mono.empty());
+
+        List<BillResponseDto> bills = List.of(new BillResponseDto());
+        List<PaymentResponseDto> payments = List.of();
+
+        when(seedClient.bills("C1", "token")).thenReturn(Mono.just(bills));
+        when(seedClient.payments("C1", "token")).thenReturn(Mono.just(payments));
+
+        ConsumerDashboard seeded = new ConsumerDashboard();
+        seeded.setId("C1");
+        seeded.setTotalBills(1);
+        seeded.setUnpaidBills(1);
+
+        when(projection.seed("C1", bills, payments)).thenReturn(seeded);
+
+        ConsumerDashboardSummaryDto dto =
+                service.getDashboardSummaryReactive("C1", "token").block();
+
+        assertEquals(1, dto.totalBills());
+        assertEquals(1, dto.unpaidBills());
     }
-}
\ No newline at end of file
+}
@@ -20,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.utility.consumer.dto.request.ConsumerRequestDTO;
 import com.utility.consumer.dto.response.ConsumerResponseDTO;
 import com.utility.consumer.exception.ApiException;
+import com.utility.consumer.messaging.ConsumerChangePublisher;
 import com.utility.consumer.model.Consumer;
 import com.utility.consumer.repository.ConsumerRepository;
 
@@ -29,6 +30,9 @@ class ConsumerServiceTest {
     @Mock
     private ConsumerRepository consumerRepository;
 
+    @Mock
+    private ConsumerChangePublisher changePublisher;
+
     @InjectMocks
     private ConsumerService service;
 
@@ -115,6 +119,7 @@ class ConsumerServiceTest {
         assertNotNull(response);
         assertEquals("Updated", response.getFullName());
         assertEquals("BLR", response.getAddress());
+        verify(changePublisher).consumerChanged("C1");
     }
 
     // ---------- DEACTIVATE ----------
@@ -133,6 +138,7 @@ class ConsumerServiceTest {
 
         assertFalse(consumer.isActive());
         verify(consumerRepository).save(consumer);
+        verify(changePublisher).consumerChanged("C1");
     }
 
     // ---------- GET CONSUMER ----------
@@ -159,4 +165,21 @@ class ConsumerServiceTest {
 
         assertEquals(1, consumers.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getConsumersByIds_success() {
+
+        Consumer consumer = new Consumer();
+        consumer.setId("C1");
+        consumer.setEmail("a@gmail.com");
+
+        when(consumerRepository.findAllById(List.of("C1", "C2")))
+                .thenReturn(List.of(consumer));
+
+        List<ConsumerResponseDTO> consumers =
+                service.getConsumersByIds(List.of("C1", "C2"));
+
+        assertEquals(1, consumers.size());
+        assertEquals("a@gmail.com", consumers.get(0).getEmail());
+    }
+}
@@ -118,4 +118,32 @@ class UtilityConnectionServiceTest {
         assertThrows(ApiException.class,
                 () -> service.getConnectionById("ID1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getActiveConnectionsPage_firstPage() {
+
+        UtilityConnection active = new UtilityConnection();
+        active.setId("UC1");
+        active.setActive(true);
+
+        when(connectionRepository.findByActiveTrueOrderByIdAsc(any()))
+                .thenReturn(List.of(active));
+
+        List<ConnectionResponseDto> result =
+                service.getActiveConnectionsPage(null, 100);
+
+        assertEquals(1, result.size());
+        verify(connectionRepository, never())
+                .findByActiveTrueAndIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void getActiveConnectionsPage_afterCursor() {
+
+        when(connectionRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                eq("UC1"), any()))
+                .thenReturn(List.of());
+
+        assertTrue(service.getActiveConnectionsPage("UC1", 100).isEmpty());
+    }
+}
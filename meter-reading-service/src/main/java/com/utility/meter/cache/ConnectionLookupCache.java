@@ -0,0 +1,43 @@
+package com.utility.meter.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.utility.meter.dto.ConnectionDto;
+import com.utility.meter.feign.ConsumerConnectionClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// connections change rarely; invalidated by ConnectionChangeListener
+@Component
+public class ConnectionLookupCache {
+
+    private final ConsumerConnectionClient connectionClient;
+    private final LookupCache<ConnectionDto> connections;
+
+    public ConnectionLookupCache(
+            ConsumerConnectionClient connectionClient,
+            MeterRegistry meterRegistry,
+            @Value("${lookup.cache.max-size:10000}") long maxSize,
+            @Value("${lookup.cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.connectionClient = connectionClient;
+        this.connections =
+                new LookupCache<>(
+                        "connections",
+                        maxSize,
+                        Duration.ofSeconds(ttlSeconds),
+                        meterRegistry
+                );
+    }
+
+    public ConnectionDto getConnection(String connectionId) {
+        return connections.get(connectionId, connectionClient::getConnectionById);
+    }
+
+    public void evictConnection(String connectionId) {
+        connections.evict(connectionId);
+    }
+}
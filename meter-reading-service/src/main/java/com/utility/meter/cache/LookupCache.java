@@ -0,0 +1,109 @@
+package com.utility.meter.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Size- and TTL-bounded cache-aside wrapper for remote lookups.
+ * Concurrent misses for the same key share one in-flight load, which runs on
+ * the first caller's thread so Feign still sees its security context.
+ * Nulls and failures are never cached.
+ */
+public class LookupCache<V> {
+
+    private final AsyncCache<String, V> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loads;
+
+    public LookupCache(String name, long maxSize, Duration ttl, MeterRegistry registry) {
+
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .buildAsync();
+
+        this.hits = requests(registry, name, "hit");
+        this.misses = requests(registry, name, "miss");
+        this.loads =
+                Timer.builder("lookup.cache.load")
+                        .tag("cache", name)
+                        .register(registry);
+
+        Gauge.builder("lookup.cache.size", cache.synchronous(), c -> c.estimatedSize())
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    public V get(String key, Function<String, V> loader) {
+
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            hits.increment();
+            return join(cached);
+        }
+
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = cache.asMap().putIfAbsent(key, pending);
+
+        if (inFlight != null) {
+            hits.increment();
+            return join(inFlight);
+        }
+
+        misses.increment();
+        Timer.Sample sample = Timer.start();
+
+        try {
+            V value = loader.apply(key);
+            pending.complete(value);
+            return value;
+
+        } catch (RuntimeException ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+
+        } finally {
+            sample.stop(loads);
+        }
+    }
+
+    public void evict(String key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String name, String result) {
+        return Counter.builder("lookup.cache.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
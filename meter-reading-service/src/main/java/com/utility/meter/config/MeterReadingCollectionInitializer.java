@@ -0,0 +1,197 @@
+package com.utility.meter.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.TimeSeriesOptions;
+import com.utility.meter.model.LatestReading;
+import com.utility.meter.model.MeterReading;
+import com.utility.meter.service.ConsumptionAnomalyDetector;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * meter_readings is a time-series collection bucketed per connection. Mongo
+ * only creates one on request, so this runs before the seeder and anything
+ * else that could create the collection implicitly. A regular collection
+ * left by an older version is renamed to meter_readings_legacy and copied
+ * over; latest_readings is rebuilt last, so a copy that stopped short is
+ * started again on the next boot.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MeterReadingCollectionInitializer implements ApplicationRunner {
+
+    static final String LEGACY = "meter_readings_legacy";
+
+    // one reading a month, so a year of them share a bucket
+    private static final long BUCKET_SPAN_DAYS = 365;
+    private static final int COPY_BATCH = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ConsumptionAnomalyDetector detector;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        MongoDatabase db = mongoTemplate.getDb();
+        String name = mongoTemplate.getCollectionName(MeterReading.class);
+
+        Document info =
+                db.listCollections().filter(new Document("name", name)).first();
+
+        boolean legacy = mongoTemplate.collectionExists(LEGACY);
+        boolean latestEmpty = mongoTemplate.estimatedCount(LatestReading.class) == 0;
+
+        if (info != null && "timeseries".equals(info.getString("type"))) {
+
+            if (!latestEmpty || !legacy || !copyUnfinished(db, name)) {
+                if (latestEmpty) {
+                    rebuildLatest();
+                }
+                return;
+            }
+
+            log.warn("Copy of {} into {} did not finish, starting it again", LEGACY, name);
+            mongoTemplate.dropCollection(name);
+
+        } else if (info != null) {
+
+            if (legacy) {
+                log.error("{} is not a time-series collection and {} already exists; "
+                        + "resolve by hand, leaving both as they are", name, LEGACY);
+                return;
+            }
+
+            if (mongoTemplate.getCollection(name).estimatedDocumentCount() == 0) {
+                mongoTemplate.dropCollection(name);
+            } else {
+                db.getCollection(name).renameCollection(new MongoNamespace(db.getName(), LEGACY));
+                legacy = true;
+            }
+        }
+
+        db.createCollection(name, new CreateCollectionOptions().timeSeriesOptions(
+                new TimeSeriesOptions("period")
+                        .metaField("connectionId")
+                        .bucketMaxSpan(BUCKET_SPAN_DAYS, TimeUnit.DAYS)
+                        .bucketRounding(BUCKET_SPAN_DAYS, TimeUnit.DAYS)
+        ));
+
+        if (legacy) {
+            copyLegacy(db, name);
+        }
+
+        rebuildLatest();
+    }
+
+    private static boolean copyUnfinished(MongoDatabase db, String name) {
+        return db.getCollection(name).countDocuments()
+                < db.getCollection(LEGACY).estimatedDocumentCount();
+    }
+
+    private void copyLegacy(MongoDatabase db, String name) {
+
+        MongoCollection<Document> target = db.getCollection(name);
+        List<Document> batch = new ArrayList<>(COPY_BATCH);
+        long copied = 0;
+
+        for (Document reading : db.getCollection(LEGACY).find()) {
+
+            if (reading.get("period") == null) {
+                reading.put("period", Date.from(MeterReading.periodOf(
+                        reading.getInteger("readingYear"),
+                        reading.getInteger("readingMonth")
+                )));
+            }
+
+            batch.add(reading);
+
+            if (batch.size() == COPY_BATCH) {
+                target.insertMany(batch, new InsertManyOptions().ordered(false));
+                copied += batch.size();
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            target.insertMany(batch, new InsertManyOptions().ordered(false));
+            copied += batch.size();
+        }
+
+        log.info("Copied {} meter readings from {} into {}; drop {} once verified",
+                copied, LEGACY, name, LEGACY);
+    }
+
+    // replays each connection's readings so the anomaly statistics come back too
+    private void rebuildLatest() {
+
+        List<LatestReading> batch = new ArrayList<>(COPY_BATCH);
+        LatestReading latest = null;
+        long rebuilt = 0;
+
+        try (Stream<MeterReading> readings = mongoTemplate.aggregateStream(
+                Aggregation.newAggregation(
+                        MeterReading.class,
+                        Aggregation.sort(Sort.by("connectionId", "period"))
+                ).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                MeterReading.class)) {
+
+            Iterator<MeterReading> it = readings.iterator();
+
+            while (it.hasNext()) {
+
+                MeterReading reading = it.next();
+
+                if (latest != null && !latest.getConnectionId().equals(reading.getConnectionId())) {
+                    batch.add(latest);
+                    latest = null;
+                }
+
+                latest = detector.next(latest, reading);
+
+                if (batch.size() == COPY_BATCH) {
+                    mongoTemplate.insert(batch, LatestReading.class);
+                    rebuilt += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+
+        if (latest != null) {
+            batch.add(latest);
+        }
+
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, LatestReading.class);
+            rebuilt += batch.size();
+        }
+
+        if (rebuilt > 0) {
+            log.info("Rebuilt latest reading for {} connections", rebuilt);
+        }
+    }
+}
@@ -11,9 +11,12 @@ import org.springframework.context.annotation.Configuration;
 
 import com.utility.meter.dto.ConnectionDto;
 import com.utility.meter.feign.ConsumerConnectionClient;
+import com.utility.meter.model.LatestReading;
 import com.utility.meter.model.MeterReading;
 import com.utility.meter.model.UtilityType;
 import com.utility.meter.repository.MeterReadingRepository;
+import com.utility.meter.service.ConsumptionAnomalyDetector;
+import com.utility.meter.service.LatestReadingStore;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,6 +26,8 @@ public class MeterReadingSeeder {
 
     private final MeterReadingRepository meterRepo;
     private final ConsumerConnectionClient connectionClient;
+    private final LatestReadingStore latestStore;
+    private final ConsumptionAnomalyDetector detector;
 
     private final Random random = new Random();
 
@@ -47,27 +52,32 @@ public class MeterReadingSeeder {
 
             for (ConnectionDto conn : connections) {
 
-                long previousReading = 0;
+                LatestReading latest = null;
                 LocalDate cursor = start;
 
                 while (!cursor.isAfter(end)) {
 
-                    previousReading =
+                    MeterReading reading =
                             saveReading(
                                     conn,
                                     cursor.getYear(),
                                     cursor.getMonthValue(),
-                                    previousReading
+                                    latest == null ? 0 : latest.getReading().getCurrentReading()
                             );
 
+                    latest = detector.next(latest, reading);
                     cursor = cursor.plusMonths(1);
                 }
+
+                if (latest != null) {
+                    latestStore.advance(conn.getId(), null, latest);
+                }
             }
 
         };
     }
 
-    private long saveReading(
+    private MeterReading saveReading(
             ConnectionDto conn,
             int year,
             int month,
@@ -82,6 +92,7 @@ public class MeterReadingSeeder {
         reading.setConnectionId(conn.getId());
         reading.setUtilityType(conn.getUtilityType());
         reading.setMeterNumber(conn.getMeterNumber());
+        reading.setTariffPlan(conn.getTariffPlan());
 
         reading.setPreviousReading(previousReading);
         reading.setCurrentReading(currentReading);
@@ -89,14 +100,13 @@ public class MeterReadingSeeder {
 
         reading.setReadingMonth(month);
         reading.setReadingYear(year);
+        reading.setPeriod(MeterReading.periodOf(year, month));
         reading.setReadingDate(
                 LocalDate.of(year, month, 25)
         );
         reading.setCreatedAt(LocalDateTime.now());
 
-        meterRepo.save(reading);
-
-        return currentReading;
+        return meterRepo.insert(reading);
     }
 
     private long generateConsumption(UtilityType type) {
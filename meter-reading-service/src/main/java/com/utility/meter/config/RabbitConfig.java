@@ -0,0 +1,40 @@
+package com.utility.meter.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    public static final String EXCHANGE = "notification.exchange";
+    public static final String CONNECTION_CHANGED_KEY = "connection.changed";
+
+    @Bean
+    public Jackson2JsonMessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public DirectExchange notificationExchange() {
+        return new DirectExchange(EXCHANGE);
+    }
+
+    // one auto-deleted queue per instance, so every replica drops its cached copy
+    @Bean
+    public Queue connectionChangesQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding connectionChangedBinding() {
+        return BindingBuilder.bind(connectionChangesQueue())
+                .to(notificationExchange())
+                .with(CONNECTION_CHANGED_KEY);
+    }
+}
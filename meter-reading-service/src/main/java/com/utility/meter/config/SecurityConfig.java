@@ -31,6 +31,11 @@ public class SecurityConfig {
                     "/meter-readings/connection/**"
                 ).permitAll()
 
+                .requestMatchers(
+                    HttpMethod.POST,
+                    "/meter-readings/internal/**"
+                ).permitAll()
+
                 // 🔒 EVERYTHING ELSE → ONLY BILLING_OFFICER
                 .anyRequest().authenticated()
             )
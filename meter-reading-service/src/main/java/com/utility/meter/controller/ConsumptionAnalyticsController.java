@@ -0,0 +1,65 @@
+package com.utility.meter.controller;
+
+import com.utility.meter.dto.ConsumerConsumption;
+import com.utility.meter.dto.ConsumptionGrouping;
+import com.utility.meter.dto.ConsumptionPoint;
+import com.utility.meter.model.UtilityType;
+import com.utility.meter.service.ConsumptionAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+// months are given as yyyy-MM, both ends inclusive
+@RestController
+@RequestMapping("/meter-readings/analytics")
+@RequiredArgsConstructor
+public class ConsumptionAnalyticsController {
+
+    private final ConsumptionAnalyticsService analytics;
+
+    @GetMapping("/monthly")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public List<ConsumptionPoint> monthly(
+            @RequestParam("from") YearMonth from,
+            @RequestParam("to") YearMonth to,
+            @RequestParam(name = "utilityType", required = false) UtilityType utilityType,
+            @RequestParam(name = "groupBy", defaultValue = "UTILITY_TYPE") ConsumptionGrouping groupBy) {
+
+        return analytics.monthly(from, to, utilityType, groupBy);
+    }
+
+    @GetMapping("/rolling")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public List<ConsumptionPoint> rolling(
+            @RequestParam("from") YearMonth from,
+            @RequestParam("to") YearMonth to,
+            @RequestParam(name = "utilityType", required = false) UtilityType utilityType,
+            @RequestParam(name = "groupBy", defaultValue = "UTILITY_TYPE") ConsumptionGrouping groupBy) {
+
+        return analytics.rolling(from, to, utilityType, groupBy);
+    }
+
+    @GetMapping("/top-consumers")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public List<ConsumerConsumption> topConsumers(
+            @RequestParam("from") YearMonth from,
+            @RequestParam("to") YearMonth to,
+            @RequestParam(name = "utilityType", required = false) UtilityType utilityType,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+
+        return analytics.topConsumers(from, to, utilityType, limit);
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Integer> rebuild(
+            @RequestParam("from") YearMonth from,
+            @RequestParam("to") YearMonth to) {
+
+        return Map.of("buckets", analytics.rebuild(from, to));
+    }
+}
@@ -1,17 +1,23 @@
 package com.utility.meter.controller;
 
+import com.utility.meter.dto.BulkImportReport;
 import com.utility.meter.dto.CreateMeterReadingRequest;
 import com.utility.meter.dto.MeterReadingResponse;
 import com.utility.meter.exception.ApiException;
+import com.utility.meter.service.MeterReadingImportService;
 import com.utility.meter.service.MeterReadingService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -20,15 +26,30 @@ import java.util.List;
 public class MeterReadingController {
 
     private final MeterReadingService service;
+    private final MeterReadingImportService importService;
 
     @PostMapping
     @PreAuthorize("hasRole('BILLING_OFFICER')")
     public ResponseEntity<MeterReadingResponse> add(
             @Valid @RequestBody CreateMeterReadingRequest request) {
 
+        MeterReadingResponse reading = service.addReading(request);
+
+        // held for review instead of stored
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(service.addReading(request));
+                .status(reading.isQuarantined() ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                .body(reading);
+    }
+
+    // body is streamed straight from the request, never buffered whole
+    @PostMapping(value = "/bulk", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasRole('BILLING_OFFICER')")
+    public BulkImportReport bulkImport(HttpServletRequest request) throws IOException {
+
+        return importService.importReadings(
+                request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType())
+        );
     }
 
     @GetMapping("/consumer/{consumerId}")
@@ -89,5 +110,41 @@ public class MeterReadingController {
 
         return ResponseEntity.ok(readings);
     }
+
+    // an unknown connection is an empty stream: the 200 is committed before Mongo answers
+    @GetMapping(value = "/connection/{connectionId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MeterReadingResponse> streamByConnection(
+            @PathVariable("connectionId") String connectionId) {
+
+        return service.streamByConnection(connectionId);
+    }
+
+    @GetMapping("/quarantine")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public List<MeterReadingResponse> quarantined() {
+        return service.getQuarantined();
+    }
+
+    @PostMapping("/quarantine/{id}/release")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public MeterReadingResponse release(@PathVariable("id") String id) {
+        return service.releaseQuarantined(id);
+    }
+
+    @DeleteMapping("/quarantine/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','BILLING_OFFICER')")
+    public ResponseEntity<Void> discard(@PathVariable("id") String id) {
+        service.discardQuarantined(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/internal/batch")
+    public List<MeterReadingResponse> batchForMonth(
+            @RequestParam("month") int month,
+            @RequestParam("year") int year,
+            @RequestBody List<String> connectionIds) {
+
+        return service.getByConnectionsForMonth(connectionIds, month, year);
+    }
     
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.utility.meter.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BulkImportReport {
+
+    private long received;
+    private long inserted;
+    private long rejected;
+
+    // held for review as likely misreads, see MeterReadingService.releaseQuarantined
+    private long quarantined;
+
+    // only the first errors are kept so a bad file cannot grow the report unbounded
+    private boolean errorsTruncated;
+    private List<ImportRowError> errors = new ArrayList<>();
+}
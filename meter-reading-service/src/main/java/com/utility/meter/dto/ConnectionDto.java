@@ -10,4 +10,5 @@ public class ConnectionDto {
     private String consumerId;
     private UtilityType utilityType;
     private String meterNumber;
+    private String tariffPlan;
 }
\ No newline at end of file
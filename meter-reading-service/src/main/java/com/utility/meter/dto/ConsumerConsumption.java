@@ -0,0 +1,11 @@
+package com.utility.meter.dto;
+
+import lombok.Data;
+
+@Data
+public class ConsumerConsumption {
+
+    private String consumerId;
+    private long units;
+    private long readings;
+}
@@ -0,0 +1,6 @@
+package com.utility.meter.dto;
+
+public enum ConsumptionGrouping {
+    UTILITY_TYPE,
+    TARIFF_PLAN
+}
@@ -0,0 +1,19 @@
+package com.utility.meter.dto;
+
+import com.utility.meter.model.UtilityType;
+import lombok.Data;
+
+@Data
+public class ConsumptionPoint {
+
+    private int year;
+    private int month;
+
+    private UtilityType utilityType;
+
+    // only set when grouped by tariff plan
+    private String tariffPlan;
+
+    private long units;
+    private long readings;
+}
@@ -0,0 +1,15 @@
+package com.utility.meter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+    private long line;
+    private String connectionId;
+    private String message;
+}
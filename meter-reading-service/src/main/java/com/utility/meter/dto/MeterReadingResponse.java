@@ -18,4 +18,7 @@ public class MeterReadingResponse {
 
     private int readingMonth;
     private int readingYear;
+
+    private double anomalyScore;
+    private boolean quarantined;
 }
\ No newline at end of file
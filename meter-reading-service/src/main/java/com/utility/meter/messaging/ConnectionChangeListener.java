@@ -0,0 +1,21 @@
+package com.utility.meter.messaging;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.utility.common.dto.event.ConnectionChangedEvent;
+import com.utility.meter.cache.ConnectionLookupCache;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ConnectionChangeListener {
+
+    private final ConnectionLookupCache lookupCache;
+
+    @RabbitListener(queues = "#{connectionChangesQueue.name}")
+    public void onConnectionChanged(ConnectionChangedEvent event) {
+        lookupCache.evictConnection(event.getConnectionId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.utility.meter.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// monthly consumption per utility type and tariff plan, see ConsumptionAnalyticsService
+@Data
+@Document(collection = "consumption_buckets")
+public class ConsumptionBucket {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private Instant period;
+
+    private UtilityType utilityType;
+    private String tariffPlan;
+
+    private long units;
+    private long readings;
+
+    public static String idOf(Instant period, UtilityType utilityType, String tariffPlan) {
+        return period + ":" + utilityType + ":" + tariffPlan;
+    }
+}
@@ -0,0 +1,21 @@
+package com.utility.meter.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// newest reading of a connection, kept in step with meter_readings by LatestReadingStore
+@Data
+@Document(collection = "latest_readings")
+public class LatestReading {
+
+    @Id
+    private String connectionId;
+
+    private MeterReading reading;
+
+    // running statistics of consumptionUnits, see ConsumptionAnomalyDetector
+    private double meanUnits;
+    private double varianceUnits;
+    private long samples;
+}
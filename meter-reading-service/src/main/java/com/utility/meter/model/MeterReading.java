@@ -2,30 +2,54 @@ package com.utility.meter.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+// time-series collection (time: period, meta: connectionId), see MeterReadingCollectionInitializer
 @Data
 @Document(collection = "meter_readings")
+@CompoundIndexes({
+    @CompoundIndex(name = "connection_period_idx", def = "{'connectionId': 1, 'period': -1}"),
+    @CompoundIndex(name = "period_idx", def = "{'period': 1}")
+})
 public class MeterReading {
 
     @Id
     private String id;
 
+    @Indexed
     private String consumerId;
     private String connectionId;
     private UtilityType utilityType;
     private String meterNumber;
 
+    // plan of the connection when the reading was taken
+    private String tariffPlan;
+
     private long previousReading;
     private long currentReading;
     private long consumptionUnits;
 
+    // deviations of consumptionUnits from the connection's mean, see ConsumptionAnomalyDetector
+    private double anomalyScore;
+
     private int readingMonth;   
     private int readingYear;    
 
+    // first instant of the reading month in UTC
+    private Instant period;
+
     private LocalDate readingDate;
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    public static Instant periodOf(int year, int month) {
+        return LocalDate.of(year, month, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,26 @@
+package com.utility.meter.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// a reading held back as a likely misread; billing never sees it until released
+@Data
+@Document(collection = "quarantined_readings")
+public class QuarantinedReading {
+
+    // same as the held reading's id
+    @Id
+    private String id;
+
+    private MeterReading reading;
+
+    // the connection's mean consumption it was scored against
+    private double meanUnits;
+
+    @Indexed
+    private Instant quarantinedAt;
+}
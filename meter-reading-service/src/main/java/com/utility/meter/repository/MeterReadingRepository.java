@@ -3,29 +3,24 @@ package com.utility.meter.repository;
 import com.utility.meter.model.MeterReading;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+// latest readings are served by LatestReadingStore, not by sorting this collection
 public interface MeterReadingRepository extends MongoRepository<MeterReading, String> {
 
-    Optional<MeterReading> findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc(
-            String connectionId
-    );
-
-    boolean existsByConnectionIdAndReadingMonthAndReadingYear(
-            String connectionId,
-            int readingMonth,
-            int readingYear
-    );
-
     List<MeterReading> findByConsumerId(String consumerId);
 
-    Optional<MeterReading> findByConnectionIdAndReadingMonthAndReadingYear(
+    Optional<MeterReading> findByConnectionIdAndPeriod(
             String connectionId,
-            int readingMonth,
-            int readingYear
+            Instant period
     );
-    List<MeterReading>
-    findByReadingMonthAndReadingYear(int readingMonth, int readingYear);
+    List<MeterReading> findByPeriod(Instant period);
     List<MeterReading> findByConnectionId(String connectionId);
-}
\ No newline at end of file
+
+    List<MeterReading> findByConnectionIdInAndPeriod(
+            List<String> connectionIds,
+            Instant period
+    );
+}
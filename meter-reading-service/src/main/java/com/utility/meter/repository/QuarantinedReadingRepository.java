@@ -0,0 +1,7 @@
+package com.utility.meter.repository;
+
+import com.utility.meter.model.QuarantinedReading;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface QuarantinedReadingRepository extends MongoRepository<QuarantinedReading, String> {
+}
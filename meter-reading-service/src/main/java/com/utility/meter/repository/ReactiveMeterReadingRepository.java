@@ -0,0 +1,12 @@
+package com.utility.meter.repository;
+
+import com.utility.meter.model.MeterReading;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+
+// read-only twin of MeterReadingRepository for the streaming endpoints; writes stay blocking
+public interface ReactiveMeterReadingRepository extends ReactiveMongoRepository<MeterReading, String> {
+
+    Flux<MeterReading> findByConnectionId(String connectionId);
+}
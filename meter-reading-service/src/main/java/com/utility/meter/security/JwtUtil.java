@@ -1,29 +1,18 @@
 package com.utility.meter.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.utility.common.security.JwtVerifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-
 @Component
-public class JwtUtil {
-
-    @Value("${jwt.secret}")
-    private String secret;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
+public class JwtUtil extends JwtVerifier {
 
-    public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${gateway.identity.secret:${jwt.secret}}") String identitySecret,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${jwt.cache.max-ttl-ms:300000}") long cacheMaxTtlMs
+    ) {
+        super(secret, identitySecret, cacheMaxEntries, cacheMaxTtlMs);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,355 @@
+package com.utility.meter.service;
+
+import com.utility.meter.cache.LookupCache;
+import com.utility.meter.dto.ConsumerConsumption;
+import com.utility.meter.dto.ConsumptionGrouping;
+import com.utility.meter.dto.ConsumptionPoint;
+import com.utility.meter.exception.ApiException;
+import com.utility.meter.model.ConsumptionBucket;
+import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.UtilityType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Trends are answered from consumption_buckets: one document per month,
+ * utility type and tariff plan, moved with $inc as readings are stored. Years
+ * of history come to a few hundred of them, so trend queries never touch
+ * meter_readings. rebuild() recomputes a range of months from the readings,
+ * for buckets that missed a write, and seeds them on first start.
+ */
+@Slf4j
+@Service
+public class ConsumptionAnalyticsService {
+
+    static final int ROLLING_MONTHS = 12;
+
+    private final MongoTemplate mongoTemplate;
+    private final LookupCache<List<ConsumerConsumption>> topConsumers;
+    private final int maxTopConsumers;
+
+    public ConsumptionAnalyticsService(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${meter.analytics.top-cache.max-size:1000}") long topCacheSize,
+            @Value("${meter.analytics.top-cache.ttl-seconds:300}") long topCacheTtlSeconds,
+            @Value("${meter.analytics.max-top-consumers:100}") int maxTopConsumers
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.topConsumers =
+                new LookupCache<>(
+                        "top-consumers",
+                        topCacheSize,
+                        Duration.ofSeconds(topCacheTtlSeconds),
+                        meterRegistry
+                );
+        this.maxTopConsumers = maxTopConsumers;
+    }
+
+    // best effort: the readings are already stored, rebuild() repairs a miss
+    public void record(List<MeterReading> readings) {
+
+        Map<String, ConsumptionBucket> deltas = new LinkedHashMap<>();
+
+        for (MeterReading reading : readings) {
+
+            ConsumptionBucket delta = deltas.computeIfAbsent(
+                    ConsumptionBucket.idOf(
+                            reading.getPeriod(),
+                            reading.getUtilityType(),
+                            reading.getTariffPlan()
+                    ),
+                    id -> bucket(id, reading.getPeriod(), reading.getUtilityType(), reading.getTariffPlan())
+            );
+
+            delta.setUnits(delta.getUnits() + reading.getConsumptionUnits());
+            delta.setReadings(delta.getReadings() + 1);
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConsumptionBucket.class);
+
+        for (ConsumptionBucket delta : deltas.values()) {
+            bulk.upsert(
+                    Query.query(Criteria.where("_id").is(delta.getId())),
+                    new Update()
+                            .setOnInsert("period", delta.getPeriod())
+                            .setOnInsert("utilityType", delta.getUtilityType())
+                            .setOnInsert("tariffPlan", delta.getTariffPlan())
+                            .inc("units", delta.getUnits())
+                            .inc("readings", delta.getReadings())
+            );
+        }
+
+        try {
+            bulk.execute();
+        } catch (DataAccessException ex) {
+            log.warn("Consumption buckets missed {} readings: {}", readings.size(), ex.getMessage());
+        }
+    }
+
+    public List<ConsumptionPoint> monthly(
+            YearMonth from,
+            YearMonth to,
+            UtilityType utilityType,
+            ConsumptionGrouping grouping) {
+
+        checkRange(from, to);
+
+        return new ArrayList<>(points(buckets(from, to, utilityType), grouping).values());
+    }
+
+    // each point sums the twelve months ending with it
+    public List<ConsumptionPoint> rolling(
+            YearMonth from,
+            YearMonth to,
+            UtilityType utilityType,
+            ConsumptionGrouping grouping) {
+
+        checkRange(from, to);
+
+        Map<String, ConsumptionPoint> monthly = points(
+                buckets(from.minusMonths(ROLLING_MONTHS - 1), to, utilityType),
+                grouping
+        );
+
+        // series key (utility type and plan) -> sample point for its labels
+        Map<String, ConsumptionPoint> series = new LinkedHashMap<>();
+        for (ConsumptionPoint point : monthly.values()) {
+            series.putIfAbsent(seriesKey(point.getUtilityType(), point.getTariffPlan()), point);
+        }
+
+        List<ConsumptionPoint> result = new ArrayList<>();
+
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            for (Map.Entry<String, ConsumptionPoint> entry : series.entrySet()) {
+
+                ConsumptionPoint total = point(
+                        month,
+                        entry.getValue().getUtilityType(),
+                        entry.getValue().getTariffPlan()
+                );
+
+                for (int back = 0; back < ROLLING_MONTHS; back++) {
+                    ConsumptionPoint point =
+                            monthly.get(pointKey(month.minusMonths(back), entry.getKey()));
+                    if (point != null) {
+                        total.setUnits(total.getUnits() + point.getUnits());
+                        total.setReadings(total.getReadings() + point.getReadings());
+                    }
+                }
+
+                if (total.getReadings() > 0) {
+                    result.add(total);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    // aggregated over the readings themselves; results are cached for a few minutes
+    public List<ConsumerConsumption> topConsumers(
+            YearMonth from,
+            YearMonth to,
+            UtilityType utilityType,
+            int limit) {
+
+        checkRange(from, to);
+
+        if (limit < 1 || limit > maxTopConsumers) {
+            throw new ApiException(
+                    "limit must be between 1 and " + maxTopConsumers,
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        return topConsumers.get(
+                from + ":" + to + ":" + utilityType + ":" + limit,
+                key -> mongoTemplate
+                        .aggregate(
+                                Aggregation.newAggregation(
+                                        MeterReading.class,
+                                        Aggregation.match(range(from, to, utilityType)),
+                                        Aggregation.group("consumerId")
+                                                .sum("consumptionUnits").as("units")
+                                                .count().as("readings"),
+                                        Aggregation.sort(Sort.Direction.DESC, "units"),
+                                        Aggregation.limit(limit),
+                                        Aggregation.project("units", "readings")
+                                                .and("consumerId").previousOperation()
+                                ).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                                ConsumerConsumption.class
+                        )
+                        .getMappedResults()
+        );
+    }
+
+    // readings written while a month is rebuilt can be counted twice or not at all
+    public int rebuild(YearMonth from, YearMonth to) {
+
+        checkRange(from, to);
+
+        return rebuild(range(from, to, null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedBuckets() {
+
+        if (mongoTemplate.estimatedCount(ConsumptionBucket.class) > 0) {
+            return;
+        }
+
+        try {
+            int buckets = rebuild(new Criteria());
+            log.info("Seeded {} consumption buckets from meter readings", buckets);
+        } catch (DataAccessException ex) {
+            log.error("Could not seed consumption buckets: {}", ex.getMessage());
+        }
+    }
+
+    private int rebuild(Criteria range) {
+
+        List<ConsumptionBucket> rebuilt =
+                mongoTemplate
+                        .aggregate(
+                                Aggregation.newAggregation(
+                                        MeterReading.class,
+                                        Aggregation.match(range),
+                                        Aggregation.group("period", "utilityType", "tariffPlan")
+                                                .sum("consumptionUnits").as("units")
+                                                .count().as("readings"),
+                                        Aggregation.project("period", "utilityType", "tariffPlan", "units", "readings")
+                                                .andExclude("_id")
+                                ).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                                ConsumptionBucket.class
+                        )
+                        .getMappedResults();
+
+        rebuilt.forEach(bucket -> bucket.setId(ConsumptionBucket.idOf(
+                bucket.getPeriod(),
+                bucket.getUtilityType(),
+                bucket.getTariffPlan()
+        )));
+
+        mongoTemplate.remove(new Query(range), ConsumptionBucket.class);
+
+        if (!rebuilt.isEmpty()) {
+            mongoTemplate.insert(rebuilt, ConsumptionBucket.class);
+        }
+
+        topConsumers.evictAll();
+
+        return rebuilt.size();
+    }
+
+    private List<ConsumptionBucket> buckets(YearMonth from, YearMonth to, UtilityType utilityType) {
+        return mongoTemplate.find(
+                new Query(range(from, to, utilityType))
+                        .with(Sort.by("period", "utilityType", "tariffPlan")),
+                ConsumptionBucket.class
+        );
+    }
+
+    // insertion ordered by month, then utility type and plan
+    private static Map<String, ConsumptionPoint> points(
+            List<ConsumptionBucket> buckets,
+            ConsumptionGrouping grouping) {
+
+        Map<String, ConsumptionPoint> points = new LinkedHashMap<>();
+
+        for (ConsumptionBucket bucket : buckets) {
+
+            YearMonth month = YearMonth.from(bucket.getPeriod().atOffset(ZoneOffset.UTC));
+            String tariffPlan =
+                    grouping == ConsumptionGrouping.TARIFF_PLAN ? bucket.getTariffPlan() : null;
+
+            ConsumptionPoint point = points.computeIfAbsent(
+                    pointKey(month, seriesKey(bucket.getUtilityType(), tariffPlan)),
+                    key -> point(month, bucket.getUtilityType(), tariffPlan)
+            );
+
+            point.setUnits(point.getUnits() + bucket.getUnits());
+            point.setReadings(point.getReadings() + bucket.getReadings());
+        }
+
+        return points;
+    }
+
+    private static Criteria range(YearMonth from, YearMonth to, UtilityType utilityType) {
+
+        Criteria criteria = Criteria.where("period")
+                .gte(periodOf(from))
+                .lte(periodOf(to));
+
+        return utilityType == null ? criteria : criteria.and("utilityType").is(utilityType);
+    }
+
+    private static void checkRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new ApiException("from must not be after to", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static Instant periodOf(YearMonth month) {
+        return MeterReading.periodOf(month.getYear(), month.getMonthValue());
+    }
+
+    private static String seriesKey(UtilityType utilityType, String tariffPlan) {
+        return utilityType + ":" + tariffPlan;
+    }
+
+    private static String pointKey(YearMonth month, String seriesKey) {
+        return month + ":" + seriesKey;
+    }
+
+    private static ConsumptionPoint point(YearMonth month, UtilityType utilityType, String tariffPlan) {
+        ConsumptionPoint point = new ConsumptionPoint();
+        point.setYear(month.getYear());
+        point.setMonth(month.getMonthValue());
+        point.setUtilityType(utilityType);
+        point.setTariffPlan(tariffPlan);
+        return point;
+    }
+
+    private static ConsumptionBucket bucket(
+            String id,
+            Instant period,
+            UtilityType utilityType,
+            String tariffPlan) {
+
+        ConsumptionBucket bucket = new ConsumptionBucket();
+        bucket.setId(id);
+        bucket.setPeriod(period);
+        bucket.setUtilityType(utilityType);
+        bucket.setTariffPlan(tariffPlan);
+        return bucket;
+    }
+}
@@ -0,0 +1,84 @@
+package com.utility.meter.service;
+
+import com.utility.meter.model.LatestReading;
+import com.utility.meter.model.MeterReading;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+ * Scores a reading's consumption against an exponentially weighted mean and
+ * variance of the connection's earlier consumption. The statistics live on
+ * its LatestReading and move with the same compare-and-set as the pointer,
+ * so scoring costs nothing beyond the pointer read every write already does.
+ * Quarantined readings never feed them, so one misread cannot widen the band
+ * for the next.
+ */
+@Component
+public class ConsumptionAnomalyDetector {
+
+    private final double alpha;
+    private final double threshold;
+    private final long minSamples;
+    private final double minSpread;
+
+    public ConsumptionAnomalyDetector(
+            @Value("${meter.anomaly.alpha:0.3}") double alpha,
+            @Value("${meter.anomaly.threshold:4.0}") double threshold,
+            @Value("${meter.anomaly.min-samples:3}") long minSamples,
+            @Value("${meter.anomaly.min-spread:0.1}") double minSpread
+    ) {
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minSamples = minSamples;
+        this.minSpread = minSpread;
+    }
+
+    // 0 until the connection has enough history to judge by
+    public double score(LatestReading latest, long consumptionUnits) {
+
+        if (latest == null || latest.getSamples() < minSamples) {
+            return 0;
+        }
+
+        // a connection that always uses the same amount would otherwise flag any change
+        double spread = Math.max(
+                Math.sqrt(latest.getVarianceUnits()),
+                Math.max(latest.getMeanUnits() * minSpread, 1)
+        );
+
+        return (consumptionUnits - latest.getMeanUnits()) / spread;
+    }
+
+    // only spikes are held back; an unusually low reading cannot overbill
+    public boolean quarantines(double score) {
+        return score > threshold;
+    }
+
+    public LatestReading next(LatestReading latest, MeterReading reading) {
+
+        LatestReading next = new LatestReading();
+        next.setConnectionId(reading.getConnectionId());
+        next.setReading(reading);
+
+        // a first reading's consumption is the whole meter count, not a month's use
+        if (latest == null) {
+            return next;
+        }
+
+        double units = reading.getConsumptionUnits();
+
+        if (latest.getSamples() == 0) {
+            next.setMeanUnits(units);
+            next.setSamples(1);
+            return next;
+        }
+
+        double diff = units - latest.getMeanUnits();
+        double step = alpha * diff;
+
+        next.setMeanUnits(latest.getMeanUnits() + step);
+        next.setVarianceUnits((1 - alpha) * (latest.getVarianceUnits() + diff * step));
+        next.setSamples(latest.getSamples() + 1);
+        return next;
+    }
+}
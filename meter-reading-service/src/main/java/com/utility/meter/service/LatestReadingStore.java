@@ -0,0 +1,129 @@
+package com.utility.meter.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.utility.meter.model.LatestReading;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * One latest_readings document per connection holding its newest reading.
+ * A writer moves the pointer with a compare-and-set on the period it read
+ * before storing the reading, so two writers cannot both claim the next
+ * period of a connection; the time-series collection itself cannot carry a
+ * unique index to do that.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatestReadingStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public LatestReading find(String connectionId) {
+        return mongoTemplate.findById(connectionId, LatestReading.class);
+    }
+
+    // every requested id is a key; null when the connection has no reading yet
+    public Map<String, LatestReading> find(Collection<String> connectionIds) {
+
+        Map<String, LatestReading> found = new HashMap<>();
+        connectionIds.forEach(id -> found.put(id, null));
+
+        for (LatestReading latest : mongoTemplate.find(
+                Query.query(Criteria.where("_id").in(connectionIds)),
+                LatestReading.class)) {
+            found.put(latest.getConnectionId(), latest);
+        }
+
+        return found;
+    }
+
+    // false when another write moved the pointer away from expected first
+    public boolean advance(String connectionId, LatestReading expected, LatestReading next) {
+        try {
+            mongoTemplate.upsert(
+                    at(connectionId, expected),
+                    values(next),
+                    LatestReading.class
+            );
+            return true;
+
+        } catch (DuplicateKeyException ex) {
+            // the pointer exists but no longer matches, so the upsert tried to insert it again
+            return false;
+        }
+    }
+
+    // returns the connections whose pointer another write moved first
+    public Set<String> advance(
+            Map<String, LatestReading> expected,
+            Map<String, LatestReading> next) {
+
+        List<String> connectionIds = new ArrayList<>(next.keySet());
+
+        BulkOperations bulk =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LatestReading.class);
+
+        for (String connectionId : connectionIds) {
+            bulk.upsert(
+                    at(connectionId, expected.get(connectionId)),
+                    values(next.get(connectionId))
+            );
+        }
+
+        try {
+            bulk.execute();
+            return Set.of();
+
+        } catch (BulkOperationException ex) {
+
+            Set<String> lost = new HashSet<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                lost.add(connectionIds.get(error.getIndex()));
+            }
+            return lost;
+        }
+    }
+
+    // undoes advance() when the reading itself could not be stored
+    public void revert(String connectionId, LatestReading previous, LatestReading next) {
+
+        if (previous == null) {
+            mongoTemplate.remove(at(connectionId, next), LatestReading.class);
+            return;
+        }
+
+        mongoTemplate.updateFirst(
+                at(connectionId, next),
+                values(previous),
+                LatestReading.class
+        );
+    }
+
+    private static Query at(String connectionId, LatestReading latest) {
+        return Query.query(Criteria.where("_id").is(connectionId)
+                .and("reading.period").is(latest == null ? null : latest.getReading().getPeriod()));
+    }
+
+    private static Update values(LatestReading latest) {
+        return new Update()
+                .set("reading", latest.getReading())
+                .set("meanUnits", latest.getMeanUnits())
+                .set("varianceUnits", latest.getVarianceUnits())
+                .set("samples", latest.getSamples());
+    }
+}
@@ -0,0 +1,379 @@
+package com.utility.meter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.utility.meter.dto.BulkImportReport;
+import com.utility.meter.dto.ConnectionDto;
+import com.utility.meter.dto.CreateMeterReadingRequest;
+import com.utility.meter.dto.ImportRowError;
+import com.utility.meter.exception.ApiException;
+import com.utility.meter.feign.ConsumerConnectionClient;
+import com.utility.meter.model.LatestReading;
+import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.QuarantinedReading;
+import com.utility.meter.service.ReadingRowReader.Row;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class MeterReadingImportService {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ConsumerConnectionClient connectionClient;
+    private final MongoTemplate mongoTemplate;
+    private final LatestReadingStore latestStore;
+    private final ConsumptionAnalyticsService analytics;
+    private final ConsumptionAnomalyDetector detector;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public MeterReadingImportService(
+            ConsumerConnectionClient connectionClient,
+            MongoTemplate mongoTemplate,
+            LatestReadingStore latestStore,
+            ConsumptionAnalyticsService analytics,
+            ConsumptionAnomalyDetector detector,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${meter.import.batch-size:1000}") int batchSize,
+            @Value("${meter.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.connectionClient = connectionClient;
+        this.mongoTemplate = mongoTemplate;
+        this.latestStore = latestStore;
+        this.analytics = analytics;
+        this.detector = detector;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportReport importReadings(InputStream in, MediaType contentType)
+            throws IOException {
+
+        ReadingRowReader reader = readerFor(in, contentType);
+
+        // one call up front instead of a lookup per row
+        Map<String, ConnectionDto> connections = new HashMap<>();
+        for (ConnectionDto connection : connectionClient.getAllConnections()) {
+            connections.put(connection.getId(), connection);
+        }
+
+        // last accepted reading and statistics per connection, carried across batches
+        Map<String, LatestReading> latest = new HashMap<>();
+
+        BulkImportReport report = new BulkImportReport();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        Row row;
+        while ((row = reader.next()) != null) {
+
+            report.setReceived(report.getReceived() + 1);
+
+            String error =
+                    row.error() != null
+                            ? row.error()
+                            : validate(row.request(), connections);
+
+            if (error != null) {
+                reject(report, row, error);
+                continue;
+            }
+
+            batch.add(row);
+
+            if (batch.size() >= batchSize) {
+                flush(batch, connections, latest, report);
+                batch.clear();
+            }
+        }
+
+        flush(batch, connections, latest, report);
+
+        return report;
+    }
+
+    private ReadingRowReader readerFor(InputStream in, MediaType contentType) {
+
+        if (contentType != null && TEXT_CSV.includes(contentType)) {
+            return ReadingRowReader.csv(in);
+        }
+
+        if (contentType != null && MediaType.APPLICATION_NDJSON.includes(contentType)) {
+            return ReadingRowReader.ndjson(in, objectMapper);
+        }
+
+        throw new ApiException(
+                "Upload must be text/csv or application/x-ndjson",
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE
+        );
+    }
+
+    // same rules as MeterReadingService.addReading, checked against the snapshot
+    private String validate(
+            CreateMeterReadingRequest request,
+            Map<String, ConnectionDto> connections) {
+
+        for (ConstraintViolation<CreateMeterReadingRequest> violation
+                : validator.validate(request)) {
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+
+        ConnectionDto connection = connections.get(request.getConnectionId());
+
+        if (connection == null) {
+            return "Connection not found";
+        }
+
+        if (!connection.getConsumerId().equals(request.getConsumerId())) {
+            return "Consumer does not own this connection";
+        }
+
+        if (connection.getUtilityType() != request.getUtilityType()) {
+            return "Utility type does not match connection";
+        }
+
+        if (!connection.getMeterNumber().equals(request.getMeterNumber())) {
+            return "Meter number does not match connection";
+        }
+
+        return null;
+    }
+
+    private void flush(
+            List<Row> batch,
+            Map<String, ConnectionDto> connections,
+            Map<String, LatestReading> latest,
+            BulkImportReport report) {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        loadLatest(batch, latest);
+
+        // pointer values this batch starts from, for the compare-and-set below
+        Map<String, LatestReading> expected = new HashMap<>();
+        List<Row> accepted = new ArrayList<>(batch.size());
+        List<MeterReading> readings = new ArrayList<>(batch.size());
+        List<QuarantinedReading> held = new ArrayList<>();
+
+        for (Row row : batch) {
+
+            CreateMeterReadingRequest request = row.request();
+            String connectionId = request.getConnectionId();
+
+            LatestReading stats = latest.get(connectionId);
+            MeterReading previous = stats != null ? stats.getReading() : null;
+            Instant period = MeterReading.periodOf(
+                    request.getReadingYear(),
+                    request.getReadingMonth()
+            );
+
+            if (previous != null && previous.getPeriod().equals(period)) {
+                reject(report, row, "Meter reading already exists for this month");
+                continue;
+            }
+
+            if (previous != null && previous.getPeriod().isAfter(period)) {
+                reject(report, row, "A later meter reading already exists for this connection");
+                continue;
+            }
+
+            long previousReading =
+                    previous != null ? previous.getCurrentReading() : 0L;
+
+            if (request.getCurrentReading() < previousReading) {
+                reject(report, row, "Current reading cannot be less than previous reading");
+                continue;
+            }
+
+            MeterReading reading = toReading(
+                    request,
+                    connections.get(connectionId).getTariffPlan(),
+                    previousReading,
+                    period
+            );
+
+            reading.setAnomalyScore(
+                    detector.score(stats, reading.getConsumptionUnits()));
+
+            // held back without moving the chain, so the next row is judged as if it was never sent
+            if (detector.quarantines(reading.getAnomalyScore())) {
+                held.add(quarantined(reading, stats));
+                continue;
+            }
+
+            if (!expected.containsKey(connectionId)) {
+                expected.put(connectionId, stats);
+            }
+            latest.put(connectionId, detector.next(stats, reading));
+
+            accepted.add(row);
+            readings.add(reading);
+        }
+
+        if (!held.isEmpty()) {
+            mongoTemplate.insert(held, QuarantinedReading.class);
+            report.setQuarantined(report.getQuarantined() + held.size());
+        }
+
+        if (readings.isEmpty()) {
+            return;
+        }
+
+        Map<String, LatestReading> next = new HashMap<>();
+        expected.keySet().forEach(id -> next.put(id, latest.get(id)));
+
+        // e.g. a concurrent single add claimed one of these connections first
+        Set<String> lost = latestStore.advance(expected, next);
+
+        if (!lost.isEmpty()) {
+
+            List<Row> kept = new ArrayList<>(accepted.size());
+            List<MeterReading> keptReadings = new ArrayList<>(readings.size());
+
+            for (int i = 0; i < accepted.size(); i++) {
+                if (lost.contains(readings.get(i).getConnectionId())) {
+                    reject(report, accepted.get(i),
+                            "Another meter reading was just recorded for this connection");
+                } else {
+                    kept.add(accepted.get(i));
+                    keptReadings.add(readings.get(i));
+                }
+            }
+
+            // reload them from the store if later batches touch them again
+            lost.forEach(latest::remove);
+
+            accepted = kept;
+            readings = keptReadings;
+
+            if (readings.isEmpty()) {
+                return;
+            }
+        }
+
+        BulkOperations bulk =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MeterReading.class);
+        bulk.insert(readings);
+
+        try {
+            bulk.execute();
+            report.setInserted(report.getInserted() + readings.size());
+            analytics.record(readings);
+
+        } catch (BulkOperationException ex) {
+
+            // the pointers already moved; they still hold the full rejected readings
+            List<BulkWriteError> errors = ex.getErrors();
+            Set<Integer> failed = new HashSet<>();
+
+            for (BulkWriteError error : errors) {
+                failed.add(error.getIndex());
+                reject(report, accepted.get(error.getIndex()), error.getMessage());
+            }
+
+            report.setInserted(report.getInserted() + readings.size() - errors.size());
+
+            List<MeterReading> stored = new ArrayList<>(readings.size());
+            for (int i = 0; i < readings.size(); i++) {
+                if (!failed.contains(i)) {
+                    stored.add(readings.get(i));
+                }
+            }
+            analytics.record(stored);
+        }
+    }
+
+    // newest stored reading for connections this import has not touched yet
+    private void loadLatest(List<Row> batch, Map<String, LatestReading> latest) {
+
+        Set<String> missing = new HashSet<>();
+        for (Row row : batch) {
+            if (!latest.containsKey(row.request().getConnectionId())) {
+                missing.add(row.request().getConnectionId());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            latest.putAll(latestStore.find(missing));
+        }
+    }
+
+    private void reject(BulkImportReport report, Row row, String message) {
+
+        report.setRejected(report.getRejected() + 1);
+
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ImportRowError(
+                    row.line(),
+                    row.request() == null ? null : row.request().getConnectionId(),
+                    message
+            ));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static QuarantinedReading quarantined(MeterReading reading, LatestReading stats) {
+
+        QuarantinedReading held = new QuarantinedReading();
+        held.setId(reading.getId());
+        held.setReading(reading);
+        held.setMeanUnits(stats.getMeanUnits());
+        held.setQuarantinedAt(Instant.now());
+        return held;
+    }
+
+    private static MeterReading toReading(
+            CreateMeterReadingRequest request,
+            String tariffPlan,
+            long previousReading,
+            Instant period) {
+
+        MeterReading reading = new MeterReading();
+        reading.setId(new ObjectId().toHexString());
+        reading.setConsumerId(request.getConsumerId());
+        reading.setConnectionId(request.getConnectionId());
+        reading.setUtilityType(request.getUtilityType());
+        reading.setMeterNumber(request.getMeterNumber());
+        reading.setTariffPlan(tariffPlan);
+
+        reading.setPreviousReading(previousReading);
+        reading.setCurrentReading(request.getCurrentReading());
+        reading.setConsumptionUnits(request.getCurrentReading() - previousReading);
+
+        reading.setReadingMonth(request.getReadingMonth());
+        reading.setReadingYear(request.getReadingYear());
+        reading.setPeriod(period);
+
+        reading.setReadingDate(LocalDate.now());
+        reading.setCreatedAt(LocalDateTime.now());
+        return reading;
+    }
+}
@@ -1,16 +1,24 @@
 package com.utility.meter.service;
 
+import com.utility.meter.cache.ConnectionLookupCache;
 import com.utility.meter.dto.ConnectionDto;
 import com.utility.meter.dto.CreateMeterReadingRequest;
 import com.utility.meter.dto.MeterReadingResponse;
 import com.utility.meter.exception.ApiException;
-import com.utility.meter.feign.ConsumerConnectionClient;
+import com.utility.meter.model.LatestReading;
 import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.QuarantinedReading;
 import com.utility.meter.repository.MeterReadingRepository;
+import com.utility.meter.repository.QuarantinedReadingRepository;
+import com.utility.meter.repository.ReactiveMeterReadingRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,12 +28,17 @@ import java.util.List;
 public class MeterReadingService {
 
     private final MeterReadingRepository repository;
-    private final ConsumerConnectionClient consumerConnectionClient;
+    private final ConnectionLookupCache connectionCache;
+    private final LatestReadingStore latestStore;
+    private final ConsumptionAnalyticsService analytics;
+    private final ConsumptionAnomalyDetector detector;
+    private final QuarantinedReadingRepository quarantineRepository;
+    private final ReactiveMeterReadingRepository reactiveRepository;
     
 
     public MeterReadingResponse addReading(CreateMeterReadingRequest request) {
         ConnectionDto connection =
-        	    consumerConnectionClient.getConnectionById(request.getConnectionId());
+        	    connectionCache.getConnection(request.getConnectionId());
 
         if (connection == null) {
             throw new ApiException("Connection not found", HttpStatus.BAD_REQUEST);
@@ -55,23 +68,30 @@ public class MeterReadingService {
             );
         }
 
-        if (repository.existsByConnectionIdAndReadingMonthAndReadingYear(
-                request.getConnectionId(),
-                request.getReadingMonth(),
-                request.getReadingYear()
-        )) {
+        LatestReading latest = latestStore.find(request.getConnectionId());
+        MeterReading last = latest != null ? latest.getReading() : null;
+
+        Instant period = MeterReading.periodOf(
+                request.getReadingYear(),
+                request.getReadingMonth()
+        );
+
+        if (last != null && last.getPeriod().equals(period)) {
             throw new ApiException(
                     "Meter reading already exists for this month",
                     HttpStatus.BAD_REQUEST
             );
         }
 
-        long previousReading = repository
-                .findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc(
-                        request.getConnectionId()
-                )
-                .map(MeterReading::getCurrentReading)
-                .orElse(0L);
+        if (last != null && last.getPeriod().isAfter(period)) {
+            throw new ApiException(
+                    "A later meter reading already exists for this connection",
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        long previousReading =
+                last != null ? last.getCurrentReading() : 0L;
 
         if (request.getCurrentReading() < previousReading) {
             throw new ApiException(
@@ -84,10 +104,12 @@ public class MeterReadingService {
                 request.getCurrentReading() - previousReading;
 
         MeterReading reading = new MeterReading();
+        reading.setId(new ObjectId().toHexString());
         reading.setConsumerId(request.getConsumerId());
         reading.setConnectionId(request.getConnectionId());
         reading.setUtilityType(request.getUtilityType());
         reading.setMeterNumber(request.getMeterNumber());
+        reading.setTariffPlan(connection.getTariffPlan());
 
         reading.setPreviousReading(previousReading);
         reading.setCurrentReading(request.getCurrentReading());
@@ -95,15 +117,106 @@ public class MeterReadingService {
 
         reading.setReadingMonth(request.getReadingMonth());
         reading.setReadingYear(request.getReadingYear());
+        reading.setPeriod(period);
 
         reading.setReadingDate(LocalDate.now());
         reading.setCreatedAt(LocalDateTime.now());
 
-        repository.save(reading);
+        reading.setAnomalyScore(detector.score(latest, consumptionUnits));
+
+        if (detector.quarantines(reading.getAnomalyScore())) {
+            return quarantine(reading, latest);
+        }
+
+        store(latest, reading);
 
         return map(reading);
     }
 
+    public List<MeterReadingResponse> getQuarantined() {
+        return quarantineRepository.findAll(Sort.by("quarantinedAt"))
+                .stream()
+                .map(held -> quarantined(held.getReading()))
+                .toList();
+    }
+
+    public MeterReadingResponse releaseQuarantined(String id) {
+
+        QuarantinedReading held = findQuarantined(id);
+        MeterReading reading = held.getReading();
+
+        LatestReading latest = latestStore.find(reading.getConnectionId());
+        MeterReading last = latest != null ? latest.getReading() : null;
+
+        // it was chained to the reading before it; a newer one supersedes it
+        boolean stillNext =
+                last == null
+                        ? reading.getPreviousReading() == 0
+                        : last.getPeriod().isBefore(reading.getPeriod())
+                                && last.getCurrentReading() == reading.getPreviousReading();
+
+        if (!stillNext) {
+            throw new ApiException(
+                    "Meter readings for this connection changed since it was quarantined",
+                    HttpStatus.CONFLICT
+            );
+        }
+
+        store(latest, reading);
+        quarantineRepository.deleteById(id);
+
+        return map(reading);
+    }
+
+    public void discardQuarantined(String id) {
+        quarantineRepository.delete(findQuarantined(id));
+    }
+
+    private QuarantinedReading findQuarantined(String id) {
+        return quarantineRepository.findById(id)
+                .orElseThrow(() ->
+                        new ApiException(
+                                "Quarantined meter reading not found",
+                                HttpStatus.NOT_FOUND
+                        )
+                );
+    }
+
+    private MeterReadingResponse quarantine(MeterReading reading, LatestReading latest) {
+
+        QuarantinedReading held = new QuarantinedReading();
+        held.setId(reading.getId());
+        held.setReading(reading);
+        held.setMeanUnits(latest.getMeanUnits());
+        held.setQuarantinedAt(Instant.now());
+
+        quarantineRepository.insert(held);
+
+        return quarantined(reading);
+    }
+
+    private void store(LatestReading latest, MeterReading reading) {
+
+        LatestReading next = detector.next(latest, reading);
+
+        // claim the period first; the time-series insert cannot reject duplicates
+        if (!latestStore.advance(reading.getConnectionId(), latest, next)) {
+            throw new ApiException(
+                    "Another meter reading was just recorded for this connection",
+                    HttpStatus.CONFLICT
+            );
+        }
+
+        try {
+            repository.insert(reading);
+        } catch (RuntimeException ex) {
+            latestStore.revert(reading.getConnectionId(), latest, next);
+            throw ex;
+        }
+
+        analytics.record(List.of(reading));
+    }
+
     public List<MeterReadingResponse> getByConsumer(String consumerId) {
         return repository.findByConsumerId(consumerId)
                 .stream()
@@ -112,7 +225,22 @@ public class MeterReadingService {
     }
 
     public List<MeterReadingResponse> getByMonth(int month, int year) {
-        return repository.findByReadingMonthAndReadingYear(month, year)
+        return repository.findByPeriod(MeterReading.periodOf(year, month))
+                .stream()
+                .map(this::map)
+                .toList();
+    }
+
+    public List<MeterReadingResponse> getByConnectionsForMonth(
+            List<String> connectionIds,
+            int month,
+            int year
+    ) {
+        return repository
+                .findByConnectionIdInAndPeriod(
+                        connectionIds,
+                        MeterReading.periodOf(year, month)
+                )
                 .stream()
                 .map(this::map)
                 .toList();
@@ -120,18 +248,16 @@ public class MeterReadingService {
 
     public MeterReadingResponse getLatest(String connectionId) {
 
-        MeterReading reading = repository
-                .findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc(
-                        connectionId
-                )
-                .orElseThrow(() ->
-                        new ApiException(
-                                "No meter reading found for this connection",
-                                HttpStatus.NOT_FOUND
-                        )
-                );
+        LatestReading latest = latestStore.find(connectionId);
 
-        return map(reading);
+        if (latest == null) {
+            throw new ApiException(
+                    "No meter reading found for this connection",
+                    HttpStatus.NOT_FOUND
+            );
+        }
+
+        return map(latest.getReading());
     }
 
     private MeterReadingResponse map(MeterReading r) {
@@ -146,6 +272,13 @@ public class MeterReadingService {
         resp.setConsumptionUnits(r.getConsumptionUnits());
         resp.setReadingMonth(r.getReadingMonth());
         resp.setReadingYear(r.getReadingYear());
+        resp.setAnomalyScore(r.getAnomalyScore());
+        return resp;
+    }
+
+    private MeterReadingResponse quarantined(MeterReading r) {
+        MeterReadingResponse resp = map(r);
+        resp.setQuarantined(true);
         return resp;
     }
     public List<MeterReadingResponse> getByConnection(String connectionId) {
@@ -164,4 +297,9 @@ public class MeterReadingService {
                 .map(this::map)
                 .toList();
     }
-}
\ No newline at end of file
+
+    public Flux<MeterReadingResponse> streamByConnection(String connectionId) {
+        return reactiveRepository.findByConnectionId(connectionId)
+                .map(this::map);
+    }
+}
@@ -0,0 +1,168 @@
+package com.utility.meter.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.meter.dto.CreateMeterReadingRequest;
+import com.utility.meter.exception.ApiException;
+import com.utility.meter.model.UtilityType;
+
+// Reads an upload one line at a time so memory does not depend on file size.
+abstract class ReadingRowReader {
+
+    record Row(long line, CreateMeterReadingRequest request, String error) {
+
+        static Row ok(long line, CreateMeterReadingRequest request) {
+            return new Row(line, request, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    private final BufferedReader reader;
+    private long line;
+
+    ReadingRowReader(InputStream in) {
+        this.reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    static ReadingRowReader csv(InputStream in) {
+        return new Csv(in);
+    }
+
+    static ReadingRowReader ndjson(InputStream in, ObjectMapper objectMapper) {
+        return new Ndjson(in, objectMapper);
+    }
+
+    // null once the input is exhausted; blank lines are skipped
+    Row next() throws IOException {
+
+        String text;
+
+        while ((text = reader.readLine()) != null) {
+            line++;
+
+            if (text.isBlank()) {
+                continue;
+            }
+
+            Row row = parse(line, text);
+
+            if (row != null) {
+                return row;
+            }
+        }
+
+        return null;
+    }
+
+    // null for lines that carry no reading (e.g. the CSV header)
+    abstract Row parse(long line, String text);
+
+    private static final class Ndjson extends ReadingRowReader {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row parse(long line, String text) {
+            try {
+                return Row.ok(
+                        line,
+                        objectMapper.readValue(text, CreateMeterReadingRequest.class)
+                );
+            } catch (JsonProcessingException ex) {
+                return Row.failed(line, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    // plain comma separated values with a header row; ids and numbers never need quoting
+    private static final class Csv extends ReadingRowReader {
+
+        private static final List<String> COLUMNS = List.of(
+                "consumerId",
+                "connectionId",
+                "utilityType",
+                "meterNumber",
+                "currentReading",
+                "readingMonth",
+                "readingYear"
+        );
+
+        private Map<String, Integer> header;
+
+        Csv(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        Row parse(long line, String text) {
+
+            String[] cells = text.split(",", -1);
+
+            if (header == null) {
+                header = header(cells);
+                return null;
+            }
+
+            try {
+                CreateMeterReadingRequest request = new CreateMeterReadingRequest();
+                request.setConsumerId(cell(cells, "consumerId"));
+                request.setConnectionId(cell(cells, "connectionId"));
+                request.setUtilityType(
+                        UtilityType.valueOf(cell(cells, "utilityType").toUpperCase(Locale.ROOT)));
+                request.setMeterNumber(cell(cells, "meterNumber"));
+                request.setCurrentReading(Long.parseLong(cell(cells, "currentReading")));
+                request.setReadingMonth(Integer.parseInt(cell(cells, "readingMonth")));
+                request.setReadingYear(Integer.parseInt(cell(cells, "readingYear")));
+                return Row.ok(line, request);
+
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                return Row.failed(line, "Malformed row: " + ex.getMessage());
+            }
+        }
+
+        private String cell(String[] cells, String column) {
+            return cells[header.get(column)].trim();
+        }
+
+        private static Map<String, Integer> header(String[] cells) {
+
+            Map<String, Integer> columns = new HashMap<>();
+
+            for (int i = 0; i < cells.length; i++) {
+                columns.put(cells[i].trim(), i);
+            }
+
+            for (String column : COLUMNS) {
+                if (!columns.containsKey(column)) {
+                    throw new ApiException(
+                            "CSV header is missing column " + column,
+                            HttpStatus.BAD_REQUEST
+                    );
+                }
+            }
+
+            return columns;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.utility.meter.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.meter.dto.BulkImportReport;
 import com.utility.meter.dto.CreateMeterReadingRequest;
 import com.utility.meter.dto.MeterReadingResponse;
 import com.utility.meter.exception.ApiException;
 import com.utility.meter.model.UtilityType;
+import com.utility.meter.service.MeterReadingImportService;
 import com.utility.meter.service.MeterReadingService;
 
 import org.junit.jupiter.api.Test;
@@ -17,6 +19,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
+import reactor.core.publisher.Flux;
+
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +36,9 @@ class MeterReadingControllerTest {
     @MockBean
     private MeterReadingService service;
 
+    @MockBean
+    private MeterReadingImportService importService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -66,6 +73,40 @@ class MeterReadingControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void addReading_quarantined() throws Exception {
+
+        CreateMeterReadingRequest req = new CreateMeterReadingRequest();
+        req.setConsumerId("C1");
+        req.setConnectionId("CON1");
+        req.setUtilityType(UtilityType.ELECTRICITY);
+        req.setMeterNumber("MTR1");
+        req.setCurrentReading(100000);
+        req.setReadingMonth(1);
+        req.setReadingYear(2025);
+
+        MeterReadingResponse held = mockResponse();
+        held.setQuarantined(true);
+
+        Mockito.when(service.addReading(Mockito.any()))
+                .thenReturn(held);
+
+        mockMvc.perform(post("/meter-readings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.quarantined").value(true));
+    }
+
+    @Test
+    void discardQuarantined_noContent() throws Exception {
+
+        mockMvc.perform(delete("/meter-readings/quarantine/R1"))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(service).discardQuarantined("R1");
+    }
+
     @Test
     void byConsumer_success() throws Exception {
 
@@ -142,4 +183,36 @@ class MeterReadingControllerTest {
         mockMvc.perform(get("/meter-readings/connection/CON1"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamByConnection_ndjson() throws Exception {
+
+        Mockito.when(service.streamByConnection("CON1"))
+                .thenReturn(Flux.just(mockResponse()));
+
+        var result = mockMvc.perform(get("/meter-readings/connection/CON1/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    void bulkImport_success() throws Exception {
+
+        BulkImportReport report = new BulkImportReport();
+        report.setReceived(2);
+        report.setInserted(2);
+
+        Mockito.when(importService.importReadings(Mockito.any(), Mockito.any()))
+                .thenReturn(report);
+
+        mockMvc.perform(post("/meter-readings/bulk")
+                .contentType("text/csv")
+                .content("consumerId,connectionId,utilityType,meterNumber,currentReading,readingMonth,readingYear\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2));
+    }
+}
@@ -0,0 +1,174 @@
+package com.utility.meter.service;
+
+import com.utility.meter.dto.ConsumerConsumption;
+import com.utility.meter.dto.ConsumptionGrouping;
+import com.utility.meter.dto.ConsumptionPoint;
+import com.utility.meter.exception.ApiException;
+import com.utility.meter.model.ConsumptionBucket;
+import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.UtilityType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumptionAnalyticsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    private ConsumptionAnalyticsService service;
+
+    @BeforeEach
+    void setup() {
+        service = new ConsumptionAnalyticsService(
+                mongoTemplate,
+                new SimpleMeterRegistry(),
+                100,
+                300,
+                50
+        );
+    }
+
+    private ConsumptionBucket bucket(int year, int month, UtilityType type, String plan, long units) {
+        ConsumptionBucket b = new ConsumptionBucket();
+        b.setPeriod(MeterReading.periodOf(year, month));
+        b.setUtilityType(type);
+        b.setTariffPlan(plan);
+        b.setUnits(units);
+        b.setReadings(1);
+        return b;
+    }
+
+    private MeterReading reading(String plan, long units) {
+        MeterReading r = new MeterReading();
+        r.setPeriod(MeterReading.periodOf(2025, 1));
+        r.setUtilityType(UtilityType.ELECTRICITY);
+        r.setTariffPlan(plan);
+        r.setConsumptionUnits(units);
+        return r;
+    }
+
+    @Test
+    void record_incrementsOneBucketPerMonthTypeAndPlan() {
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConsumptionBucket.class))
+                .thenReturn(bulkOps);
+
+        service.record(List.of(reading("P1", 10), reading("P1", 5), reading("P2", 7)));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOps, times(2)).upsert(any(Query.class), updates.capture());
+        verify(bulkOps).execute();
+
+        Document inc = (Document) updates.getAllValues().get(0).getUpdateObject().get("$inc");
+        assertEquals(15L, inc.get("units"));
+        assertEquals(2L, inc.get("readings"));
+    }
+
+    @Test
+    void monthly_sumsPlansWhenGroupedByUtilityType() {
+
+        when(mongoTemplate.find(any(Query.class), eq(ConsumptionBucket.class)))
+                .thenReturn(List.of(
+                        bucket(2025, 1, UtilityType.ELECTRICITY, "P1", 100),
+                        bucket(2025, 1, UtilityType.ELECTRICITY, "P2", 50),
+                        bucket(2025, 1, UtilityType.WATER, "W1", 20)
+                ));
+
+        List<ConsumptionPoint> byType = service.monthly(
+                YearMonth.of(2025, 1), YearMonth.of(2025, 1), null, ConsumptionGrouping.UTILITY_TYPE);
+
+        assertEquals(2, byType.size());
+        assertEquals(150, byType.get(0).getUnits());
+        assertNull(byType.get(0).getTariffPlan());
+
+        List<ConsumptionPoint> byPlan = service.monthly(
+                YearMonth.of(2025, 1), YearMonth.of(2025, 1), null, ConsumptionGrouping.TARIFF_PLAN);
+
+        assertEquals(3, byPlan.size());
+        assertEquals("P1", byPlan.get(0).getTariffPlan());
+    }
+
+    @Test
+    void rolling_sumsTheTwelveMonthsEndingWithEachMonth() {
+
+        when(mongoTemplate.find(any(Query.class), eq(ConsumptionBucket.class)))
+                .thenReturn(List.of(
+                        bucket(2024, 2, UtilityType.ELECTRICITY, "P1", 1000),
+                        bucket(2024, 3, UtilityType.ELECTRICITY, "P1", 10),
+                        bucket(2025, 1, UtilityType.ELECTRICITY, "P1", 100),
+                        bucket(2025, 2, UtilityType.ELECTRICITY, "P1", 200)
+                ));
+
+        List<ConsumptionPoint> points = service.rolling(
+                YearMonth.of(2025, 1), YearMonth.of(2025, 2), null, ConsumptionGrouping.UTILITY_TYPE);
+
+        assertEquals(2, points.size());
+        // Feb 2024 .. Jan 2025
+        assertEquals(1110, points.get(0).getUnits());
+        // Mar 2024 .. Feb 2025
+        assertEquals(310, points.get(1).getUnits());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void topConsumers_cachesTheAggregation() {
+
+        ConsumerConsumption top = new ConsumerConsumption();
+        top.setConsumerId("C1");
+        top.setUnits(500);
+
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(ConsumerConsumption.class)))
+                .thenReturn(new AggregationResults<>(List.of(top), new Document()));
+
+        service.topConsumers(YearMonth.of(2025, 1), YearMonth.of(2025, 12), null, 5);
+        List<ConsumerConsumption> result =
+                service.topConsumers(YearMonth.of(2025, 1), YearMonth.of(2025, 12), null, 5);
+
+        assertEquals("C1", result.get(0).getConsumerId());
+        verify(mongoTemplate, times(1))
+                .aggregate(any(TypedAggregation.class), eq(ConsumerConsumption.class));
+    }
+
+    @Test
+    void topConsumers_limitOutOfRange() {
+
+        YearMonth month = YearMonth.of(2025, 1);
+
+        assertThrows(ApiException.class,
+                () -> service.topConsumers(month, month, null, 51));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void monthly_fromAfterTo() {
+
+        YearMonth from = YearMonth.of(2025, 2);
+        YearMonth to = YearMonth.of(2025, 1);
+
+        assertThrows(ApiException.class,
+                () -> service.monthly(from, to, null, ConsumptionGrouping.UTILITY_TYPE));
+    }
+}
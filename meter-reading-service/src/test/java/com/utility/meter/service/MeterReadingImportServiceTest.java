@@ -0,0 +1,261 @@
+package com.utility.meter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.meter.dto.BulkImportReport;
+import com.utility.meter.dto.ConnectionDto;
+import com.utility.meter.exception.ApiException;
+import com.utility.meter.feign.ConsumerConnectionClient;
+import com.utility.meter.model.LatestReading;
+import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.QuarantinedReading;
+import com.utility.meter.model.UtilityType;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeterReadingImportServiceTest {
+
+    private static final String HEADER =
+            "consumerId,connectionId,utilityType,meterNumber,currentReading,readingMonth,readingYear\n";
+
+    @Mock
+    private ConsumerConnectionClient connectionClient;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LatestReadingStore latestStore;
+
+    @Mock
+    private ConsumptionAnalyticsService analytics;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    private MeterReadingImportService service;
+
+    @BeforeEach
+    void setup() {
+        service = new MeterReadingImportService(
+                connectionClient,
+                mongoTemplate,
+                latestStore,
+                analytics,
+                new ConsumptionAnomalyDetector(0.3, 4.0, 3, 0.1),
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                2,
+                100
+        );
+    }
+
+    private ConnectionDto connection() {
+        ConnectionDto c = new ConnectionDto();
+        c.setId("CON1");
+        c.setConsumerId("C1");
+        c.setUtilityType(UtilityType.ELECTRICITY);
+        c.setMeterNumber("MTR1");
+        return c;
+    }
+
+    private LatestReading stored(int month, int year, long currentReading) {
+        MeterReading r = new MeterReading();
+        r.setConnectionId("CON1");
+        r.setReadingMonth(month);
+        r.setReadingYear(year);
+        r.setPeriod(MeterReading.periodOf(year, month));
+        r.setCurrentReading(currentReading);
+
+        LatestReading latest = new LatestReading();
+        latest.setConnectionId("CON1");
+        latest.setReading(r);
+        return latest;
+    }
+
+    private void stubLatest(LatestReading latest) {
+        Map<String, LatestReading> found = new HashMap<>();
+        found.put("CON1", latest);
+        when(latestStore.find(anyCollection())).thenReturn(found);
+    }
+
+    private BulkImportReport run(String body, MediaType type) throws Exception {
+        return service.importReadings(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                type
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_chainsPreviousReadingsAcrossBatches() throws Exception {
+
+        when(connectionClient.getAllConnections()).thenReturn(List.of(connection()));
+        stubLatest(stored(12, 2024, 50));
+        when(latestStore.advance(anyMap(), anyMap())).thenReturn(Set.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MeterReading.class))
+                .thenReturn(bulkOps);
+
+        BulkImportReport report = run(
+                HEADER
+                        + "C1,CON1,ELECTRICITY,MTR1,100,1,2025\n"
+                        + "C1,CON1,electricity,MTR1,150,2,2025\n"
+                        + "\n"
+                        + "C1,CON1,ELECTRICITY,MTR1,175,3,2025\n",
+                MediaType.parseMediaType("text/csv")
+        );
+
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getInserted());
+        assertEquals(0, report.getRejected());
+
+        ArgumentCaptor<List<MeterReading>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOps, times(2)).insert(inserted.capture());
+
+        MeterReading first = inserted.getAllValues().get(0).get(0);
+        assertEquals(50, first.getPreviousReading());
+        assertEquals(50, first.getConsumptionUnits());
+
+        // third row lands in the second batch and chains off the second
+        MeterReading third = inserted.getAllValues().get(1).get(0);
+        assertEquals(150, third.getPreviousReading());
+
+        // latest is resolved once for the connection, not per batch
+        verify(latestStore, times(1)).find(anyCollection());
+
+        // and moved once per batch, to the last reading of that batch
+        ArgumentCaptor<Map<String, LatestReading>> moved = ArgumentCaptor.forClass(Map.class);
+        verify(latestStore, times(2)).advance(anyMap(), moved.capture());
+        assertEquals(150, moved.getAllValues().get(0).get("CON1").getReading().getCurrentReading());
+        assertEquals(175, moved.getAllValues().get(1).get("CON1").getReading().getCurrentReading());
+
+        verify(analytics, times(2)).record(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_quarantinesSpikeAndChainsPastIt() throws Exception {
+
+        LatestReading steady = stored(12, 2024, 500);
+        steady.setMeanUnits(50);
+        steady.setVarianceUnits(16);
+        steady.setSamples(6);
+
+        when(connectionClient.getAllConnections()).thenReturn(List.of(connection()));
+        stubLatest(steady);
+        when(latestStore.advance(anyMap(), anyMap())).thenReturn(Set.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MeterReading.class))
+                .thenReturn(bulkOps);
+
+        BulkImportReport report = run(
+                HEADER
+                        + "C1,CON1,ELECTRICITY,MTR1,550,1,2025\n"
+                        + "C1,CON1,ELECTRICITY,MTR1,9000,2,2025\n"
+                        + "C1,CON1,ELECTRICITY,MTR1,600,2,2025\n",
+                MediaType.parseMediaType("text/csv")
+        );
+
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getQuarantined());
+        assertEquals(0, report.getRejected());
+
+        ArgumentCaptor<List<QuarantinedReading>> held = ArgumentCaptor.forClass(List.class);
+        verify(mongoTemplate).insert(held.capture(), eq(QuarantinedReading.class));
+        assertEquals(9000, held.getValue().get(0).getReading().getCurrentReading());
+
+        // the corrected reading chains off the last accepted one, not the spike
+        ArgumentCaptor<List<MeterReading>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOps, times(2)).insert(inserted.capture());
+        assertEquals(550, inserted.getAllValues().get(1).get(0).getPreviousReading());
+    }
+
+    @Test
+    void importCsv_rejectsRowsOfConnectionClaimedConcurrently() throws Exception {
+
+        when(connectionClient.getAllConnections()).thenReturn(List.of(connection()));
+        stubLatest(null);
+        when(latestStore.advance(anyMap(), anyMap())).thenReturn(Set.of("CON1"));
+
+        BulkImportReport report = run(
+                HEADER
+                        + "C1,CON1,ELECTRICITY,MTR1,100,1,2025\n"
+                        + "C1,CON1,ELECTRICITY,MTR1,150,2,2025\n",
+                MediaType.parseMediaType("text/csv")
+        );
+
+        assertEquals(0, report.getInserted());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.getErrors().stream()
+                .allMatch(e -> e.getMessage().equals("Another meter reading was just recorded for this connection")));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MeterReading.class));
+    }
+
+    @Test
+    void importNdjson_reportsRowErrors() throws Exception {
+
+        when(connectionClient.getAllConnections()).thenReturn(List.of(connection()));
+
+        stubLatest(stored(1, 2025, 10));
+
+        BulkImportReport report = run(
+                "{\"consumerId\":\"C1\",\"connectionId\":\"CON1\",\"utilityType\":\"ELECTRICITY\",\"meterNumber\":\"MTR1\",\"currentReading\":10,\"readingMonth\":1,\"readingYear\":2025}\n"
+                        + "{\"consumerId\":\"C2\",\"connectionId\":\"CON1\",\"utilityType\":\"ELECTRICITY\",\"meterNumber\":\"MTR1\",\"currentReading\":10,\"readingMonth\":2,\"readingYear\":2025}\n"
+                        + "{not json}\n"
+                        + "{\"consumerId\":\"C1\",\"connectionId\":\"CON1\",\"utilityType\":\"ELECTRICITY\",\"meterNumber\":\"MTR1\",\"currentReading\":10,\"readingMonth\":13,\"readingYear\":2025}\n",
+                MediaType.APPLICATION_NDJSON
+        );
+
+        assertEquals(4, report.getReceived());
+        assertEquals(0, report.getInserted());
+        assertEquals(4, report.getRejected());
+
+        assertEquals(
+                List.of(1L, 2L, 3L, 4L),
+                report.getErrors().stream().map(e -> e.getLine()).sorted().toList()
+        );
+        assertTrue(report.getErrors().stream()
+                .anyMatch(e -> e.getMessage().equals("Meter reading already exists for this month")));
+        assertTrue(report.getErrors().stream()
+                .anyMatch(e -> e.getMessage().equals("Consumer does not own this connection")));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MeterReading.class));
+    }
+
+    @Test
+    void importCsv_missingColumnRejected() {
+
+        when(connectionClient.getAllConnections()).thenReturn(List.of());
+
+        assertThrows(ApiException.class,
+                () -> run("consumerId,connectionId\nC1,CON1\n",
+                        MediaType.parseMediaType("text/csv")));
+    }
+
+    @Test
+    void import_unsupportedTypeRejected() {
+
+        assertThrows(ApiException.class,
+                () -> run("{}", MediaType.APPLICATION_JSON));
+
+        verifyNoInteractions(connectionClient);
+    }
+}
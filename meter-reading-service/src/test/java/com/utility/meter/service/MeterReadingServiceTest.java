@@ -5,15 +5,24 @@ import com.utility.meter.dto.CreateMeterReadingRequest;
 import com.utility.meter.dto.MeterReadingResponse;
 import com.utility.meter.model.UtilityType;
 import com.utility.meter.exception.ApiException;
+import com.utility.meter.model.LatestReading;
 import com.utility.meter.model.MeterReading;
+import com.utility.meter.model.QuarantinedReading;
 import com.utility.meter.repository.MeterReadingRepository;
-import com.utility.meter.feign.ConsumerConnectionClient;
+import com.utility.meter.repository.QuarantinedReadingRepository;
+import com.utility.meter.repository.ReactiveMeterReadingRepository;
+import com.utility.meter.cache.ConnectionLookupCache;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,7 +37,23 @@ class MeterReadingServiceTest {
     private MeterReadingRepository repository;
 
     @Mock
-    private ConsumerConnectionClient consumerConnectionClient;
+    private ConnectionLookupCache connectionCache;
+
+    @Mock
+    private LatestReadingStore latestStore;
+
+    @Mock
+    private ConsumptionAnalyticsService analytics;
+
+    @Mock
+    private QuarantinedReadingRepository quarantineRepository;
+
+    @Mock
+    private ReactiveMeterReadingRepository reactiveRepository;
+
+    @Spy
+    private ConsumptionAnomalyDetector detector =
+            new ConsumptionAnomalyDetector(0.3, 4.0, 3, 0.1);
 
     @InjectMocks
     private MeterReadingService service;
@@ -53,58 +78,213 @@ class MeterReadingServiceTest {
         return c;
     }
 
+    private LatestReading stored(int month, int year, long currentReading) {
+        MeterReading r = new MeterReading();
+        r.setConnectionId("CON1");
+        r.setReadingMonth(month);
+        r.setReadingYear(year);
+        r.setPeriod(MeterReading.periodOf(year, month));
+        r.setCurrentReading(currentReading);
+
+        LatestReading latest = new LatestReading();
+        latest.setConnectionId("CON1");
+        latest.setReading(r);
+        return latest;
+    }
+
+    // a connection that steadily uses about 60 units a month
+    private LatestReading steady(int month, int year, long currentReading) {
+        LatestReading latest = stored(month, year, currentReading);
+        latest.setMeanUnits(60);
+        latest.setVarianceUnits(25);
+        latest.setSamples(6);
+        return latest;
+    }
+
     @Test
     void addReading_success() {
 
-        when(consumerConnectionClient.getConnectionById("CON1"))
-                .thenReturn(connection());
+        LatestReading previous = steady(12, 2024, 40);
 
-        when(repository.existsByConnectionIdAndReadingMonthAndReadingYear(
-                "CON1", 1, 2025))
-                .thenReturn(false);
+        when(connectionCache.getConnection("CON1"))
+                .thenReturn(connection());
 
-        when(repository.findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc("CON1"))
-                .thenReturn(Optional.empty());
+        when(latestStore.find("CON1")).thenReturn(previous);
+        when(latestStore.advance(eq("CON1"), eq(previous), any(LatestReading.class)))
+                .thenReturn(true);
 
         MeterReadingResponse response =
                 service.addReading(request());
 
-        assertNotNull(response);
+        assertEquals(40, response.getPreviousReading());
+        assertEquals(60, response.getConsumptionUnits());
+
+        ArgumentCaptor<MeterReading> saved = ArgumentCaptor.forClass(MeterReading.class);
+        verify(repository).insert(saved.capture());
+        assertNotNull(saved.getValue().getId());
+        assertEquals(MeterReading.periodOf(2025, 1), saved.getValue().getPeriod());
+        assertFalse(response.isQuarantined());
+
+        verify(analytics).record(List.of(saved.getValue()));
     }
 
     @Test
-    void addReading_duplicateMonth() {
+    void addReading_spikeQuarantined() {
 
-        when(consumerConnectionClient.getConnectionById("CON1"))
+        when(connectionCache.getConnection("CON1"))
                 .thenReturn(connection());
 
-        when(repository.existsByConnectionIdAndReadingMonthAndReadingYear(
-                "CON1", 1, 2025))
+        when(latestStore.find("CON1")).thenReturn(steady(12, 2024, 40));
+
+        CreateMeterReadingRequest req = request();
+        req.setCurrentReading(1040);
+
+        MeterReadingResponse response = service.addReading(req);
+
+        assertTrue(response.isQuarantined());
+        assertTrue(response.getAnomalyScore() > 4.0);
+
+        verify(quarantineRepository).insert(any(QuarantinedReading.class));
+        verify(latestStore, never()).advance(any(), any(), any());
+        verify(repository, never()).insert(any(MeterReading.class));
+    }
+
+    @Test
+    void releaseQuarantined_storesTheReading() {
+
+        LatestReading latest = steady(12, 2024, 40);
+
+        MeterReading reading = new MeterReading();
+        reading.setId("R1");
+        reading.setConnectionId("CON1");
+        reading.setPeriod(MeterReading.periodOf(2025, 1));
+        reading.setPreviousReading(40);
+        reading.setCurrentReading(1040);
+        reading.setConsumptionUnits(1000);
+
+        QuarantinedReading held = new QuarantinedReading();
+        held.setId("R1");
+        held.setReading(reading);
+
+        when(quarantineRepository.findById("R1")).thenReturn(Optional.of(held));
+        when(latestStore.find("CON1")).thenReturn(latest);
+        when(latestStore.advance(eq("CON1"), eq(latest), any(LatestReading.class)))
                 .thenReturn(true);
 
+        service.releaseQuarantined("R1");
+
+        verify(repository).insert(reading);
+        verify(quarantineRepository).deleteById("R1");
+    }
+
+    @Test
+    void releaseQuarantined_superseded() {
+
+        MeterReading reading = new MeterReading();
+        reading.setConnectionId("CON1");
+        reading.setPeriod(MeterReading.periodOf(2025, 1));
+        reading.setPreviousReading(40);
+
+        QuarantinedReading held = new QuarantinedReading();
+        held.setId("R1");
+        held.setReading(reading);
+
+        when(quarantineRepository.findById("R1")).thenReturn(Optional.of(held));
+        when(latestStore.find("CON1")).thenReturn(stored(1, 2025, 95));
+
+        ApiException ex = assertThrows(ApiException.class,
+                () -> service.releaseQuarantined("R1"));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        verify(repository, never()).insert(any(MeterReading.class));
+    }
+
+    @Test
+    void addReading_duplicateMonth() {
+
+        when(connectionCache.getConnection("CON1"))
+                .thenReturn(connection());
+
+        when(latestStore.find("CON1")).thenReturn(stored(1, 2025, 90));
+
         CreateMeterReadingRequest req = request(); // ✅ correct type
 
         assertThrows(ApiException.class,
                 () -> service.addReading(req));
+
+        verify(repository, never()).insert(any(MeterReading.class));
     }
 
     @Test
-    void getLatest_success() {
+    void addReading_laterReadingExists() {
 
-        MeterReading r = new MeterReading();
-        r.setConnectionId("CON1");
+        when(connectionCache.getConnection("CON1"))
+                .thenReturn(connection());
 
-        when(repository.findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc("CON1"))
-                .thenReturn(Optional.of(r));
+        when(latestStore.find("CON1")).thenReturn(stored(2, 2025, 90));
 
-        assertNotNull(service.getLatest("CON1"));
+        CreateMeterReadingRequest req = request();
+
+        assertThrows(ApiException.class,
+                () -> service.addReading(req));
+
+        verify(latestStore, never()).advance(any(), any(), any());
+    }
+
+    @Test
+    void addReading_concurrentWriteLoses() {
+
+        when(connectionCache.getConnection("CON1"))
+                .thenReturn(connection());
+
+        when(latestStore.find("CON1")).thenReturn(null);
+        when(latestStore.advance(eq("CON1"), isNull(), any(LatestReading.class)))
+                .thenReturn(false);
+
+        CreateMeterReadingRequest req = request();
+
+        ApiException ex = assertThrows(ApiException.class,
+                () -> service.addReading(req));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        verify(repository, never()).insert(any(MeterReading.class));
+    }
+
+    @Test
+    void addReading_insertFails_revertsLatest() {
+
+        when(connectionCache.getConnection("CON1"))
+                .thenReturn(connection());
+
+        when(latestStore.find("CON1")).thenReturn(null);
+        when(latestStore.advance(eq("CON1"), isNull(), any(LatestReading.class)))
+                .thenReturn(true);
+        when(repository.insert(any(MeterReading.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        CreateMeterReadingRequest req = request();
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> service.addReading(req));
+
+        verify(latestStore).revert(eq("CON1"), isNull(), any(LatestReading.class));
+        verifyNoInteractions(analytics);
+    }
+
+    @Test
+    void getLatest_success() {
+
+        when(latestStore.find("CON1"))
+                .thenReturn(stored(1, 2025, 100));
+
+        assertEquals(100, service.getLatest("CON1").getCurrentReading());
     }
 
     @Test
     void getLatest_notFound() {
 
-        when(repository.findTopByConnectionIdOrderByReadingYearDescReadingMonthDesc("CON1"))
-                .thenReturn(Optional.empty());
+        when(latestStore.find("CON1"))
+                .thenReturn(null);
 
         assertThrows(ApiException.class,
                 () -> service.getLatest("CON1"));
@@ -118,6 +298,23 @@ class MeterReadingServiceTest {
 
         assertEquals(1, service.getByConnection("CON1").size());
     }
+
+    @Test
+    void streamByConnection_mapsEachReading() {
+
+        MeterReading reading = new MeterReading();
+        reading.setId("R1");
+        reading.setConnectionId("CON1");
+
+        when(reactiveRepository.findByConnectionId("CON1"))
+                .thenReturn(Flux.just(reading));
+
+        List<MeterReadingResponse> result =
+                service.streamByConnection("CON1").collectList().block();
+
+        assertEquals(1, result.size());
+        assertEquals("R1", result.get(0).getId());
+    }
     @Test
     void getByConsumer_withData() {
 
@@ -144,7 +341,7 @@ class MeterReadingServiceTest {
         reading.setUtilityType(UtilityType.ELECTRICITY);
         reading.setMeterNumber("MTR1");
 
-        when(repository.findByReadingMonthAndReadingYear(1, 2025))
+        when(repository.findByPeriod(MeterReading.periodOf(2025, 1)))
                 .thenReturn(List.of(reading));
 
         List<MeterReadingResponse> result =
@@ -162,4 +359,23 @@ class MeterReadingServiceTest {
         assertThrows(ApiException.class,
                 () -> service.getByConnection("CON1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByConnectionsForMonth_success() {
+
+        MeterReading reading = new MeterReading();
+        reading.setConnectionId("CON1");
+        reading.setReadingMonth(1);
+        reading.setReadingYear(2025);
+        reading.setUtilityType(UtilityType.ELECTRICITY);
+
+        when(repository.findByConnectionIdInAndPeriod(
+                List.of("CON1", "CON2"), MeterReading.periodOf(2025, 1)))
+                .thenReturn(List.of(reading));
+
+        List<MeterReadingResponse> result =
+                service.getByConnectionsForMonth(List.of("CON1", "CON2"), 1, 2025);
+
+        assertEquals(1, result.size());
+    }
+}
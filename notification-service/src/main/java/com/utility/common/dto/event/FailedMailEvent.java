@@ -0,0 +1,15 @@
+package com.utility.common.dto.event;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class FailedMailEvent {
+
+    private List<String> to;
+    private String subject;
+    private String text;
+    private int attempts;
+    private String error;
+}
@@ -0,0 +1,100 @@
+package com.utility.notification.config;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/*
+ * One container factory per notification queue so a bill backlog never takes
+ * consumers or prefetch slots away from OTP and account mail. Every value can
+ * be overridden with notification.listener.<queue>.{concurrency,max-concurrency,prefetch}
+ * and, for the batch factories, batch-size and batch-timeout-ms.
+ */
+@Configuration
+public class ListenerContainerConfig {
+
+	public static final String OTP_FACTORY = "otpListenerFactory";
+	public static final String ACCOUNT_FACTORY = "accountListenerFactory";
+	public static final String PASSWORD_RESET_FACTORY = "passwordResetListenerFactory";
+	public static final String BILL_FACTORY = "billListenerFactory";
+	public static final String REMINDER_FACTORY = "reminderListenerFactory";
+
+	private final SimpleRabbitListenerContainerFactoryConfigurer configurer;
+	private final ConnectionFactory connectionFactory;
+	private final Environment environment;
+
+	public ListenerContainerConfig(
+			SimpleRabbitListenerContainerFactoryConfigurer configurer,
+			ConnectionFactory connectionFactory,
+			Environment environment) {
+		this.configurer = configurer;
+		this.connectionFactory = connectionFactory;
+		this.environment = environment;
+	}
+
+	// latency first: small prefetch so one slow send never holds other OTPs
+	@Bean(name = OTP_FACTORY)
+	public SimpleRabbitListenerContainerFactory otpListenerFactory() {
+		return factory("otp", 2, 4, 1, 0);
+	}
+
+	@Bean(name = ACCOUNT_FACTORY)
+	public SimpleRabbitListenerContainerFactory accountListenerFactory() {
+		return factory("account", 1, 2, 5, 0);
+	}
+
+	@Bean(name = PASSWORD_RESET_FACTORY)
+	public SimpleRabbitListenerContainerFactory passwordResetListenerFactory() {
+		return factory("password-reset", 1, 2, 1, 0);
+	}
+
+	// throughput first: deep prefetch and batches for post-billing-run backlogs
+	@Bean(name = BILL_FACTORY)
+	public SimpleRabbitListenerContainerFactory billListenerFactory() {
+		return factory("bill", 4, 8, 250, 50);
+	}
+
+	@Bean(name = REMINDER_FACTORY)
+	public SimpleRabbitListenerContainerFactory reminderListenerFactory() {
+		return factory("reminder", 2, 8, 250, 50);
+	}
+
+	// batchSize 0 keeps single-message delivery; listeners on batch factories take a List
+	private SimpleRabbitListenerContainerFactory factory(
+			String queue,
+			int concurrency,
+			int maxConcurrency,
+			int prefetch,
+			int batchSize) {
+
+		String prefix = "notification.listener." + queue + ".";
+
+		SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+		configurer.configure(factory, connectionFactory);
+
+		factory.setConcurrentConsumers(
+				environment.getProperty(prefix + "concurrency", Integer.class, concurrency));
+		factory.setMaxConcurrentConsumers(
+				environment.getProperty(prefix + "max-concurrency", Integer.class, maxConcurrency));
+		factory.setPrefetchCount(
+				environment.getProperty(prefix + "prefetch", Integer.class, prefetch));
+
+		if (batchSize > 0) {
+			factory.setBatchListener(true);
+			factory.setConsumerBatchEnabled(true);
+			factory.setBatchSize(
+					environment.getProperty(prefix + "batch-size", Integer.class, batchSize));
+			// hand over a partial batch instead of waiting for it to fill up
+			factory.setReceiveTimeout(
+					environment.getProperty(prefix + "batch-timeout-ms", Long.class, 1000L));
+			// batch listeners ack each message once its own mail is out
+			factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+		}
+
+		return factory;
+	}
+}
@@ -24,6 +24,8 @@ public class RabbitMQConfig {
 	public static final String PASSWORD_RESET_KEY   = "password.reset";
 	public static final String PAYMENT_OTP_QUEUE = "payment.otp.queue";
 	public static final String PAYMENT_OTP_KEY   = "payment.otp.generated";
+	public static final String MAIL_DEAD_LETTER_QUEUE = "mail.dead.letter.queue";
+	public static final String MAIL_DEAD_LETTER_KEY   = "mail.dead";
 	
 	 @Bean
 	    public Queue paymentOtpQueue() {
@@ -38,6 +40,17 @@ public class RabbitMQConfig {
 	                .with(PAYMENT_OTP_KEY);
 	    }
 	    
+	// mail that exhausted its SMTP retries, kept for inspection and replay
+	@Bean
+	public Queue mailDeadLetterQueue() {
+		return QueueBuilder.durable(MAIL_DEAD_LETTER_QUEUE).build();
+	}
+
+	@Bean
+	public Binding mailDeadLetterBinding() {
+		return BindingBuilder.bind(mailDeadLetterQueue()).to(notificationExchange()).with(MAIL_DEAD_LETTER_KEY);
+	}
+
 	@Bean
 	public Queue passwordResetQueue() {
 	    return QueueBuilder.durable(PASSWORD_RESET_QUEUE).build();
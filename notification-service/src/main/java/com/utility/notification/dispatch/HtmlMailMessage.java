@@ -0,0 +1,14 @@
+package com.utility.notification.dispatch;
+
+import org.springframework.mail.SimpleMailMessage;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Plain-text message with an optional HTML alternative.
+@Getter
+@Setter
+public class HtmlMailMessage extends SimpleMailMessage {
+
+    private String html;
+}
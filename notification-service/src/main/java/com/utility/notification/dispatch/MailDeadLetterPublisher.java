@@ -0,0 +1,35 @@
+package com.utility.notification.dispatch;
+
+import java.util.Arrays;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import com.utility.common.dto.event.FailedMailEvent;
+import com.utility.notification.config.RabbitMQConfig;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class MailDeadLetterPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publish(SimpleMailMessage message, int attempts, String error) {
+
+        FailedMailEvent event = new FailedMailEvent();
+        event.setTo(message.getTo() == null ? null : Arrays.asList(message.getTo()));
+        event.setSubject(message.getSubject());
+        event.setText(message.getText());
+        event.setAttempts(attempts);
+        event.setError(error);
+
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.EXCHANGE,
+                RabbitMQConfig.MAIL_DEAD_LETTER_KEY,
+                event
+        );
+    }
+}
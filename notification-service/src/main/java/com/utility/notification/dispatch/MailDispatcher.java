@@ -0,0 +1,357 @@
+package com.utility.notification.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Sits between the listeners and SMTP. Listeners only enqueue; a fixed set of
+ * workers drains the bounded queues in batches, each over its own long-lived
+ * SMTP connection, under a shared rate limit. Urgent mail has its own queue and
+ * is sent before, and in between, bulk messages. Failed sends are retried with
+ * exponential backoff and end up on the mail dead-letter queue.
+ *
+ * submit() hands back a future that completes once the message is sent or
+ * dead-lettered. The broker message is acked only after that (single-message
+ * listeners wait on it, batch listeners ack each message from it), so mail
+ * still queued when the process dies is redelivered rather than lost.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    // how often a worker waiting on bulk mail looks at the urgent queue
+    private static final long URGENT_CHECK_MS = 50;
+
+    private final JavaMailSenderImpl mailSender;
+    private final MailDeadLetterPublisher deadLetters;
+
+    private final BlockingQueue<MailJob> urgent;
+    private final BlockingQueue<MailJob> bulk;
+    private final RateLimiter rateLimiter;
+
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long idleCloseMs;
+    private final long enqueueTimeoutMs;
+    private final long shutdownTimeoutMs;
+
+    // jobs waiting out their backoff, so shutdown can wait for or fail them
+    private final Set<MailJob> retrying = ConcurrentHashMap.newKeySet();
+
+    private final Timer sendTimer;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter rejected;
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    public MailDispatcher(
+            JavaMailSenderImpl mailSender,
+            MailDeadLetterPublisher deadLetters,
+            MeterRegistry meterRegistry,
+            @Value("${notification.mail.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.mail.urgent-queue-capacity:1000}") int urgentQueueCapacity,
+            @Value("${notification.mail.workers:4}") int workers,
+            @Value("${notification.mail.batch-size:50}") int batchSize,
+            @Value("${notification.mail.rate-per-second:20}") double ratePerSecond,
+            @Value("${notification.mail.max-attempts:3}") int maxAttempts,
+            @Value("${notification.mail.backoff-ms:2000}") long backoffMs,
+            @Value("${notification.mail.idle-close-ms:30000}") long idleCloseMs,
+            @Value("${notification.mail.enqueue-timeout-ms:5000}") long enqueueTimeoutMs,
+            @Value("${notification.mail.shutdown-timeout-ms:30000}") long shutdownTimeoutMs
+    ) {
+        this.mailSender = mailSender;
+        this.deadLetters = deadLetters;
+
+        this.urgent = new ArrayBlockingQueue<>(urgentQueueCapacity);
+        this.bulk = new ArrayBlockingQueue<>(queueCapacity);
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.idleCloseMs = idleCloseMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        depth(meterRegistry, MailPriority.URGENT, urgent);
+        depth(meterRegistry, MailPriority.BULK, bulk);
+
+        this.sendTimer = Timer.builder("mail.dispatch.send").register(meterRegistry);
+        this.sent = Counter.builder("mail.dispatch.sent").register(meterRegistry);
+        this.retried = failures(meterRegistry, "retried");
+        this.deadLettered = failures(meterRegistry, "dead_lettered");
+        this.rejected = Counter.builder("mail.dispatch.rejected").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+
+        running = true;
+
+        AtomicInteger ids = new AtomicInteger();
+
+        workerPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "mail-dispatch-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-retry");
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    // drains queued and retrying mail for up to shutdownTimeoutMs; anything
+    // still unsent fails its future, so its broker message is redelivered
+    @PreDestroy
+    public void stop() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        while ((queueDepth() > 0 || !retrying.isEmpty()) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+
+        if (!workerPool.awaitTermination(enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+            workerPool.shutdownNow();
+        }
+
+        List<MailJob> unsent = new ArrayList<>(retrying);
+        urgent.drainTo(unsent);
+        bulk.drainTo(unsent);
+
+        if (!unsent.isEmpty()) {
+            log.warn("Mail dispatcher stopped with {} messages unsent; they are left for redelivery", unsent.size());
+            unsent.forEach(MailDispatcher::abandon);
+        }
+    }
+
+    // blocks briefly when full so the listener applies backpressure to the broker
+    public CompletableFuture<Void> submit(SimpleMailMessage message, MailPriority priority) {
+
+        try {
+            MailJob job = new MailJob(message, priority, 1, new CompletableFuture<>());
+            if (queueFor(priority).offer(job, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return job.done();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        rejected.increment();
+        throw new MailQueueFullException("Mail dispatch queue is full");
+    }
+
+    public int queueDepth() {
+        return urgent.size() + bulk.size();
+    }
+
+    private void work() {
+
+        SmtpConnection connection = new SmtpConnection(mailSender);
+        List<MailJob> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (running) {
+
+                MailJob first = next();
+
+                if (first == null) {
+                    // SMTP servers drop idle sessions; reconnect on the next batch
+                    connection.close();
+                    continue;
+                }
+
+                batch.add(first);
+                queueFor(first.priority()).drainTo(batch, batchSize - 1);
+
+                for (MailJob job : batch) {
+
+                    MailJob jump;
+                    while ((jump = urgent.poll()) != null) {
+                        rateLimiter.acquire();
+                        send(connection, jump);
+                    }
+
+                    rateLimiter.acquire();
+                    send(connection, job);
+                }
+
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // interrupted mid-batch; completed and retrying jobs are unaffected
+            batch.stream().filter(job -> !retrying.contains(job)).forEach(MailDispatcher::abandon);
+            connection.close();
+        }
+    }
+
+    // urgent first; null once idleCloseMs passes with nothing to send
+    private MailJob next() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + idleCloseMs;
+
+        while (running) {
+
+            MailJob job = urgent.poll();
+            if (job == null) {
+                job = bulk.poll(URGENT_CHECK_MS, TimeUnit.MILLISECONDS);
+            }
+
+            if (job != null || System.currentTimeMillis() >= deadline) {
+                return job;
+            }
+        }
+
+        return null;
+    }
+
+    private void send(SmtpConnection connection, MailJob job) {
+
+        Timer.Sample sample = Timer.start();
+
+        try {
+            MimeMessage mime = mailSender.createMimeMessage();
+
+            if (job.message() instanceof HtmlMailMessage rich && rich.getHtml() != null) {
+                MimeMessageHelper helper = new MimeMessageHelper(mime, true, "UTF-8");
+                rich.copyTo(new MimeMailMessage(helper));
+                helper.setText(rich.getText(), rich.getHtml());
+            } else {
+                job.message().copyTo(new MimeMailMessage(mime));
+            }
+
+            connection.send(mime);
+            sent.increment();
+            job.done().complete(null);
+
+        } catch (MessagingException | MailException ex) {
+            // the transport may be half-open; start clean for the next message
+            connection.close();
+            failed(job, ex);
+
+        } finally {
+            sample.stop(sendTimer);
+        }
+    }
+
+    private void failed(MailJob job, Exception ex) {
+
+        if (job.attempt() >= maxAttempts) {
+            deadLetter(job, ex.getMessage());
+            return;
+        }
+
+        retried.increment();
+
+        long delay = backoffMs << (job.attempt() - 1);
+
+        log.warn(
+                "Mail to {} failed on attempt {}, retrying in {} ms: {}",
+                String.join(",", recipients(job)),
+                job.attempt(),
+                delay,
+                ex.getMessage()
+        );
+
+        retrying.add(job);
+
+        retryScheduler.schedule(() -> {
+            if (!queueFor(job.priority()).offer(job.next())) {
+                deadLetter(job.next(), "Mail dispatch queue is full");
+            }
+            retrying.remove(job);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(MailJob job, String error) {
+
+        deadLettered.increment();
+
+        log.error(
+                "Mail to {} dead-lettered after {} attempts: {}",
+                String.join(",", recipients(job)),
+                job.attempt(),
+                error
+        );
+
+        try {
+            deadLetters.publish(job.message(), job.attempt(), error);
+            job.done().complete(null);
+        } catch (RuntimeException ex) {
+            log.error("Could not publish dead-lettered mail", ex);
+            job.done().completeExceptionally(ex);
+        }
+    }
+
+    private static void abandon(MailJob job) {
+        job.done().completeExceptionally(new IllegalStateException("Mail dispatcher stopped"));
+    }
+
+    private BlockingQueue<MailJob> queueFor(MailPriority priority) {
+        return priority == MailPriority.URGENT ? urgent : bulk;
+    }
+
+    private static void depth(MeterRegistry registry, MailPriority priority, BlockingQueue<MailJob> queue) {
+        Gauge.builder("mail.dispatch.queue.depth", queue, BlockingQueue::size)
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry);
+    }
+
+    private static String[] recipients(MailJob job) {
+        String[] to = job.message().getTo();
+        return to != null ? to : new String[0];
+    }
+
+    private static Counter failures(MeterRegistry registry, String outcome) {
+        return Counter.builder("mail.dispatch.failures")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
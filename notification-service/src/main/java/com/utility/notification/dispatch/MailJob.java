@@ -0,0 +1,13 @@
+package com.utility.notification.dispatch;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.mail.SimpleMailMessage;
+
+// done completes once the message is sent or on the dead-letter queue; retries share it
+record MailJob(SimpleMailMessage message, MailPriority priority, int attempt, CompletableFuture<Void> done) {
+
+    MailJob next() {
+        return new MailJob(message, priority, attempt + 1, done);
+    }
+}
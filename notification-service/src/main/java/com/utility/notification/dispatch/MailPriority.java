@@ -0,0 +1,7 @@
+package com.utility.notification.dispatch;
+
+// URGENT mail (OTPs, password resets, account decisions) jumps ahead of bulk bill mail.
+public enum MailPriority {
+    URGENT,
+    BULK
+}
@@ -0,0 +1,9 @@
+package com.utility.notification.dispatch;
+
+// Thrown to the listener so the broker keeps the message and redelivers it.
+public class MailQueueFullException extends RuntimeException {
+
+    public MailQueueFullException(String message) {
+        super(message);
+    }
+}
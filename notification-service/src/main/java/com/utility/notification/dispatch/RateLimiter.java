@@ -0,0 +1,36 @@
+package com.utility.notification.dispatch;
+
+import java.util.concurrent.TimeUnit;
+
+// Evenly spaced permits shared by all workers; zero or less means unlimited.
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos =
+                permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+
+        if (intervalNanos == 0) {
+            return;
+        }
+
+        long waitNanos;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
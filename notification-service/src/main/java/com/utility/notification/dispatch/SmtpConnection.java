@@ -0,0 +1,68 @@
+package com.utility.notification.dispatch;
+
+import java.util.Date;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+// One SMTP transport owned by a single worker and reused across messages.
+final class SmtpConnection {
+
+    private final JavaMailSenderImpl mailSender;
+    private Transport transport;
+
+    SmtpConnection(JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    void send(MimeMessage message) throws MessagingException {
+
+        if (transport == null || !transport.isConnected()) {
+            connect();
+        }
+
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        Address[] recipients = message.getAllRecipients();
+        transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+    }
+
+    void close() {
+
+        if (transport == null) {
+            return;
+        }
+
+        try {
+            transport.close();
+        } catch (MessagingException ignored) {
+            // already broken; a new transport is opened on the next send
+        } finally {
+            transport = null;
+        }
+    }
+
+    private void connect() throws MessagingException {
+
+        close();
+
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport fresh = mailSender.getSession().getTransport(protocol);
+
+        fresh.connect(
+                mailSender.getHost(),
+                mailSender.getPort(),
+                mailSender.getUsername(),
+                mailSender.getPassword()
+        );
+
+        transport = fresh;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 
 import com.utility.common.dto.event.AccountApprovedEvent;
 import com.utility.common.dto.event.AccountRejectedEvent;
+import com.utility.notification.config.ListenerContainerConfig;
 import com.utility.notification.config.RabbitMQConfig;
 import com.utility.notification.service.EmailService;
 
@@ -16,20 +17,26 @@ public class AccountNotificationListener {
 
     private final EmailService emailService;
 
-    @RabbitListener(queues = RabbitMQConfig.ACCOUNT_QUEUE)
+    @RabbitListener(
+            queues = RabbitMQConfig.ACCOUNT_QUEUE,
+            containerFactory = ListenerContainerConfig.ACCOUNT_FACTORY
+    )
     public void handleAccountApproved(AccountApprovedEvent event) {
 
         emailService.sendCredentialsEmail(
                 event.getEmail(),
                 event.getUsername(),
                 event.getTemporaryPassword()
-        );
+        ).join();
 
     }
-    @RabbitListener(queues = RabbitMQConfig.REJECT_QUEUE)
+    @RabbitListener(
+            queues = RabbitMQConfig.REJECT_QUEUE,
+            containerFactory = ListenerContainerConfig.ACCOUNT_FACTORY
+    )
     public void handleAccountRejected(AccountRejectedEvent event) {
 
-        emailService.sendRejectionEmail(event.getEmail());
+        emailService.sendRejectionEmail(event.getEmail()).join();
 
     }
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.utility.notification.listener;
 
+import com.rabbitmq.client.Channel;
 import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.notification.config.ListenerContainerConfig;
+import com.utility.notification.config.RabbitMQConfig;
 import com.utility.notification.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -14,18 +20,34 @@ public class BillNotificationListener {
 
     private final EmailService emailService;
 
-    @RabbitListener(queues = "bill.notification.queue")
-    public void handleBillGenerated(BillGeneratedEvent event) {
+    // queues the batch and returns; each delivery is acked or requeued on its own (MailAcks)
+    @RabbitListener(
+            queues = RabbitMQConfig.BILL_QUEUE,
+            containerFactory = ListenerContainerConfig.BILL_FACTORY
+    )
+    public void handleBillGenerated(List<Message<BillGeneratedEvent>> messages, Channel channel) {
 
-        if (event.getEmail() == null || event.getEmail().isBlank()) {
-            log.error(
-                "Bill email skipped. Email missing. BillId={}, ConsumerId={}",
-                event.getBillId(),
-                event.getConsumerId()
-            );
-            return; 
-        }
+        for (Message<BillGeneratedEvent> message : messages) {
+
+            BillGeneratedEvent event = message.getPayload();
+            long tag = MailAcks.tag(message);
 
-        emailService.sendBillEmail(event.getEmail(), event);
+            if (event.getEmail() == null || event.getEmail().isBlank()) {
+                log.error(
+                    "Bill email skipped. Email missing. BillId={}, ConsumerId={}",
+                    event.getBillId(),
+                    event.getConsumerId()
+                );
+                MailAcks.ack(channel, tag);
+                continue;
+            }
+
+            try {
+                MailAcks.ackWhenSent(channel, tag, emailService.sendBillEmail(event.getEmail(), event));
+            } catch (RuntimeException ex) {
+                // e.g. dispatch queue full
+                MailAcks.requeue(channel, tag, ex);
+            }
+        }
     }
-}
\ No newline at end of file
+}
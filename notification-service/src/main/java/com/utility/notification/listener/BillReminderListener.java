@@ -1,9 +1,15 @@
 package com.utility.notification.listener;
 
+import java.util.List;
+
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import com.rabbitmq.client.Channel;
 import com.utility.common.dto.event.BillDueReminderEvent;
+import com.utility.notification.config.ListenerContainerConfig;
+import com.utility.notification.config.RabbitMQConfig;
 import com.utility.notification.service.EmailService;
 
 import lombok.RequiredArgsConstructor;
@@ -14,15 +20,30 @@ public class BillReminderListener {
 
     private final EmailService emailService;
 
-    @RabbitListener(queues = "bill.reminder.queue")
-    public void handleBillReminder(BillDueReminderEvent event) {
+    @RabbitListener(
+            queues = RabbitMQConfig.BILL_REMINDER_QUEUE,
+            containerFactory = ListenerContainerConfig.REMINDER_FACTORY
+    )
+    public void handleBillReminder(List<Message<BillDueReminderEvent>> messages, Channel channel) {
+
+        for (Message<BillDueReminderEvent> message : messages) {
+
+            BillDueReminderEvent event = message.getPayload();
+            long tag = MailAcks.tag(message);
+
+            if (event.getEmail() == null || event.getEmail().isBlank()) {
+                MailAcks.ack(channel, tag);
+                continue;
+            }
 
-        if (event.getEmail() == null || event.getEmail().isBlank()) {
-            return;
+            try {
+                MailAcks.ackWhenSent(channel, tag, emailService.sendPaymentReminderEmail(
+                        event.getEmail(),
+                        event
+                ));
+            } catch (RuntimeException ex) {
+                MailAcks.requeue(channel, tag, ex);
+            }
         }
-        emailService.sendPaymentReminderEmail(
-                event.getEmail(),
-                event
-        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.utility.notification.listener;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownSignalException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Per-message acks for the batch listeners, whose containers run in MANUAL
+ * mode. A delivery is acked once its mail is sent or dead-lettered, and only
+ * that delivery is requeued when it cannot be, so one failed send never
+ * brings back mail the rest of the batch already delivered. Acks arrive on
+ * the dispatcher's threads; the listener thread is free once the batch is
+ * queued.
+ */
+@Slf4j
+final class MailAcks {
+
+    private MailAcks() {
+    }
+
+    static long tag(Message<?> message) {
+        return message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+    }
+
+    static void ackWhenSent(Channel channel, long tag, CompletableFuture<Void> sent) {
+        sent.whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                ack(channel, tag);
+            } else {
+                requeue(channel, tag, ex);
+            }
+        });
+    }
+
+    static void ack(Channel channel, long tag) {
+        try {
+            channel.basicAck(tag, false);
+        } catch (IOException | ShutdownSignalException ex) {
+            // channel gone: the broker redelivers the message to the next consumer
+            log.warn("Could not ack delivery {}: {}", tag, ex.getMessage());
+        }
+    }
+
+    static void requeue(Channel channel, long tag, Throwable cause) {
+
+        log.warn("Mail for delivery {} not sent, requeueing it: {}", tag, cause.getMessage());
+
+        try {
+            channel.basicNack(tag, false, true);
+        } catch (IOException | ShutdownSignalException ex) {
+            log.warn("Could not requeue delivery {}: {}", tag, ex.getMessage());
+        }
+    }
+}
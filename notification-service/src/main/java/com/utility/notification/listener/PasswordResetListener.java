@@ -4,6 +4,7 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
 import com.utility.common.dto.event.PasswordResetEvent;
+import com.utility.notification.config.ListenerContainerConfig;
 import com.utility.notification.config.RabbitMQConfig;
 import com.utility.notification.service.EmailService;
 
@@ -15,7 +16,10 @@ public class PasswordResetListener {
 
     private final EmailService emailService;
 
-    @RabbitListener(queues = RabbitMQConfig.PASSWORD_RESET_QUEUE)
+    @RabbitListener(
+            queues = RabbitMQConfig.PASSWORD_RESET_QUEUE,
+            containerFactory = ListenerContainerConfig.PASSWORD_RESET_FACTORY
+    )
     public void handlePasswordReset(PasswordResetEvent event) {
 
         if (event.getEmail() == null || event.getResetToken() == null) {
@@ -25,6 +29,6 @@ public class PasswordResetListener {
         emailService.sendPasswordResetEmail(
                 event.getEmail(),
                 event.getResetToken()
-        );
+        ).join();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
 import com.utility.common.dto.event.PaymentOtpEvent;
+import com.utility.notification.config.ListenerContainerConfig;
 import com.utility.notification.config.RabbitMQConfig;
 import com.utility.notification.service.EmailService;
 
@@ -15,13 +16,16 @@ public class PaymentOtpListener {
 
     private final EmailService emailService;
 
-    @RabbitListener(queues = RabbitMQConfig.PAYMENT_OTP_QUEUE)
+    @RabbitListener(
+            queues = RabbitMQConfig.PAYMENT_OTP_QUEUE,
+            containerFactory = ListenerContainerConfig.OTP_FACTORY
+    )
     public void handlePaymentOtp(PaymentOtpEvent event) {
 
         emailService.sendPaymentOtpEmail(
                 event.getEmail(),
                 event.getOtp(),
                 event.getValidMinutes()
-        );
+        ).join();
     }
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package com.utility.notification.service;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.stereotype.Service;
 
 import com.utility.common.dto.event.BillDueReminderEvent;
 import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.notification.dispatch.HtmlMailMessage;
+import com.utility.notification.dispatch.MailDispatcher;
+import com.utility.notification.dispatch.MailPriority;
+import com.utility.notification.template.MailTemplates;
+import com.utility.notification.template.RenderedMail;
 
 import lombok.RequiredArgsConstructor;
 
@@ -13,176 +19,126 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
+    private final MailTemplates mailTemplates;
 
-    public void sendCredentialsEmail(
+    public CompletableFuture<Void> sendCredentialsEmail(
             String to,
             String username,
             String tempPassword) {
 
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setTo(to);
-        message.setSubject("Your Utility Billing Account Credentials");
-
-        message.setText("""
-                Hello,
-
-                Your account has been approved.
-
-                Username: %s
-                Temporary Password: %s
-
-                Please login and change your password immediately.
-
-                Regards,
-                Utility Billing System
-                """.formatted(username, tempPassword));
-
-        mailSender.send(message);
+        return send(
+                to,
+                null,
+                MailTemplates.ACCOUNT_CREDENTIALS,
+                Map.of(
+                        "username", String.valueOf(username),
+                        "tempPassword", String.valueOf(tempPassword)
+                ),
+                MailPriority.URGENT
+        );
     }
-    public void sendRejectionEmail(String to) {
-
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Account Request Update");
-
-        message.setText("""
-                Hello,
 
-                Your account request has been reviewed.
-                Unfortunately, it was not approved at this time.
+    public CompletableFuture<Void> sendRejectionEmail(String to) {
 
-                Please contact support for further assistance.
-
-                Regards,
-                Utility Billing System
-                """);
-
-        mailSender.send(message);
+        return send(
+                to,
+                null,
+                MailTemplates.ACCOUNT_REJECTED,
+                Map.of(),
+                MailPriority.URGENT
+        );
     }
-     public void sendBillEmail(String to, BillGeneratedEvent event) {
+
+    public CompletableFuture<Void> sendBillEmail(String to, BillGeneratedEvent event) {
 
         if (to == null || to.isBlank()) {
             throw new IllegalArgumentException("Email is missing in BillGeneratedEvent");
         }
 
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setFrom("charliektest11@gmail.com");
-        message.setTo(to);
-        message.setSubject("Your Utility Bill Has Been Generated");
-
-        message.setText("""
-                Hello,
-
-                Your utility bill has been generated successfully.
-
-                Bill ID      : %s
-                Utility Type : %s
-                Tariff Plan  : %s
-                Amount       : ₹%.2f
-                Due Date     : %s
-
-                Please pay before the due date to avoid penalties.
-
-                Regards,
-                Utility Billing System
-                """.formatted(
-                    event.getBillId(),
-                    event.getUtilityType(),
-                    event.getTariffPlan(),
-                    event.getAmount(),
-                    event.getDueDate()
-                ));
-
-        mailSender.send(message);
+        return send(
+                to,
+                "charliektest11@gmail.com",
+                MailTemplates.BILL_GENERATED,
+                Map.of(
+                        "billId", String.valueOf(event.getBillId()),
+                        "utilityType", String.valueOf(event.getUtilityType()),
+                        "tariffPlan", String.valueOf(event.getTariffPlan()),
+                        "amount", event.getAmount(),
+                        "dueDate", String.valueOf(event.getDueDate())
+                ),
+                MailPriority.BULK
+        );
     }
-    public void sendPaymentReminderEmail(
+
+    public CompletableFuture<Void> sendPaymentReminderEmail(
             String to,
             BillDueReminderEvent event) {
 
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setTo(to);
-        message.setSubject("Payment Due Reminder – Utility Bill");
-
-        message.setText("""
-                Hello,
-
-                This is a reminder that your utility bill payment is due soon.
-
-                Bill ID      : %s
-                Utility Type : %s
-                Amount       : ₹%.2f
-                Due Date     : %s
-
-                Please make the payment before the due date to avoid penalties.
-
-                Regards,
-                Utility Billing System
-                """.formatted(
-                    event.getBillId(),
-                    event.getUtilityType(),
-                    event.getAmount(),
-                    event.getDueDate()
-                ));
-
-        mailSender.send(message);
+        return send(
+                to,
+                null,
+                MailTemplates.BILL_REMINDER,
+                Map.of(
+                        "billId", String.valueOf(event.getBillId()),
+                        "utilityType", String.valueOf(event.getUtilityType()),
+                        "amount", event.getAmount(),
+                        "dueDate", String.valueOf(event.getDueDate())
+                ),
+                MailPriority.BULK
+        );
     }
-    public void sendPasswordResetEmail(String to, String resetToken) {
-
-        SimpleMailMessage message = new SimpleMailMessage();
 
-        message.setTo(to);
-        message.setSubject("Reset Your Password – Utility Billing System");
+    public CompletableFuture<Void> sendPasswordResetEmail(String to, String resetToken) {
 
         String resetLink =
                 "http://localhost:4200/reset-password?token=" + resetToken;
 
-        message.setText("""
-                Hello,
-
-                We received a request to reset your password.
-
-                Click the link below to reset your password:
-                %s
-
-                This link is valid for 15 minutes.
-                If you did not request this, please ignore this email.
-
-                Regards,
-                Utility Billing System
-                """.formatted(resetLink));
-
-        mailSender.send(message);
+        return send(
+                to,
+                null,
+                MailTemplates.PASSWORD_RESET,
+                Map.of("resetLink", resetLink),
+                MailPriority.URGENT
+        );
     }
-    public void sendPaymentOtpEmail(
+
+    public CompletableFuture<Void> sendPaymentOtpEmail(
             String to,
             String otp,
             int validMinutes) {
 
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setTo(to);
-        message.setSubject("OTP for Online Payment Verification");
-
-        message.setText("""
-                Hello,
-
-                Your One-Time Password (OTP) for confirming the online payment is:
+        return send(
+                to,
+                null,
+                MailTemplates.PAYMENT_OTP,
+                Map.of(
+                        "otp", String.valueOf(otp),
+                        "validMinutes", validMinutes
+                ),
+                MailPriority.URGENT
+        );
+    }
 
-                OTP: %s
+    private CompletableFuture<Void> send(
+            String to,
+            String from,
+            String template,
+            Map<String, ?> values,
+            MailPriority priority) {
 
-                This OTP is valid for %d minutes.
-                Please do NOT share this OTP with anyone.
+        RenderedMail rendered = mailTemplates.render(template, values);
 
-                If you did not initiate this payment, please ignore this email.
+        HtmlMailMessage message = new HtmlMailMessage();
 
-                Regards,
-                Utility Billing System
-                """.formatted(otp, validMinutes));
+        if (from != null) {
+            message.setFrom(from);
+        }
+        message.setTo(to);
+        message.setSubject(rendered.subject());
+        message.setText(rendered.text());
+        message.setHtml(rendered.html());
 
-        mailSender.send(message);
+        return mailDispatcher.submit(message, priority);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.utility.notification.template;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A template split once into literal runs and placeholders, so rendering is a
+ * straight sequence of appends. Placeholders are ${key} or ${key:money}.
+ */
+final class CompiledTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final String[] keys;
+    private final boolean[] money;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, List<String> literals, List<String> keys, List<Boolean> money) {
+        this.name = name;
+        this.literals = literals.toArray(String[]::new);
+        this.keys = keys.toArray(String[]::new);
+        this.money = new boolean[keys.size()];
+        for (int i = 0; i < this.money.length; i++) {
+            this.money[i] = money.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    static CompiledTemplate compile(String name, String source) {
+
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Boolean> money = new ArrayList<>();
+
+        int from = 0;
+
+        while (true) {
+
+            int open = source.indexOf("${", from);
+
+            if (open < 0) {
+                literals.add(source.substring(from));
+                break;
+            }
+
+            int close = source.indexOf('}', open);
+
+            if (close < 0) {
+                throw new IllegalArgumentException(
+                        "Unclosed placeholder at offset " + open + " in template " + name);
+            }
+
+            literals.add(source.substring(from, open));
+
+            String placeholder = source.substring(open + 2, close).trim();
+            int colon = placeholder.indexOf(':');
+
+            if (colon < 0) {
+                keys.add(placeholder);
+                money.add(false);
+            } else if (placeholder.substring(colon + 1).equals("money")) {
+                keys.add(placeholder.substring(0, colon));
+                money.add(true);
+            } else {
+                throw new IllegalArgumentException(
+                        "Unknown format '" + placeholder.substring(colon + 1) + "' in template " + name);
+            }
+
+            from = close + 1;
+        }
+
+        return new CompiledTemplate(name, literals, keys, money);
+    }
+
+    int sizeHint() {
+        return literalLength + keys.length * 16;
+    }
+
+    void renderTo(StringBuilder out, Map<String, ?> values, boolean escapeHtml) {
+
+        for (int i = 0; i < keys.length; i++) {
+
+            out.append(literals[i]);
+
+            if (!values.containsKey(keys[i])) {
+                throw new IllegalArgumentException(
+                        "No value for ${" + keys[i] + "} in template " + name);
+            }
+
+            Object value = values.get(keys[i]);
+
+            if (money[i] && value instanceof Number number) {
+                appendMoney(out, number.doubleValue());
+            } else if (escapeHtml) {
+                appendEscaped(out, String.valueOf(value));
+            } else {
+                out.append(value);
+            }
+        }
+
+        out.append(literals[keys.length]);
+    }
+
+    // same digits as %.2f (half-up on the shortest decimal form), without a Formatter
+    private static void appendMoney(StringBuilder out, double amount) {
+        out.append(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
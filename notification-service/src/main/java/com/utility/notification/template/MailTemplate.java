@@ -0,0 +1,7 @@
+package com.utility.notification.template;
+
+record MailTemplate(
+        CompiledTemplate subject,
+        CompiledTemplate text,
+        CompiledTemplate html
+) {}
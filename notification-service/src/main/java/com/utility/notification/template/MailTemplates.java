@@ -0,0 +1,198 @@
+package com.utility.notification.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Mail templates compiled once at startup. Classpath files under templates/mail
+ * are the defaults; notification.templates.<name>.{subject,text,html} from
+ * config-server override them and are recompiled on refresh, no restart needed.
+ * Overrides are read raw from the property sources: ${value} is template
+ * syntax here, not a Spring placeholder.
+ */
+@Slf4j
+@Component
+public class MailTemplates {
+
+    public static final String ACCOUNT_CREDENTIALS = "account-credentials";
+    public static final String ACCOUNT_REJECTED = "account-rejected";
+    public static final String BILL_GENERATED = "bill-generated";
+    public static final String BILL_REMINDER = "bill-reminder";
+    public static final String PASSWORD_RESET = "password-reset";
+    public static final String PAYMENT_OTP = "payment-otp";
+
+    static final String PREFIX = "notification.templates.";
+
+    private static final List<String> NAMES = List.of(
+            ACCOUNT_CREDENTIALS,
+            ACCOUNT_REJECTED,
+            BILL_GENERATED,
+            BILL_REMINDER,
+            PASSWORD_RESET,
+            PAYMENT_OTP
+    );
+
+    private static final String LOCATION = "classpath:templates/mail/";
+    private static final String SUBJECT_LINE = "Subject:";
+
+    // per-thread render buffer; dropped if one huge render inflated it
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final ConfigurableEnvironment environment;
+    private final ResourceLoader resourceLoader;
+
+    private volatile Map<String, MailTemplate> templates;
+
+    public MailTemplates(ConfigurableEnvironment environment, ResourceLoader resourceLoader) {
+        this.environment = environment;
+        this.resourceLoader = resourceLoader;
+        this.templates = compileAll();
+    }
+
+    public RenderedMail render(String name, Map<String, ?> values) {
+
+        MailTemplate template = templates.get(name);
+
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown mail template " + name);
+        }
+
+        return new RenderedMail(
+                render(template.subject(), values, false),
+                render(template.text(), values, false),
+                template.html() == null ? null : render(template.html(), values, true)
+        );
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX))) {
+            reload();
+        }
+    }
+
+    // a broken override keeps the previous templates in service
+    public void reload() {
+        try {
+            templates = compileAll();
+            log.info("Reloaded {} mail templates", templates.size());
+        } catch (RuntimeException ex) {
+            log.error("Mail template reload failed, keeping previous templates", ex);
+        }
+    }
+
+    private Map<String, MailTemplate> compileAll() {
+
+        Map<String, MailTemplate> compiled = new HashMap<>();
+
+        for (String name : NAMES) {
+            compiled.put(name, compile(name));
+        }
+
+        return Map.copyOf(compiled);
+    }
+
+    private MailTemplate compile(String name) {
+
+        String file = read(name + ".txt");
+
+        if (file == null) {
+            throw new IllegalStateException("Missing mail template " + name + ".txt");
+        }
+
+        String subject = null;
+        String text = file;
+
+        if (file.startsWith(SUBJECT_LINE)) {
+            int end = file.indexOf('\n');
+            // a subject line with no newline after it is a subject-only file
+            if (end < 0) {
+                end = file.length();
+            }
+            subject = file.substring(SUBJECT_LINE.length(), end).trim();
+            text = end < file.length() ? file.substring(end + 1).stripLeading() : "";
+        }
+
+        subject = override(name, "subject", subject);
+        text = override(name, "text", text);
+
+        String html = override(name, "html", null);
+        if (html == null) {
+            html = read(name + ".html");
+        }
+
+        if (subject == null) {
+            throw new IllegalStateException("Mail template " + name + " has no subject");
+        }
+
+        return new MailTemplate(
+                CompiledTemplate.compile(name + ".subject", subject),
+                CompiledTemplate.compile(name + ".txt", text),
+                html == null ? null : CompiledTemplate.compile(name + ".html", html)
+        );
+    }
+
+    // first property source wins, as in Environment.getProperty, minus placeholder resolution
+    private String override(String name, String part, String fallback) {
+
+        String key = PREFIX + name + "." + part;
+
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            Object value = source.getProperty(key);
+            if (value != null) {
+                return value.toString();
+            }
+        }
+
+        return fallback;
+    }
+
+    private String read(String file) {
+
+        Resource resource = resourceLoader.getResource(LOCATION + file);
+
+        if (!resource.exists()) {
+            return null;
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String render(CompiledTemplate template, Map<String, ?> values, boolean html) {
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.sizeHint());
+
+        template.renderTo(buffer, values, html);
+        String result = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+
+        return result;
+    }
+}
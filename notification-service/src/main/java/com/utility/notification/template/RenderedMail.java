@@ -0,0 +1,8 @@
+package com.utility.notification.template;
+
+// html is null for templates that only have a plain-text variant
+public record RenderedMail(
+        String subject,
+        String text,
+        String html
+) {}
@@ -0,0 +1,122 @@
+package com.utility.notification.dispatch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal local SMTP endpoint: accepts everything and records sessions and messages.
+final class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    FakeSmtpServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        pool.execute(this::accept);
+    }
+
+    String host() {
+        return server.getInetAddress().getHostAddress();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    List<String> messages() {
+        return messages;
+    }
+
+    boolean awaitMessages(int count, long timeoutMs) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + timeoutMs;
+
+        while (messages.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        return messages.size() >= count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        pool.shutdownNow();
+    }
+
+    private void accept() {
+
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                pool.execute(() -> session(socket));
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+
+            reply(out, "220 fake ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+
+                String command =
+                        line.substring(0, Math.min(4, line.length())).toUpperCase(Locale.ROOT);
+
+                switch (command) {
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+
+                        StringBuilder body = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            body.append(line).append('\n');
+                        }
+
+                        messages.add(body.toString());
+                        reply(out, "250 queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 ok");
+                }
+            }
+        } catch (IOException ignored) {
+            // client went away
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,166 @@
+package com.utility.notification.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MailDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MailDeadLetterPublisher deadLetters = mock(MailDeadLetterPublisher.class);
+
+    private MailDispatcher dispatcher;
+    private FakeSmtpServer smtp;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        if (smtp != null) {
+            smtp.close();
+        }
+    }
+
+    private MailDispatcher dispatcher(String host, int port, int queueCapacity, int maxAttempts) {
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(host);
+        sender.setPort(port);
+
+        return new MailDispatcher(
+                sender,
+                deadLetters,
+                registry,
+                queueCapacity,
+                queueCapacity,
+                1,
+                10,
+                0,
+                maxAttempts,
+                10,
+                30_000,
+                100,
+                1_000
+        );
+    }
+
+    private SimpleMailMessage message(String to) {
+        return message(to, "Hello");
+    }
+
+    private SimpleMailMessage message(String to, String subject) {
+        SimpleMailMessage m = new SimpleMailMessage();
+        m.setFrom("billing@example.com");
+        m.setTo(to);
+        m.setSubject(subject);
+        m.setText("Body");
+        return m;
+    }
+
+    @Test
+    void submit_sendsEverythingOverOneConnection() throws Exception {
+
+        smtp = new FakeSmtpServer();
+        dispatcher = dispatcher(smtp.host(), smtp.port(), 100, 3);
+        dispatcher.start();
+
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[5];
+        for (int i = 0; i < 5; i++) {
+            sent[i] = dispatcher.submit(message("user" + i + "@example.com"), MailPriority.BULK);
+        }
+
+        CompletableFuture.allOf(sent).get(5, TimeUnit.SECONDS);
+        assertTrue(smtp.awaitMessages(5, 5_000));
+        assertEquals(1, smtp.connections());
+        assertTrue(smtp.messages().get(0).contains("Subject: Hello"));
+        verifyNoInteractions(deadLetters);
+    }
+
+    @Test
+    void urgentMailJumpsTheBulkBacklog() throws Exception {
+
+        smtp = new FakeSmtpServer();
+        dispatcher = dispatcher(smtp.host(), smtp.port(), 100, 3);
+
+        // queue everything before any worker runs
+        for (int i = 0; i < 3; i++) {
+            dispatcher.submit(message("bulk" + i + "@example.com", "Bill"), MailPriority.BULK);
+        }
+        dispatcher.submit(message("otp@example.com", "OTP"), MailPriority.URGENT);
+
+        dispatcher.start();
+
+        assertTrue(smtp.awaitMessages(4, 5_000));
+        assertTrue(smtp.messages().get(0).contains("Subject: OTP"));
+    }
+
+    @Test
+    void submit_unreachableServerIsRetriedThenDeadLettered() throws Exception {
+
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            closedPort = probe.getLocalPort();
+        }
+
+        dispatcher = dispatcher("127.0.0.1", closedPort, 100, 2);
+        dispatcher.start();
+
+        CompletableFuture<Void> done = dispatcher.submit(message("user@example.com"), MailPriority.BULK);
+
+        // on the dead-letter queue counts as handled, so the broker message can be acked
+        done.get(5, TimeUnit.SECONDS);
+        verify(deadLetters).publish(any(SimpleMailMessage.class), eq(2), any());
+
+        assertEquals(1, registry.get("mail.dispatch.failures")
+                .tag("outcome", "retried").counter().count());
+        assertEquals(1, registry.get("mail.dispatch.failures")
+                .tag("outcome", "dead_lettered").counter().count());
+    }
+
+    @Test
+    void stop_failsMailStillWaitingToBeSent() throws Exception {
+
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            closedPort = probe.getLocalPort();
+        }
+
+        // backoff doubles from 10 ms, so ten attempts outlast the one-second shutdown
+        dispatcher = dispatcher("127.0.0.1", closedPort, 100, 10);
+        dispatcher.start();
+
+        CompletableFuture<Void> done = dispatcher.submit(message("user@example.com"), MailPriority.BULK);
+
+        dispatcher.stop();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> done.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        verifyNoInteractions(deadLetters);
+    }
+
+    @Test
+    void submit_fullQueueIsRejected() {
+
+        // never started, so nothing drains the queue
+        MailDispatcher idle = dispatcher("127.0.0.1", 25, 1, 3);
+
+        idle.submit(message("a@example.com"), MailPriority.BULK);
+
+        assertThrows(MailQueueFullException.class,
+                () -> idle.submit(message("b@example.com"), MailPriority.BULK));
+
+        assertEquals(1, idle.queueDepth());
+        assertEquals(1, registry.get("mail.dispatch.rejected").counter().count());
+    }
+}
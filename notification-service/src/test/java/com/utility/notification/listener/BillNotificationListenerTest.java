@@ -0,0 +1,74 @@
+package com.utility.notification.listener;
+
+import com.rabbitmq.client.Channel;
+import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.notification.dispatch.MailQueueFullException;
+import com.utility.notification.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BillNotificationListenerTest {
+
+    private final EmailService emailService = mock(EmailService.class);
+    private final Channel channel = mock(Channel.class);
+
+    private final BillNotificationListener listener = new BillNotificationListener(emailService);
+
+    private static Message<BillGeneratedEvent> delivery(long tag, String email) {
+        BillGeneratedEvent event = new BillGeneratedEvent();
+        event.setBillId("B" + tag);
+        event.setEmail(email);
+        return MessageBuilder.withPayload(event).setHeader(AmqpHeaders.DELIVERY_TAG, tag).build();
+    }
+
+    @Test
+    void handleBillGenerated_acksEachMessageOnItsOwn() throws Exception {
+
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+
+        when(emailService.sendBillEmail(eq("a@example.com"), any())).thenReturn(first);
+        when(emailService.sendBillEmail(eq("b@example.com"), any())).thenReturn(second);
+
+        // returns with both mails still queued
+        listener.handleBillGenerated(
+                List.of(delivery(1, "a@example.com"), delivery(2, "b@example.com"), delivery(3, null)),
+                channel
+        );
+
+        verify(channel).basicAck(3, false);
+        verifyNoMoreInteractions(channel);
+
+        first.complete(null);
+        second.completeExceptionally(new IllegalStateException("Mail dispatcher stopped"));
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicNack(eq(1L), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void handleBillGenerated_requeuesOnlyRejectedMessage() throws Exception {
+
+        when(emailService.sendBillEmail(eq("a@example.com"), any()))
+                .thenThrow(new MailQueueFullException("Mail dispatch queue is full"));
+        when(emailService.sendBillEmail(eq("b@example.com"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        listener.handleBillGenerated(
+                List.of(delivery(1, "a@example.com"), delivery(2, "b@example.com")),
+                channel
+        );
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicAck(2, false);
+    }
+}
@@ -2,24 +2,34 @@ package com.utility.notification.service;
 
 import com.utility.common.dto.event.BillDueReminderEvent;
 import com.utility.common.dto.event.BillGeneratedEvent;
+import com.utility.notification.dispatch.HtmlMailMessage;
+import com.utility.notification.dispatch.MailDispatcher;
+import com.utility.notification.dispatch.MailPriority;
+import com.utility.notification.template.MailTemplates;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class EmailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private MailDispatcher mailDispatcher;
 
-    @InjectMocks
     private EmailService emailService;
 
     EmailServiceTest() {
         MockitoAnnotations.openMocks(this);
+        emailService = new EmailService(
+                mailDispatcher,
+                new MailTemplates(new StandardEnvironment(), new DefaultResourceLoader())
+        );
     }
 
     @Test
@@ -31,8 +41,8 @@ class EmailServiceTest {
                 "tempPass"
         );
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.URGENT));
     }
 
     @Test
@@ -40,8 +50,8 @@ class EmailServiceTest {
 
         emailService.sendRejectionEmail("test@example.com");
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.URGENT));
     }
 
     @Test
@@ -56,8 +66,8 @@ class EmailServiceTest {
 
         emailService.sendBillEmail("test@example.com", event);
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.BULK));
     }
 
     @Test
@@ -71,8 +81,8 @@ class EmailServiceTest {
                 () -> emailService.sendBillEmail("", event)
         );
 
-        verify(mailSender, never())
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, never())
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.BULK));
     }
 
     @Test
@@ -89,8 +99,8 @@ class EmailServiceTest {
                 event
         );
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.BULK));
     }
 
     @Test
@@ -101,8 +111,8 @@ class EmailServiceTest {
                 "reset-token-123"
         );
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.URGENT));
     }
 
     @Test
@@ -114,7 +124,29 @@ class EmailServiceTest {
                 5
         );
 
-        verify(mailSender, times(1))
-                .send(any(SimpleMailMessage.class));
+        verify(mailDispatcher, times(1))
+                .submit(any(SimpleMailMessage.class), eq(MailPriority.URGENT));
+    }
+
+    @Test
+    void sendPaymentReminderEmail_rendersTextAndHtml() {
+
+        BillDueReminderEvent event = new BillDueReminderEvent();
+        event.setBillId("B1");
+        event.setUtilityType("ELECTRICITY");
+        event.setAmount(500);
+        event.setDueDate("2025-02-20");
+
+        emailService.sendPaymentReminderEmail("test@example.com", event);
+
+        ArgumentCaptor<SimpleMailMessage> captor =
+                ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailDispatcher).submit(captor.capture(), eq(MailPriority.BULK));
+
+        HtmlMailMessage message = (HtmlMailMessage) captor.getValue();
+
+        assertEquals("Payment Due Reminder – Utility Bill", message.getSubject());
+        assertTrue(message.getText().contains("Amount       : ₹500.00"));
+        assertTrue(message.getHtml().contains("&#8377;500.00"));
     }
 }
@@ -0,0 +1,130 @@
+package com.utility.notification.template;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailTemplatesTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    private final MailTemplates templates =
+            new MailTemplates(environment, new DefaultResourceLoader());
+
+    @Test
+    void render_matchesFormattedOutput() {
+
+        RenderedMail mail = templates.render(
+                MailTemplates.PAYMENT_OTP,
+                Map.of("otp", "123456", "validMinutes", 5)
+        );
+
+        assertEquals("OTP for Online Payment Verification", mail.subject());
+        assertTrue(mail.text().startsWith("Hello,\n"));
+        assertTrue(mail.text().contains("OTP: 123456\n"));
+        assertTrue(mail.text().contains("valid for 5 minutes."));
+        assertNotNull(mail.html());
+    }
+
+    @Test
+    void render_moneyMatchesPercentTwoF() {
+
+        CompiledTemplate template = CompiledTemplate.compile("t", "₹${amount:money}");
+
+        for (double amount : new double[] { 0, 0.5, 1.005, 12.345, 999.999, 1234567.891 }) {
+            StringBuilder out = new StringBuilder();
+            template.renderTo(out, Map.of("amount", amount), false);
+            assertEquals("₹%.2f".formatted(amount), out.toString(), "amount " + amount);
+        }
+    }
+
+    @Test
+    void render_htmlValuesAreEscaped() {
+
+        CompiledTemplate template = CompiledTemplate.compile("t", "<b>${name}</b>");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of("name", "<script>&\""), true);
+
+        assertEquals("<b>&lt;script&gt;&amp;&quot;</b>", out.toString());
+    }
+
+    @Test
+    void render_missingValueFails() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> templates.render(MailTemplates.PAYMENT_OTP, Map.of("otp", "1")));
+    }
+
+    @Test
+    void compile_rejectsUnclosedPlaceholder() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("t", "Hello ${name"));
+    }
+
+    @Test
+    void refresh_picksUpConfigOverride() {
+
+        environment.setProperty(
+                MailTemplates.PREFIX + MailTemplates.PAYMENT_OTP + ".subject",
+                "Your OTP ${otp}"
+        );
+
+        templates.onEnvironmentChange(new EnvironmentChangeEvent(
+                Set.of(MailTemplates.PREFIX + MailTemplates.PAYMENT_OTP + ".subject")));
+
+        RenderedMail mail = templates.render(
+                MailTemplates.PAYMENT_OTP,
+                Map.of("otp", "42", "validMinutes", 5)
+        );
+
+        assertEquals("Your OTP 42", mail.subject());
+    }
+
+    @Test
+    void refresh_brokenOverrideKeepsPreviousTemplates() {
+
+        environment.setProperty(
+                MailTemplates.PREFIX + MailTemplates.PAYMENT_OTP + ".text",
+                "OTP ${otp"
+        );
+
+        templates.reload();
+
+        RenderedMail mail = templates.render(
+                MailTemplates.PAYMENT_OTP,
+                Map.of("otp", "42", "validMinutes", 5)
+        );
+
+        assertTrue(mail.text().contains("OTP: 42"));
+    }
+
+    @Test
+    void compile_subjectOnlyFileHasEmptyBody() {
+
+        MailTemplates subjectOnly = new MailTemplates(environment, new DefaultResourceLoader() {
+            @Override
+            public Resource getResource(String location) {
+                if (location.endsWith(MailTemplates.PAYMENT_OTP + ".txt")) {
+                    return new ByteArrayResource("Subject: OTP ${otp}".getBytes(StandardCharsets.UTF_8));
+                }
+                return super.getResource(location);
+            }
+        });
+
+        RenderedMail mail = subjectOnly.render(MailTemplates.PAYMENT_OTP, Map.of("otp", "42", "validMinutes", 5));
+
+        assertEquals("OTP 42", mail.subject());
+        assertEquals("", mail.text());
+    }
+}
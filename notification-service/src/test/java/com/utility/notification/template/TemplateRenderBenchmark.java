@@ -0,0 +1,95 @@
+package com.utility.notification.template;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/*
+ * Compiled templates vs the String.formatted text blocks EmailService used to build.
+ * Run from the IDE or with:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=com.utility.notification.template.TemplateRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final String FORMATTED = """
+            Hello,
+
+            Your utility bill has been generated successfully.
+
+            Bill ID      : %s
+            Utility Type : %s
+            Tariff Plan  : %s
+            Amount       : ₹%.2f
+            Due Date     : %s
+
+            Please pay before the due date to avoid penalties.
+
+            Regards,
+            Utility Billing System
+            """;
+
+    private MailTemplates templates;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setup() {
+        templates = new MailTemplates(new StandardEnvironment(), new DefaultResourceLoader());
+        values = Map.of(
+                "billId", "65f1c2a9e4b0a1b2c3d4e5f6",
+                "utilityType", "ELECTRICITY",
+                "tariffPlan", "DOMESTIC",
+                "amount", 1234.5,
+                "dueDate", "2025-02-15"
+        );
+    }
+
+    @Benchmark
+    public String formatted() {
+        return FORMATTED.formatted(
+                values.get("billId"),
+                values.get("utilityType"),
+                values.get("tariffPlan"),
+                values.get("amount"),
+                values.get("dueDate")
+        );
+    }
+
+    @Benchmark
+    public String compiledText() {
+        return templates.render(MailTemplates.BILL_GENERATED, values).text();
+    }
+
+    @Benchmark
+    public RenderedMail compiledTextAndHtml() {
+        return templates.render(MailTemplates.BILL_GENERATED, values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateRenderBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,14 @@
+package com.utility.common.dto.event;
+
+import lombok.Data;
+
+@Data
+public class PaymentConfirmedEvent {
+
+    private String paymentId;
+    private String billId;
+    private String consumerId;
+    private double amount;
+    private String confirmedAt;
+
+}
@@ -0,0 +1,29 @@
+package com.utility.payment.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class InvoicePdfConfig {
+
+    // bounded: a burst of confirmations renders on the caller rather than queueing without limit
+    @Bean(name = "invoicePdfExecutor")
+    public ThreadPoolTaskExecutor invoicePdfExecutor(
+            @Value("${payment.invoice.pdf-parallelism:4}") int parallelism,
+            @Value("${payment.invoice.pdf-queue-capacity:500}") int queueCapacity
+    ) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("invoice-pdf-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -12,6 +12,7 @@ public class RabbitMQConfig {
     public static final String EXCHANGE = "notification.exchange";
     public static final String PAYMENT_OTP_QUEUE = "payment.otp.queue";
     public static final String PAYMENT_OTP_KEY = "payment.otp.generated";
+    public static final String PAYMENT_CONFIRMED_KEY = "payment.confirmed";
 
     @Bean
     public DirectExchange notificationExchange() {
@@ -3,6 +3,7 @@ package com.utility.payment.config;
 import com.utility.payment.security.JwtAuthenticationFilter;
 import com.utility.payment.security.JwtUtil;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -42,6 +43,9 @@ public class SecurityConfig {
 
             .authorizeHttpRequests(auth -> auth
 
+                // streamed bodies finish on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 /* ================= CONSUMER PAYMENTS ================= */
                 .requestMatchers(
                         HttpMethod.POST,
@@ -55,6 +59,15 @@ public class SecurityConfig {
                         "/payments/offline"
                 ).hasRole(ROLE_ACCOUNTS)
 
+                /* ================= INVOICE EXPORT ================= */
+                .requestMatchers(
+                        HttpMethod.GET,
+                        "/payments/invoices/export"
+                ).hasAnyRole(
+                        ROLE_ADMIN,
+                        ROLE_ACCOUNTS
+                )
+
                 /* ================= PAYMENT VIEW ================= */
                 .requestMatchers(
                         HttpMethod.GET,
@@ -94,6 +107,11 @@ public class SecurityConfig {
                         ROLE_ACCOUNTS
                 )
 
+                .requestMatchers(
+                        HttpMethod.POST,
+                        "/dashboard/payments/rollups/rebuild"
+                ).hasRole(ROLE_ADMIN)
+
                 /* ================= FALLBACK ================= */
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,22 @@
+package com.utility.payment.config;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+// non-blocking counterpart of the Feign clients, resolved through the registry the same way
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Bean
+    public WebClient billingWebClient(@LoadBalanced WebClient.Builder builder) {
+        return builder.baseUrl("http://billing-service").build();
+    }
+}
@@ -2,10 +2,12 @@ package com.utility.payment.controller;
 
 import com.utility.payment.dto.dashboard.*;
 import com.utility.payment.service.PaymentAnalyticsService;
+import com.utility.payment.service.PaymentRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/dashboard/payments")
@@ -13,6 +15,7 @@ import java.util.List;
 public class PaymentAnalyticsController {
 
     private final PaymentAnalyticsService analyticsService;
+    private final PaymentRollupService rollupService;
 
     @GetMapping("/revenue-summary")
     public RevenueSummaryDto revenueSummary(
@@ -72,4 +75,10 @@ public class PaymentAnalyticsController {
 
         return analyticsService.getYearlyRevenue(year);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Integer> rebuildRollups() {
+
+        return Map.of("buckets", rollupService.rebuild());
+    }
+}
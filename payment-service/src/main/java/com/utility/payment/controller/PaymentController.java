@@ -2,17 +2,23 @@ package com.utility.payment.controller;
 
 import com.utility.payment.dto.*;
 import com.utility.payment.model.Invoice;
+import com.utility.payment.service.InvoiceExportService;
 import com.utility.payment.service.InvoicePdfService;
 import com.utility.payment.service.InvoiceService;
 import com.utility.payment.service.PaymentService;
+import com.utility.payment.service.PaymentStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -21,9 +27,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PaymentController {
 
+	// retries carrying the same key get the original result instead of paying twice
+	static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	private final PaymentService paymentService;
 	private final InvoiceService invoiceService;
 	private final InvoicePdfService invoicePdfService;
+	private final InvoiceExportService invoiceExportService;
+	private final PaymentStreamService paymentStreamService;
 
 	@PostMapping("/online/initiate")
 	@ResponseStatus(HttpStatus.CREATED)
@@ -33,18 +44,20 @@ public class PaymentController {
 	}
 
 	@PostMapping("/online/confirm")
-	public ResponseEntity<Map<String, String>> confirmOnline(@Valid @RequestBody ConfirmOtpRequest request) {
+	public ResponseEntity<Map<String, String>> confirmOnline(@Valid @RequestBody ConfirmOtpRequest request,
+			@RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
-		paymentService.confirmOtp(request);
+		paymentService.confirmOtp(request, idempotencyKey);
 
 		return ResponseEntity.ok(Map.of("status", "SUCCESS", "message", "Payment confirmed successfully"));
 	}
 
 	@PostMapping("/offline")
 	@ResponseStatus(HttpStatus.CREATED)
-	public Map<String, String> offlinePayment(@Valid @RequestBody OfflinePaymentRequest request) {
+	public Map<String, String> offlinePayment(@Valid @RequestBody OfflinePaymentRequest request,
+			@RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
-		paymentService.offlinePayment(request);
+		paymentService.offlinePayment(request, idempotencyKey);
 
 		return Map.of("status", "SUCCESS", "message", "Offline payment recorded successfully");
 	}
@@ -56,9 +69,19 @@ public class PaymentController {
 	}
 
 	@GetMapping("/consumer/{consumerId}")
-	public List<PaymentResponse> getPaymentsByConsumer(@PathVariable("consumerId") String consumerId) {
+	public List<PaymentResponse> getPaymentsByConsumer(@PathVariable("consumerId") String consumerId,
+			@RequestParam(name = "page", required = false) Integer page,
+			@RequestParam(name = "size", required = false) Integer size) {
 
-		return paymentService.getPaymentsByConsumer(consumerId);
+		return paymentService.getPaymentsByConsumer(consumerId, page, size);
+	}
+
+	// newest first, written as each batch is joined; an unknown consumer is an empty stream
+	@GetMapping(value = "/consumer/{consumerId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<PaymentResponse> streamPaymentsByConsumer(@PathVariable("consumerId") String consumerId,
+			@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+
+		return paymentStreamService.streamByConsumer(consumerId, authorization);
 	}
 
 	@GetMapping("/outstanding/{billId}")
@@ -73,18 +96,36 @@ public class PaymentController {
 		return invoiceService.getInvoiceByPaymentId(paymentId);
 	}
 
+	// file-backed body: MVC answers If-None-Match with 304 and Range with 206
 	@GetMapping("/invoice/{paymentId}/download")
-	public ResponseEntity<byte[]> downloadInvoice(@PathVariable("paymentId") String paymentId) {
+	public ResponseEntity<Resource> downloadInvoice(@PathVariable("paymentId") String paymentId) {
 
-		byte[] pdf = invoicePdfService.generateInvoicePdf(paymentId);
+		InvoicePdf pdf = invoicePdfService.getInvoicePdf(paymentId);
 
 		return ResponseEntity.ok().contentType(MediaType.APPLICATION_PDF)
+				.eTag(pdf.hash())
 				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice-" + paymentId + ".pdf")
-				.body(pdf);
+				.body(pdf.content());
+	}
+
+	// written straight to the response; memory does not grow with the month's size
+	@GetMapping("/invoices/export")
+	public void exportInvoices(@RequestParam(name = "month") int month, @RequestParam(name = "year") int year,
+			HttpServletResponse response) throws IOException {
+
+		invoiceExportService.count(month, year);
+
+		response.setContentType("application/zip");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=invoices-%d-%02d.zip".formatted(year, month));
+
+		invoiceExportService.export(month, year, response.getOutputStream());
 	}
 
     @GetMapping
-    public List<PaymentResponse> getAllPayments() {
-        return paymentService.getAllPayments();
+    public List<PaymentResponse> getAllPayments(
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "size", required = false) Integer size) {
+        return paymentService.getAllPayments(page, size);
     }
 }
\ No newline at end of file
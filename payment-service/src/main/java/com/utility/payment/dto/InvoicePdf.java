@@ -0,0 +1,9 @@
+package com.utility.payment.dto;
+
+import org.springframework.core.io.Resource;
+
+public record InvoicePdf(
+        String hash,
+        Resource content
+) {
+}
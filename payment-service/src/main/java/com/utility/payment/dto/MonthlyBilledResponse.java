@@ -0,0 +1,6 @@
+package com.utility.payment.dto;
+
+public record MonthlyBilledResponse(
+        int month,
+        double totalBilled
+) {}
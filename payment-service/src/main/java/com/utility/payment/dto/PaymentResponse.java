@@ -34,8 +34,8 @@ public record PaymentResponse(
                 payment.getBillId(),
                 payment.getConsumerId(),
 
-                bill.getBillingMonth(),
-                bill.getBillingYear(),
+                bill != null ? bill.getBillingMonth() : payment.getBillingMonth(),
+                bill != null ? bill.getBillingYear() : payment.getBillingYear(),
 
                 payment.getAmount(),
                 payment.getMode(),
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 
 
 import com.utility.payment.dto.BillResponse;
+import com.utility.payment.dto.MonthlyBilledResponse;
 import com.utility.payment.model.BillStatus;
 
 @FeignClient(
@@ -21,6 +22,9 @@ public interface BillingClient {
     @GetMapping("/bills/{billId}")
     BillResponse getBill(@PathVariable("billId") String billId);
 
+    @PostMapping("/bills/batch")
+    List<BillResponse> getBillsByIds(@RequestBody List<String> billIds);
+
     // ✅ ADD THIS (matches controller exactly)
     @GetMapping("/bills")
     List<BillResponse> getAllBills(
@@ -36,4 +40,8 @@ public interface BillingClient {
     		@RequestParam("month") int month,
             @RequestParam("year") int year
     );
+    @GetMapping("/dashboard/billing/total-billed-yearly")
+    List<MonthlyBilledResponse> getTotalBilledByMonth(
+            @RequestParam("year") int year
+    );
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.utility.payment.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Document(collection = "bill_ledgers")
+public class BillLedger {
+
+    // one document per bill, keyed by billId
+    @Id
+    private String id;
+
+    // sum of successful payments; only ever moved with $inc
+    private double paid;
+    private long payments;
+
+    // payments holding a claim, and payments recovery gave up on before they claimed;
+    // a payment id can only ever end up in one of the two
+    private List<String> claims;
+    private List<String> voided;
+
+    private LocalDateTime updatedAt;
+}
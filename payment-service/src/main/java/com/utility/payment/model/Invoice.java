@@ -3,19 +3,26 @@ package com.utility.payment.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
 
 @Data
 @Document(collection = "invoices")
+@CompoundIndex(name = "period_idx", def = "{'billingYear': 1, 'billingMonth': 1}")
 public class Invoice {
 
     @Id
     private String id;
 
+    @Indexed
     private String billId;
+    // one invoice per payment; a replay racing the first request loses the insert
+    @Indexed(unique = true)
     private String paymentId;
+    @Indexed
     private String consumerId;
     private int billingMonth;
     private int billingYear;
@@ -29,4 +36,7 @@ public class Invoice {
     private LocalDateTime invoiceDate;
 
     private String invoiceNumber;
+
+    // SHA-256 of the rendered PDF in InvoicePdfStore; null until rendered
+    private String pdfHash;
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.utility.payment.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -9,6 +12,13 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "payments")
+@CompoundIndexes({
+    @CompoundIndex(name = "bill_status_idx", def = "{'billId': 1, 'status': 1}"),
+    @CompoundIndex(name = "consumer_created_idx", def = "{'consumerId': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "period_status_idx", def = "{'billingYear': 1, 'billingMonth': 1, 'status': 1}"),
+    @CompoundIndex(name = "status_idx", def = "{'status': 1}"),
+    @CompoundIndex(name = "created_idx", def = "{'createdAt': -1}")
+})
 public class Payment {
 
     @Id
@@ -28,6 +38,10 @@ public class Payment {
     private String remarks;
 
     private String transactionId;
+
+    // client-supplied Idempotency-Key of the request that completed the payment
+    @Indexed(unique = true, sparse = true)
+    private String idempotencyKey;
     private String invoiceId;
 
     private int billingMonth;
@@ -0,0 +1,42 @@
+package com.utility.payment.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "payment_rollups")
+@CompoundIndexes({
+    @CompoundIndex(name = "year_month_idx", def = "{'year': 1, 'month': 1}"),
+    @CompoundIndex(name = "status_year_idx", def = "{'status': 1, 'year': 1}")
+})
+public class PaymentRollup {
+
+    // year:month:mode:status, so each bucket is addressed by key
+    @Id
+    private String id;
+
+    private int year;
+    private int month;
+
+    private PaymentMode mode;
+    private PaymentStatus status;
+
+    private long count;
+    private double amount;
+
+    private LocalDateTime updatedAt;
+
+    public static String key(
+            int year,
+            int month,
+            PaymentMode mode,
+            PaymentStatus status
+    ) {
+        return year + ":" + month + ":" + mode + ":" + status;
+    }
+}
@@ -0,0 +1,52 @@
+package com.utility.payment.outbox;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+ * Events are written to the outbox collection next to the entity they describe
+ * and published later by OutboxRelay, so the request never waits on the broker
+ * and a broker outage does not lose them.
+ */
+@Component
+public class Outbox {
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactions;
+
+    public Outbox(
+            MongoTemplate mongoTemplate,
+            ObjectProvider<MongoTransactionManager> transactionManager
+    ) {
+        this.mongoTemplate = mongoTemplate;
+
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactions = manager == null ? null : new TransactionTemplate(manager);
+    }
+
+    // entity write + add() in one transaction when Mongo runs as a replica set
+    // (payment.outbox.transactions=true); otherwise the two writes run in order
+    public <T> T atomically(Supplier<T> work) {
+        return transactions == null
+                ? work.get()
+                : transactions.execute(status -> work.get());
+    }
+
+    public void add(String exchange, String routingKey, Object payload) {
+
+        OutboxEvent event = new OutboxEvent();
+        event.setExchange(exchange);
+        event.setRoutingKey(routingKey);
+        event.setPayload(payload);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(Instant.now());
+
+        mongoTemplate.insert(event);
+    }
+}
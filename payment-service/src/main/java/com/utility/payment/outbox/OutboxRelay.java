@@ -0,0 +1,194 @@
+package com.utility.payment.outbox;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Drains the outbox in createdAt order. Each batch is leased to this instance,
+ * published on one channel and confirmed by the broker before it is marked
+ * sent, so delivery is at-least-once across restarts and replicas.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final int batchSize;
+    private final long leaseMs;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OutboxRelay(
+            MongoTemplate mongoTemplate,
+            RabbitTemplate rabbitTemplate,
+            @Value("${payment.outbox.batch-size:200}") int batchSize,
+            @Value("${payment.outbox.lease-ms:30000}") long leaseMs,
+            @Value("${payment.outbox.confirm-timeout-ms:10000}") long confirmTimeoutMs,
+            @Value("${payment.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${payment.outbox.backoff-ms:1000}") long backoffMs
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-ms:500}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // keep going while there is a backlog
+        }
+    }
+
+    // returns how many events were claimed
+    public int relayBatch() {
+
+        List<OutboxEvent> batch = claim();
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            rabbitTemplate.invoke(ops -> {
+                for (OutboxEvent event : batch) {
+                    ops.convertAndSend(
+                            event.getExchange(),
+                            event.getRoutingKey(),
+                            event.getPayload()
+                    );
+                }
+                ops.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+
+            markSent(batch);
+
+        } catch (RuntimeException ex) {
+            log.warn("Outbox batch of {} events not confirmed: {}", batch.size(), ex.getMessage());
+            batch.forEach(event -> retryLater(event, ex.getMessage()));
+        }
+
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim() {
+
+        Instant now = Instant.now();
+
+        Query candidates =
+                new Query(claimable(now))
+                        .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                        .limit(batchSize);
+        candidates.fields().include("_id");
+
+        List<String> ids =
+                mongoTemplate.find(candidates, OutboxEvent.class)
+                        .stream()
+                        .map(OutboxEvent::getId)
+                        .toList();
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // another relay may take some of these between the find and the update
+        mongoTemplate.updateMulti(
+                new Query(claimable(now).and("_id").in(ids)),
+                new Update()
+                        .set("lockedBy", instanceId)
+                        .set("lockedUntil", now.plusMillis(leaseMs)),
+                OutboxEvent.class
+        );
+
+        return mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids)
+                        .and("lockedBy").is(instanceId)
+                        .and("lockedUntil").gt(now))
+                        .with(Sort.by(Sort.Direction.ASC, "createdAt")),
+                OutboxEvent.class
+        );
+    }
+
+    private static Criteria claimable(Instant now) {
+        return Criteria.where("status").is(OutboxStatus.PENDING)
+                .orOperator(
+                        Criteria.where("lockedUntil").is(null),
+                        Criteria.where("lockedUntil").lt(now)
+                );
+    }
+
+    private void markSent(List<OutboxEvent> events) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(events.stream().map(OutboxEvent::getId).toList())),
+                new Update()
+                        .set("status", OutboxStatus.SENT)
+                        .set("sentAt", Instant.now())
+                        .unset("lockedBy")
+                        .unset("lockedUntil"),
+                OutboxEvent.class
+        );
+    }
+
+    // keeps the lease until the backoff has passed so the event is not retried at once
+    private void retryLater(OutboxEvent event, String error) {
+
+        int attempts = event.getAttempts() + 1;
+
+        if (attempts >= maxAttempts) {
+            fail(event, error);
+            return;
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(event.getId())),
+                new Update()
+                        .set("attempts", attempts)
+                        .set("lastError", error)
+                        .set("lockedUntil", Instant.now().plusMillis(backoffMs << Math.min(attempts - 1, 10))),
+                OutboxEvent.class
+        );
+    }
+
+    private void fail(OutboxEvent event, String error) {
+
+        log.error("Outbox event {} to {} failed: {}", event.getId(), event.getRoutingKey(), error);
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(event.getId())),
+                new Update()
+                        .set("status", OutboxStatus.FAILED)
+                        .inc("attempts", 1)
+                        .set("lastError", error)
+                        .unset("lockedBy")
+                        .unset("lockedUntil"),
+                OutboxEvent.class
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.utility.payment.outbox;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    // gave up after max attempts, or the event could not be completed; replayable
+    FAILED
+}
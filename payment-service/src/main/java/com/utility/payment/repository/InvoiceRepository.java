@@ -1,7 +1,9 @@
 package com.utility.payment.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -13,5 +15,10 @@ extends MongoRepository<Invoice, String> {
 List<Invoice> findByConsumerId(String consumerId);
 
 Optional<Invoice> findByPaymentId(String paymentId);
+List<Invoice> findByPaymentIdIn(Collection<String> paymentIds);
 Optional<Invoice> findByBillId(String billId);
+
+// cursor-backed; close the stream when done
+Stream<Invoice> findByBillingYearAndBillingMonth(int billingYear, int billingMonth);
+long countByBillingYearAndBillingMonth(int billingYear, int billingMonth);
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.utility.payment.repository;
 
 import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
 import com.utility.payment.model.PaymentStatus;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +19,7 @@ boolean existsByBillIdAndStatus(
     PaymentStatus status
 );
 List<Payment> findByBillId(String billId);
-List<Payment> findByConsumerIdOrderByCreatedAtDesc(String consumerId);
+List<Payment> findByConsumerIdOrderByCreatedAtDesc(String consumerId, Pageable pageable);
 List<Payment> findByStatus(PaymentStatus status);
 
 List<Payment> findByBillingMonthAndBillingYear(
@@ -31,9 +34,18 @@ List<Payment> findByBillingMonthAndBillingYearAndStatus(
         int billingYear,
         PaymentStatus status
 );
-Optional<Payment> findByBillIdAndStatus(
+// offline payments also sit in INITIATED while they settle; only ONLINE ones hold an OTP
+Optional<Payment> findFirstByBillIdAndModeAndStatusOrderByCreatedAtDesc(
 	    String billId,
+	    PaymentMode mode,
 	    PaymentStatus status
 	);
-List<Payment> findAllByOrderByCreatedAtDesc();
+List<Payment> findAllByOrderByCreatedAtDesc(Pageable pageable);
+Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+List<Payment> findByStatusAndModeAndCreatedAtBefore(
+        PaymentStatus status,
+        PaymentMode mode,
+        LocalDateTime createdAt,
+        Pageable pageable
+);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.utility.payment.repository;
+
+import com.utility.payment.model.PaymentRollup;
+import com.utility.payment.model.PaymentStatus;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface PaymentRollupRepository
+extends MongoRepository<PaymentRollup, String> {
+
+List<PaymentRollup> findByYearAndMonth(int year, int month);
+
+List<PaymentRollup> findByYearAndStatus(int year, PaymentStatus status);
+
+List<PaymentRollup> findByStatus(PaymentStatus status);
+}
@@ -0,0 +1,15 @@
+package com.utility.payment.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.utility.payment.model.Invoice;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveInvoiceRepository
+extends ReactiveMongoRepository<Invoice, String> {
+
+Flux<Invoice> findByPaymentIdIn(Collection<String> paymentIds);
+}
@@ -0,0 +1,14 @@
+package com.utility.payment.repository;
+
+import com.utility.payment.model.Payment;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+
+// read side of the streaming endpoints; writes stay on PaymentRepository
+public interface ReactivePaymentRepository
+extends ReactiveMongoRepository<Payment, String> {
+
+Flux<Payment> findByConsumerIdOrderByCreatedAtDesc(String consumerId);
+}
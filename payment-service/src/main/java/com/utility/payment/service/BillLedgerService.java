@@ -0,0 +1,127 @@
+package com.utility.payment.service;
+
+import java.time.LocalDateTime;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.utility.payment.model.BillLedger;
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Running total of what has been paid against each bill. Payments claim their
+ * amount with one conditional $inc, so two payments can never both take the
+ * same outstanding balance.
+ */
+@Service
+@RequiredArgsConstructor
+public class BillLedgerService {
+
+    // absorbs double rounding when a payment takes exactly the outstanding amount
+    private static final double EPSILON = 0.005;
+
+    private final MongoTemplate mongoTemplate;
+
+    public double paid(String billId) {
+        return ledger(billId).getPaid();
+    }
+
+    // false when the bill no longer has `amount` outstanding, or the payment was voided
+    public boolean claim(String billId, String paymentId, double amount, double total) {
+
+        ledger(billId);
+
+        BillLedger claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(billId)
+                        .and("paid").lte(total - amount + EPSILON)
+                        .and("claims").ne(paymentId)
+                        .and("voided").ne(paymentId)),
+                new Update()
+                        .inc("paid", amount)
+                        .inc("payments", 1)
+                        .push("claims", paymentId)
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                BillLedger.class
+        );
+
+        return claimed != null;
+    }
+
+    // undoes a claim whose payment could not be completed; a second release is a no-op
+    public void release(String billId, String paymentId, double amount) {
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(billId).and("claims").is(paymentId)),
+                new Update()
+                        .inc("paid", -amount)
+                        .inc("payments", -1)
+                        .pull("claims", paymentId)
+                        .set("updatedAt", LocalDateTime.now()),
+                BillLedger.class
+        );
+    }
+
+    // true when the payment never claimed and now never will; false when it holds a claim
+    public boolean voidUnclaimed(String billId, String paymentId) {
+
+        ledger(billId);
+
+        BillLedger voided = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(billId).and("claims").ne(paymentId)),
+                new Update()
+                        .addToSet("voided", paymentId)
+                        .set("updatedAt", LocalDateTime.now()),
+                BillLedger.class
+        );
+
+        return voided != null;
+    }
+
+    // bills paid before the ledger existed are seeded from their payments on first use
+    private BillLedger ledger(String billId) {
+
+        BillLedger ledger = mongoTemplate.findById(billId, BillLedger.class);
+
+        if (ledger != null) {
+            return ledger;
+        }
+
+        Document totals =
+                mongoTemplate
+                        .aggregate(
+                                Aggregation.newAggregation(
+                                        Payment.class,
+                                        Aggregation.match(Criteria.where("billId").is(billId)
+                                                .and("status").is(PaymentStatus.SUCCESS)),
+                                        Aggregation.group("billId")
+                                                .sum("amount").as("paid")
+                                                .count().as("payments")
+                                ),
+                                Document.class
+                        )
+                        .getUniqueMappedResult();
+
+        BillLedger seeded = new BillLedger();
+        seeded.setId(billId);
+        seeded.setPaid(totals == null ? 0 : ((Number) totals.get("paid")).doubleValue());
+        seeded.setPayments(totals == null ? 0 : ((Number) totals.get("payments")).longValue());
+        seeded.setUpdatedAt(LocalDateTime.now());
+
+        try {
+            return mongoTemplate.insert(seeded);
+        } catch (DuplicateKeyException ex) {
+            return mongoTemplate.findById(billId, BillLedger.class);
+        }
+    }
+}
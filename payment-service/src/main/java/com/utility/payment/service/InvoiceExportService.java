@@ -0,0 +1,160 @@
+package com.utility.payment.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.utility.payment.exception.ApiException;
+import com.utility.payment.model.Invoice;
+import com.utility.payment.repository.InvoiceRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Streams a month of invoices as a ZIP. Invoices come off a cursor and at most
+ * `window` PDFs are being fetched or rendered at once; entries are copied from
+ * the PDF store straight into the caller's stream, in cursor order.
+ */
+@Slf4j
+@Service
+public class InvoiceExportService {
+
+    static final String MISSING_ENTRY = "missing.txt";
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoicePdfService invoicePdfService;
+    private final Executor pdfExecutor;
+    private final int window;
+
+    public InvoiceExportService(
+            InvoiceRepository invoiceRepository,
+            InvoicePdfService invoicePdfService,
+            @Qualifier("invoicePdfExecutor") Executor pdfExecutor,
+            @Value("${payment.invoice.export-window:8}") int window
+    ) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoicePdfService = invoicePdfService;
+        this.pdfExecutor = pdfExecutor;
+        this.window = window;
+    }
+
+    // checked before the response is committed so a bad request still gets a JSON error
+    public long count(int month, int year) {
+
+        if (month < 1 || month > 12) {
+            throw new ApiException("Invalid billing month", HttpStatus.BAD_REQUEST);
+        }
+
+        long count = invoiceRepository.countByBillingYearAndBillingMonth(year, month);
+
+        if (count == 0) {
+            throw new ApiException(
+                    "No invoices found for " + month + "/" + year,
+                    HttpStatus.NOT_FOUND
+            );
+        }
+
+        return count;
+    }
+
+    // returns the number of PDFs written
+    public int export(int month, int year, OutputStream out) throws IOException {
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // the PDFs are already compressed internally
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Deque<Pending> pending = new ArrayDeque<>(window);
+        List<String> missing = new ArrayList<>();
+        int written = 0;
+
+        try (Stream<Invoice> invoices =
+                     invoiceRepository.findByBillingYearAndBillingMonth(year, month)) {
+
+            Iterator<Invoice> iterator = invoices.iterator();
+
+            while (iterator.hasNext()) {
+
+                Invoice invoice = iterator.next();
+
+                pending.addLast(new Pending(
+                        invoice,
+                        CompletableFuture.supplyAsync(
+                                () -> invoicePdfService.pdfPath(invoice),
+                                pdfExecutor
+                        )
+                ));
+
+                if (pending.size() >= window) {
+                    written += write(zip, pending.removeFirst(), missing);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                written += write(zip, pending.removeFirst(), missing);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            zip.putNextEntry(new ZipEntry(MISSING_ENTRY));
+            zip.write(String.join("\n", missing).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        // finish, not close: the container owns the response stream
+        zip.finish();
+        zip.flush();
+
+        return written;
+    }
+
+    private static int write(ZipOutputStream zip, Pending next, List<String> missing)
+            throws IOException {
+
+        Path path;
+
+        try {
+            path = next.pdf().join();
+        } catch (CompletionException ex) {
+            log.warn(
+                    "Skipping invoice {} in export: {}",
+                    next.invoice().getId(),
+                    ex.getCause() == null ? ex.getMessage() : ex.getCause().getMessage()
+            );
+            missing.add(next.invoice().getPaymentId());
+            return 0;
+        }
+
+        zip.putNextEntry(new ZipEntry(entryName(next.invoice())));
+        Files.copy(path, zip);
+        zip.closeEntry();
+        return 1;
+    }
+
+    // same name as the single-invoice download
+    static String entryName(Invoice invoice) {
+        return "invoice-" + invoice.getPaymentId() + ".pdf";
+    }
+
+    private record Pending(Invoice invoice, CompletableFuture<Path> pdf) {
+    }
+}
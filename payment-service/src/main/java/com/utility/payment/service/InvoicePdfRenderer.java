@@ -0,0 +1,154 @@
+package com.utility.payment.service;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.draw.LineSeparator;
+import com.utility.payment.exception.ApiException;
+import com.utility.payment.model.Invoice;
+
+// fonts and colours are built once and only read while rendering, so one
+// renderer is shared by every pdf worker
+@Component
+public class InvoicePdfRenderer {
+
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private static final Font TEXT_FONT = new Font(Font.HELVETICA, 11);
+    private static final Font BOLD_FONT = new Font(Font.HELVETICA, 11, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private static final Color HEADER_BACKGROUND = new Color(230, 230, 230);
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+
+    private static final float[] INFO_WIDTHS = {3f, 3f};
+    private static final float[] AMOUNT_WIDTHS = {4f, 2f};
+
+    public byte[] render(Invoice invoice) {
+
+        try {
+            Document document = new Document(PageSize.A4, 40, 40, 40, 40);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            PdfWriter.getInstance(document, out);
+
+            document.open();
+
+            Paragraph title = new Paragraph("UTILITY BILL INVOICE", TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            document.add(title);
+
+            document.add(new Paragraph(" "));
+            document.add(new LineSeparator());
+            document.add(new Paragraph(" "));
+
+            PdfPTable infoTable = new PdfPTable(2);
+            infoTable.setWidthPercentage(100);
+            infoTable.setWidths(INFO_WIDTHS);
+
+            addInfoRow(infoTable, "Invoice Number:", invoice.getInvoiceNumber());
+            addInfoRow(infoTable, "Invoice Date:", invoice.getInvoiceDate().format(DATE_FORMAT));
+            addInfoRow(
+                    infoTable,
+                    "Billing Period:",
+                    Month.of(invoice.getBillingMonth()).name() + " " + invoice.getBillingYear());
+            addInfoRow(infoTable, "Bill ID:", invoice.getBillId());
+            addInfoRow(infoTable, "Payment ID:", invoice.getPaymentId());
+            addInfoRow(infoTable, "Consumer ID:", invoice.getConsumerId());
+
+            document.add(infoTable);
+            document.add(new Paragraph(" "));
+
+            PdfPTable amountTable = new PdfPTable(2);
+            amountTable.setWidthPercentage(100);
+            amountTable.setWidths(AMOUNT_WIDTHS);
+
+            addHeader(amountTable, "Description");
+            addHeader(amountTable, "Amount (₹)");
+
+            addAmountRow(amountTable, "Energy Charge", invoice.getEnergyCharge());
+            addAmountRow(amountTable, "Tax", invoice.getTax());
+            addAmountRow(amountTable, "Penalty", invoice.getPenalty());
+
+            PdfPCell totalLabel =
+                    new PdfPCell(new Phrase("Total Amount", BOLD_FONT));
+            totalLabel.setPadding(8);
+
+            PdfPCell totalValue =
+                    new PdfPCell(new Phrase(
+                            String.format("₹ %.2f", invoice.getTotalAmount()),
+                            BOLD_FONT));
+            totalValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            totalValue.setPadding(8);
+
+            amountTable.addCell(totalLabel);
+            amountTable.addCell(totalValue);
+
+            document.add(amountTable);
+
+            document.add(new Paragraph(" "));
+            document.add(new LineSeparator());
+            document.add(new Paragraph(" "));
+
+            Paragraph footer = new Paragraph(
+                    "This is a system generated invoice. No signature required.",
+                    TEXT_FONT);
+            footer.setAlignment(Element.ALIGN_CENTER);
+            document.add(footer);
+
+            document.close();
+            return out.toByteArray();
+
+        } catch (Exception e) {
+            throw new ApiException(
+                    "Failed to generate invoice PDF",
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static void addInfoRow(PdfPTable table, String label, String value) {
+        table.addCell(infoCell(label, BOLD_FONT));
+        table.addCell(infoCell(value, TEXT_FONT));
+    }
+
+    private static PdfPCell infoCell(String text, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setPadding(6);
+        return cell;
+    }
+
+    private static void addHeader(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setPadding(8);
+        cell.setBackgroundColor(HEADER_BACKGROUND);
+        table.addCell(cell);
+    }
+
+    private static void addAmountRow(PdfPTable table, String label, double value) {
+        PdfPCell labelCell = new PdfPCell(new Phrase(label));
+        labelCell.setPadding(8);
+
+        PdfPCell valueCell =
+                new PdfPCell(new Phrase(String.format("₹ %.2f", value)));
+        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        valueCell.setPadding(8);
+
+        table.addCell(labelCell);
+        table.addCell(valueCell);
+    }
+}
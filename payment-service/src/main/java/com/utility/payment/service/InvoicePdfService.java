@@ -1,166 +1,132 @@
 package com.utility.payment.service;
 
-import java.awt.Color;
-import java.io.ByteArrayOutputStream;
-import java.time.Month;
-import java.time.format.DateTimeFormatter;
-
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.Element;
-import com.lowagie.text.Font;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.Phrase;
-import com.lowagie.text.Rectangle;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-import com.lowagie.text.pdf.draw.LineSeparator;
+import com.utility.payment.dto.InvoicePdf;
 import com.utility.payment.exception.ApiException;
 import com.utility.payment.model.Invoice;
 import com.utility.payment.repository.InvoiceRepository;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/*
+ * Invoices are rendered once, off the request thread, right after they are
+ * created. Downloads stream the stored file; an invoice that was never
+ * rendered (older data, or a failed background render) is rendered on first
+ * download instead.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class InvoicePdfService {
 
     private final InvoiceRepository invoiceRepository;
+    private final MongoTemplate mongoTemplate;
+    private final InvoicePdfRenderer renderer;
+    private final InvoicePdfStore store;
+    private final Executor pdfExecutor;
+
+    public InvoicePdfService(
+            InvoiceRepository invoiceRepository,
+            MongoTemplate mongoTemplate,
+            InvoicePdfRenderer renderer,
+            InvoicePdfStore store,
+            @Qualifier("invoicePdfExecutor") Executor pdfExecutor
+    ) {
+        this.invoiceRepository = invoiceRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.renderer = renderer;
+        this.store = store;
+        this.pdfExecutor = pdfExecutor;
+    }
+
+    public void renderAsync(Invoice invoice) {
+
+        pdfExecutor.execute(() -> {
+            try {
+                render(invoice);
+            } catch (RuntimeException ex) {
+                log.warn(
+                        "Invoice PDF render failed invoiceId={}, will render on download",
+                        invoice.getId(),
+                        ex
+                );
+            }
+        });
+    }
 
-    public byte[] generateInvoicePdf(String paymentId) {
+    public InvoicePdf getInvoicePdf(String paymentId) {
 
         Invoice invoice = invoiceRepository.findByPaymentId(paymentId)
                 .orElseThrow(() ->
                         new ApiException("Invoice not found", HttpStatus.NOT_FOUND));
 
-        try {
-            Document document = new Document(PageSize.A4, 40, 40, 40, 40);
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, out);
-
-            document.open();
-
-            Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
-            Font textFont = new Font(Font.HELVETICA, 11);
-            Font boldFont = new Font(Font.HELVETICA, 11, Font.BOLD);
-
-            Paragraph title = new Paragraph("UTILITY BILL INVOICE", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-
-            document.add(new Paragraph(" "));
-            document.add(new LineSeparator());
-            document.add(new Paragraph(" "));
-
-            DateTimeFormatter formatter =
-                    DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
-
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-            infoTable.setWidths(new float[]{3f, 3f});
-
-            infoTable.addCell(infoCell("Invoice Number:", boldFont));
-            infoTable.addCell(infoCell(invoice.getInvoiceNumber(), textFont));
-
-            infoTable.addCell(infoCell("Invoice Date:", boldFont));
-            infoTable.addCell(
-                    infoCell(invoice.getInvoiceDate().format(formatter), textFont));
-
-            infoTable.addCell(infoCell("Billing Period:", boldFont));
-            infoTable.addCell(
-                    infoCell(
-                            Month.of(invoice.getBillingMonth()).name()
-                                    + " " + invoice.getBillingYear(),
-                            textFont));
-
-            infoTable.addCell(infoCell("Bill ID:", boldFont));
-            infoTable.addCell(infoCell(invoice.getBillId(), textFont));
-
-            infoTable.addCell(infoCell("Payment ID:", boldFont));
-            infoTable.addCell(infoCell(invoice.getPaymentId(), textFont));
+        Path path = pdfPath(invoice);
 
-            infoTable.addCell(infoCell("Consumer ID:", boldFont));
-            infoTable.addCell(infoCell(invoice.getConsumerId(), textFont));
-
-            document.add(infoTable);
-            document.add(new Paragraph(" "));
-
-            PdfPTable amountTable = new PdfPTable(2);
-            amountTable.setWidthPercentage(100);
-            amountTable.setWidths(new float[]{4f, 2f});
-
-            addHeader(amountTable, "Description");
-            addHeader(amountTable, "Amount (₹)");
-
-            addAmountRow(amountTable, "Energy Charge", invoice.getEnergyCharge());
-            addAmountRow(amountTable, "Tax", invoice.getTax());
-            addAmountRow(amountTable, "Penalty", invoice.getPenalty());
-
-            PdfPCell totalLabel =
-                    new PdfPCell(new Phrase("Total Amount", boldFont));
-            totalLabel.setPadding(8);
+        return new InvoicePdf(invoice.getPdfHash(), new FileSystemResource(path));
+    }
 
-            PdfPCell totalValue =
-                    new PdfPCell(new Phrase(
-                            String.format("₹ %.2f", invoice.getTotalAmount()),
-                            boldFont));
-            totalValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            totalValue.setPadding(8);
+    // stored file for the invoice, rendering it first if needed
+    public Path pdfPath(Invoice invoice) {
 
-            amountTable.addCell(totalLabel);
-            amountTable.addCell(totalValue);
+        Optional<Path> stored = store.get(invoice.getPdfHash());
 
-            document.add(amountTable);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
 
-            document.add(new Paragraph(" "));
-            document.add(new LineSeparator());
-            document.add(new Paragraph(" "));
+        return store.get(render(invoice))
+                .orElseThrow(() -> new ApiException(
+                        "Failed to generate invoice PDF",
+                        HttpStatus.INTERNAL_SERVER_ERROR));
+    }
 
-            Paragraph footer = new Paragraph(
-                    "This is a system generated invoice. No signature required.",
-                    textFont);
-            footer.setAlignment(Element.ALIGN_CENTER);
-            document.add(footer);
+    // returns the hash the invoice ends up pointing at
+    private String render(Invoice invoice) {
 
-            document.close();
-            return out.toByteArray();
+        String hash = store.put(renderer.render(invoice));
 
-        } catch (Exception e) {
-            throw new ApiException(
-                    "Failed to generate invoice PDF",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+        if (hash.equals(invoice.getPdfHash())) {
+            return hash;
         }
-    }
-
-    private PdfPCell infoCell(String text, Font font) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
-        cell.setBorder(Rectangle.NO_BORDER);
-        cell.setPadding(6);
-        return cell;
-    }
 
-    private void addHeader(PdfPTable table, String text) {
-        Font font = new Font(Font.HELVETICA, 12, Font.BOLD);
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
-        cell.setPadding(8);
-        cell.setBackgroundColor(new Color(230, 230, 230));
-        table.addCell(cell);
-    }
+        // first writer wins; a stale hash whose file is gone may be replaced
+        Criteria unset = new Criteria().orOperator(
+                Criteria.where("pdfHash").is(null),
+                Criteria.where("pdfHash").is(invoice.getPdfHash())
+        );
+
+        long updated = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(invoice.getId()).andOperator(unset)),
+                new Update().set("pdfHash", hash),
+                Invoice.class
+        ).getModifiedCount();
+
+        if (updated > 0) {
+            invoice.setPdfHash(hash);
+            return hash;
+        }
 
-    private void addAmountRow(PdfPTable table, String label, double value) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label));
-        labelCell.setPadding(8);
+        // rendered concurrently elsewhere; keep theirs and drop our copy
+        String winner = invoiceRepository.findById(invoice.getId())
+                .map(Invoice::getPdfHash)
+                .orElse(hash);
 
-        PdfPCell valueCell =
-                new PdfPCell(new Phrase(String.format("₹ %.2f", value)));
-        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        valueCell.setPadding(8);
+        if (!winner.equals(hash)) {
+            store.delete(hash);
+        }
 
-        table.addCell(labelCell);
-        table.addCell(valueCell);
+        invoice.setPdfHash(winner);
+        return winner;
     }
-}
\ No newline at end of file
+}
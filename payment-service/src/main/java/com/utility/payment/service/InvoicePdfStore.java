@@ -0,0 +1,115 @@
+package com.utility.payment.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Rendered invoices on local disk, keyed by the SHA-256 of their bytes
+ * (<dir>/<first two hex chars>/<hash>.pdf). A stored file never changes, so
+ * the hash doubles as the download ETag.
+ *
+ * payment.invoice.pdf-dir must point at storage every instance shares; with a
+ * per-host directory a download routed to another instance finds nothing.
+ * Left unset it falls back to <java.io.tmpdir>/utility-invoices, which only
+ * works for a single instance, and says so at startup.
+ */
+@Slf4j
+@Component
+public class InvoicePdfStore {
+
+    private final Path root;
+
+    public InvoicePdfStore(
+            @Value("${payment.invoice.pdf-dir:}") String root
+    ) {
+        if (root.isBlank()) {
+            this.root = Paths.get(System.getProperty("java.io.tmpdir"), "utility-invoices");
+            log.warn("payment.invoice.pdf-dir is not set; storing invoice PDFs in {}, which other instances "
+                    + "cannot read. Point it at a shared directory before running more than one instance.",
+                    this.root);
+        } else {
+            this.root = Paths.get(root);
+        }
+    }
+
+    public String put(byte[] pdf) {
+
+        String hash = hash(pdf);
+        Path target = pathOf(hash);
+
+        if (Files.isRegularFile(target)) {
+            return hash;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            // readers only ever see a complete file
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, pdf);
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            return hash;
+
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store invoice PDF " + hash, ex);
+        }
+    }
+
+    public Optional<Path> get(String hash) {
+
+        if (hash == null) {
+            return Optional.empty();
+        }
+
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public void delete(String hash) {
+        try {
+            Files.deleteIfExists(pathOf(hash));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete invoice PDF " + hash, ex);
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + ".pdf");
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String hash(byte[] pdf) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(pdf));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
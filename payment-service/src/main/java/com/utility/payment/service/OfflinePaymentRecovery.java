@@ -0,0 +1,66 @@
+package com.utility.payment.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.repository.PaymentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * An offline payment is INITIATED only for the length of its own request. One
+ * still INITIATED after stale-after-ms was left behind by a crash between its
+ * insert and its settle; PaymentService.recoverStaleOffline finishes or fails
+ * it. stale-after-ms must stay well above the longest request (billing calls
+ * included), or a slow request could be recovered while it is still running.
+ */
+@Slf4j
+@Component
+public class OfflinePaymentRecovery {
+
+    private final PaymentRepository repository;
+    private final PaymentService paymentService;
+
+    private final long staleAfterMs;
+    private final int batchSize;
+
+    public OfflinePaymentRecovery(
+            PaymentRepository repository,
+            PaymentService paymentService,
+            @Value("${payment.offline.stale-after-ms:600000}") long staleAfterMs,
+            @Value("${payment.offline.recovery-batch-size:100}") int batchSize
+    ) {
+        this.repository = repository;
+        this.paymentService = paymentService;
+        this.staleAfterMs = staleAfterMs;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.offline.recovery-poll-ms:60000}")
+    public void recover() {
+
+        List<Payment> stale = repository.findByStatusAndModeAndCreatedAtBefore(
+                PaymentStatus.INITIATED,
+                PaymentMode.OFFLINE,
+                LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000),
+                PageRequest.of(0, batchSize)
+        );
+
+        for (Payment payment : stale) {
+            try {
+                paymentService.recoverStaleOffline(payment);
+            } catch (RuntimeException ex) {
+                // e.g. billing unreachable; the next run tries again
+                log.warn("Could not recover offline payment {}: {}", payment.getId(), ex.getMessage());
+            }
+        }
+    }
+}
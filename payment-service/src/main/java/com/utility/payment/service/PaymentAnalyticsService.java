@@ -3,10 +3,16 @@ package com.utility.payment.service;
 import java.time.Month;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
+import com.utility.payment.dto.MonthlyBilledResponse;
 import com.utility.payment.dto.dashboard.ConsumerPaymentSummaryDto;
 import com.utility.payment.dto.dashboard.FailedPaymentSummaryDto;
 import com.utility.payment.dto.dashboard.MonthlyOutstandingDto;
@@ -16,8 +22,9 @@ import com.utility.payment.dto.dashboard.PaymentsSummaryDto;
 import com.utility.payment.dto.dashboard.RevenueSummaryDto;
 import com.utility.payment.feign.BillingClient;
 import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentRollup;
 import com.utility.payment.model.PaymentStatus;
-import com.utility.payment.repository.PaymentRepository;
+import com.utility.payment.repository.PaymentRollupRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,38 +32,29 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PaymentAnalyticsService {
 
-    private final PaymentRepository paymentRepository;
+    private final PaymentRollupRepository rollupRepository;
     private final BillingClient billingClient;
+    private final MongoTemplate mongoTemplate;
 
     /* ================= DASHBOARD ================= */
 
     public RevenueSummaryDto getMonthlyRevenue(int month, int year) {
 
-        List<Payment> payments =
-                paymentRepository.findByBillingMonthAndBillingYear(month, year)
-                        .stream()
-                        .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                        .toList();
-
-        double revenue = payments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        List<PaymentRollup> success =
+                bucket(month, year, PaymentStatus.SUCCESS);
 
         return new RevenueSummaryDto(
                 month,
                 year,
-                revenue,
-                payments.size()
+                amount(success),
+                count(success)
         );
     }
 
     public OutstandingSummaryDto getOutstandingSummary() {
 
-        double totalPaid = paymentRepository
-                .findByStatus(PaymentStatus.SUCCESS)
-                .stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        double totalPaid =
+                amount(rollupRepository.findByStatus(PaymentStatus.SUCCESS));
 
         double totalBilled = billingClient.getTotalBilled();
 
@@ -74,63 +72,56 @@ public class PaymentAnalyticsService {
 
     public PaymentsSummaryDto getPaymentsSummary(int month, int year) {
 
-        List<Payment> payments =
-                paymentRepository.findByBillingMonthAndBillingYear(month, year);
-
-        long success = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .count();
-
-        long failed = payments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.FAILED)
-                .count();
+        List<PaymentRollup> rollups =
+                rollupRepository.findByYearAndMonth(year, month);
 
         return new PaymentsSummaryDto(
                 month,
                 year,
-                success,
-                failed
+                count(withStatus(rollups, PaymentStatus.SUCCESS)),
+                count(withStatus(rollups, PaymentStatus.FAILED))
         );
     }
 
     public FailedPaymentSummaryDto getFailedPaymentsSummary(int month, int year) {
 
-        List<Payment> failed =
-                paymentRepository.findByBillingMonthAndBillingYear(month, year)
-                        .stream()
-                        .filter(p -> p.getStatus() == PaymentStatus.FAILED)
-                        .toList();
-
-        double amount = failed.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        List<PaymentRollup> failed =
+                bucket(month, year, PaymentStatus.FAILED);
 
         return new FailedPaymentSummaryDto(
-                failed.size(),
-                amount
+                count(failed),
+                amount(failed)
         );
     }
+
     public List<MonthlyOutstandingDto> getMonthlyOutstanding(int year) {
 
+        Map<Integer, Double> paidByMonth =
+                rollupRepository
+                        .findByYearAndStatus(year, PaymentStatus.SUCCESS)
+                        .stream()
+                        .collect(Collectors.groupingBy(
+                                PaymentRollup::getMonth,
+                                Collectors.summingDouble(PaymentRollup::getAmount)
+                        ));
+
+        // one call for the whole year instead of one per month
+        Map<Integer, Double> billedByMonth =
+                billingClient
+                        .getTotalBilledByMonth(year)
+                        .stream()
+                        .collect(Collectors.toMap(
+                                MonthlyBilledResponse::month,
+                                MonthlyBilledResponse::totalBilled,
+                                Double::sum
+                        ));
+
         List<MonthlyOutstandingDto> result = new ArrayList<>();
 
         for (int month = 1; month <= 12; month++) {
 
-            // 🔹 Total Paid (SUCCESS payments only)
-            double totalPaid =
-                    paymentRepository
-                            .findByBillingMonthAndBillingYearAndStatus(
-                                    month,
-                                    year,
-                                    PaymentStatus.SUCCESS
-                            )
-                            .stream()
-                            .mapToDouble(Payment::getAmount)
-                            .sum();
-
-            // 🔹 Total Billed (from Billing Service)
-            double totalBilled =
-                    billingClient.getTotalBilledForMonth(month, year);
+            double totalPaid = paidByMonth.getOrDefault(month, 0.0);
+            double totalBilled = billedByMonth.getOrDefault(month, 0.0);
 
             double outstanding =
                     Math.max(0, totalBilled - totalPaid);
@@ -153,13 +144,11 @@ public class PaymentAnalyticsService {
 
     public List<PaymentModeSummaryDto> getRevenueByMode(int month, int year) {
 
-        return paymentRepository
-                .findByBillingMonthAndBillingYear(month, year)
+        return bucket(month, year, PaymentStatus.SUCCESS)
                 .stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
                 .collect(Collectors.groupingBy(
-                        Payment::getMode,
-                        Collectors.summingDouble(Payment::getAmount)
+                        PaymentRollup::getMode,
+                        Collectors.summingDouble(PaymentRollup::getAmount)
                 ))
                 .entrySet()
                 .stream()
@@ -167,52 +156,72 @@ public class PaymentAnalyticsService {
                 .toList();
     }
 
+    // per-consumer figures are not part of the rollup key, so group on the server
     public List<ConsumerPaymentSummaryDto> getConsumerPaymentSummary(
             int month,
             int year) {
 
-        return paymentRepository
-                .findByBillingMonthAndBillingYear(month, year)
+        return mongoTemplate
+                .aggregate(
+                        Aggregation.newAggregation(
+                                Payment.class,
+                                Aggregation.match(
+                                        Criteria.where("billingYear").is(year)
+                                                .and("billingMonth").is(month)
+                                                .and("status").is(PaymentStatus.SUCCESS.name())
+                                ),
+                                Aggregation.group("consumerId")
+                                        .count().as("paymentCount")
+                                        .sum("amount").as("totalPaid")
+                        ),
+                        Document.class
+                )
+                .getMappedResults()
                 .stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .collect(Collectors.groupingBy(Payment::getConsumerId))
-                .entrySet()
-                .stream()
-                .map(e -> new ConsumerPaymentSummaryDto(
-                        e.getKey(),
-                        e.getValue().size(),
-                        e.getValue()
-                                .stream()
-                                .mapToDouble(Payment::getAmount)
-                                .sum()
+                .map(d -> new ConsumerPaymentSummaryDto(
+                        d.getString("_id"),
+                        ((Number) d.get("paymentCount")).longValue(),
+                        ((Number) d.get("totalPaid")).doubleValue()
                 ))
                 .toList();
     }
 
     public List<RevenueSummaryDto> getYearlyRevenue(int year) {
 
-        return paymentRepository.findByBillingYear(year)
+        return rollupRepository
+                .findByYearAndStatus(year, PaymentStatus.SUCCESS)
                 .stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .collect(Collectors.groupingBy(
-                        Payment::getBillingMonth,
-                        Collectors.toList()
-                ))
+                .collect(Collectors.groupingBy(PaymentRollup::getMonth))
                 .entrySet()
                 .stream()
-                .map(e -> {
-                    double revenue = e.getValue()
-                            .stream()
-                            .mapToDouble(Payment::getAmount)
-                            .sum();
-
-                    return new RevenueSummaryDto(
-                            e.getKey(),
-                            year,
-                            revenue,
-                            e.getValue().size()
-                    );
-                })
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new RevenueSummaryDto(
+                        e.getKey(),
+                        year,
+                        amount(e.getValue()),
+                        count(e.getValue())
+                ))
+                .toList();
+    }
+
+    private List<PaymentRollup> bucket(int month, int year, PaymentStatus status) {
+        return withStatus(rollupRepository.findByYearAndMonth(year, month), status);
+    }
+
+    private List<PaymentRollup> withStatus(
+            List<PaymentRollup> rollups,
+            PaymentStatus status) {
+
+        return rollups.stream()
+                .filter(r -> r.getStatus() == status)
                 .toList();
     }
-}
\ No newline at end of file
+
+    private double amount(List<PaymentRollup> rollups) {
+        return rollups.stream().mapToDouble(PaymentRollup::getAmount).sum();
+    }
+
+    private long count(List<PaymentRollup> rollups) {
+        return rollups.stream().mapToLong(PaymentRollup::getCount).sum();
+    }
+}
@@ -0,0 +1,134 @@
+package com.utility.payment.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentRollup;
+import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.repository.PaymentRepository;
+import com.utility.payment.repository.PaymentRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentRollupService {
+
+    private static final List<PaymentStatus> TRACKED =
+            List.of(PaymentStatus.SUCCESS, PaymentStatus.FAILED);
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentRollupRepository rollupRepository;
+    private final PaymentRepository paymentRepository;
+
+    // single atomic upsert; concurrent payments never lose an increment
+    public void record(Payment payment) {
+
+        if (payment.getMode() == null || !TRACKED.contains(payment.getStatus())) {
+            return;
+        }
+
+        String id =
+                PaymentRollup.key(
+                        payment.getBillingYear(),
+                        payment.getBillingMonth(),
+                        payment.getMode(),
+                        payment.getStatus()
+                );
+
+        Update update = new Update()
+                .inc("count", 1)
+                .inc("amount", payment.getAmount())
+                .setOnInsert("year", payment.getBillingYear())
+                .setOnInsert("month", payment.getBillingMonth())
+                .setOnInsert("mode", payment.getMode())
+                .setOnInsert("status", payment.getStatus())
+                .set("updatedAt", LocalDateTime.now());
+
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(id)),
+                update,
+                PaymentRollup.class
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+
+        if (rollupRepository.count() == 0 && paymentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    // recomputes every bucket from raw payments; run when traffic is quiet,
+    // increments landing mid-rebuild can be overwritten
+    public synchronized int rebuild() {
+
+        List<Document> groups =
+                mongoTemplate
+                        .aggregate(
+                                Aggregation.newAggregation(
+                                        Payment.class,
+                                        Aggregation.match(
+                                                Criteria.where("status").in(
+                                                        TRACKED.stream().map(Enum::name).toList()
+                                                )
+                                        ),
+                                        Aggregation.group("billingYear", "billingMonth", "mode", "status")
+                                                .count().as("count")
+                                                .sum("amount").as("amount")
+                                ),
+                                Document.class
+                        )
+                        .getMappedResults();
+
+        LocalDateTime now = LocalDateTime.now();
+
+        List<PaymentRollup> rollups =
+                groups.stream()
+                        .filter(g -> g.get("_id", Document.class).getString("mode") != null)
+                        .map(g -> toRollup(g, now))
+                        .toList();
+
+        mongoTemplate.remove(new Query(), PaymentRollup.class);
+        rollupRepository.saveAll(rollups);
+
+        return rollups.size();
+    }
+
+    private PaymentRollup toRollup(Document group, LocalDateTime now) {
+
+        Document key = group.get("_id", Document.class);
+
+        PaymentRollup rollup = new PaymentRollup();
+        rollup.setYear(((Number) key.get("billingYear")).intValue());
+        rollup.setMonth(((Number) key.get("billingMonth")).intValue());
+        rollup.setMode(PaymentMode.valueOf(key.getString("mode")));
+        rollup.setStatus(PaymentStatus.valueOf(key.getString("status")));
+        rollup.setCount(((Number) group.get("count")).longValue());
+        rollup.setAmount(((Number) group.get("amount")).doubleValue());
+        rollup.setUpdatedAt(now);
+        rollup.setId(
+                PaymentRollup.key(
+                        rollup.getYear(),
+                        rollup.getMonth(),
+                        rollup.getMode(),
+                        rollup.getStatus()
+                )
+        );
+
+        return rollup;
+    }
+}
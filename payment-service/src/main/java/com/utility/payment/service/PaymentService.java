@@ -3,14 +3,21 @@ package com.utility.payment.service;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.utility.common.dto.event.PaymentConfirmedEvent;
 import com.utility.common.dto.event.PaymentOtpEvent;
 import com.utility.payment.config.RabbitMQConfig;
 import com.utility.payment.dto.BillResponse;
@@ -28,6 +35,7 @@ import com.utility.payment.model.Invoice;
 import com.utility.payment.model.Payment;
 import com.utility.payment.model.PaymentMode;
 import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.outbox.Outbox;
 import com.utility.payment.repository.InvoiceRepository;
 import com.utility.payment.repository.PaymentRepository;
 
@@ -39,11 +47,19 @@ public class PaymentService {
 
 	private static final SecureRandom RANDOM = new SecureRandom(); // ✅ reused Random
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int BILL_BATCH_SIZE = 200;
+
     private final PaymentRepository repository;
     private final BillingClient billingClient;
     private final InvoiceRepository invoiceRepository;
     private final ConsumerClient consumerClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final Outbox outbox;
+    private final PaymentRollupService rollupService;
+    private final InvoicePdfService invoicePdfService;
+    private final BillLedgerService ledger;
+    private final PaymentStateService paymentState;
 
     public PaymentResponse initiateOnline(InitiateOnlinePaymentRequest request) {
 
@@ -53,92 +69,97 @@ public class PaymentService {
             throw new ApiException("Bill already paid", HttpStatus.BAD_REQUEST);
         }
 
-        double totalPaid = repository.findByBillId(request.billId()).stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .mapToDouble(Payment::getAmount)
-                .sum();
-
-        double outstanding = bill.getTotalAmount() - totalPaid;
+        double outstanding = bill.getTotalAmount() - ledger.paid(request.billId());
 
         if (outstanding <= 0) {
             throw new ApiException("No outstanding amount", HttpStatus.BAD_REQUEST);
         }
 
-        Payment payment = repository
-                .findByBillIdAndStatus(request.billId(), PaymentStatus.INITIATED)
-                .orElseGet(() -> {
-                    Payment p = new Payment();
-                    p.setBillId(request.billId());
-                    p.setConsumerId(request.consumerId());
-                    p.setAmount(outstanding);
-                    p.setMode(PaymentMode.ONLINE);
-                    p.setStatus(PaymentStatus.INITIATED);
-                    p.setTransactionId(UUID.randomUUID().toString());
-                    p.setBillingMonth(bill.getBillingMonth());
-                    p.setBillingYear(bill.getBillingYear());
-                    p.setCreatedAt(LocalDateTime.now());
-                    return p;
-                });
+        Payment pending = repository
+                .findFirstByBillIdAndModeAndStatusOrderByCreatedAtDesc(
+                        request.billId(), PaymentMode.ONLINE, PaymentStatus.INITIATED)
+                .orElse(null);
 
         // ✅ reuse Random
         String otp = String.valueOf(100000 + RANDOM.nextInt(900000));
-        payment.setOtp(otp);
-        payment.setOtpExpiry(Instant.now().plusSeconds(300));
+        Instant otpExpiry = Instant.now().plusSeconds(300);
 
-        repository.save(payment);
-
-        ConsumerResponse consumer =
-                consumerClient.getConsumerById(payment.getConsumerId());
+        ConsumerResponse consumer = consumerClient.getConsumerById(
+                pending != null ? pending.getConsumerId() : request.consumerId());
 
         PaymentOtpEvent event = new PaymentOtpEvent();
         event.setEmail(consumer.getEmail());
         event.setOtp(otp);
         event.setValidMinutes(5);
 
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE,
-                RabbitMQConfig.PAYMENT_OTP_KEY,
-                event
-        );
+        // the OTP is only sent if the payment holding it was saved
+        Payment payment = outbox.atomically(() -> {
+            Payment p = pending == null ? null : paymentState.issueOtp(pending.getId(), otp, otpExpiry);
+            if (p == null) {
+                // none pending, or it moved on since it was read
+                p = repository.save(newOnlinePayment(request, bill, outstanding, otp, otpExpiry));
+            }
+            outbox.add(RabbitMQConfig.EXCHANGE, RabbitMQConfig.PAYMENT_OTP_KEY, event);
+            return p;
+        });
 
         return PaymentResponse.from(payment, bill, null);
     }
 
-    public List<PaymentResponse> getAllPayments() {
+    private static Payment newOnlinePayment(
+            InitiateOnlinePaymentRequest request,
+            BillResponse bill,
+            double outstanding,
+            String otp,
+            Instant otpExpiry
+    ) {
+        Payment p = new Payment();
+        p.setBillId(request.billId());
+        p.setConsumerId(request.consumerId());
+        p.setAmount(outstanding);
+        p.setMode(PaymentMode.ONLINE);
+        p.setStatus(PaymentStatus.INITIATED);
+        p.setOtp(otp);
+        p.setOtpExpiry(otpExpiry);
+        p.setTransactionId(UUID.randomUUID().toString());
+        p.setBillingMonth(bill.getBillingMonth());
+        p.setBillingYear(bill.getBillingYear());
+        p.setCreatedAt(LocalDateTime.now());
+        return p;
+    }
 
-        List<Payment> payments = repository.findAllByOrderByCreatedAtDesc();
+    public List<PaymentResponse> getAllPayments(Integer page, Integer size) {
 
-        if (payments.isEmpty()) {
+        Pageable pageable = pageable(page, size);
+
+        List<Payment> payments = repository.findAllByOrderByCreatedAtDesc(pageable);
+
+        if (payments.isEmpty() && isFirstPage(pageable)) {
             throw new ApiException("No payments found", HttpStatus.NOT_FOUND);
         }
 
-        return payments.stream().map(payment -> {
-            BillResponse bill = billingClient.getBill(payment.getBillId());
-            Invoice invoice = invoiceRepository
-                    .findByPaymentId(payment.getId())
-                    .orElse(null);
-
-            return PaymentResponse.from(
-                    payment,
-                    bill,
-                    invoice != null ? invoice.getId() : null
-            );
-        }).toList();
+        return toResponses(payments);
     }
 
     public PaymentResponse confirmOtp(ConfirmOtpRequest request) {
+        return confirmOtp(request, null);
+    }
+
+    public PaymentResponse confirmOtp(ConfirmOtpRequest request, String idempotencyKey) {
 
         Payment payment = repository.findById(request.paymentId())
                 .orElseThrow(() ->
                         new ApiException("Payment not found", HttpStatus.NOT_FOUND));
 
         if (payment.getStatus() == PaymentStatus.SUCCESS) {
-            throw new ApiException("Payment already completed", HttpStatus.BAD_REQUEST);
+            return replay(payment, idempotencyKey);
         }
 
-        if (payment.getOtpExpiry().isBefore(Instant.now())) {
-            payment.setStatus(PaymentStatus.FAILED);
-            repository.save(payment);
+        if (payment.getOtpExpiry() == null || payment.getOtpExpiry().isBefore(Instant.now())) {
+            Payment expired = paymentState.expire(payment.getId());
+            if (expired != null) {
+                rollupService.record(expired);
+            }
             throw new ApiException("OTP expired", HttpStatus.BAD_REQUEST);
         }
 
@@ -146,22 +167,64 @@ public class PaymentService {
             throw new ApiException("Invalid OTP", HttpStatus.BAD_REQUEST);
         }
 
-        payment.setStatus(PaymentStatus.SUCCESS);
-        payment.setConfirmedAt(LocalDateTime.now());
-        payment.setOtp(null);
-        payment.setOtpExpiry(null);
+        BillResponse bill = billingClient.getBill(payment.getBillId());
 
-        repository.save(payment);
+        // consumes the OTP: only one concurrent confirmation gets past this point
+        if (paymentState.reserve(payment.getId(), request.otp()) == null) {
+            Payment current = repository.findById(payment.getId()).orElse(payment);
+            if (current.getStatus() == PaymentStatus.SUCCESS) {
+                return replay(current, idempotencyKey);
+            }
+            throw new ApiException("Payment is no longer pending", HttpStatus.CONFLICT);
+        }
 
-        billingClient.markPaid(payment.getBillId());
+        if (!ledger.claim(payment.getBillId(), payment.getId(), payment.getAmount(), bill.getTotalAmount())) {
+            // settled by another payment since this one was initiated
+            abandon(payment.getId(), "Bill already settled");
+            throw new ApiException("No outstanding amount", HttpStatus.BAD_REQUEST);
+        }
 
-        Invoice invoice = generateInvoice(payment);
-        BillResponse bill = billingClient.getBill(payment.getBillId());
+        try {
+            billingClient.markPaid(payment.getBillId());
+        } catch (RuntimeException ex) {
+            ledger.release(payment.getBillId(), payment.getId(), payment.getAmount());
+            abandon(payment.getId(), "Billing update failed");
+            throw ex;
+        }
+
+        Payment confirmed = outbox.atomically(() -> {
+            Payment c = paymentState.confirm(payment.getId(), idempotencyKey);
+            if (c != null) {
+                outbox.add(RabbitMQConfig.EXCHANGE, RabbitMQConfig.PAYMENT_CONFIRMED_KEY, confirmedEvent(c));
+            }
+            return c;
+        });
+
+        if (confirmed == null) {
+            // no longer the reserved INITIATED payment it was a moment ago
+            throw new ApiException("Payment is no longer pending", HttpStatus.CONFLICT);
+        }
 
-        return PaymentResponse.from(payment, bill, invoice.getId());
+        rollupService.record(confirmed);
+
+        // a failure here leaves a paid bill without an invoice; replay() issues it
+        Invoice invoice = generateInvoice(confirmed, bill);
+
+        return PaymentResponse.from(confirmed, bill, invoice.getId());
     }
 
     public PaymentResponse offlinePayment(OfflinePaymentRequest request) {
+        return offlinePayment(request, null);
+    }
+
+    public PaymentResponse offlinePayment(OfflinePaymentRequest request, String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            Payment previous = repository.findByIdempotencyKey(idempotencyKey).orElse(null);
+            if (previous != null) {
+                return replayOffline(previous, idempotencyKey);
+            }
+        }
 
         BillResponse bill = billingClient.getBill(request.billId());
 
@@ -169,47 +232,115 @@ public class PaymentService {
             throw new ApiException("Bill already paid", HttpStatus.BAD_REQUEST);
         }
 
-        double totalPaid = repository.findByBillId(request.billId()).stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .mapToDouble(Payment::getAmount)
-                .sum();
-
-        double outstanding = bill.getTotalAmount() - totalPaid;
+        double outstanding = bill.getTotalAmount() - ledger.paid(request.billId());
 
         if (outstanding <= 0) {
             throw new ApiException("No outstanding amount", HttpStatus.BAD_REQUEST);
         }
 
-        billingClient.markPaid(request.billId());
-
         Payment payment = new Payment();
         payment.setBillId(request.billId());
         payment.setConsumerId(request.consumerId());
         payment.setAmount(outstanding);
         payment.setMode(PaymentMode.OFFLINE);
-        payment.setStatus(PaymentStatus.SUCCESS);
+        payment.setStatus(PaymentStatus.INITIATED);
         payment.setRemarks(request.remarks());
         payment.setTransactionId(UUID.randomUUID().toString());
+        payment.setIdempotencyKey(idempotencyKey);
         payment.setBillingMonth(bill.getBillingMonth());
         payment.setBillingYear(bill.getBillingYear());
         payment.setCreatedAt(LocalDateTime.now());
-        payment.setConfirmedAt(LocalDateTime.now());
 
-        repository.save(payment);
+        // inserting first reserves the key; the unique index turns a duplicate away
+        try {
+            payment = repository.save(payment);
+        } catch (DuplicateKeyException ex) {
+            return replayOffline(
+                    repository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> ex),
+                    idempotencyKey
+            );
+        }
+
+        String paymentId = payment.getId();
+
+        // a concurrent payment that took the balance first makes this fail
+        if (!ledger.claim(request.billId(), paymentId, outstanding, bill.getTotalAmount())) {
+            abandon(paymentId, "Bill already settled");
+            throw new ApiException("No outstanding amount", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            billingClient.markPaid(request.billId());
+        } catch (RuntimeException ex) {
+            ledger.release(request.billId(), paymentId, outstanding);
+            abandon(paymentId, "Billing update failed");
+            throw ex;
+        }
+
+        Payment succeeded = settle(paymentId);
+
+        if (succeeded == null) {
+            // only recoverStaleOffline settles it otherwise, and it emits the event itself
+            succeeded = repository.findById(paymentId)
+                    .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
+                    .orElseThrow(() ->
+                            new ApiException("Payment is no longer pending", HttpStatus.CONFLICT));
+        }
+
+        Invoice invoice = generateInvoice(succeeded, bill);
+
+        return PaymentResponse.from(succeeded, bill, invoice.getId());
+    }
+
+    /*
+     * Finishes an OFFLINE payment left INITIATED by a crash. One that holds a
+     * ledger claim was charged, so it is carried through to SUCCESS; one that
+     * never claimed is voided on the ledger first, so a request still running
+     * cannot claim it afterwards, and then failed.
+     */
+    public void recoverStaleOffline(Payment payment) {
+
+        if (ledger.voidUnclaimed(payment.getBillId(), payment.getId())) {
+            abandon(payment.getId(), "Not completed");
+            return;
+        }
+
+        BillResponse bill = billingClient.getBill(payment.getBillId());
+
+        if (bill.getStatus() != BillStatus.PAID) {
+            billingClient.markPaid(payment.getBillId());
+        }
+
+        Payment succeeded = settle(payment.getId());
+
+        if (succeeded != null) {
+            generateInvoice(succeeded, bill);
+        }
+    }
+
+    // INITIATED -> SUCCESS with its confirmation event; null when no longer INITIATED
+    private Payment settle(String paymentId) {
 
-        Invoice invoice = generateInvoice(payment);
+        Payment succeeded = outbox.atomically(() -> {
+            Payment s = paymentState.settle(paymentId);
+            if (s != null) {
+                outbox.add(RabbitMQConfig.EXCHANGE, RabbitMQConfig.PAYMENT_CONFIRMED_KEY, confirmedEvent(s));
+            }
+            return s;
+        });
 
-        return PaymentResponse.from(payment, bill, invoice.getId());
+        if (succeeded != null) {
+            rollupService.record(succeeded);
+        }
+
+        return succeeded;
     }
 
     public OutstandingResponse getOutstanding(String billId) {
 
         BillResponse bill = billingClient.getBill(billId);
 
-        double totalPaid = repository.findByBillId(billId).stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESS)
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        double totalPaid = ledger.paid(billId);
 
         return new OutstandingResponse(
                 billId,
@@ -219,29 +350,24 @@ public class PaymentService {
         );
     }
 
-    public List<PaymentResponse> getPaymentsByConsumer(String consumerId) {
+    public List<PaymentResponse> getPaymentsByConsumer(
+            String consumerId,
+            Integer page,
+            Integer size) {
+
+        Pageable pageable = pageable(page, size);
 
         List<Payment> payments =
-                repository.findByConsumerIdOrderByCreatedAtDesc(consumerId);
+                repository.findByConsumerIdOrderByCreatedAtDesc(consumerId, pageable);
 
-        if (payments.isEmpty()) {
+        if (payments.isEmpty() && isFirstPage(pageable)) {
             throw new ApiException(
                     "No payments found for consumerId: " + consumerId,
                     HttpStatus.NOT_FOUND
             );
         }
 
-        return payments.stream().map(p -> {
-            BillResponse bill = billingClient.getBill(p.getBillId());
-            Invoice invoice =
-                    invoiceRepository.findByPaymentId(p.getId()).orElse(null);
-
-            return PaymentResponse.from(
-                    p,
-                    bill,
-                    invoice != null ? invoice.getId() : null
-            );
-        }).toList();
+        return toResponses(payments);
     }
 
     public List<PaymentResponse> getPaymentsByBill(String billId) {
@@ -256,23 +382,138 @@ public class PaymentService {
         }
 
         BillResponse bill = billingClient.getBill(billId);
+        Map<String, String> invoiceIds = invoiceIdsByPayment(payments);
+
+        return payments.stream()
+                .map(p -> PaymentResponse.from(p, bill, invoiceIds.get(p.getId())))
+                .toList();
+    }
+
+    // two round-trips per page (bills in chunks, invoices in one query) joined in memory
+    private List<PaymentResponse> toResponses(List<Payment> payments) {
+
+        Map<String, BillResponse> bills = billsById(payments);
+        Map<String, String> invoiceIds = invoiceIdsByPayment(payments);
+
+        return payments.stream()
+                .map(p -> PaymentResponse.from(
+                        p,
+                        bills.get(p.getBillId()),
+                        invoiceIds.get(p.getId())
+                ))
+                .toList();
+    }
+
+    private Map<String, BillResponse> billsById(List<Payment> payments) {
+
+        List<String> billIds = payments.stream()
+                .map(Payment::getBillId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, BillResponse> bills = new HashMap<>();
+
+        for (int from = 0; from < billIds.size(); from += BILL_BATCH_SIZE) {
+
+            List<String> chunk =
+                    billIds.subList(from, Math.min(from + BILL_BATCH_SIZE, billIds.size()));
+
+            billingClient.getBillsByIds(chunk)
+                    .forEach(bill -> bills.put(bill.getId(), bill));
+        }
+
+        return bills;
+    }
+
+    private Map<String, String> invoiceIdsByPayment(List<Payment> payments) {
+
+        List<String> paymentIds = payments.stream()
+                .map(Payment::getId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // HashMap, not Map.of(): callers look up payments that have no id yet
+        if (paymentIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return invoiceRepository.findByPaymentIdIn(paymentIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        Invoice::getPaymentId,
+                        Invoice::getId,
+                        (first, second) -> first
+                ));
+    }
 
-        return payments.stream().map(p -> {
-            Invoice invoice =
-                    invoiceRepository.findByPaymentId(p.getId()).orElse(null);
+    // no page requested keeps the old "everything" behaviour for existing callers
+    private static Pageable pageable(Integer page, Integer size) {
 
-            return PaymentResponse.from(
-                    p,
-                    bill,
-                    invoice != null ? invoice.getId() : null
+        if (page == null && size == null) {
+            return Pageable.unpaged();
+        }
+
+        int pageSize =
+                size == null || size <= 0
+                        ? DEFAULT_PAGE_SIZE
+                        : Math.min(size, MAX_PAGE_SIZE);
+
+        return PageRequest.of(page == null ? 0 : Math.max(page, 0), pageSize);
+    }
+
+    private static boolean isFirstPage(Pageable pageable) {
+        return pageable.isUnpaged() || pageable.getPageNumber() == 0;
+    }
+
+    private static PaymentConfirmedEvent confirmedEvent(Payment payment) {
+
+        PaymentConfirmedEvent event = new PaymentConfirmedEvent();
+        event.setPaymentId(payment.getId());
+        event.setBillId(payment.getBillId());
+        event.setConsumerId(payment.getConsumerId());
+        event.setAmount(payment.getAmount());
+        event.setConfirmedAt(String.valueOf(payment.getConfirmedAt()));
+        return event;
+    }
+
+    private void abandon(String paymentId, String remarks) {
+        Payment failed = paymentState.abandon(paymentId, remarks);
+        if (failed != null) {
+            rollupService.record(failed);
+        }
+    }
+
+    private PaymentResponse replayOffline(Payment previous, String idempotencyKey) {
+
+        if (previous.getStatus() != PaymentStatus.SUCCESS) {
+            throw new ApiException(
+                    "Payment for this Idempotency-Key is in progress or failed",
+                    HttpStatus.CONFLICT
             );
-        }).toList();
+        }
+
+        return replay(previous, idempotencyKey);
     }
 
-    private Invoice generateInvoice(Payment payment) {
+    // a retry carrying the key that completed the payment gets the original result
+    private PaymentResponse replay(Payment payment, String idempotencyKey) {
+
+        if (idempotencyKey == null || !idempotencyKey.equals(payment.getIdempotencyKey())) {
+            throw new ApiException("Payment already completed", HttpStatus.BAD_REQUEST);
+        }
 
         BillResponse bill = billingClient.getBill(payment.getBillId());
 
+        String invoiceId = invoiceRepository.findByPaymentId(payment.getId())
+                .map(Invoice::getId)
+                .orElseGet(() -> generateInvoice(payment, bill).getId());
+
+        return PaymentResponse.from(payment, bill, invoiceId);
+    }
+
+    private Invoice generateInvoice(Payment payment, BillResponse bill) {
+
         Invoice invoice = new Invoice();
         invoice.setInvoiceNumber("INV-" + System.currentTimeMillis());
         invoice.setBillId(payment.getBillId());
@@ -287,6 +528,16 @@ public class PaymentService {
         invoice.setTotalAmount(payment.getAmount());
         invoice.setInvoiceDate(LocalDateTime.now());
 
-        return invoiceRepository.save(invoice);
+        Invoice saved;
+        try {
+            saved = invoiceRepository.save(invoice);
+        } catch (DuplicateKeyException ex) {
+            // issued concurrently by the request this one replays
+            return invoiceRepository.findByPaymentId(payment.getId()).orElseThrow(() -> ex);
+        }
+
+        invoicePdfService.renderAsync(saved);
+
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.utility.payment.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Payment status changes as single conditional findAndModify calls. Each one
+ * matches on the state it leaves, so of any number of concurrent callers
+ * exactly one gets the updated document back and the rest get null.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentStateService {
+
+    private final MongoTemplate mongoTemplate;
+
+    // puts a fresh OTP on a pending ONLINE payment; null once it has been reserved,
+    // confirmed or failed, so a stale copy is never written back over it
+    public Payment issueOtp(String paymentId, String otp, Instant otpExpiry) {
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("mode").is(PaymentMode.ONLINE)
+                        .and("status").is(PaymentStatus.INITIATED)
+                        .and("otp").exists(true),
+                new Update()
+                        .set("otp", otp)
+                        .set("otpExpiry", otpExpiry)
+        );
+    }
+
+    // takes the OTP off an INITIATED payment; the caller that gets the document back
+    // owns the confirmation, and expire() no longer matches it
+    public Payment reserve(String paymentId, String otp) {
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("status").is(PaymentStatus.INITIATED)
+                        .and("otp").is(otp)
+                        .and("otpExpiry").gt(Instant.now()),
+                new Update()
+                        .unset("otp")
+                        .unset("otpExpiry")
+        );
+    }
+
+    // reserved INITIATED -> SUCCESS
+    public Payment confirm(String paymentId, String idempotencyKey) {
+
+        Update update = new Update()
+                .set("status", PaymentStatus.SUCCESS)
+                .set("confirmedAt", LocalDateTime.now());
+
+        if (idempotencyKey != null) {
+            update.set("idempotencyKey", idempotencyKey);
+        }
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("status").is(PaymentStatus.INITIATED)
+                        .and("otp").exists(false),
+                update
+        );
+    }
+
+    // claimed OFFLINE INITIATED -> SUCCESS
+    public Payment settle(String paymentId) {
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("mode").is(PaymentMode.OFFLINE)
+                        .and("status").is(PaymentStatus.INITIATED),
+                new Update()
+                        .set("status", PaymentStatus.SUCCESS)
+                        .set("confirmedAt", LocalDateTime.now())
+        );
+    }
+
+    // INITIATED -> FAILED once the OTP has expired
+    public Payment expire(String paymentId) {
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("status").is(PaymentStatus.INITIATED)
+                        .and("otpExpiry").lte(Instant.now()),
+                new Update().set("status", PaymentStatus.FAILED)
+        );
+    }
+
+    // INITIATED -> FAILED, when a reserved confirmation or an offline payment cannot complete
+    public Payment abandon(String paymentId, String remarks) {
+
+        return transition(
+                Criteria.where("_id").is(paymentId)
+                        .and("status").is(PaymentStatus.INITIATED),
+                new Update()
+                        .set("status", PaymentStatus.FAILED)
+                        .set("remarks", remarks)
+        );
+    }
+
+    private Payment transition(Criteria from, Update update) {
+        return mongoTemplate.findAndModify(
+                Query.query(from),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Payment.class
+        );
+    }
+}
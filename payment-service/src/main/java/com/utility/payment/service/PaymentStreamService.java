@@ -0,0 +1,97 @@
+package com.utility.payment.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.utility.payment.dto.BillResponse;
+import com.utility.payment.dto.PaymentResponse;
+import com.utility.payment.model.Invoice;
+import com.utility.payment.model.Payment;
+import com.utility.payment.repository.ReactiveInvoiceRepository;
+import com.utility.payment.repository.ReactivePaymentRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Non-blocking variant of PaymentService.getPaymentsByConsumer. Payments are
+ * read in batches as the client consumes them; each batch is joined with its
+ * bills and invoices before the next one is requested, so a slow reader holds
+ * one batch in memory and no thread.
+ */
+@Service
+public class PaymentStreamService {
+
+    static final int BATCH_SIZE = 200;
+
+    private final ReactivePaymentRepository payments;
+    private final ReactiveInvoiceRepository invoices;
+    private final WebClient billingWebClient;
+
+    public PaymentStreamService(
+            ReactivePaymentRepository payments,
+            ReactiveInvoiceRepository invoices,
+            WebClient billingWebClient
+    ) {
+        this.payments = payments;
+        this.invoices = invoices;
+        this.billingWebClient = billingWebClient;
+    }
+
+    public Flux<PaymentResponse> streamByConsumer(String consumerId, String authorization) {
+
+        return payments.findByConsumerIdOrderByCreatedAtDesc(consumerId)
+                .buffer(BATCH_SIZE)
+                .concatMap(batch -> join(batch, authorization), 0);
+    }
+
+    private Flux<PaymentResponse> join(List<Payment> batch, String authorization) {
+
+        return Mono.zip(bills(batch, authorization), invoiceIds(batch))
+                .flatMapIterable(joined -> batch.stream()
+                        .map(p -> PaymentResponse.from(
+                                p,
+                                joined.getT1().get(p.getBillId()),
+                                joined.getT2().get(p.getId())
+                        ))
+                        .toList());
+    }
+
+    private Mono<Map<String, BillResponse>> bills(List<Payment> batch, String authorization) {
+
+        List<String> billIds = batch.stream()
+                .map(Payment::getBillId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        // HashMap, not Map.of(): payments without a bill are looked up with a null key
+        if (billIds.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+
+        return billingWebClient.post()
+                .uri("/bills/batch")
+                .headers(headers -> {
+                    if (authorization != null && authorization.startsWith("Bearer ")) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .bodyValue(billIds)
+                .retrieve()
+                .bodyToFlux(BillResponse.class)
+                .collectMap(BillResponse::getId);
+    }
+
+    private Mono<Map<String, String>> invoiceIds(List<Payment> batch) {
+
+        return invoices.findByPaymentIdIn(batch.stream().map(Payment::getId).toList())
+                .collectMap(Invoice::getPaymentId, Invoice::getId);
+    }
+}
@@ -3,6 +3,7 @@ package com.utility.payment.controller;
 import com.utility.payment.dto.dashboard.*;
 import com.utility.payment.model.PaymentMode;
 import com.utility.payment.service.PaymentAnalyticsService;
+import com.utility.payment.service.PaymentRollupService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PaymentAnalyticsController.class)
@@ -26,6 +28,9 @@ class PaymentAnalyticsControllerTest {
     @MockBean
     private PaymentAnalyticsService analyticsService;
 
+    @MockBean
+    private PaymentRollupService rollupService;
+
     @Test
     void revenueSummary_success() throws Exception {
         Mockito.when(analyticsService.getMonthlyRevenue(1, 2025))
@@ -123,4 +128,12 @@ class PaymentAnalyticsControllerTest {
                         .param("year", "2025"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void rebuildRollups_success() throws Exception {
+        Mockito.when(rollupService.rebuild()).thenReturn(6);
+
+        mockMvc.perform(post("/dashboard/payments/rollups/rebuild"))
+                .andExpect(status().isOk());
+    }
 }
@@ -5,22 +5,29 @@ import com.utility.payment.dto.*;
 import com.utility.payment.model.Invoice;
 import com.utility.payment.model.PaymentMode;
 import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.service.InvoiceExportService;
 import com.utility.payment.service.InvoicePdfService;
 import com.utility.payment.service.InvoiceService;
 import com.utility.payment.service.PaymentService;
+import com.utility.payment.service.PaymentStreamService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PaymentController.class)
@@ -42,6 +49,12 @@ class PaymentControllerTest {
     @MockBean
     private InvoicePdfService invoicePdfService;
 
+    @MockBean
+    private InvoiceExportService invoiceExportService;
+
+    @MockBean
+    private PaymentStreamService paymentStreamService;
+
     @Test
     void initiateOnline_success() throws Exception {
 
@@ -142,13 +155,45 @@ class PaymentControllerTest {
                         LocalDateTime.now()
                 );
 
-        Mockito.when(paymentService.getPaymentsByConsumer("C1"))
+        Mockito.when(paymentService.getPaymentsByConsumer("C1", null, null))
                 .thenReturn(List.of(response));
 
         mockMvc.perform(get("/payments/consumer/C1"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void streamPaymentsByConsumer_forwardsToken() throws Exception {
+
+        PaymentResponse response =
+                new PaymentResponse(
+                        "P1",
+                        "BILL1",
+                        "C1",
+                        1,
+                        2025,
+                        500.0,
+                        PaymentMode.ONLINE,
+                        PaymentStatus.SUCCESS,
+                        "TXN123",
+                        null,
+                        LocalDateTime.now(),
+                        LocalDateTime.now()
+                );
+
+        Mockito.when(paymentStreamService.streamByConsumer("C1", "Bearer token"))
+                .thenReturn(Flux.just(response));
+
+        var result = mockMvc.perform(get("/payments/consumer/C1/stream")
+                        .header("Authorization", "Bearer token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
     @Test
     void outstanding_success() throws Exception {
 
@@ -180,11 +225,50 @@ class PaymentControllerTest {
     @Test
     void downloadInvoice_success() throws Exception {
 
-        Mockito.when(invoicePdfService.generateInvoicePdf("P1"))
-                .thenReturn(new byte[]{1, 2, 3});
+        Mockito.when(invoicePdfService.getInvoicePdf("P1"))
+                .thenReturn(new InvoicePdf("abc", new ByteArrayResource(new byte[]{1, 2, 3})));
 
         mockMvc.perform(get("/payments/invoice/P1/download"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""));
+    }
+
+    @Test
+    void downloadInvoice_notModified() throws Exception {
+
+        Mockito.when(invoicePdfService.getInvoicePdf("P1"))
+                .thenReturn(new InvoicePdf("abc", new ByteArrayResource(new byte[]{1, 2, 3})));
+
+        mockMvc.perform(get("/payments/invoice/P1/download")
+                        .header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void downloadInvoice_range() throws Exception {
+
+        Mockito.when(invoicePdfService.getInvoicePdf("P1"))
+                .thenReturn(new InvoicePdf("abc", new ByteArrayResource(new byte[]{1, 2, 3})));
+
+        mockMvc.perform(get("/payments/invoice/P1/download")
+                        .header("Range", "bytes=1-"))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    void exportInvoices_streamsZip() throws Exception {
+
+        Mockito.when(invoiceExportService.count(1, 2025)).thenReturn(2L);
+
+        mockMvc.perform(get("/payments/invoices/export")
+                        .param("month", "1")
+                        .param("year", "2025"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=invoices-2025-01.zip"));
+
+        Mockito.verify(invoiceExportService)
+                .export(Mockito.eq(1), Mockito.eq(2025), Mockito.any());
     }
 
     @Test
@@ -206,10 +290,22 @@ class PaymentControllerTest {
                         LocalDateTime.now()
                 );
 
-        Mockito.when(paymentService.getAllPayments())
+        Mockito.when(paymentService.getAllPayments(null, null))
                 .thenReturn(List.of(response));
 
         mockMvc.perform(get("/payments"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getAllPayments_paged() throws Exception {
+
+        Mockito.when(paymentService.getAllPayments(2, 100))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/payments")
+                        .param("page", "2")
+                        .param("size", "100"))
+                .andExpect(status().isOk());
+    }
 }
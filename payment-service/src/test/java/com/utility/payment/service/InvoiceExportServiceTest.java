@@ -0,0 +1,148 @@
+package com.utility.payment.service;
+
+import com.utility.payment.exception.ApiException;
+import com.utility.payment.model.Invoice;
+import com.utility.payment.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InvoiceExportServiceTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private InvoicePdfService invoicePdfService;
+
+    @TempDir
+    Path dir;
+
+    private InvoiceExportService exportService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        exportService = new InvoiceExportService(
+                invoiceRepository,
+                invoicePdfService,
+                Runnable::run,
+                2
+        );
+    }
+
+    private Invoice invoice(String paymentId) throws Exception {
+        Invoice invoice = new Invoice();
+        invoice.setId("I-" + paymentId);
+        invoice.setPaymentId(paymentId);
+
+        Path pdf = dir.resolve(paymentId + ".pdf");
+        Files.write(pdf, paymentId.getBytes());
+        when(invoicePdfService.pdfPath(invoice)).thenReturn(pdf);
+
+        return invoice;
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(in.readAllBytes()));
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    void export_writesEveryInvoiceInCursorOrder() throws Exception {
+
+        Invoice first = invoice("P1");
+        Invoice second = invoice("P2");
+        Invoice third = invoice("P3");
+
+        when(invoiceRepository.findByBillingYearAndBillingMonth(2025, 1))
+                .thenReturn(Stream.of(first, second, third));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = exportService.export(1, 2025, out);
+
+        assertEquals(3, written);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+
+        assertEquals(
+                List.of("invoice-P1.pdf", "invoice-P2.pdf", "invoice-P3.pdf"),
+                List.copyOf(entries.keySet())
+        );
+        assertEquals("P2", entries.get("invoice-P2.pdf"));
+    }
+
+    @Test
+    void export_listsInvoicesThatCouldNotBeRendered() throws Exception {
+
+        Invoice good = invoice("P1");
+
+        Invoice bad = new Invoice();
+        bad.setId("I-P2");
+        bad.setPaymentId("P2");
+        when(invoicePdfService.pdfPath(bad))
+                .thenThrow(new ApiException("Failed", HttpStatus.INTERNAL_SERVER_ERROR));
+
+        when(invoiceRepository.findByBillingYearAndBillingMonth(2025, 1))
+                .thenReturn(Stream.of(good, bad));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = exportService.export(1, 2025, out);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+
+        assertEquals(1, written);
+        assertEquals("P1", entries.get("invoice-P1.pdf"));
+        assertEquals("P2", entries.get(InvoiceExportService.MISSING_ENTRY));
+    }
+
+    @Test
+    void count_noInvoices() {
+
+        when(invoiceRepository.countByBillingYearAndBillingMonth(2025, 1))
+                .thenReturn(0L);
+
+        ApiException ex = assertThrows(
+                ApiException.class,
+                () -> exportService.count(1, 2025)
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+    }
+
+    @Test
+    void count_invalidMonth() {
+
+        ApiException ex = assertThrows(
+                ApiException.class,
+                () -> exportService.count(13, 2025)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verifyNoInteractions(invoiceRepository);
+    }
+}
@@ -1,18 +1,29 @@
 package com.utility.payment.service;
 
+import com.mongodb.client.result.UpdateResult;
+import com.utility.payment.dto.InvoicePdf;
 import com.utility.payment.exception.ApiException;
 import com.utility.payment.model.Invoice;
 import com.utility.payment.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class InvoicePdfServiceTest {
@@ -20,16 +31,32 @@ class InvoicePdfServiceTest {
     @Mock
     private InvoiceRepository invoiceRepository;
 
-    @InjectMocks
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @TempDir
+    Path dir;
+
+    private InvoicePdfStore store;
     private InvoicePdfService invoicePdfService;
 
-    InvoicePdfServiceTest() {
+    @BeforeEach
+    void setup() {
         MockitoAnnotations.openMocks(this);
+
+        store = new InvoicePdfStore(dir.toString());
+        invoicePdfService = new InvoicePdfService(
+                invoiceRepository,
+                mongoTemplate,
+                new InvoicePdfRenderer(),
+                store,
+                Runnable::run
+        );
     }
 
-    @Test
-    void generateInvoicePdf_success() {
+    private Invoice invoice() {
         Invoice invoice = new Invoice();
+        invoice.setId("I1");
         invoice.setInvoiceNumber("INV-1");
         invoice.setInvoiceDate(LocalDateTime.now());
         invoice.setBillingMonth(1);
@@ -41,26 +68,107 @@ class InvoicePdfServiceTest {
         invoice.setTax(10);
         invoice.setPenalty(0);
         invoice.setTotalAmount(110);
+        return invoice;
+    }
+
+    private void hashRecorded(long modified) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Invoice.class)))
+                .thenReturn(UpdateResult.acknowledged(modified, modified, null));
+    }
+
+    @Test
+    void renderAsync_storesPdfAndRecordsHash() throws Exception {
+        Invoice invoice = invoice();
+        hashRecorded(1);
+
+        invoicePdfService.renderAsync(invoice);
+
+        assertNotNull(invoice.getPdfHash());
+        Path path = store.get(invoice.getPdfHash()).orElseThrow();
+        assertTrue(new String(Files.readAllBytes(path), 0, 4).startsWith("%PDF"));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Invoice.class));
+    }
+
+    @Test
+    void getInvoicePdf_servesStoredCopyWithoutRendering() throws Exception {
+        Invoice invoice = invoice();
+        String hash = store.put(new byte[]{1, 2, 3});
+        invoice.setPdfHash(hash);
+
+        when(invoiceRepository.findByPaymentId("P1"))
+                .thenReturn(Optional.of(invoice));
+
+        InvoicePdf pdf = invoicePdfService.getInvoicePdf("P1");
+
+        assertEquals(hash, pdf.hash());
+        assertArrayEquals(new byte[]{1, 2, 3}, pdf.content().getContentAsByteArray());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getInvoicePdf_rendersWhenNotYetStored() {
+        when(invoiceRepository.findByPaymentId("P1"))
+                .thenReturn(Optional.of(invoice()));
+        hashRecorded(1);
+
+        InvoicePdf pdf = invoicePdfService.getInvoicePdf("P1");
+
+        assertNotNull(pdf.hash());
+        assertTrue(pdf.content().exists());
+    }
+
+    @Test
+    void getInvoicePdf_concurrentRenderKeepsWinner() {
+        Invoice invoice = invoice();
+        String winner = store.put(new byte[]{9});
+
+        Invoice stored = invoice();
+        stored.setPdfHash(winner);
 
         when(invoiceRepository.findByPaymentId("P1"))
                 .thenReturn(Optional.of(invoice));
+        when(invoiceRepository.findById("I1"))
+                .thenReturn(Optional.of(stored));
+        hashRecorded(0);
 
-        byte[] pdf = invoicePdfService.generateInvoicePdf("P1");
+        InvoicePdf pdf = invoicePdfService.getInvoicePdf("P1");
 
-        assertNotNull(pdf);
-        assertTrue(pdf.length > 0);
+        assertEquals(winner, pdf.hash());
     }
 
     @Test
-    void generateInvoicePdf_invoiceNotFound() {
+    void getInvoicePdf_invoiceNotFound() {
         when(invoiceRepository.findByPaymentId("P1"))
                 .thenReturn(Optional.empty());
 
         ApiException ex = assertThrows(
                 ApiException.class,
-                () -> invoicePdfService.generateInvoicePdf("P1")
+                () -> invoicePdfService.getInvoicePdf("P1")
         );
 
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
     }
+
+    @Test
+    void store_sameBytesShareOneFile() {
+        String first = store.put(new byte[]{1, 2, 3});
+        String second = store.put(new byte[]{1, 2, 3});
+
+        assertEquals(first, second);
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    void store_withoutDirectoryFallsBackToTempDir() {
+
+        InvoicePdfStore store = new InvoicePdfStore(" ");
+        String hash = store.put(new byte[]{4, 5, 6});
+
+        try {
+            Path stored = store.get(hash).orElseThrow();
+            assertTrue(stored.startsWith(Paths.get(System.getProperty("java.io.tmpdir"), "utility-invoices")));
+        } finally {
+            store.delete(hash);
+        }
+    }
 }
@@ -1,14 +1,19 @@
 package com.utility.payment.service;
 
+import com.utility.payment.dto.MonthlyBilledResponse;
 import com.utility.payment.dto.dashboard.*;
 import com.utility.payment.feign.BillingClient;
-import com.utility.payment.model.Payment;
 import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentRollup;
 import com.utility.payment.model.PaymentStatus;
-import com.utility.payment.repository.PaymentRepository;
+import com.utility.payment.repository.PaymentRollupRepository;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 
 import java.util.List;
 
@@ -18,11 +23,14 @@ import static org.mockito.Mockito.*;
 class PaymentAnalyticsServiceTest {
 
     @Mock
-    private PaymentRepository paymentRepository;
+    private PaymentRollupRepository rollupRepository;
 
     @Mock
     private BillingClient billingClient;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private PaymentAnalyticsService service;
 
@@ -31,17 +39,34 @@ class PaymentAnalyticsServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    private PaymentRollup rollup(
+            int month,
+            PaymentMode mode,
+            PaymentStatus status,
+            long count,
+            double amount) {
+
+        PaymentRollup r = new PaymentRollup();
+        r.setId(PaymentRollup.key(2025, month, mode, status));
+        r.setYear(2025);
+        r.setMonth(month);
+        r.setMode(mode);
+        r.setStatus(status);
+        r.setCount(count);
+        r.setAmount(amount);
+        return r;
+    }
+
     /* ================= MONTHLY REVENUE ================= */
 
     @Test
     void getMonthlyRevenue_success() {
 
-        Payment p = new Payment();
-        p.setAmount(500);
-        p.setStatus(PaymentStatus.SUCCESS);
-
-        when(paymentRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(p));
+        when(rollupRepository.findByYearAndMonth(2025, 1))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 1, 500),
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.FAILED, 2, 900)
+                ));
 
         RevenueSummaryDto dto = service.getMonthlyRevenue(1, 2025);
 
@@ -54,12 +79,10 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getOutstandingSummary_success() {
 
-        Payment p = new Payment();
-        p.setAmount(300);
-        p.setStatus(PaymentStatus.SUCCESS);
-
-        when(paymentRepository.findByStatus(PaymentStatus.SUCCESS))
-                .thenReturn(List.of(p));
+        when(rollupRepository.findByStatus(PaymentStatus.SUCCESS))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 1, 300)
+                ));
 
         when(billingClient.getTotalBilled()).thenReturn(1000.0);
 
@@ -75,14 +98,11 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getPaymentsSummary_success() {
 
-        Payment success = new Payment();
-        success.setStatus(PaymentStatus.SUCCESS);
-
-        Payment failed = new Payment();
-        failed.setStatus(PaymentStatus.FAILED);
-
-        when(paymentRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(success, failed));
+        when(rollupRepository.findByYearAndMonth(2025, 1))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 1, 100),
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.FAILED, 1, 100)
+                ));
 
         PaymentsSummaryDto dto = service.getPaymentsSummary(1, 2025);
 
@@ -95,12 +115,10 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getFailedPaymentsSummary_success() {
 
-        Payment failed = new Payment();
-        failed.setStatus(PaymentStatus.FAILED);
-        failed.setAmount(400);
-
-        when(paymentRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(failed));
+        when(rollupRepository.findByYearAndMonth(2025, 1))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.FAILED, 1, 400)
+                ));
 
         FailedPaymentSummaryDto dto =
                 service.getFailedPaymentsSummary(1, 2025);
@@ -109,27 +127,28 @@ class PaymentAnalyticsServiceTest {
         assertEquals(400, dto.failedAmount());
     }
 
-    /* ================= MONTHLY OUTSTANDING (12 MONTH LOOP) ================= */
+    /* ================= MONTHLY OUTSTANDING ================= */
 
     @Test
     void getMonthlyOutstanding_success() {
 
-        Payment p = new Payment();
-        p.setStatus(PaymentStatus.SUCCESS);
-        p.setAmount(500);
-
-        when(paymentRepository.findByBillingMonthAndBillingYearAndStatus(
-                anyInt(), eq(2025), eq(PaymentStatus.SUCCESS)))
-                .thenReturn(List.of(p));
+        when(rollupRepository.findByYearAndStatus(2025, PaymentStatus.SUCCESS))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 1, 300),
+                        rollup(1, PaymentMode.OFFLINE, PaymentStatus.SUCCESS, 1, 200)
+                ));
 
-        when(billingClient.getTotalBilledForMonth(anyInt(), eq(2025)))
-                .thenReturn(1000.0);
+        when(billingClient.getTotalBilledByMonth(2025))
+                .thenReturn(List.of(new MonthlyBilledResponse(1, 1000.0)));
 
         List<MonthlyOutstandingDto> result =
                 service.getMonthlyOutstanding(2025);
 
         assertEquals(12, result.size());
         assertEquals(500, result.get(0).outstandingAmount());
+        assertEquals(0, result.get(1).outstandingAmount());
+
+        verify(billingClient, times(1)).getTotalBilledByMonth(2025);
     }
 
     /* ================= REVENUE BY MODE ================= */
@@ -137,13 +156,10 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getRevenueByMode_success() {
 
-        Payment p = new Payment();
-        p.setAmount(600);
-        p.setStatus(PaymentStatus.SUCCESS);
-        p.setMode(PaymentMode.ONLINE);
-
-        when(paymentRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(p));
+        when(rollupRepository.findByYearAndMonth(2025, 1))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 2, 600)
+                ));
 
         List<PaymentModeSummaryDto> result =
                 service.getRevenueByMode(1, 2025);
@@ -157,13 +173,12 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getConsumerPaymentSummary_success() {
 
-        Payment p = new Payment();
-        p.setConsumerId("C1");
-        p.setStatus(PaymentStatus.SUCCESS);
-        p.setAmount(700);
+        Document doc = new Document("_id", "C1")
+                .append("paymentCount", 1)
+                .append("totalPaid", 700.0);
 
-        when(paymentRepository.findByBillingMonthAndBillingYear(1, 2025))
-                .thenReturn(List.of(p));
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(doc), new Document()));
 
         List<ConsumerPaymentSummaryDto> result =
                 service.getConsumerPaymentSummary(1, 2025);
@@ -178,14 +193,10 @@ class PaymentAnalyticsServiceTest {
     @Test
     void getYearlyRevenue_success() {
 
-        Payment p = new Payment();
-        p.setBillingMonth(1);
-        p.setBillingYear(2025);
-        p.setStatus(PaymentStatus.SUCCESS);
-        p.setAmount(800);
-
-        when(paymentRepository.findByBillingYear(2025))
-                .thenReturn(List.of(p));
+        when(rollupRepository.findByYearAndStatus(2025, PaymentStatus.SUCCESS))
+                .thenReturn(List.of(
+                        rollup(1, PaymentMode.ONLINE, PaymentStatus.SUCCESS, 1, 800)
+                ));
 
         List<RevenueSummaryDto> result =
                 service.getYearlyRevenue(2025);
@@ -0,0 +1,310 @@
+package com.utility.payment.service;
+
+import com.utility.payment.config.MongoIndexConfig;
+import com.utility.payment.config.RabbitMQConfig;
+import com.utility.payment.dto.BillResponse;
+import com.utility.payment.dto.ConfirmOtpRequest;
+import com.utility.payment.dto.ConsumerResponse;
+import com.utility.payment.dto.InitiateOnlinePaymentRequest;
+import com.utility.payment.dto.OfflinePaymentRequest;
+import com.utility.payment.exception.ApiException;
+import com.utility.payment.feign.BillingClient;
+import com.utility.payment.feign.ConsumerClient;
+import com.utility.payment.model.BillLedger;
+import com.utility.payment.model.BillStatus;
+import com.utility.payment.model.Invoice;
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.outbox.Outbox;
+import com.utility.payment.outbox.OutboxEvent;
+import com.utility.payment.repository.InvoiceRepository;
+import com.utility.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/*
+ * Hammers confirmOtp / offlinePayment from many threads against an embedded
+ * mongod, so the conditional updates, the ledger $inc and the unique
+ * Idempotency-Key index are what keep a bill from being paid twice.
+ * spring.config.name skips application.properties and its configserver import.
+ */
+@DataMongoTest(properties = {
+        "de.flapdoodle.mongodb.embedded.version=7.0.2",
+        "spring.config.name=embedded-mongo-test",
+        "spring.cloud.config.enabled=false"
+})
+@Import({MongoIndexConfig.class, PaymentStateService.class, BillLedgerService.class, Outbox.class})
+class PaymentConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 400;
+    private static final double TOTAL = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PaymentRepository repository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentStateService paymentState;
+
+    @Autowired
+    private BillLedgerService ledger;
+
+    @Autowired
+    private Outbox outbox;
+
+    private final AtomicInteger markPaid = new AtomicInteger();
+
+    private PaymentService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setup() {
+
+        // documents only: dropping the collections would drop their indexes too
+        for (Class<?> collection : List.of(Payment.class, Invoice.class, BillLedger.class, OutboxEvent.class)) {
+            mongoTemplate.remove(new Query(), collection);
+        }
+
+        BillingClient billingClient = mock(BillingClient.class);
+
+        BillResponse bill = new BillResponse();
+        bill.setId("B1");
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(TOTAL);
+        bill.setBillingMonth(1);
+        bill.setBillingYear(2025);
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        doAnswer(i -> markPaid.incrementAndGet()).when(billingClient).markPaid("B1");
+
+        ConsumerClient consumerClient = mock(ConsumerClient.class);
+        when(consumerClient.getConsumerById("C1")).thenReturn(new ConsumerResponse());
+
+        service = new PaymentService(
+                repository,
+                billingClient,
+                invoiceRepository,
+                consumerClient,
+                outbox,
+                mock(PaymentRollupService.class),
+                mock(InvoicePdfService.class),
+                ledger,
+                paymentState
+        );
+
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentConfirmationsOfOnePaymentPayOnce() throws Exception {
+
+        String paymentId = initiated(TOTAL);
+
+        List<Outcome> outcomes = race(ATTEMPTS,
+                n -> service.confirmOtp(new ConfirmOtpRequest(paymentId, "123456")));
+
+        assertEquals(1, successes(outcomes));
+        assertEquals(1, succeededPayments());
+        assertEquals(1, markPaid.get());
+        assertEquals(1, invoiceRepository.count());
+        assertEquals(1, confirmedEvents());
+        assertEquals(TOTAL, ledger.paid("B1"));
+    }
+
+    @Test
+    void concurrentOfflinePaymentsOnOneBillPayOnce() throws Exception {
+
+        List<Outcome> outcomes = race(ATTEMPTS,
+                n -> service.offlinePayment(
+                        new OfflinePaymentRequest("B1", "C1", "cash"), "K" + n));
+
+        assertEquals(1, successes(outcomes));
+        assertEquals(1, succeededPayments());
+        assertEquals(1, markPaid.get());
+        assertEquals(1, confirmedEvents());
+        assertEquals(TOTAL, ledger.paid("B1"));
+    }
+
+    @Test
+    void retriesWithOneKeyCreateOnePayment() throws Exception {
+
+        List<Outcome> outcomes = race(ATTEMPTS,
+                n -> service.offlinePayment(
+                        new OfflinePaymentRequest("B1", "C1", "cash"), "K1"));
+
+        assertEquals(1, repository.count());
+
+        // every caller either got the payment of record or was told it is in flight
+        for (Outcome outcome : outcomes) {
+            assertTrue(outcome.error() == null
+                    || outcome.error() instanceof ApiException, String.valueOf(outcome.error()));
+        }
+
+        assertTrue(successes(outcomes) >= 1);
+        assertEquals(1, markPaid.get());
+        assertEquals(TOTAL, ledger.paid("B1"));
+    }
+
+    @Test
+    void onlineAndOfflineRaceForOneBill() throws Exception {
+
+        List<String> pending = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            pending.add(initiated(TOTAL));
+        }
+
+        race(ATTEMPTS, n -> n % 2 == 0
+                ? service.confirmOtp(new ConfirmOtpRequest(pending.get(n % pending.size()), "123456"))
+                : service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"), "K" + n));
+
+        assertEquals(1, succeededPayments());
+        assertEquals(1, markPaid.get());
+        assertEquals(1, confirmedEvents());
+        assertEquals(TOTAL, ledger.paid("B1"));
+    }
+
+    @Test
+    void initiateOnlineLeavesSettlingOfflinePaymentAlone() {
+
+        Payment offline = new Payment();
+        offline.setBillId("B1");
+        offline.setConsumerId("C1");
+        offline.setAmount(TOTAL);
+        offline.setMode(PaymentMode.OFFLINE);
+        offline.setStatus(PaymentStatus.INITIATED);
+        offline.setCreatedAt(LocalDateTime.now());
+        String offlineId = repository.save(offline).getId();
+
+        String onlineId = service.initiateOnline(new InitiateOnlinePaymentRequest("B1", "C1")).paymentId();
+
+        assertNotEquals(offlineId, onlineId);
+        assertNull(repository.findById(offlineId).orElseThrow().getOtp());
+        assertEquals(PaymentMode.ONLINE, repository.findById(onlineId).orElseThrow().getMode());
+    }
+
+    @Test
+    void voidAndClaimOfOnePaymentExcludeEachOther() throws Exception {
+
+        List<Outcome> outcomes = race(ATTEMPTS, n -> n % 2 == 0
+                ? ledger.voidUnclaimed("B1", "P1")
+                : ledger.claim("B1", "P1", TOTAL, TOTAL));
+
+        long claimed = outcomes.stream().filter(o -> Boolean.TRUE.equals(o.result())).count();
+        BillLedger state = mongoTemplate.findById("B1", BillLedger.class);
+
+        if (state.getClaims() != null && state.getClaims().contains("P1")) {
+            // claimed first: voiding never succeeded, and the claim was counted once
+            assertEquals(TOTAL, ledger.paid("B1"));
+            assertTrue(state.getVoided() == null || state.getVoided().isEmpty());
+            assertEquals(1, claimed);
+        } else {
+            assertEquals(0, ledger.paid("B1"));
+            assertTrue(state.getVoided().contains("P1"));
+        }
+
+        ledger.release("B1", "P1", TOTAL);
+        ledger.release("B1", "P1", TOTAL);
+        assertEquals(0, ledger.paid("B1"));
+    }
+
+    /* ================= HARNESS ================= */
+
+    private record Outcome(Object result, Throwable error) {
+    }
+
+    private interface Attempt {
+        Object run(int n);
+    }
+
+    private List<Outcome> race(int attempts, Attempt attempt) throws Exception {
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            int n = i;
+            Callable<Outcome> call = () -> {
+                start.await();
+                try {
+                    return new Outcome(attempt.run(n), null);
+                } catch (RuntimeException ex) {
+                    return new Outcome(null, ex);
+                }
+            };
+            futures.add(pool.submit(call));
+        }
+
+        start.countDown();
+
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get(30, TimeUnit.SECONDS));
+        }
+
+        return outcomes;
+    }
+
+    private static long successes(List<Outcome> outcomes) {
+        return outcomes.stream().filter(o -> o.error() == null).count();
+    }
+
+    private long succeededPayments() {
+        return mongoTemplate.count(
+                Query.query(Criteria.where("status").is(PaymentStatus.SUCCESS)), Payment.class);
+    }
+
+    private long confirmedEvents() {
+        return mongoTemplate.count(
+                Query.query(Criteria.where("routingKey").is(RabbitMQConfig.PAYMENT_CONFIRMED_KEY)),
+                OutboxEvent.class);
+    }
+
+    private String initiated(double amount) {
+
+        Payment payment = new Payment();
+        payment.setBillId("B1");
+        payment.setConsumerId("C1");
+        payment.setAmount(amount);
+        payment.setMode(PaymentMode.ONLINE);
+        payment.setStatus(PaymentStatus.INITIATED);
+        payment.setOtp("123456");
+        payment.setOtpExpiry(Instant.now().plusSeconds(300));
+        payment.setCreatedAt(LocalDateTime.now());
+
+        return repository.save(payment).getId();
+    }
+}
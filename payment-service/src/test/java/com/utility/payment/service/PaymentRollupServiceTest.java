@@ -0,0 +1,110 @@
+package com.utility.payment.service;
+
+import com.utility.payment.model.Payment;
+import com.utility.payment.model.PaymentMode;
+import com.utility.payment.model.PaymentRollup;
+import com.utility.payment.model.PaymentStatus;
+import com.utility.payment.repository.PaymentRepository;
+import com.utility.payment.repository.PaymentRollupRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PaymentRollupServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PaymentRollupRepository rollupRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private PaymentRollupService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void record_successIncrementsBucket() {
+
+        Payment p = new Payment();
+        p.setBillingMonth(1);
+        p.setBillingYear(2025);
+        p.setMode(PaymentMode.ONLINE);
+        p.setStatus(PaymentStatus.SUCCESS);
+        p.setAmount(500);
+
+        service.record(p);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(PaymentRollup.class));
+
+        assertEquals("2025:1:ONLINE:SUCCESS", query.getValue().getQueryObject().get("_id"));
+
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, inc.get("count"));
+        assertEquals(500.0, inc.get("amount"));
+    }
+
+    @Test
+    void record_ignoresInitiatedPayments() {
+
+        Payment p = new Payment();
+        p.setMode(PaymentMode.ONLINE);
+        p.setStatus(PaymentStatus.INITIATED);
+
+        service.record(p);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void rebuild_replacesBuckets() {
+
+        Document group = new Document("_id",
+                new Document("billingYear", 2025)
+                        .append("billingMonth", 1)
+                        .append("mode", "OFFLINE")
+                        .append("status", "SUCCESS"))
+                .append("count", 3)
+                .append("amount", 900.0);
+
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(group), new Document()));
+
+        int buckets = service.rebuild();
+
+        assertEquals(1, buckets);
+        verify(mongoTemplate).remove(any(Query.class), eq(PaymentRollup.class));
+        verify(rollupRepository).saveAll(argThat(rollups ->
+                ((List<PaymentRollup>) rollups).get(0).getId().equals("2025:1:OFFLINE:SUCCESS")));
+    }
+
+    @Test
+    void backfillIfEmpty_skipsWhenRollupsExist() {
+
+        when(rollupRepository.count()).thenReturn(4L);
+
+        service.backfillIfEmpty();
+
+        verify(mongoTemplate, never()).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+}
@@ -1,23 +1,29 @@
 package com.utility.payment.service;
 
+import com.utility.common.dto.event.PaymentConfirmedEvent;
+import com.utility.common.dto.event.PaymentOtpEvent;
 import com.utility.payment.config.RabbitMQConfig;
 import com.utility.payment.dto.*;
 import com.utility.payment.exception.ApiException;
 import com.utility.payment.feign.BillingClient;
 import com.utility.payment.feign.ConsumerClient;
 import com.utility.payment.model.*;
+import com.utility.payment.outbox.Outbox;
 import com.utility.payment.repository.InvoiceRepository;
 import com.utility.payment.repository.PaymentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,7 +34,11 @@ class PaymentServiceTest {
     @Mock private BillingClient billingClient;
     @Mock private InvoiceRepository invoiceRepository;
     @Mock private ConsumerClient consumerClient;
-    @Mock private RabbitTemplate rabbitTemplate;
+    @Mock private Outbox outbox;
+    @Mock private PaymentRollupService rollupService;
+    @Mock private InvoicePdfService invoicePdfService;
+    @Mock private BillLedgerService ledger;
+    @Mock private PaymentStateService paymentState;
 
     @InjectMocks
     private PaymentService service;
@@ -36,6 +46,7 @@ class PaymentServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(outbox.atomically(any())).thenAnswer(i -> i.<Supplier<?>>getArgument(0).get());
     }
 
     /* ================= INITIATE ONLINE ================= */
@@ -57,7 +68,8 @@ class PaymentServiceTest {
 
         when(billingClient.getBill("B1")).thenReturn(bill);
         when(paymentRepository.findByBillId("B1")).thenReturn(List.of());
-        when(paymentRepository.findByBillIdAndStatus("B1", PaymentStatus.INITIATED))
+        when(paymentRepository.findFirstByBillIdAndModeAndStatusOrderByCreatedAtDesc(
+                "B1", PaymentMode.ONLINE, PaymentStatus.INITIATED))
                 .thenReturn(Optional.empty());
         when(consumerClient.getConsumerById("C1")).thenReturn(consumer);
         when(paymentRepository.save(any())).thenAnswer(i -> i.getArgument(0));
@@ -66,13 +78,80 @@ class PaymentServiceTest {
 
         assertEquals(PaymentStatus.INITIATED, response.status());
 
-        verify(rabbitTemplate).convertAndSend(
+        verify(paymentRepository).save(any(Payment.class));
+        verify(outbox).add(
                 eq(RabbitMQConfig.EXCHANGE),
                 eq(RabbitMQConfig.PAYMENT_OTP_KEY),
-                any(Object.class)
+                any(PaymentOtpEvent.class)
         );
     }
 
+    @Test
+    void initiateOnline_reissuesOtpOnPendingPayment() {
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(1000);
+
+        Payment pending = new Payment();
+        pending.setId("P1");
+        pending.setConsumerId("C1");
+        pending.setMode(PaymentMode.ONLINE);
+        pending.setStatus(PaymentStatus.INITIATED);
+
+        ConsumerResponse consumer = new ConsumerResponse();
+        consumer.setEmail("test@example.com");
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(paymentRepository.findFirstByBillIdAndModeAndStatusOrderByCreatedAtDesc(
+                "B1", PaymentMode.ONLINE, PaymentStatus.INITIATED))
+                .thenReturn(Optional.of(pending));
+        when(paymentState.issueOtp(eq("P1"), anyString(), any())).thenReturn(pending);
+        when(consumerClient.getConsumerById("C1")).thenReturn(consumer);
+
+        PaymentResponse response = service.initiateOnline(new InitiateOnlinePaymentRequest("B1", "C1"));
+
+        assertEquals("P1", response.paymentId());
+        verify(paymentRepository, never()).save(any());
+        verify(outbox).add(
+                eq(RabbitMQConfig.EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_OTP_KEY),
+                any(PaymentOtpEvent.class)
+        );
+    }
+
+    @Test
+    void initiateOnline_pendingMovedOnStartsNewPayment() {
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(1000);
+
+        Payment pending = new Payment();
+        pending.setId("P1");
+        pending.setConsumerId("C1");
+
+        ConsumerResponse consumer = new ConsumerResponse();
+        consumer.setEmail("test@example.com");
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(paymentRepository.findFirstByBillIdAndModeAndStatusOrderByCreatedAtDesc(
+                "B1", PaymentMode.ONLINE, PaymentStatus.INITIATED))
+                .thenReturn(Optional.of(pending));
+        // reserved by a confirmation in the meantime
+        when(paymentState.issueOtp(eq("P1"), anyString(), any())).thenReturn(null);
+        when(consumerClient.getConsumerById("C1")).thenReturn(consumer);
+        when(paymentRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        service.initiateOnline(new InitiateOnlinePaymentRequest("B1", "C1"));
+
+        ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentRepository).save(saved.capture());
+        assertNull(saved.getValue().getId());
+        assertEquals(PaymentMode.ONLINE, saved.getValue().getMode());
+        assertNotNull(saved.getValue().getOtp());
+    }
+
     @Test
     void initiateOnline_billAlreadyPaid() {
 
@@ -112,16 +191,31 @@ class PaymentServiceTest {
         bill.setEnergyCharge(400);
         bill.setTax(50);
         bill.setPenalty(50);
+        bill.setTotalAmount(500);
 
         when(paymentRepository.findById("P1")).thenReturn(Optional.of(payment));
+        when(paymentState.reserve("P1", "123456")).thenReturn(payment);
+        when(paymentState.confirm("P1", "K1")).thenAnswer(i -> {
+            payment.setStatus(PaymentStatus.SUCCESS);
+            payment.setIdempotencyKey("K1");
+            return payment;
+        });
         when(billingClient.getBill("B1")).thenReturn(bill);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(true);
         doNothing().when(billingClient).markPaid("B1");
         when(invoiceRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         PaymentResponse response =
-                service.confirmOtp(new ConfirmOtpRequest("P1", "123456"));
+                service.confirmOtp(new ConfirmOtpRequest("P1", "123456"), "K1");
 
         assertEquals(PaymentStatus.SUCCESS, response.status());
+        verify(rollupService).record(payment);
+        verify(invoicePdfService).renderAsync(any(Invoice.class));
+        verify(outbox).add(
+                eq(RabbitMQConfig.EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_CONFIRMED_KEY),
+                any(PaymentConfirmedEvent.class)
+        );
     }
 
     @Test
@@ -144,6 +238,148 @@ class PaymentServiceTest {
         );
     }
 
+    @Test
+    void confirmOtp_lostRaceReplaysForSameKey() {
+
+        Payment pending = new Payment();
+        pending.setId("P1");
+        pending.setBillId("B1");
+        pending.setOtp("123456");
+        pending.setOtpExpiry(Instant.now().plusSeconds(60));
+        pending.setStatus(PaymentStatus.INITIATED);
+
+        Payment done = new Payment();
+        done.setId("P1");
+        done.setBillId("B1");
+        done.setStatus(PaymentStatus.SUCCESS);
+        done.setIdempotencyKey("K1");
+
+        when(paymentRepository.findById("P1"))
+                .thenReturn(Optional.of(pending), Optional.of(done));
+        Invoice invoice = new Invoice();
+        invoice.setId("INV1");
+
+        when(paymentState.reserve("P1", "123456")).thenReturn(null);
+        when(billingClient.getBill("B1")).thenReturn(new BillResponse());
+        when(invoiceRepository.findByPaymentId("P1")).thenReturn(Optional.of(invoice));
+
+        PaymentResponse response =
+                service.confirmOtp(new ConfirmOtpRequest("P1", "123456"), "K1");
+
+        assertEquals(PaymentStatus.SUCCESS, response.status());
+        assertEquals("INV1", response.invoiceId());
+        verify(ledger, never()).claim(any(), any(), anyDouble(), anyDouble());
+        verify(billingClient, never()).markPaid(any());
+        verify(rollupService, never()).record(any());
+        verify(outbox, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void confirmOtp_alreadyCompletedWithoutKey() {
+
+        Payment done = new Payment();
+        done.setId("P1");
+        done.setStatus(PaymentStatus.SUCCESS);
+        done.setIdempotencyKey("K1");
+
+        when(paymentRepository.findById("P1")).thenReturn(Optional.of(done));
+
+        ApiException ex = assertThrows(
+                ApiException.class,
+                () -> service.confirmOtp(new ConfirmOtpRequest("P1", "123456"))
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+
+    @Test
+    void confirmOtp_billSettledMeanwhileFails() {
+
+        Payment payment = new Payment();
+        payment.setId("P1");
+        payment.setBillId("B1");
+        payment.setOtp("123456");
+        payment.setOtpExpiry(Instant.now().plusSeconds(60));
+        payment.setStatus(PaymentStatus.INITIATED);
+        payment.setAmount(500);
+
+        Payment reversed = new Payment();
+        reversed.setStatus(PaymentStatus.FAILED);
+
+        BillResponse bill = new BillResponse();
+        bill.setTotalAmount(500);
+
+        when(paymentRepository.findById("P1")).thenReturn(Optional.of(payment));
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(paymentState.reserve("P1", "123456")).thenReturn(payment);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(false);
+        when(paymentState.abandon(eq("P1"), any())).thenReturn(reversed);
+
+        assertThrows(
+                ApiException.class,
+                () -> service.confirmOtp(new ConfirmOtpRequest("P1", "123456"))
+        );
+
+        verify(rollupService).record(reversed);
+        verify(paymentState, never()).confirm(any(), any());
+        verify(billingClient, never()).markPaid(any());
+        verify(invoiceRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmOtp_billingFailureReleasesClaim() {
+
+        Payment payment = new Payment();
+        payment.setId("P1");
+        payment.setBillId("B1");
+        payment.setOtp("123456");
+        payment.setOtpExpiry(Instant.now().plusSeconds(60));
+        payment.setStatus(PaymentStatus.INITIATED);
+        payment.setAmount(500);
+
+        BillResponse bill = new BillResponse();
+        bill.setTotalAmount(500);
+
+        when(paymentRepository.findById("P1")).thenReturn(Optional.of(payment));
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(paymentState.reserve("P1", "123456")).thenReturn(payment);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(true);
+        doThrow(new IllegalStateException("billing down")).when(billingClient).markPaid("B1");
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.confirmOtp(new ConfirmOtpRequest("P1", "123456"))
+        );
+
+        verify(ledger).release("B1", "P1", 500);
+        verify(paymentState).abandon(eq("P1"), any());
+        verify(paymentState, never()).confirm(any(), any());
+        verify(outbox, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void confirmOtp_expiredFailsOnce() {
+
+        Payment payment = new Payment();
+        payment.setId("P1");
+        payment.setOtp("123456");
+        payment.setOtpExpiry(Instant.now().minusSeconds(1));
+        payment.setStatus(PaymentStatus.INITIATED);
+
+        Payment failed = new Payment();
+        failed.setStatus(PaymentStatus.FAILED);
+
+        when(paymentRepository.findById("P1")).thenReturn(Optional.of(payment));
+        when(paymentState.expire("P1")).thenReturn(failed, (Payment) null);
+
+        ConfirmOtpRequest request = new ConfirmOtpRequest("P1", "123456");
+
+        assertThrows(ApiException.class, () -> service.confirmOtp(request));
+        assertThrows(ApiException.class, () -> service.confirmOtp(request));
+
+        verify(rollupService, times(1)).record(failed);
+    }
+
     /* ================= OFFLINE PAYMENT ================= */
 
     @Test
@@ -163,13 +399,231 @@ class PaymentServiceTest {
 
         when(billingClient.getBill("B1")).thenReturn(bill);
         doNothing().when(billingClient).markPaid("B1");
-        when(paymentRepository.findByBillId("B1")).thenReturn(List.of());
-        when(paymentRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(true);
+        when(paymentRepository.save(any())).thenAnswer(i -> withId(i.getArgument(0)));
         when(invoiceRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(paymentState.settle("P1")).thenAnswer(i -> {
+            Payment settled = new Payment();
+            settled.setId("P1");
+            settled.setBillId("B1");
+            settled.setConsumerId("C1");
+            settled.setAmount(500);
+            settled.setMode(PaymentMode.OFFLINE);
+            settled.setStatus(PaymentStatus.SUCCESS);
+            return settled;
+        });
 
         PaymentResponse response = service.offlinePayment(req);
 
         assertEquals(PaymentStatus.SUCCESS, response.status());
+        verify(rollupService).record(any(Payment.class));
+        verify(outbox).add(
+                eq(RabbitMQConfig.EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_CONFIRMED_KEY),
+                argThat(e -> e instanceof PaymentConfirmedEvent confirmed
+                        && "C1".equals(confirmed.getConsumerId())
+                        && confirmed.getAmount() == 500)
+        );
+    }
+
+    @Test
+    void offlinePayment_balanceTakenConcurrently() {
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(500);
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(false);
+        when(paymentRepository.save(any())).thenAnswer(i -> withId(i.getArgument(0)));
+        when(paymentState.abandon("P1", "Bill already settled")).thenAnswer(i -> failed("P1"));
+
+        ApiException ex = assertThrows(
+                ApiException.class,
+                () -> service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"))
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(billingClient, never()).markPaid(any());
+        verify(invoiceRepository, never()).save(any());
+
+        ArgumentCaptor<Payment> recorded = ArgumentCaptor.forClass(Payment.class);
+        verify(rollupService).record(recorded.capture());
+        assertEquals(PaymentStatus.FAILED, recorded.getValue().getStatus());
+    }
+
+    @Test
+    void offlinePayment_billingFailureReleasesClaim() {
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(500);
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(true);
+        when(paymentRepository.save(any())).thenAnswer(i -> withId(i.getArgument(0)));
+        doThrow(new IllegalStateException("billing down")).when(billingClient).markPaid("B1");
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"))
+        );
+
+        verify(ledger).release("B1", "P1", 500);
+        verify(paymentState).abandon("P1", "Billing update failed");
+        verify(paymentRepository, times(1)).save(any());
+    }
+
+    @Test
+    void offlinePayment_retryWithSameKeyReplays() {
+
+        Payment previous = new Payment();
+        previous.setId("P9");
+        previous.setBillId("B1");
+        previous.setStatus(PaymentStatus.SUCCESS);
+        previous.setIdempotencyKey("K1");
+
+        Invoice invoice = new Invoice();
+        invoice.setId("I9");
+
+        when(paymentRepository.findByIdempotencyKey("K1")).thenReturn(Optional.of(previous));
+        when(billingClient.getBill("B1")).thenReturn(new BillResponse());
+        when(invoiceRepository.findByPaymentId("P9")).thenReturn(Optional.of(invoice));
+
+        PaymentResponse response =
+                service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"), "K1");
+
+        assertEquals("P9", response.paymentId());
+        assertEquals("I9", response.invoiceId());
+        verify(ledger, never()).claim(any(), any(), anyDouble(), anyDouble());
+        verify(billingClient, never()).markPaid(any());
+    }
+
+    @Test
+    void offlinePayment_replayRacingInvoiceReturnsExisting() {
+
+        Payment previous = new Payment();
+        previous.setId("P9");
+        previous.setBillId("B1");
+        previous.setStatus(PaymentStatus.SUCCESS);
+        previous.setIdempotencyKey("K1");
+
+        Invoice invoice = new Invoice();
+        invoice.setId("I9");
+
+        when(paymentRepository.findByIdempotencyKey("K1")).thenReturn(Optional.of(previous));
+        when(billingClient.getBill("B1")).thenReturn(new BillResponse());
+        // not issued yet when the replay looked, issued by the first request before its insert
+        when(invoiceRepository.findByPaymentId("P9"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(invoice));
+        when(invoiceRepository.save(any())).thenThrow(new DuplicateKeyException("paymentId"));
+
+        PaymentResponse response =
+                service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"), "K1");
+
+        assertEquals("I9", response.invoiceId());
+        verify(invoicePdfService, never()).renderAsync(any());
+    }
+
+    @Test
+    void offlinePayment_settledByRecoveryMeanwhile() {
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+        bill.setTotalAmount(500);
+
+        Payment settled = new Payment();
+        settled.setId("P1");
+        settled.setStatus(PaymentStatus.SUCCESS);
+
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(ledger.claim("B1", "P1", 500, 500)).thenReturn(true);
+        when(paymentRepository.save(any())).thenAnswer(i -> withId(i.getArgument(0)));
+        when(paymentState.settle("P1")).thenReturn(null);
+        when(paymentRepository.findById("P1")).thenReturn(Optional.of(settled));
+        when(invoiceRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        PaymentResponse response =
+                service.offlinePayment(new OfflinePaymentRequest("B1", "C1", "cash"));
+
+        assertEquals(PaymentStatus.SUCCESS, response.status());
+        verify(outbox, never()).add(any(), any(), any());
+    }
+
+    /* ================= OFFLINE RECOVERY ================= */
+
+    @Test
+    void recoverStaleOffline_unclaimedIsFailed() {
+
+        Payment stale = withId(new Payment());
+        stale.setBillId("B1");
+
+        when(ledger.voidUnclaimed("B1", "P1")).thenReturn(true);
+        when(paymentState.abandon("P1", "Not completed")).thenAnswer(i -> failed("P1"));
+
+        service.recoverStaleOffline(stale);
+
+        verify(paymentState).abandon("P1", "Not completed");
+        verify(billingClient, never()).markPaid(any());
+        verify(paymentState, never()).settle(any());
+    }
+
+    @Test
+    void recoverStaleOffline_claimedIsSettled() {
+
+        Payment stale = withId(new Payment());
+        stale.setBillId("B1");
+        stale.setStatus(PaymentStatus.SUCCESS);
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.GENERATED);
+
+        when(ledger.voidUnclaimed("B1", "P1")).thenReturn(false);
+        when(billingClient.getBill("B1")).thenReturn(bill);
+        when(paymentState.settle("P1")).thenReturn(stale);
+        when(invoiceRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        service.recoverStaleOffline(stale);
+
+        verify(billingClient).markPaid("B1");
+        verify(outbox).add(
+                eq(RabbitMQConfig.EXCHANGE),
+                eq(RabbitMQConfig.PAYMENT_CONFIRMED_KEY),
+                any(PaymentConfirmedEvent.class)
+        );
+        verify(invoiceRepository).save(any());
+        verify(paymentState, never()).abandon(any(), any());
+    }
+
+    @Test
+    void recoverStaleOffline_billAlreadyPaidIsNotMarkedAgain() {
+
+        Payment stale = withId(new Payment());
+        stale.setBillId("B1");
+
+        BillResponse bill = new BillResponse();
+        bill.setStatus(BillStatus.PAID);
+
+        when(ledger.voidUnclaimed("B1", "P1")).thenReturn(false);
+        when(billingClient.getBill("B1")).thenReturn(bill);
+
+        service.recoverStaleOffline(stale);
+
+        verify(billingClient, never()).markPaid(any());
+        verify(paymentState).settle("P1");
+    }
+
+    private static Payment withId(Payment payment) {
+        payment.setId("P1");
+        return payment;
+    }
+
+    private static Payment failed(String id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setStatus(PaymentStatus.FAILED);
+        return payment;
     }
 
     /* ================= GET PAYMENTS ================= */
@@ -192,6 +646,7 @@ class PaymentServiceTest {
                 service.getPaymentsByBill("B1");
 
         assertEquals(1, list.size());
+        verify(invoiceRepository, never()).findByPaymentId(any());
     }
 
     @Test
@@ -202,18 +657,30 @@ class PaymentServiceTest {
         p.setBillId("B1");
 
         BillResponse bill = new BillResponse();
+        bill.setId("B1");
         bill.setBillingMonth(1);
         bill.setBillingYear(2025);
 
-        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc("C1"))
+        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc(eq("C1"), any(Pageable.class)))
                 .thenReturn(List.of(p));
-        when(billingClient.getBill(anyString()))
-                .thenReturn(bill);
+        when(billingClient.getBillsByIds(List.of("B1")))
+                .thenReturn(List.of(bill));
 
         List<PaymentResponse> list =
-                service.getPaymentsByConsumer("C1");
+                service.getPaymentsByConsumer("C1", null, null);
 
         assertEquals(1, list.size());
+        assertEquals(2025, list.get(0).billingYear());
+    }
+
+    @Test
+    void getPaymentsByConsumer_notFound() {
+
+        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc(eq("C1"), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThrows(ApiException.class,
+                () -> service.getPaymentsByConsumer("C1", 0, 20));
     }
 
     @Test
@@ -223,19 +690,64 @@ class PaymentServiceTest {
         p.setBillId("B1");
 
         BillResponse bill = new BillResponse();
+        bill.setId("B1");
         bill.setBillingMonth(1);
         bill.setBillingYear(2025);
 
-        when(paymentRepository.findAllByOrderByCreatedAtDesc())
+        when(paymentRepository.findAllByOrderByCreatedAtDesc(any(Pageable.class)))
                 .thenReturn(List.of(p));
-        when(billingClient.getBill("B1"))
-                .thenReturn(bill);
+        when(billingClient.getBillsByIds(List.of("B1")))
+                .thenReturn(List.of(bill));
 
-        List<PaymentResponse> list = service.getAllPayments();
+        List<PaymentResponse> list = service.getAllPayments(null, null);
 
         assertEquals(1, list.size());
     }
 
+    @Test
+    void getAllPayments_joinsInBatches() {
+
+        Payment p1 = new Payment();
+        p1.setId("P1");
+        p1.setBillId("B1");
+
+        Payment p2 = new Payment();
+        p2.setId("P2");
+        p2.setBillId("B1");
+
+        Payment p3 = new Payment();
+        p3.setId("P3");
+        p3.setBillId("B2");
+        p3.setBillingMonth(3);
+
+        BillResponse bill = new BillResponse();
+        bill.setId("B1");
+        bill.setBillingMonth(1);
+
+        Invoice invoice = new Invoice();
+        invoice.setId("I1");
+        invoice.setPaymentId("P1");
+
+        when(paymentRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(1, 3)))
+                .thenReturn(List.of(p1, p2, p3));
+        when(billingClient.getBillsByIds(List.of("B1", "B2")))
+                .thenReturn(List.of(bill));
+        when(invoiceRepository.findByPaymentIdIn(List.of("P1", "P2", "P3")))
+                .thenReturn(List.of(invoice));
+
+        List<PaymentResponse> list = service.getAllPayments(1, 3);
+
+        assertEquals(3, list.size());
+        assertEquals("I1", list.get(0).invoiceId());
+        assertNull(list.get(1).invoiceId());
+        // bill missing upstream falls back to the payment's own period
+        assertEquals(3, list.get(2).billingMonth());
+
+        verify(billingClient, times(1)).getBillsByIds(any());
+        verify(billingClient, never()).getBill(any());
+        verify(invoiceRepository, never()).findByPaymentId(any());
+    }
+
     /* ================= OUTSTANDING ================= */
 
     @Test
@@ -244,13 +756,8 @@ class PaymentServiceTest {
         BillResponse bill = new BillResponse();
         bill.setTotalAmount(1000);
 
-        Payment p = new Payment();
-        p.setAmount(400);
-        p.setStatus(PaymentStatus.SUCCESS);
-
         when(billingClient.getBill("B1")).thenReturn(bill);
-        when(paymentRepository.findByBillId("B1"))
-                .thenReturn(List.of(p));
+        when(ledger.paid("B1")).thenReturn(400.0);
 
         OutstandingResponse response = service.getOutstanding("B1");
 
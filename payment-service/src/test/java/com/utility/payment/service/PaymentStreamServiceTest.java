@@ -0,0 +1,116 @@
+package com.utility.payment.service;
+
+import com.utility.payment.dto.PaymentResponse;
+import com.utility.payment.model.Invoice;
+import com.utility.payment.model.Payment;
+import com.utility.payment.repository.ReactiveInvoiceRepository;
+import com.utility.payment.repository.ReactivePaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PaymentStreamServiceTest {
+
+    @Mock private ReactivePaymentRepository paymentRepository;
+    @Mock private ReactiveInvoiceRepository invoiceRepository;
+
+    private final List<ClientRequest> billingCalls = new ArrayList<>();
+
+    private PaymentStreamService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        // billing answers every batch with bill B1 in January 2025
+        WebClient billing = WebClient.builder()
+                .baseUrl("http://billing-service")
+                .exchangeFunction(request -> {
+                    billingCalls.add(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("[{\"id\":\"B1\",\"billingMonth\":1,\"billingYear\":2025}]")
+                            .build());
+                })
+                .build();
+
+        service = new PaymentStreamService(paymentRepository, invoiceRepository, billing);
+    }
+
+    private Payment payment(String id) {
+        Payment p = new Payment();
+        p.setId(id);
+        p.setConsumerId("C1");
+        p.setBillId("B1");
+        return p;
+    }
+
+    @Test
+    void streamByConsumer_joinsBillsAndInvoices() {
+
+        Invoice invoice = new Invoice();
+        invoice.setId("INV1");
+        invoice.setPaymentId("P1");
+
+        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc("C1"))
+                .thenReturn(Flux.just(payment("P1"), payment("P2")));
+        when(invoiceRepository.findByPaymentIdIn(List.of("P1", "P2")))
+                .thenReturn(Flux.just(invoice));
+
+        List<PaymentResponse> list =
+                service.streamByConsumer("C1", "Bearer token").collectList().block();
+
+        assertEquals(List.of("P1", "P2"), list.stream().map(PaymentResponse::paymentId).toList());
+        assertEquals(2025, list.get(0).billingYear());
+        assertEquals("INV1", list.get(0).invoiceId());
+        assertNull(list.get(1).invoiceId());
+
+        assertEquals(1, billingCalls.size());
+        assertEquals("Bearer token", billingCalls.get(0).headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void streamByConsumer_callsBillingOncePerBatch() {
+
+        List<Payment> payments = IntStream.range(0, PaymentStreamService.BATCH_SIZE + 1)
+                .mapToObj(i -> payment("P" + i))
+                .toList();
+
+        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc("C1"))
+                .thenReturn(Flux.fromIterable(payments));
+        when(invoiceRepository.findByPaymentIdIn(anyCollection()))
+                .thenReturn(Flux.empty());
+
+        List<PaymentResponse> list =
+                service.streamByConsumer("C1", null).collectList().block();
+
+        assertEquals(payments.size(), list.size());
+        assertEquals(2, billingCalls.size());
+        assertNull(billingCalls.get(0).headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void streamByConsumer_emptyWhenNoPayments() {
+
+        when(paymentRepository.findByConsumerIdOrderByCreatedAtDesc("C1"))
+                .thenReturn(Flux.empty());
+
+        assertEquals(0, service.streamByConsumer("C1", null).count().block());
+        assertTrue(billingCalls.isEmpty());
+    }
+}